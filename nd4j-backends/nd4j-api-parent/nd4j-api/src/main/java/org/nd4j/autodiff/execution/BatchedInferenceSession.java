@@ -0,0 +1,366 @@
+package org.nd4j.autodiff.execution;
+
+import com.google.common.util.concurrent.SettableFuture;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.autodiff.samediff.SameDiff;
+import org.nd4j.autodiff.samediff.SharedWeightsInference;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inference session with dynamic batching: requests submitted from any number of threads are coalesced into
+ * batches along dimension 0 of the placeholders, and the graph is executed once per batch.
+ *
+ * Batch is executed once it has {@code maxBatchSize} examples, or once its first request has waited for
+ * {@code maxWaitMillis}. Only requests with the same placeholders, and the same shapes apart from dimension 0,
+ * are batched together. Outputs are split back along dimension 0, outputs without batch dimension are
+ * returned to every request as is.
+ *
+ * Shapes of a graph are resolved once, so every batch size needs a graph of its own. Batches are padded with zeros
+ * up to the next power of two (capped at {@code maxBatchSize}), and every such bucket is executed on its own replica
+ * of the graph, sharing weights with the original, see {@link SharedWeightsInference} (graphs modifying weights
+ * in place are rejected). So a single small request costs at most twice its size, and there are at most
+ * log2({@code maxBatchSize}) + 1 replicas.
+ * Placeholders should have variable dimension 0, and the graph itself shouldn't have been executed before.
+ * Replicas are executed on a single session thread with {@link SameDiff#execWithPlan(Map, String...)}, so workspaces
+ * used for inputs and intermediate results are reused from batch to batch. The graph shouldn't be used elsewhere
+ * while session is open.
+ */
+@Slf4j
+public class BatchedInferenceSession implements Closeable {
+    private static final AtomicInteger SESSION_COUNTER = new AtomicInteger(0);
+
+    private final String[] outputs;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+    // graph replicas by batch size, used by session thread only
+    private final Map<Integer, SharedWeightsInference> buckets = new HashMap<>();
+
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private final String workspaceId = "SD_BATCHED_INFERENCE_" + UUID.randomUUID().toString();
+    private final AtomicLong numBatches = new AtomicLong(0);
+    private final AtomicLong numRequests = new AtomicLong(0);
+    private final AtomicLong numPaddedExamples = new AtomicLong(0);
+    private volatile boolean closed = false;
+
+    /**
+     * @param sameDiff      graph to execute
+     * @param maxBatchSize  max number of examples in a batch
+     * @param maxWaitMillis max time the first request of a batch waits for other requests, in milliseconds
+     * @param outputs       names of the variables to return
+     */
+    public BatchedInferenceSession(@NonNull SameDiff sameDiff, int maxBatchSize, long maxWaitMillis,
+                    @NonNull String... outputs) {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Max batch size should be positive, but got " + maxBatchSize);
+
+        if (maxWaitMillis < 0)
+            throw new IllegalArgumentException("Max wait time can't be negative, but got " + maxWaitMillis);
+
+        if (outputs.length == 0)
+            throw new IllegalArgumentException("At least one output should be specified");
+
+        for (String output : outputs)
+            if (sameDiff.getVariable(output) == null)
+                throw new ND4JIllegalStateException("No variable found for name " + output);
+
+        this.outputs = outputs;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWaitMillis;
+
+        for (long size = 1; size < maxBatchSize; size <<= 1)
+            buckets.put((int) size, new SharedWeightsInference(sameDiff, outputs));
+
+        buckets.put(maxBatchSize, new SharedWeightsInference(sameDiff, outputs));
+
+        final Integer deviceId = Nd4j.getAffinityManager().getDeviceForCurrentThread();
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Nd4j.getAffinityManager().unsafeSetDevice(deviceId);
+                loop();
+            }
+        }, "BatchedInferenceSession-" + SESSION_COUNTER.incrementAndGet());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * This method submits request for execution
+     *
+     * @param placeholders values for placeholders, with examples along dimension 0
+     * @return future outputs, by variable name
+     */
+    public Future<Map<String, INDArray>> submit(@NonNull Map<String, INDArray> placeholders) {
+        if (closed)
+            throw new ND4JIllegalStateException("Session is closed");
+
+        if (placeholders.isEmpty())
+            throw new IllegalArgumentException("Request should have at least one placeholder");
+
+        long examples = -1;
+        for (Map.Entry<String, INDArray> e : placeholders.entrySet()) {
+            INDArray arr = e.getValue();
+            if (arr.rank() < 1 || (examples >= 0 && arr.size(0) != examples))
+                throw new IllegalArgumentException("All placeholders should have the same size along dimension 0, but ["
+                                + e.getKey() + "] has shape " + Arrays.toString(arr.shape()));
+
+            examples = arr.size(0);
+        }
+
+        if (examples > maxBatchSize)
+            throw new IllegalArgumentException("Request has " + examples + " examples, but max batch size is " + maxBatchSize);
+
+        // whatever caller queued must be done before session thread picks up the arrays
+        Nd4j.getExecutioner().commit();
+
+        Request request = new Request(new HashMap<>(placeholders), examples);
+        queue.add(request);
+        return request.result;
+    }
+
+    /**
+     * This method submits request for execution, and waits for its outputs
+     *
+     * @param placeholders values for placeholders, with examples along dimension 0
+     * @return outputs, by variable name
+     */
+    public Map<String, INDArray> output(@NonNull Map<String, INDArray> placeholders) {
+        try {
+            return submit(placeholders).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @return number of batches executed so far
+     */
+    public long getNumBatches() {
+        return numBatches.get();
+    }
+
+    /**
+     * @return number of requests executed so far
+     */
+    public long getNumRequests() {
+        return numRequests.get();
+    }
+
+    /**
+     * @return number of zero examples added so far to fill batches up to their bucket sizes
+     */
+    public long getNumPaddedExamples() {
+        return numPaddedExamples.get();
+    }
+
+    /**
+     * This method stops accepting requests, and waits for the ones already submitted to be executed
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // requests submitted concurrently with close()
+        List<Request> rejected = new ArrayList<>();
+        queue.drainTo(rejected);
+        fail(rejected, new ND4JIllegalStateException("Session is closed"));
+    }
+
+    private void loop() {
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder()
+                        .initialSize(0)
+                        .policyAllocation(AllocationPolicy.OVERALLOCATE)
+                        .policyLearning(LearningPolicy.OVER_TIME)
+                        .policySpill(SpillPolicy.REALLOCATE)
+                        .build();
+
+        // request not matching the previous batch, starts the next one
+        Request carried = null;
+        while (!closed || carried != null || !queue.isEmpty()) {
+            List<Request> batch = new ArrayList<>();
+            try {
+                Request first = carried != null ? carried : queue.poll(100, TimeUnit.MILLISECONDS);
+                carried = null;
+                if (first == null)
+                    continue;
+
+                batch.add(first);
+                long examples = first.examples;
+                long deadline = first.submitted + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (examples < maxBatchSize) {
+                    long wait = deadline - System.nanoTime();
+                    Request next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null)
+                        break;
+
+                    if (!first.isCompatible(next) || examples + next.examples > maxBatchSize) {
+                        carried = next;
+                        break;
+                    }
+
+                    batch.add(next);
+                    examples += next.examples;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (carried != null)
+                    batch.add(carried);
+
+                fail(batch, e);
+                return;
+            }
+
+            try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration, workspaceId)) {
+                exec(batch);
+            } catch (Throwable t) {
+                log.error("Batch of {} requests failed", batch.size(), t);
+                fail(batch, t);
+            }
+        }
+
+        for (SharedWeightsInference bucket : buckets.values())
+            bucket.close();
+    }
+
+    /**
+     * Returns batch size to execute given number of examples with: next power of two, capped at max batch size
+     */
+    private int bucket(long examples) {
+        long size = 1;
+        while (size < examples && size < maxBatchSize)
+            size <<= 1;
+
+        return (int) Math.min(size, maxBatchSize);
+    }
+
+    /**
+     * Executes batch of compatible requests, within session workspace
+     */
+    private void exec(List<Request> batch) {
+        long examples = 0;
+        for (Request request : batch)
+            examples += request.examples;
+
+        int batchSize = bucket(examples);
+
+        Map<String, INDArray> placeholders = new LinkedHashMap<>();
+        for (String name : batch.get(0).placeholders.keySet()) {
+            List<INDArray> arrays = new ArrayList<>(batch.size() + 1);
+            for (Request request : batch)
+                arrays.add(request.placeholders.get(name));
+
+            if (examples < batchSize) {
+                long[] shape = arrays.get(0).shape().clone();
+                shape[0] = batchSize - examples;
+                arrays.add(Nd4j.zeros(shape));
+            }
+
+            placeholders.put(name, arrays.size() == 1 ? arrays.get(0)
+                            : Nd4j.concat(0, arrays.toArray(new INDArray[arrays.size()])));
+        }
+
+        Map<String, INDArray> results = buckets.get(batchSize).output(placeholders);
+
+        // outputs are copied out of the workspace, so they stay valid when the next batch is executed
+        try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            long offset = 0;
+            for (Request request : batch) {
+                Map<String, INDArray> ret = new LinkedHashMap<>();
+                for (String name : outputs) {
+                    INDArray arr = results.get(name);
+                    if (arr == null || arr.rank() < 1 || arr.size(0) != batchSize) {
+                        ret.put(name, arr == null ? null : arr.dup(arr.ordering()));
+                        continue;
+                    }
+
+                    INDArrayIndex[] indices = new INDArrayIndex[arr.rank()];
+                    indices[0] = NDArrayIndex.interval(offset, offset + request.examples);
+                    for (int e = 1; e < indices.length; e++)
+                        indices[e] = NDArrayIndex.all();
+
+                    ret.put(name, arr.get(indices).dup(arr.ordering()));
+                }
+
+                offset += request.examples;
+                request.result.set(ret);
+            }
+        }
+
+        numBatches.incrementAndGet();
+        numRequests.addAndGet(batch.size());
+        numPaddedExamples.addAndGet(batchSize - examples);
+    }
+
+    private static void fail(List<Request> batch, Throwable t) {
+        for (Request request : batch)
+            request.result.setException(t);
+    }
+
+    private static class Request {
+        private final Map<String, INDArray> placeholders;
+        private final long examples;
+        private final long submitted = System.nanoTime();
+        private final SettableFuture<Map<String, INDArray>> result = SettableFuture.create();
+
+        private Request(Map<String, INDArray> placeholders, long examples) {
+            this.placeholders = placeholders;
+            this.examples = examples;
+        }
+
+        /**
+         * Requests can be batched together if they have the same placeholders, with the same shapes apart from
+         * dimension 0
+         */
+        private boolean isCompatible(Request other) {
+            if (!placeholders.keySet().equals(other.placeholders.keySet()))
+                return false;
+
+            for (Map.Entry<String, INDArray> e : placeholders.entrySet()) {
+                long[] a = e.getValue().shape();
+                long[] b = other.placeholders.get(e.getKey()).shape();
+                if (a.length != b.length || !Arrays.equals(Arrays.copyOfRange(a, 1, a.length),
+                                Arrays.copyOfRange(b, 1, b.length)))
+                    return false;
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.nd4j.autodiff.execution;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.autodiff.samediff.SameDiff;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ops.CustomOp;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Executes list of ops on a fixed pool of threads, respecting data dependencies between them.
+ *
+ * Dependencies are built from variable producers and consumers registered in SameDiff: an op waits for the ops
+ * producing its inputs, and for earlier ops reading or writing its outputs, so ops sharing a variable are applied
+ * in list order. Ops without registered inputs and outputs are treated as barriers.
+ * Ready ops are dispatched in list order, and results are the same as with sequential execution.
+ *
+ * Worker threads are switched to the device of calling thread, and run ops outside of any workspace:
+ * workspaces are thread-local, so the one opened by caller can't be used from workers.
+ */
+@Slf4j
+public class ParallelOpScheduler implements Closeable {
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger(0);
+
+    private final int numThreads;
+    private final ExecutorService executor;
+
+    /**
+     * @param numThreads number of worker threads
+     */
+    public ParallelOpScheduler(int numThreads) {
+        if (numThreads < 1)
+            throw new IllegalArgumentException("Number of threads should be positive, but got " + numThreads);
+
+        this.numThreads = numThreads;
+
+        final int poolId = POOL_COUNTER.incrementAndGet();
+        this.executor = new ThreadPoolExecutor(numThreads, numThreads, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                            private final AtomicInteger counter = new AtomicInteger(0);
+
+                            @Override
+                            public Thread newThread(Runnable r) {
+                                Thread t = new Thread(r, "ParallelOpScheduler-" + poolId + "-"
+                                                + counter.incrementAndGet());
+                                t.setDaemon(true);
+                                return t;
+                            }
+                        });
+        ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * This method executes given ops, and blocks until all of them are done.
+     * If any op fails, remaining ops are skipped, and the first failure is rethrown.
+     *
+     * @param sameDiff SameDiff instance ops belong to, used to look up their inputs and outputs
+     * @param ops      ops to execute, in sequential execution order
+     * @return the given list of ops
+     */
+    public List<DifferentialFunction> exec(SameDiff sameDiff, @NonNull List<DifferentialFunction> ops) {
+        if (ops.size() < 2 || numThreads < 2) {
+            for (DifferentialFunction op : ops)
+                execOp(op);
+
+            return ops;
+        }
+
+        int[] pending = new int[ops.size()];
+        int[][] dependents = dependents(sameDiff, ops, pending);
+
+        // whatever caller queued must be done before workers pick up the arrays
+        Nd4j.getExecutioner().commit();
+
+        Execution execution = new Execution(ops, pending, dependents);
+        for (int i = 0; i < pending.length; i++)
+            if (pending[i] == 0)
+                execution.schedule(i);
+
+        try {
+            execution.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        Throwable t = execution.failure.get();
+        if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        else if (t instanceof Error)
+            throw (Error) t;
+        else if (t != null)
+            throw new RuntimeException(t);
+
+        return ops;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Executes single op on current thread
+     */
+    protected static void execOp(DifferentialFunction function) {
+        if (function instanceof CustomOp)
+            Nd4j.getExecutioner().exec((CustomOp) function);
+        else
+            Nd4j.getExecutioner().exec((Op) function);
+    }
+
+    /**
+     * Builds dependency graph of the ops
+     *
+     * @param pending filled with number of dependencies of each op
+     * @return indexes of ops depending on each op, in ascending order
+     */
+    protected static int[][] dependents(SameDiff sameDiff, List<DifferentialFunction> ops, int[] pending) {
+        int n = ops.size();
+        List<List<Integer>> dependents = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            dependents.add(new ArrayList<Integer>());
+
+        Map<String, Integer> lastWriter = new HashMap<>();
+        Map<String, List<Integer>> readers = new HashMap<>();
+        List<Integer> sinceBarrier = new ArrayList<>();
+        int lastBarrier = -1;
+
+        for (int i = 0; i < n; i++) {
+            String[] inputs = inputsOf(sameDiff, ops.get(i));
+            String[] outputs = outputsOf(sameDiff, ops.get(i));
+            Set<Integer> dependencies = new TreeSet<>();
+
+            if (inputs.length == 0 && outputs.length == 0) {
+                // nothing known about this op: everything before it must be done, and everything after waits for it
+                dependencies.addAll(sinceBarrier);
+                if (lastBarrier >= 0)
+                    dependencies.add(lastBarrier);
+
+                lastBarrier = i;
+                sinceBarrier.clear();
+                lastWriter.clear();
+                readers.clear();
+            } else {
+                if (lastBarrier >= 0)
+                    dependencies.add(lastBarrier);
+
+                for (String input : inputs) {
+                    Integer writer = lastWriter.get(input);
+                    if (writer != null)
+                        dependencies.add(writer);
+                }
+
+                for (String output : outputs) {
+                    Integer writer = lastWriter.get(output);
+                    if (writer != null)
+                        dependencies.add(writer);
+
+                    List<Integer> r = readers.get(output);
+                    if (r != null)
+                        dependencies.addAll(r);
+                }
+
+                for (String input : inputs) {
+                    List<Integer> r = readers.get(input);
+                    if (r == null) {
+                        r = new ArrayList<>();
+                        readers.put(input, r);
+                    }
+                    r.add(i);
+                }
+
+                for (String output : outputs) {
+                    lastWriter.put(output, i);
+                    readers.remove(output);
+                }
+
+                sinceBarrier.add(i);
+            }
+
+            dependencies.remove(i);
+            pending[i] = dependencies.size();
+            for (Integer d : dependencies)
+                dependents.get(d).add(i);
+        }
+
+        int[][] ret = new int[n][];
+        for (int i = 0; i < n; i++) {
+            List<Integer> list = dependents.get(i);
+            ret[i] = new int[list.size()];
+            for (int j = 0; j < ret[i].length; j++)
+                ret[i][j] = list.get(j);
+        }
+
+        return ret;
+    }
+
+    private static String[] inputsOf(SameDiff sameDiff, DifferentialFunction function) {
+        if (sameDiff == null)
+            return new String[0];
+
+        try {
+            String[] ret = sameDiff.getInputsForFunction(function);
+            return ret == null ? new String[0] : ret;
+        } catch (ND4JIllegalStateException e) {
+            // function isn't registered in this graph
+            return new String[0];
+        }
+    }
+
+    private static String[] outputsOf(SameDiff sameDiff, DifferentialFunction function) {
+        if (sameDiff == null)
+            return new String[0];
+
+        String[] ret = sameDiff.getOutputsForFunction(function);
+        return ret == null ? new String[0] : ret;
+    }
+
+    /**
+     * State of a single exec() call
+     */
+    private class Execution {
+        private final List<DifferentialFunction> ops;
+        private final AtomicIntegerArray pending;
+        private final int[][] dependents;
+        private final Integer deviceId;
+        private final CountDownLatch done;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // ops rejected by closed pool, run in a loop by one of the threads instead
+        private final Queue<Integer> rejected = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private Execution(List<DifferentialFunction> ops, int[] pending, int[][] dependents) {
+            this.ops = ops;
+            this.pending = new AtomicIntegerArray(pending);
+            this.dependents = dependents;
+            this.deviceId = Nd4j.getAffinityManager().getDeviceForCurrentThread();
+            this.done = new CountDownLatch(ops.size());
+        }
+
+        private void schedule(final int index) {
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    execute(index);
+                }
+            };
+
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // scheduler was closed meanwhile, finish on this thread
+                rejected.add(index);
+                drainRejected();
+            }
+        }
+
+        /**
+         * Runs rejected ops on current thread. Ops run here schedule their dependents from within the loop,
+         * so only the outermost call drains the queue, and the stack doesn't grow with length of dependency chain
+         */
+        private void drainRejected() {
+            while (!rejected.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    Integer index;
+                    while ((index = rejected.poll()) != null)
+                        execute(index);
+                } finally {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void execute(int index) {
+            try {
+                Nd4j.getAffinityManager().unsafeSetDevice(deviceId);
+
+                if (failure.get() == null) {
+                    try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+                        execOp(ops.get(index));
+
+                        // results must be visible to dependent ops running on other threads
+                        Nd4j.getExecutioner().commit();
+                    }
+                }
+            } catch (Throwable t) {
+                log.error("Op [{}] failed", ops.get(index).getOwnName(), t);
+                failure.compareAndSet(null, t);
+            } finally {
+                for (int d : dependents[index])
+                    if (pending.decrementAndGet(d) == 0)
+                        schedule(d);
+
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.nd4j.autodiff.samediff;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.CustomOp;
+import org.nd4j.linalg.api.ops.DynamicCustomOp;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.RandomOp;
+import org.nd4j.linalg.api.ops.impl.transforms.gradient.GradientBackwardsMarker;
+import org.nd4j.linalg.api.ops.random.custom.DistributionUniform;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.nd4j.autodiff.samediff.GraphFunctions.outputsOf;
+
+/**
+ * Backward pass with gradient checkpointing: activations of the forward pass are kept for checkpoint variables
+ * only, and everything in between is recomputed during the backward pass, when backward ops need it.
+ *
+ * Forward ops are split into segments, every segment ends with the op producing a checkpoint. Activations kept are
+ * the checkpoints, activations read by ops of other segments (i.e. skip connections), outputs of random ops (they
+ * can't be recomputed) and the outputs of the last op. Everything else is released as soon as its segment is done,
+ * and recomputed from the kept activations when a backward op needs it. Every segment is recomputed within the same
+ * workspace, so recomputation doesn't allocate once the workspace has learned its size.
+ *
+ * With checkpoints every sqrt(N) ops, activation memory goes down from N to about 2 * sqrt(N) ops worth, at the cost
+ * of one more forward pass at most. Gradients aren't affected: they're kept as usual.
+ */
+@Slf4j
+public class GradientCheckpointing {
+
+    private GradientCheckpointing() {}
+
+    /**
+     * This method picks checkpoints automatically: output of every sqrt(N)-th op of the forward pass
+     *
+     * @param sameDiff graph to pick checkpoints for
+     * @return names of checkpoint variables
+     */
+    public static List<String> defaultCheckpoints(@NonNull SameDiff sameDiff) {
+        List<DifferentialFunction> forward = new ArrayList<>();
+        for (DifferentialFunction function : sameDiff.functions()) {
+            if (function instanceof GradientBackwardsMarker)
+                break;
+
+            if (!(function instanceof SDVariable))
+                forward.add(function);
+        }
+
+        List<String> ret = new ArrayList<>();
+        int step = Math.max(1, (int) Math.round(Math.sqrt(forward.size())));
+        for (int i = step - 1; i < forward.size() - 1; i += step)
+            ret.addAll(Arrays.asList(outputsOf(sameDiff, forward.get(i))));
+
+        return ret;
+    }
+
+    /**
+     * This method executes forward and backward pass of the given gradient function with checkpointing
+     *
+     * @param grad        gradient function, as defined by {@link SameDiff#execBackwards()}
+     * @param checkpoints names of checkpoint variables, checkpoints are picked automatically if none given
+     * @return executed ops, or null if graph can't be executed with checkpointing
+     */
+    static List<DifferentialFunction> exec(@NonNull SameDiff grad, @NonNull String... checkpoints) {
+        List<DifferentialFunction> forward = new ArrayList<>();
+        List<DifferentialFunction> backward = new ArrayList<>();
+        boolean onBackward = false;
+        for (DifferentialFunction function : grad.functions()) {
+            if (function instanceof GradientBackwardsMarker) {
+                onBackward = true;
+                continue;
+            }
+
+            if (function instanceof SDVariable)
+                continue;
+
+            if (!isCheckpointable(function)) {
+                log.debug("Op [{}] can't be recomputed, executing without checkpoints", function.getOwnName());
+                return null;
+            }
+
+            if (!onBackward) {
+                for (String output : outputsOf(grad, function)) {
+                    long[] shape = grad.getShapeForVarName(output);
+                    if (shape == null || Shape.isPlaceholderShape(shape)) {
+                        log.debug("Shape of [{}] is unknown, executing without checkpoints", output);
+                        return null;
+                    }
+                }
+            }
+
+            (onBackward ? backward : forward).add(function);
+        }
+
+        if (forward.isEmpty())
+            return null;
+
+        Set<String> requested = new HashSet<>(checkpoints.length > 0 ? Arrays.asList(checkpoints)
+                        : defaultCheckpoints(grad));
+
+        // segment of every forward op: new segment starts right after checkpoint is produced
+        Map<String, Integer> producedIn = new HashMap<>();
+        List<List<DifferentialFunction>> segments = new ArrayList<>();
+        List<DifferentialFunction> segment = new ArrayList<>();
+        segments.add(segment);
+        for (int i = 0; i < forward.size(); i++) {
+            boolean checkpoint = false;
+            for (String output : outputsOf(grad, forward.get(i))) {
+                producedIn.put(output, segments.size() - 1);
+                checkpoint |= requested.contains(output);
+            }
+
+            segment.add(forward.get(i));
+            if (checkpoint && i < forward.size() - 1) {
+                segment = new ArrayList<>();
+                segments.add(segment);
+            }
+        }
+
+        for (String name : requested)
+            if (!producedIn.containsKey(name))
+                throw new ND4JIllegalStateException("Checkpoint [" + name + "] isn't produced by any op of the forward pass");
+
+        Set<String> kept = new HashSet<>(requested);
+        kept.addAll(Arrays.asList(outputsOf(grad, forward.get(forward.size() - 1))));
+        for (int s = 0; s < segments.size(); s++) {
+            for (DifferentialFunction function : segments.get(s)) {
+                for (String input : inputsOf(grad, function)) {
+                    Integer producer = producedIn.get(input);
+                    if (producer != null && producer != s)
+                        kept.add(input);
+                }
+
+                if (function instanceof RandomOp || function instanceof DistributionUniform)
+                    kept.addAll(Arrays.asList(outputsOf(grad, function)));
+            }
+        }
+
+        // arrays allocated before for activations that won't be kept
+        for (String name : producedIn.keySet())
+            if (!kept.contains(name))
+                grad.releaseArray(name);
+
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder()
+                        .initialSize(0)
+                        .policyAllocation(AllocationPolicy.STRICT)
+                        .policyLearning(LearningPolicy.OVER_TIME)
+                        .policySpill(SpillPolicy.REALLOCATE)
+                        .build();
+
+        List<DifferentialFunction> ops = new ArrayList<>();
+        Set<Integer> materialized = new TreeSet<>();
+        MemoryWorkspace workspace = null;
+        try {
+            for (int s = 0; s < segments.size(); s++) {
+                workspace = release(grad, workspace, segments, materialized, kept);
+                workspace = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration,
+                                grad.getCheckpointWorkspaceId());
+
+                execSegment(grad, segments.get(s), kept, true);
+                ops.addAll(segments.get(s));
+                materialized.add(s);
+            }
+
+            // last segment stays materialized, it's the first one backward pass needs
+            for (DifferentialFunction function : backward) {
+                Set<Integer> needed = new TreeSet<>();
+                for (String input : inputsOf(grad, function)) {
+                    Integer producer = producedIn.get(input);
+                    if (producer != null && !kept.contains(input))
+                        needed.add(producer);
+                }
+
+                if (!materialized.containsAll(needed)) {
+                    workspace = release(grad, workspace, segments, materialized, kept);
+                    workspace = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration,
+                                    grad.getCheckpointWorkspaceId());
+
+                    for (Integer s : needed) {
+                        execSegment(grad, segments.get(s), kept, false);
+                        materialized.add(s);
+                    }
+                }
+
+                // gradients outlive the recomputed activations
+                try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+                    grad.execFunction(function);
+                }
+
+                ops.add(function);
+            }
+        } finally {
+            release(grad, workspace, segments, materialized, kept);
+        }
+
+        return ops;
+    }
+
+    /**
+     * Executes ops of a segment within current workspace. Kept activations produced by the segment are moved out of
+     * the workspace on the first pass, and ops producing only kept activations are skipped on recomputation.
+     */
+    private static void execSegment(SameDiff grad, List<DifferentialFunction> segment, Set<String> kept,
+                    boolean firstPass) {
+        for (DifferentialFunction function : segment) {
+            String[] outputs = outputsOf(grad, function);
+            if (!firstPass && kept.containsAll(Arrays.asList(outputs)))
+                continue;
+
+            // released activations are allocated again, within current workspace
+            for (String output : outputs)
+                if (grad.getArrForVarName(output) == null)
+                    grad.bindArray(output, Nd4j.createUninitialized(grad.getShapeForVarName(output)));
+
+            if (function instanceof DynamicCustomOp) {
+                DynamicCustomOp customOp = (DynamicCustomOp) function;
+                while (customOp.numOutputArguments() > 0)
+                    customOp.removeOutputArgument(customOp.getOutputArgument(0));
+            } else if (outputs.length > 0 && grad.getArrForVarName(outputs[0]) != null) {
+                ((Op) function).setZ(grad.getArrForVarName(outputs[0]));
+            }
+
+            grad.execFunction(function);
+        }
+
+        if (firstPass) {
+            for (DifferentialFunction function : segment) {
+                for (String output : outputsOf(grad, function)) {
+                    INDArray arr = grad.getArrForVarName(output);
+                    if (kept.contains(output) && arr != null && arr.isAttached())
+                        grad.bindArray(output, arr.detach());
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases recomputed activations of materialized segments, and closes the workspace they live in
+     *
+     * @return always null
+     */
+    private static MemoryWorkspace release(SameDiff grad, MemoryWorkspace workspace,
+                    List<List<DifferentialFunction>> segments, Set<Integer> materialized, Set<String> kept) {
+        for (Integer s : materialized)
+            for (DifferentialFunction function : segments.get(s))
+                for (String output : outputsOf(grad, function))
+                    if (!kept.contains(output))
+                        grad.releaseArray(output);
+
+        materialized.clear();
+
+        if (workspace != null)
+            workspace.close();
+
+        return null;
+    }
+
+    private static boolean isCheckpointable(DifferentialFunction function) {
+        // in-place ops would modify kept activations on recomputation
+        if (GraphFunctions.isControlFlow(function) || GraphFunctions.isInPlace(function))
+            return false;
+
+        return function instanceof CustomOp || function instanceof Op;
+    }
+
+    /**
+     * Registered inputs of the function, and variables it holds as properties
+     */
+    private static String[] inputsOf(SameDiff sameDiff, DifferentialFunction function) {
+        Set<String> ret = new LinkedHashSet<>(sameDiff.getPropertyVariablesForFunction(function));
+        ret.addAll(Arrays.asList(GraphFunctions.inputsOf(sameDiff, function)));
+        return ret.toArray(new String[ret.size()]);
+    }
+}
@@ -0,0 +1,62 @@
+package org.nd4j.autodiff.samediff;
+
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.linalg.api.ops.DynamicCustomOp;
+import org.nd4j.linalg.api.ops.impl.controlflow.If;
+import org.nd4j.linalg.api.ops.impl.controlflow.While;
+import org.nd4j.linalg.api.ops.impl.controlflow.compat.Enter;
+import org.nd4j.linalg.api.ops.impl.controlflow.compat.Exit;
+import org.nd4j.linalg.api.ops.impl.controlflow.compat.LoopCond;
+import org.nd4j.linalg.api.ops.impl.controlflow.compat.Merge;
+import org.nd4j.linalg.api.ops.impl.controlflow.compat.NextIteration;
+import org.nd4j.linalg.api.ops.impl.controlflow.compat.Switch;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+
+/**
+ * Checks and lookups of graph functions shared by graph passes: {@link GraphOptimizer},
+ * {@link GradientCheckpointing}, {@link SharedWeightsInference} and memory planning in {@link SameDiff}
+ */
+final class GraphFunctions {
+
+    private GraphFunctions() {
+        //
+    }
+
+    /**
+     * This method checks if given function is a control flow op, executed by SameDiff itself
+     */
+    static boolean isControlFlow(DifferentialFunction function) {
+        return function instanceof If || function instanceof While || function instanceof Enter
+                        || function instanceof Exit || function instanceof NextIteration || function instanceof Merge
+                        || function instanceof Switch || function instanceof LoopCond;
+    }
+
+    /**
+     * This method checks if given function writes its output into its input
+     */
+    static boolean isInPlace(DifferentialFunction function) {
+        return function.isInPlace()
+                        || (function instanceof DynamicCustomOp && ((DynamicCustomOp) function).isInplaceCall());
+    }
+
+    /**
+     * @return names of registered inputs of given function, empty array if it has none
+     */
+    static String[] inputsOf(SameDiff sameDiff, DifferentialFunction function) {
+        try {
+            String[] ret = sameDiff.getInputsForFunction(function);
+            return ret == null ? new String[0] : ret;
+        } catch (ND4JIllegalStateException e) {
+            // op without registered inputs
+            return new String[0];
+        }
+    }
+
+    /**
+     * @return names of outputs of given function, empty array if it has none
+     */
+    static String[] outputsOf(SameDiff sameDiff, DifferentialFunction function) {
+        String[] ret = sameDiff.getOutputsForFunction(function);
+        return ret == null ? new String[0] : ret;
+    }
+}
@@ -0,0 +1,219 @@
+package org.nd4j.autodiff.samediff;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.linalg.api.ops.CustomOp;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.RandomOp;
+import org.nd4j.linalg.api.ops.impl.transforms.gradient.GradientBackwardsMarker;
+import org.nd4j.linalg.api.ops.random.custom.DistributionUniform;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.nd4j.autodiff.samediff.GraphFunctions.inputsOf;
+import static org.nd4j.autodiff.samediff.GraphFunctions.isControlFlow;
+import static org.nd4j.autodiff.samediff.GraphFunctions.isInPlace;
+import static org.nd4j.autodiff.samediff.GraphFunctions.outputsOf;
+
+/**
+ * Inference-time optimizations of SameDiff graphs, usually applied right after import.
+ *
+ * - Constant folding: ops with all inputs being constants are executed once, and replaced with their results.
+ *   Constants are variables with arrays that aren't placeholders, aren't produced by any op and aren't modified
+ *   in place. Please note: trainable variables are constants too, so folded graph reflects their current values,
+ *   and shouldn't be used for training anymore.
+ * - Pruning: ops and variables not needed to compute given outputs are removed.
+ *
+ * Random ops, in-place ops and control flow ops are never folded. Graphs with control flow, or with
+ * backward pass already defined, aren't pruned.
+ */
+@Slf4j
+public class GraphOptimizer {
+
+    private GraphOptimizer() {}
+
+    /**
+     * This method prunes the graph, folds constants, and prunes constants left unused after folding
+     *
+     * @param sameDiff graph to optimize, modified in place
+     * @param outputs  names of the variables that should stay computable
+     * @return the given graph
+     */
+    public static SameDiff optimize(@NonNull SameDiff sameDiff, @NonNull String... outputs) {
+        int pruned = prune(sameDiff, outputs);
+        int folded = foldConstants(sameDiff);
+        if (folded > 0)
+            pruned += prune(sameDiff, outputs);
+
+        log.debug("Graph optimized: {} ops folded, {} ops pruned", folded, pruned);
+        return sameDiff;
+    }
+
+    /**
+     * This method executes ops depending on constants only, and replaces them with their results
+     *
+     * @param sameDiff graph to optimize, modified in place
+     * @return number of folded ops
+     */
+    public static int foldConstants(@NonNull SameDiff sameDiff) {
+        List<DifferentialFunction> functions = forwardFunctions(sameDiff);
+
+        Map<String, Integer> producers = new HashMap<>();
+        Set<String> modified = new HashSet<>();
+        for (DifferentialFunction function : functions) {
+            for (String output : outputsOf(sameDiff, function)) {
+                Integer count = producers.get(output);
+                producers.put(output, count == null ? 1 : count + 1);
+            }
+
+            if (isInPlace(function))
+                modified.addAll(Arrays.asList(inputsOf(sameDiff, function)));
+        }
+
+        Set<String> constants = new HashSet<>();
+        for (SDVariable variable : sameDiff.variables()) {
+            String name = variable.getVarName();
+            if (!producers.containsKey(name) && !modified.contains(name) && !sameDiff.isPlaceHolder(name)
+                            && sameDiff.getArrForVarName(name) != null)
+                constants.add(name);
+        }
+
+        int folded = 0;
+        for (DifferentialFunction function : functions) {
+            if (!isFoldable(function))
+                continue;
+
+            String[] inputs = inputsOf(sameDiff, function);
+            String[] outputs = outputsOf(sameDiff, function);
+            if (outputs.length == 0 || !constants.containsAll(Arrays.asList(inputs))
+                            || !constants.containsAll(sameDiff.getPropertyVariablesForFunction(function)))
+                continue;
+
+            boolean exclusive = true;
+            for (String output : outputs)
+                if (producers.get(output) != 1 || modified.contains(output) || sameDiff.isPlaceHolder(output))
+                    exclusive = false;
+
+            if (!exclusive)
+                continue;
+
+            try {
+                sameDiff.execFunction(function);
+            } catch (RuntimeException e) {
+                log.debug("Unable to fold op [{}]", function.getOwnName(), e);
+                continue;
+            }
+
+            boolean computed = true;
+            for (String output : outputs)
+                if (sameDiff.getArrForVarName(output) == null)
+                    computed = false;
+
+            if (!computed)
+                continue;
+
+            sameDiff.removeFunction(function);
+            constants.addAll(Arrays.asList(outputs));
+            folded++;
+        }
+
+        return folded;
+    }
+
+    /**
+     * This method removes ops and variables not needed to compute given outputs.
+     * Placeholders are never removed.
+     *
+     * @param sameDiff graph to optimize, modified in place
+     * @param outputs  names of the variables that should stay computable
+     * @return number of removed ops
+     */
+    public static int prune(@NonNull SameDiff sameDiff, @NonNull String... outputs) {
+        if (outputs.length == 0)
+            throw new IllegalArgumentException("At least one output should be specified");
+
+        for (String output : outputs)
+            if (sameDiff.getVariable(output) == null)
+                throw new ND4JIllegalStateException("No variable found for name " + output);
+
+        List<DifferentialFunction> functions = Arrays.asList(sameDiff.functions());
+        for (DifferentialFunction function : functions) {
+            if (isControlFlow(function) || function instanceof GradientBackwardsMarker) {
+                log.debug("Graph has control flow or backward pass defined, skipping pruning");
+                return 0;
+            }
+        }
+
+        Set<String> needed = new HashSet<>(Arrays.asList(outputs));
+        List<DifferentialFunction> removed = new ArrayList<>();
+        List<DifferentialFunction> reversed = new ArrayList<>(functions);
+        Collections.reverse(reversed);
+
+        for (DifferentialFunction function : reversed) {
+            boolean keep = isInPlace(function) || !(function instanceof Op || function instanceof CustomOp);
+            for (String output : outputsOf(sameDiff, function))
+                if (needed.contains(output))
+                    keep = true;
+
+            if (keep) {
+                needed.addAll(Arrays.asList(inputsOf(sameDiff, function)));
+                needed.addAll(sameDiff.getPropertyVariablesForFunction(function));
+            } else {
+                removed.add(function);
+            }
+        }
+
+        for (DifferentialFunction function : removed)
+            sameDiff.removeFunction(function);
+
+        Set<String> used = new HashSet<>();
+        for (DifferentialFunction function : sameDiff.functions()) {
+            used.addAll(Arrays.asList(inputsOf(sameDiff, function)));
+            used.addAll(Arrays.asList(outputsOf(sameDiff, function)));
+        }
+
+        for (SDVariable variable : sameDiff.variables()) {
+            String name = variable.getVarName();
+            if (!needed.contains(name) && !used.contains(name) && !sameDiff.isPlaceHolder(name))
+                sameDiff.removeVariable(name);
+        }
+
+        return removed.size();
+    }
+
+    /**
+     * Returns ops of the forward pass, in execution order
+     */
+    private static List<DifferentialFunction> forwardFunctions(SameDiff sameDiff) {
+        List<DifferentialFunction> ret = new ArrayList<>();
+        for (DifferentialFunction function : sameDiff.functions()) {
+            if (function instanceof GradientBackwardsMarker)
+                break;
+
+            if (!(function instanceof SDVariable))
+                ret.add(function);
+        }
+
+        return ret;
+    }
+
+    private static boolean isFoldable(DifferentialFunction function) {
+        if (isControlFlow(function) || isInPlace(function))
+            return false;
+
+        if (function instanceof RandomOp || function instanceof DistributionUniform)
+            return false;
+
+        return function instanceof CustomOp || function instanceof Op;
+    }
+
+}
@@ -1,6 +1,10 @@
 package org.nd4j.autodiff.samediff;
 
 import com.google.common.collect.HashBasedTable;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Table;
 import com.google.common.primitives.Ints;
 import com.google.flatbuffers.FlatBufferBuilder;
@@ -9,16 +13,21 @@ import com.rits.cloning.IFastCloner;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.autodiff.execution.ParallelOpScheduler;
 import org.nd4j.autodiff.execution.conf.ExecutorConfiguration;
 import org.nd4j.autodiff.execution.conf.OutputMode;
 import org.nd4j.autodiff.functions.DifferentialFunction;
 import org.nd4j.autodiff.functions.DifferentialFunctionFactory;
 import org.nd4j.autodiff.functions.FunctionProperties;
 import org.nd4j.autodiff.samediff.flow.FlowPath;
+import org.nd4j.autodiff.samediff.memory.MemoryPlan;
+import org.nd4j.autodiff.samediff.memory.MemoryPlanner;
+import org.nd4j.autodiff.samediff.serde.MappedWeights;
 import org.nd4j.autodiff.util.cloner.DataBufferFastCloner;
 import org.nd4j.autodiff.util.cloner.INDArrayFastCloner;
 import org.nd4j.base.Preconditions;
 import org.nd4j.graph.*;
+import org.nd4j.imports.converters.DifferentialFunctionClassHolder;
 import org.nd4j.linalg.api.blas.params.MMulTranspose;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.buffer.factory.DataBufferFactory;
@@ -27,6 +36,7 @@ import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
 import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
 import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.*;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
@@ -65,6 +75,7 @@ import java.io.*;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -159,6 +170,34 @@ public class SameDiff {
     // flag, shows if graph was already registered with libnd4j
     private transient AtomicBoolean wasRegistered = new AtomicBoolean(false);
 
+    // worker pool for exec(List, int), created on first use
+    private transient ParallelOpScheduler opScheduler;
+
+    // memory plan of the last execWithPlan() call, and ops pointing into its arena
+    @Getter
+    private transient MemoryPlan lastMemoryPlan;
+    private transient String memoryPlanWorkspaceId;
+    private transient Set<DifferentialFunction> memoryPlanBoundOps;
+
+    // workspace recomputed activations live in, see execBackwardsWithCheckpoints()
+    private transient String checkpointWorkspaceId;
+
+    // reusable contexts of custom ops, see execCustomOp(). kept per thread and outside of the graph, since contexts
+    // aren't thread-safe and graph copies must not share them. contexts are closed once their ops are collected,
+    // or on releaseThreadResources()
+    private static final ThreadLocal<Cache<DifferentialFunction, OpContext>> opContexts = new ThreadLocal<Cache<DifferentialFunction, OpContext>>() {
+        @Override
+        protected Cache<DifferentialFunction, OpContext> initialValue() {
+            return CacheBuilder.newBuilder().weakKeys().removalListener(new RemovalListener<DifferentialFunction, OpContext>() {
+                @Override
+                public void onRemoval(RemovalNotification<DifferentialFunction, OpContext> notification) {
+                    if (notification.getValue() != null)
+                        notification.getValue().close();
+                }
+            }).build();
+        }
+    };
+
 
     //debug mode variables
     @Getter
@@ -4911,19 +4950,67 @@ public class SameDiff {
      * Executes the list of operations.
      * This exec method is for
      * only invoking operations
-     * rather than creating them
+     * rather than creating them.
+     * Consecutive elementwise ops are passed
+     * to the executioner together, so it can
+     * fuse them, see {@link OpExecutioner#execFused(List)}
      *
      * @param ops the list of already created ops
      * @return the passes in list
      */
     public List<DifferentialFunction> exec(List<DifferentialFunction> ops) {
+        releaseMemoryPlanBindings();
+
+        List<Op> legacyOps = new ArrayList<>();
         for (int i = 0; i < ops.size(); i++) {
-            Op op = (Op) ops.get(i);
-            Nd4j.getExecutioner().exec(op);
+            DifferentialFunction function = ops.get(i);
+            if (function instanceof CustomOp) {
+                if (!legacyOps.isEmpty()) {
+                    Nd4j.getExecutioner().execFused(legacyOps);
+                    legacyOps.clear();
+                }
+
+                Nd4j.getExecutioner().exec((CustomOp) function);
+            } else {
+                legacyOps.add((Op) function);
+            }
         }
+
+        if (!legacyOps.isEmpty())
+            Nd4j.getExecutioner().execFused(legacyOps);
+
         return ops;
     }
 
+    /**
+     * Executes the list of operations,
+     * running independent ones in parallel.
+     * Dependencies are derived from the
+     * variables ops read and write, see {@link ParallelOpScheduler}.
+     * Results are the same as for {@link #exec(List)}
+     *
+     * @param ops        the list of already created ops
+     * @param numThreads max number of ops executed at once
+     * @return the passes in list
+     */
+    public List<DifferentialFunction> exec(List<DifferentialFunction> ops, int numThreads) {
+        ParallelOpScheduler scheduler;
+        synchronized (this) {
+            if (opScheduler == null || opScheduler.getNumThreads() != numThreads) {
+                if (opScheduler != null)
+                    opScheduler.close();
+
+                opScheduler = new ParallelOpScheduler(numThreads);
+            }
+
+            scheduler = opScheduler;
+        }
+
+        releaseMemoryPlanBindings();
+
+        return scheduler.exec(this, ops);
+    }
+
 
     /**
      * An interface for representing a conditional statement
@@ -5120,7 +5207,54 @@ public class SameDiff {
      * @return
      */
     public Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>> execBackwards() {
+        defineGradFunction();
+
+        Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>> forward = exec("grad");
+        SameDiff grad = getFunction("grad");
+        if (grad.isDebugMode()) {
+            //ensure all gradients are present for all variables
+            for (SDVariable sdVariable : grad.variables()) {
+                sdVariable.gradient();
+            }
+        }
+
+        return forward;
+    }
 
+    /**
+     * Builds a backwards graph and executes it with gradient checkpointing:
+     * only activations of the checkpoint variables are kept during forward pass,
+     * and activations in between are recomputed when the backward pass needs them,
+     * see {@link GradientCheckpointing}. Gradients are the same as with {@link #execBackwards()}.
+     * <p>
+     * Graphs with control flow or in-place ops, or with unknown shapes,
+     * are executed with {@link #execBackwards()} instead.
+     *
+     * @param checkpoints names of the variables to keep activations for.
+     *                    If none given, output of every sqrt(N)-th op is used
+     * @return
+     */
+    public Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>> execBackwardsWithCheckpoints(String... checkpoints) {
+        defineGradFunction();
+
+        SameDiff grad = getFunction("grad");
+        if (!grad.resolvedVariables)
+            grad.resolveVariablesWith(new LinkedHashMap<String, INDArray>());
+
+        grad.releaseMemoryPlanBindings();
+
+        List<DifferentialFunction> ops = GradientCheckpointing.exec(grad, checkpoints);
+        if (ops == null)
+            return execBackwards();
+
+        return new Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>>(
+                        new HashMap<SDVariable, DifferentialFunction>(), ops);
+    }
+
+    /**
+     * Defines "grad" function with forward and backward pass of this graph, unless it's defined already
+     */
+    private void defineGradFunction() {
         final SameDiff outer = this;
         if (getFunction("grad") == null)
             defineFunction("grad", new SameDiffFunctionDefinition() {
@@ -5210,18 +5344,6 @@ public class SameDiff {
                     return new SDVariable[]{sameDiff.var("grad", new int[]{1, 1})};
                 }
             });
-
-
-        Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>> forward = exec("grad");
-        SameDiff grad = getFunction("grad");
-        if (grad.isDebugMode()) {
-            //ensure all gradients are present for all variables
-            for (SDVariable sdVariable : grad.variables()) {
-                sdVariable.gradient();
-            }
-        }
-
-        return forward;
     }
 
 
@@ -5573,6 +5695,8 @@ public class SameDiff {
         if (!resolvedVariables)
             resolveVariablesWith(new LinkedHashMap<String, INDArray>());
 
+        releaseMemoryPlanBindings();
+
         List<DifferentialFunction> ops = new ArrayList<>();
 
         // we don't care if this thread had any other FlowPath objects attached. we'll just create new one
@@ -5914,7 +6038,7 @@ public class SameDiff {
 
                 customOp.updateInputsFromSameDiff();
 
-                Nd4j.getExecutioner().exec(customOp);
+                execCustomOp(customOp);
 
                 /*
                 if (customOp instanceof LessThanOrEqual) {
@@ -5928,57 +6052,425 @@ public class SameDiff {
 
                 ops.add(customOp);
             } else if (differentialFunction instanceof Op) {
-                val inputs = getInputVariablesForFunction(differentialFunction);
+                execLegacyOp(differentialFunction);
 
-                Op op = (Op) differentialFunction;
+                flowPath.markExecuted(differentialFunction.getOwnName(), true);
 
-                // ops in differential function might have stale NDArrays used. we should renew them
-                op.setX(inputs[0].getArr());
-                if (inputs.length == 2)
-                    op.setY(inputs[1].getArr());
+                ops.add(differentialFunction);
+            }
 
-                if (differentialFunction.getDimensions() == null)
-                    Nd4j.getExecutioner().exec(op);
-                else if (op.isExecSpecial()) {
-                    op.exec();
-                } else {
-                    int[] axes = differentialFunction.getDimensions();
-                    if (differentialFunction instanceof Accumulation) {
-                        Accumulation accumulation = (Accumulation) differentialFunction;
+            //debug
+            // printFunction(differentialFunction);
+        }
+
+        return new Pair<>(opMap, ops);
+    }
 
-                        Nd4j.getExecutioner().exec(accumulation, axes);
 
-                        if (differentialFunction.outputVariables()[0].getArr() == null) {
-                            val var = differentialFunction.outputVariables()[0];
-                            updateArrayForVarName(var.getVarName(), accumulation.z());
-                            updateShapeForVarName(var.getVarName(), accumulation.z().shape());
-                        }
-                    } else if (differentialFunction instanceof BroadcastOp) {
-                        BroadcastOp broadcastOp = (BroadcastOp) differentialFunction;
-                        Nd4j.getExecutioner().exec(broadcastOp, axes);
-                    } else if (differentialFunction instanceof GradientOp) {
-                        Nd4j.getExecutioner().exec(op);
-                    } else if (differentialFunction instanceof IndexAccumulation) {
-                        IndexAccumulation indexAccumulation = (IndexAccumulation) differentialFunction;
-                        Nd4j.getExecutioner().exec(indexAccumulation, axes);
-
-                    } else if (differentialFunction instanceof TransformOp) {
-                        TransformOp t = (TransformOp) differentialFunction;
-                        Nd4j.getExecutioner().exec(t, axes);
+    /**
+     * Executes custom op through its reusable {@link OpContext}, so only arguments changed since the previous call
+     * are passed to the backend again. Op failing with non-OK status throws, see {@link OpExecutioner#exec(CustomOp, OpContext)}
+     */
+    private void execCustomOp(DynamicCustomOp customOp) {
+        Cache<DifferentialFunction, OpContext> contexts = opContexts.get();
+        OpContext context = contexts.getIfPresent(customOp);
+        if (context == null) {
+            context = Nd4j.getExecutioner().buildContext();
+            contexts.put(customOp, context);
+        }
+
+        context.setInputArrays(customOp.inputArguments());
+        context.setOutputArrays(customOp.outputArguments());
+        context.setIArguments(customOp.iArgs());
+        context.setTArguments(customOp.tArgs());
+
+        Nd4j.getExecutioner().exec(customOp, context);
+    }
+
+    /**
+     * Executes legacy op, renewing its inputs from this graph first
+     */
+    private void execLegacyOp(DifferentialFunction differentialFunction) {
+        val inputs = getInputVariablesForFunction(differentialFunction);
+
+        Op op = (Op) differentialFunction;
+
+        // ops in differential function might have stale NDArrays used. we should renew them
+        op.setX(inputs[0].getArr());
+        if (inputs.length == 2)
+            op.setY(inputs[1].getArr());
+
+        if (differentialFunction.getDimensions() == null)
+            Nd4j.getExecutioner().exec(op);
+        else if (op.isExecSpecial()) {
+            op.exec();
+        } else {
+            int[] axes = differentialFunction.getDimensions();
+            if (differentialFunction instanceof Accumulation) {
+                Accumulation accumulation = (Accumulation) differentialFunction;
+
+                Nd4j.getExecutioner().exec(accumulation, axes);
+
+                if (differentialFunction.outputVariables()[0].getArr() == null) {
+                    val var = differentialFunction.outputVariables()[0];
+                    updateArrayForVarName(var.getVarName(), accumulation.z());
+                    updateShapeForVarName(var.getVarName(), accumulation.z().shape());
+                }
+            } else if (differentialFunction instanceof BroadcastOp) {
+                BroadcastOp broadcastOp = (BroadcastOp) differentialFunction;
+                Nd4j.getExecutioner().exec(broadcastOp, axes);
+            } else if (differentialFunction instanceof GradientOp) {
+                Nd4j.getExecutioner().exec(op);
+            } else if (differentialFunction instanceof IndexAccumulation) {
+                IndexAccumulation indexAccumulation = (IndexAccumulation) differentialFunction;
+                Nd4j.getExecutioner().exec(indexAccumulation, axes);
+
+            } else if (differentialFunction instanceof TransformOp) {
+                TransformOp t = (TransformOp) differentialFunction;
+                Nd4j.getExecutioner().exec(t, axes);
+            }
+        }
+    }
+
+    /**
+     * Executes the graph with memory for intermediate results planned ahead.
+     * <p>
+     * Lifetime of every intermediate result is derived from the op order,
+     * and all of them are placed into a single arena, reusing memory of
+     * results that aren't needed anymore. The arena comes from a workspace
+     * sized from the plan, so repeated calls don't allocate.
+     * <p>
+     * Only requested outputs survive the call: other intermediate results
+     * are released once their last consumer has run.
+     * Graphs with control flow ops, or with unknown output shapes,
+     * are executed with {@link #exec()} instead.
+     *
+     * @param placeholders values for placeholders, may be empty
+     * @param outputs      names of the variables to return
+     * @return requested outputs, by variable name
+     */
+    public Map<String, INDArray> execWithPlan(@NonNull Map<String, INDArray> placeholders, String... outputs) {
+        if (!placeholders.isEmpty() || !resolvedVariables)
+            resolveVariablesWith(placeholders);
+
+        Set<String> requested = new LinkedHashSet<>(Arrays.asList(outputs));
+        for (String name : requested)
+            if (getVariable(name) == null)
+                throw new ND4JIllegalStateException("No variable found for name " + name);
+
+        List<DifferentialFunction> ops = new ArrayList<>();
+        List<String[]> opInputs = new ArrayList<>();
+        List<String[]> opOutputs = new ArrayList<>();
+        Map<String, Long> lengths = new HashMap<>();
+        Set<String> notPlanned = new HashSet<>(requested);
+        Set<String> aliased = new HashSet<>();
+
+        boolean plannable = true;
+        for (DifferentialFunction function : functionInstancesById.values()) {
+            if (function instanceof GradientBackwardsMarker)
+                break;
+
+            if (function instanceof SDVariable)
+                continue;
+
+            if (!isPlannable(function)) {
+                plannable = false;
+                break;
+            }
+
+            String[] in = incomingArgsReverse.containsKey(function.getOwnName()) ? getInputsForFunction(function) : null;
+            String[] out = getOutputsForFunction(function);
+            in = in == null ? new String[0] : in;
+            out = out == null ? new String[0] : out;
+
+            // variables read while resolving properties must stay alive until the op runs, too
+            Set<String> uses = new LinkedHashSet<>(getPropertyVariablesForFunction(function));
+            uses.addAll(Arrays.asList(in));
+            in = uses.toArray(new String[uses.size()]);
+
+            if (GraphFunctions.isInPlace(function)) {
+                // outputs alias inputs, so leave all of them as they are
+                aliased.addAll(Arrays.asList(in));
+                aliased.addAll(Arrays.asList(out));
+            }
+
+            for (String name : out) {
+                long[] shape = getShapeForVarName(name);
+                if (shape == null || Shape.isPlaceholderShape(shape)) {
+                    plannable = false;
+                    break;
+                }
+
+                lengths.put(name, ArrayUtil.prodLong(shape));
+            }
+
+            ops.add(function);
+            opInputs.add(in);
+            opOutputs.add(out);
+        }
+
+        if (!plannable) {
+            log.debug("Graph can't be planned, falling back to exec()");
+            exec();
+
+            Map<String, INDArray> ret = new LinkedHashMap<>();
+            for (String name : requested)
+                ret.put(name, getVariable(name).getArr());
+
+            return ret;
+        }
+
+        notPlanned.addAll(aliased);
+        MemoryPlan plan = MemoryPlanner.plan(opInputs, opOutputs, lengths, notPlanned,
+                        DataTypeUtil.lengthForDtype(Nd4j.dataType()));
+        lastMemoryPlan = plan;
+
+        if (memoryPlanWorkspaceId == null)
+            memoryPlanWorkspaceId = "SD_MEMORY_PLAN_" + UUID.randomUUID().toString();
+
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder()
+                        .initialSize(plan.getArenaBytes() + MemoryPlanner.ALIGNMENT_BYTES)
+                        .policyAllocation(AllocationPolicy.STRICT)
+                        .policyLearning(LearningPolicy.OVER_TIME)
+                        .policySpill(SpillPolicy.REALLOCATE)
+                        .build();
+
+        try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration,
+                        memoryPlanWorkspaceId)) {
+            DataBuffer arena = plan.getArenaLength() > 0 ? Nd4j.createBuffer(plan.getArenaLength(), false) : null;
+
+            for (int i = 0; i < ops.size(); i++) {
+                DifferentialFunction function = ops.get(i);
+                String[] out = opOutputs.get(i);
+
+                function.resolvePropertiesFromSameDiffBeforeExecution();
+
+                boolean bound = false;
+                for (String name : out) {
+                    long[] shape = getShapeForVarName(name);
+                    if (plan.isPlanned(name)) {
+                        DataBuffer buffer = Nd4j.createBuffer(arena, plan.getOffset(name), ArrayUtil.prodLong(shape));
+                        bindArray(name, Nd4j.create(buffer, shape, Nd4j.getStrides(shape, 'c'), 0, 'c'));
+                        bound = true;
+                    } else if (requested.contains(name) && !aliased.contains(name)) {
+                        bindArray(name, Nd4j.createUninitializedDetached(shape));
+                        bound = true;
                     }
                 }
 
+                if (bound)
+                    getMemoryPlanBoundOps().add(function);
 
-                flowPath.markExecuted(differentialFunction.getOwnName(), true);
+                if (function instanceof CustomOp) {
+                    DynamicCustomOp customOp = (DynamicCustomOp) function;
+                    customOp.populateInputsAndOutputsFromSameDiff();
+                    if (bound && customOp.numOutputArguments() == out.length)
+                        for (int e = 0; e < out.length; e++)
+                            customOp.setOutputArgument(e, getArrForVarName(out[e]));
 
-                ops.add(differentialFunction);
+                    customOp.assertValidForExecution();
+                    customOp.updateInputsFromSameDiff();
+
+                    execCustomOp(customOp);
+                } else {
+                    Op op = (Op) function;
+                    if (bound && out.length > 0)
+                        op.setZ(getArrForVarName(out[0]));
+
+                    execLegacyOp(function);
+
+                    // executioner might have replaced output array
+                    if (out.length > 0 && op.z() != null && op.z() != getArrForVarName(out[0]))
+                        bindArray(out[0], op.z());
+                }
+
+                for (String name : plan.getReleasedAfter(i))
+                    releaseArray(name);
             }
 
-            //debug
-            // printFunction(differentialFunction);
+            Map<String, INDArray> ret = new LinkedHashMap<>();
+            for (String name : requested) {
+                INDArray arr = getVariable(name).getArr();
+
+                // anything allocated within the plan scope gets overwritten by the next call
+                if (arr != null && arr.isAttached()) {
+                    arr = arr.detach();
+                    bindArray(name, arr);
+                }
+
+                ret.put(name, arr);
+            }
+
+            return ret;
         }
+    }
 
-        return new Pair<>(opMap, ops);
+    private static boolean isPlannable(DifferentialFunction function) {
+        if (GraphFunctions.isControlFlow(function))
+            return false;
+
+        return function instanceof CustomOp || function instanceof Op;
+    }
+
+    private Set<DifferentialFunction> getMemoryPlanBoundOps() {
+        if (memoryPlanBoundOps == null)
+            memoryPlanBoundOps = Collections.newSetFromMap(new IdentityHashMap<DifferentialFunction, Boolean>());
+
+        return memoryPlanBoundOps;
+    }
+
+    void bindArray(String varName, INDArray arr) {
+        INDArray previous = variableNameToArr.put(varName, arr);
+        if (previous != null)
+            reverseArrayLookup.remove(previous);
+
+        reverseArrayLookup.put(arr, getVariable(varName));
+    }
+
+    void releaseArray(String varName) {
+        INDArray arr = variableNameToArr.remove(varName);
+        if (arr != null) {
+            reverseArrayLookup.remove(arr);
+            if (!variableNameToShape.containsKey(varName))
+                variableNameToShape.put(varName, arr.shape());
+        }
+    }
+
+    String getCheckpointWorkspaceId() {
+        if (checkpointWorkspaceId == null)
+            checkpointWorkspaceId = "SD_CHECKPOINTS_" + UUID.randomUUID().toString();
+
+        return checkpointWorkspaceId;
+    }
+
+    /**
+     * This method releases resources this graph holds for the current thread: native contexts of custom ops,
+     * and the workspace used by {@link #execWithPlan(Map, String...)}. Graph stays usable, resources are created
+     * again on next use. Outputs returned before stay valid, since they never live in that workspace.
+     */
+    public void releaseThreadResources() {
+        opContexts.get().invalidateAll(functionInstancesById.values());
+        releaseMemoryPlanBindings();
+
+        if (memoryPlanWorkspaceId != null && Nd4j.getWorkspaceManager().checkIfWorkspaceExists(memoryPlanWorkspaceId))
+            Nd4j.getWorkspaceManager().destroyWorkspace(
+                            Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(memoryPlanWorkspaceId));
+    }
+
+    /**
+     * Points ops used by {@link #execWithPlan(Map, String...)} back to arrays owned by this graph,
+     * since memory plan arena gets reused
+     */
+    private void releaseMemoryPlanBindings() {
+        if (memoryPlanBoundOps == null || memoryPlanBoundOps.isEmpty())
+            return;
+
+        for (DifferentialFunction function : memoryPlanBoundOps) {
+            if (function instanceof DynamicCustomOp) {
+                DynamicCustomOp customOp = (DynamicCustomOp) function;
+                while (customOp.numOutputArguments() > 0)
+                    customOp.removeOutputArgument(customOp.getOutputArgument(0));
+            } else if (function instanceof Op) {
+                ((Op) function).setZ(null);
+            }
+        }
+
+        memoryPlanBoundOps.clear();
+    }
+
+    /**
+     * Optimizes this graph for inference: evaluates ops depending on constants only, and removes
+     * ops and variables not needed for given outputs, see {@link GraphOptimizer}
+     *
+     * @param outputs names of the variables that should stay computable
+     * @return this instance
+     */
+    public SameDiff optimize(String... outputs) {
+        return GraphOptimizer.optimize(this, outputs);
+    }
+
+    /**
+     * Executes single op of this graph, the same way {@link #exec()} does
+     */
+    void execFunction(DifferentialFunction function) {
+        releaseMemoryPlanBindings();
+        function.resolvePropertiesFromSameDiffBeforeExecution();
+
+        if (function instanceof CustomOp) {
+            DynamicCustomOp customOp = (DynamicCustomOp) function;
+            customOp.populateInputsAndOutputsFromSameDiff();
+            customOp.assertValidForExecution();
+            customOp.updateInputsFromSameDiff();
+
+            execCustomOp(customOp);
+        } else {
+            Op op = (Op) function;
+            execLegacyOp(function);
+
+            val outputs = getOutputsForFunction(function);
+            if (outputs != null && outputs.length > 0 && op.z() != null && getArrForVarName(outputs[0]) == null)
+                bindArray(outputs[0], op.z());
+        }
+    }
+
+    /**
+     * Returns names of the variables properties of given op are resolved from, if any
+     */
+    Collection<String> getPropertyVariablesForFunction(DifferentialFunction function) {
+        return fieldVariableResolutionMapping.row(function.getOwnName()).values();
+    }
+
+    /**
+     * Removes op from this graph. Its input and output variables stay.
+     */
+    void removeFunction(DifferentialFunction function) {
+        val name = function.getOwnName();
+        functionInstancesById.remove(name);
+        placeHolderFunctions.remove(name);
+        propertiesForFunction.remove(name);
+        fieldVariableResolutionMapping.row(name).clear();
+
+        val inputs = incomingArgsReverse.remove(name);
+        if (inputs != null) {
+            incomingArgs.remove(inputs);
+            for (val input : inputs)
+                removeByIdentity(functionsArgsFor.get(input), function);
+        }
+
+        val outputs = outgoingArgsReverse.remove(name);
+        if (outputs != null) {
+            outgoingArgs.remove(outputs);
+            for (val output : outputs)
+                removeByIdentity(functionOutputFor.get(output), function);
+        }
+
+        if (memoryPlanBoundOps != null)
+            memoryPlanBoundOps.remove(function);
+    }
+
+    /**
+     * Removes variable, along with its array, from this graph. Variable must not be used by any op.
+     */
+    void removeVariable(String varName) {
+        variableMap.remove(varName);
+        variableNameToShape.remove(varName);
+        importedVarName.remove(varName);
+        functionsArgsFor.remove(varName);
+        functionOutputFor.remove(varName);
+
+        val arr = variableNameToArr.remove(varName);
+        if (arr != null)
+            reverseArrayLookup.remove(arr);
+    }
+
+    private static void removeByIdentity(List<DifferentialFunction> list, DifferentialFunction function) {
+        if (list == null)
+            return;
+
+        for (Iterator<DifferentialFunction> iterator = list.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() == function)
+                iterator.remove();
+        }
     }
 
 
@@ -6105,7 +6597,7 @@ public class SameDiff {
                 0,
                 0,
                 -1,
-                0.0f, 0, 0);
+                0.0f, 0, 0, 0, 0);
 
         return flatNode;
     }
@@ -6146,9 +6638,16 @@ public class SameDiff {
         val hash = getOpNum(node.opName(), node.opType());
         //log.info("Exporting node: [{}:<{}> ; OpType: {}; Hash/opNum: {}]", node.opName(), node.tensorflowName(), node.opType(), hash);
 
-        double[] extras = node.getExtraArgs() != null ? new double[node.getExtraArgs().length] : new double[0];
-        for (int e = 0; e < extras.length; e++) {
-            extras[e] = ((Number) node.getExtraArgs()[e]).floatValue();
+        double[] extras;
+        if (node.opType() == Op.Type.CUSTOM) {
+            extras = ((DynamicCustomOp) node).tArgs();
+        } else {
+            // legacy ops keep their own extra args
+            Object[] extraArgs = node instanceof Op && ((Op) node).extraArgs() != null ? ((Op) node).extraArgs() : node.getExtraArgs();
+            extras = extraArgs != null ? new double[extraArgs.length] : new double[0];
+            for (int e = 0; e < extras.length; e++) {
+                extras[e] = ((Number) extraArgs[e]).doubleValue();
+            }
         }
 
         long[] extraBits = null;
@@ -6202,11 +6701,21 @@ public class SameDiff {
         int ownId = forwardMap.containsKey(node.getOwnName()) ? forwardMap.get(node.getOwnName()) : idCounter.incrementAndGet();
         reverseMap.put(node.getOwnName(), ownId);
 
-        val dims = node.opType() == Op.Type.REDUCE && inPaired.size() == 1 && node.getDimensions() != null ? node.getDimensions() : new int[]{};
+        val reduction = node.opType() == Op.Type.REDUCE || node.opType() == Op.Type.INDEXREDUCE || node.opType() == Op.Type.SUMMARYSTATS;
+        val dims = reduction && inPaired.size() == 1 && node.getDimensions() != null ? node.getDimensions() : new int[]{};
         // TODO: Adam, just put your props here, instead of empty list, and they will be saved
         List<FunctionProperties> props = new ArrayList<>();
         int properties = FunctionProperties.asFlatProperties(bufferBuilder, props);
 
+        // op name and output variables, so the node can be restored exactly, see fromFlatBuffers()
+        int flatOpName = bufferBuilder.createString(opName);
+        val outputNames = new ArrayList<Integer>();
+        for (val output : outputVertexId) {
+            if (output != null)
+                outputNames.add(bufferBuilder.createString(output.getVarName()));
+        }
+        int flatOutputNames = FlatNode.createOutputNamesVector(bufferBuilder, Ints.toArray(outputNames));
+
         int nodesIn = FlatNode.createInputVector(bufferBuilder, new int[]{});
         int nodesInPaired = FlatNode.createInputPairedVector(bufferBuilder, Ints.toArray(inPaired));
         int nodesOut = FlatNode.createOutputVector(bufferBuilder, outputIds);
@@ -6238,7 +6747,9 @@ public class SameDiff {
                 integerArgs,
                 dimensions,
                 -1,
-                node.opType() == Op.Type.SCALAR && node.getScalarValue() != null ? node.getScalarValue().floatValue() : 0.0f, 0, scopeName);
+                node.opType() == Op.Type.SCALAR && node.getScalarValue() != null ? node.getScalarValue().floatValue() : 0.0f, 0, scopeName,
+                flatOpName,
+                flatOutputNames);
 
         return flatNode;
     }
@@ -6251,6 +6762,18 @@ public class SameDiff {
      * @return
      */
     public ByteBuffer asFlatBuffers(@NonNull ExecutorConfiguration configuration) {
+        return asFlatBuffers(configuration, Collections.<String>emptySet());
+    }
+
+    /**
+     * This method exports given SameDiff instance into FlatBuffers.
+     * Arrays of given variables aren't embedded: only their shapes are saved, see {@link #asFlatFile(File, File, long)}
+     *
+     * @param configuration     - ExecutorConfiguration to be embedded into serialized graph
+     * @param externalVariables - names of variables stored elsewhere
+     * @return
+     */
+    protected ByteBuffer asFlatBuffers(@NonNull ExecutorConfiguration configuration, @NonNull Set<String> externalVariables) {
         Nd4j.getExecutioner().commit();
         FlatBufferBuilder bufferBuilder = new FlatBufferBuilder(1024);
         val idCounter = new AtomicInteger(0);
@@ -6282,11 +6805,16 @@ public class SameDiff {
             val arr = variable.getArr();
 
             int name = bufferBuilder.createString(variable.getVarName());
-            int array = arr.toFlatArray(bufferBuilder);
             int id = IntPair.createIntPair(bufferBuilder, idCounter.get(), 0);
 
-
-            int flatVariable = FlatVariable.createFlatVariable(bufferBuilder, id, name, 0, array, -1);
+            int flatVariable;
+            if (externalVariables.contains(variable.getVarName())) {
+                int shape = FlatVariable.createShapeVector(bufferBuilder, arr.shape());
+                flatVariable = FlatVariable.createFlatVariable(bufferBuilder, id, name, shape, 0, -1);
+            } else {
+                int array = arr.toFlatArray(bufferBuilder);
+                flatVariable = FlatVariable.createFlatVariable(bufferBuilder, id, name, 0, array, -1);
+            }
             flatVariables.add(flatVariable);
         }
 
@@ -6346,14 +6874,16 @@ public class SameDiff {
      * @return
      */
     public ByteBuffer asFlatBuffers() {
-        val configuration = ExecutorConfiguration.builder()
+        return asFlatBuffers(defaultFlatConfiguration());
+    }
+
+    private static ExecutorConfiguration defaultFlatConfiguration() {
+        return ExecutorConfiguration.builder()
                 .outputMode(OutputMode.VARIABLE_SPACE)
                 .executionMode(org.nd4j.autodiff.execution.conf.ExecutionMode.SEQUENTIAL)
                 .profilingMode(OpExecutioner.ProfilingMode.DISABLED)
                 .gatherTimings(true)
                 .build();
-
-        return asFlatBuffers(configuration);
     }
 
     /**
@@ -6387,7 +6917,42 @@ public class SameDiff {
      * @param file
      */
     public void asFlatFile(@NonNull File file) throws IOException {
-        val fb = asFlatBuffers();
+        writeFlatFile(asFlatBuffers(), file);
+    }
+
+    /**
+     * This method converts SameDiff instance to FlatBuffers and saves it to file which can be restored later
+     *
+     * @param file
+     */
+    public void asFlatFile(@NonNull File file, @NonNull ExecutorConfiguration configuration) throws IOException {
+        writeFlatFile(asFlatBuffers(configuration), file);
+    }
+
+    /**
+     * This method converts SameDiff instance to FlatBuffers and saves it to file which can be restored later,
+     * with arrays of variables of given size or larger saved to separate weights file, see {@link MappedWeights}.
+     * Such graph can be restored with {@link #fromFlatFile(File, File)} only, and its weights are memory mapped
+     * instead of being read, so restore time doesn't depend on their size.
+     *
+     * @param file              file for the graph
+     * @param weightsFile       file for the weights
+     * @param externalThreshold min size of array stored in weights file, in bytes
+     */
+    public void asFlatFile(@NonNull File file, @NonNull File weightsFile, long externalThreshold) throws IOException {
+        Map<String, INDArray> external = new LinkedHashMap<>();
+        for (val variable : variables()) {
+            val arr = variable.getArr();
+            if (arr != null && variable.getShape() != null
+                    && arr.lengthLong() * arr.data().getElementSize() >= externalThreshold)
+                external.put(variable.getVarName(), arr);
+        }
+
+        MappedWeights.write(weightsFile, external);
+        writeFlatFile(asFlatBuffers(defaultFlatConfiguration(), external.keySet()), file);
+    }
+
+    private static void writeFlatFile(ByteBuffer fb, File file) throws IOException {
         val offset = fb.position();
 
         val array = fb.array();
@@ -6398,19 +6963,213 @@ public class SameDiff {
     }
 
     /**
-     * This method converts SameDiff instance to FlatBuffers and saves it to file which can be restored later
+     * This method restores SameDiff instance from file created with {@link #asFlatFile(File)}
      *
      * @param file
+     * @return
      */
-    public void asFlatFile(@NonNull File file, @NonNull ExecutorConfiguration configuration) throws IOException {
-        val fb = asFlatBuffers(configuration);
-        val offset = fb.position();
+    public static SameDiff fromFlatFile(@NonNull File file) throws IOException {
+        return fromFlatFile(file, null);
+    }
 
-        val array = fb.array();
+    /**
+     * This method restores SameDiff instance from files created with {@link #asFlatFile(File, File, long)}.
+     * Arrays stored in weights file are backed by the mapped file, see {@link MappedWeights}.
+     *
+     * @param file        graph file
+     * @param weightsFile weights file, or null if graph has all arrays embedded
+     * @return
+     */
+    public static SameDiff fromFlatFile(@NonNull File file, File weightsFile) throws IOException {
+        ByteBuffer bb;
+        try (val raf = new RandomAccessFile(file, "r"); val channel = raf.getChannel()) {
+            bb = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
 
-        try (val fos = new FileOutputStream(file); val bos = new BufferedOutputStream(fos); val dos = new DataOutputStream(bos)) {
-            dos.write(array, offset, array.length - offset);
+        if (weightsFile == null)
+            return fromFlatBuffers(bb, null);
+
+        try (val weights = MappedWeights.open(weightsFile)) {
+            return fromFlatBuffers(bb, weights);
+        }
+    }
+
+    /**
+     * This method restores SameDiff instance from FlatBuffers created with {@link #asFlatBuffers()}
+     *
+     * @param bb
+     * @return
+     */
+    public static SameDiff fromFlatBuffers(@NonNull ByteBuffer bb) {
+        return fromFlatBuffers(bb, null);
+    }
+
+    /**
+     * This method restores SameDiff instance from FlatBuffers.
+     * Control flow and function scopes can't be restored yet.
+     *
+     * @param bb      serialized graph
+     * @param weights weights for variables not embedded into the graph, or null
+     * @return
+     */
+    public static SameDiff fromFlatBuffers(@NonNull ByteBuffer bb, MappedWeights weights) {
+        val graph = FlatGraph.getRootAsFlatGraph(bb);
+        val sameDiff = SameDiff.create();
+
+        try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            Map<Integer, String> variableIds = new HashMap<>();
+            for (int e = 0; e < graph.variablesLength(); e++) {
+                val variable = graph.variables(e);
+                val name = variable.name();
+                val flatArray = variable.ndarray();
+
+                INDArray arr;
+                if (flatArray != null)
+                    arr = Nd4j.createFromFlatArray(flatArray);
+                else if (weights != null && weights.contains(name))
+                    arr = weights.get(name);
+                else
+                    throw new ND4JIllegalStateException("No array found for variable [" + name + "]: it's stored in external weights file");
+
+                sameDiff.var(name, arr);
+                variableIds.put(variable.id().first(), name);
+            }
+
+            Map<String, DifferentialFunction> prototypes = flatOpPrototypes();
+            Map<Integer, String[]> nodeOutputs = new HashMap<>();
+            for (int e = 0; e < graph.nodesLength(); e++) {
+                val node = graph.nodes(e);
+                val function = fromFlatNode(sameDiff, node, prototypes, variableIds, nodeOutputs);
+                nodeOutputs.put(node.id(), sameDiff.getOutputsForFunction(function));
+            }
         }
+
+        return sameDiff;
+    }
+
+    private static DifferentialFunction fromFlatNode(SameDiff sameDiff, FlatNode node, Map<String, DifferentialFunction> prototypes,
+                                                     Map<Integer, String> variableIds, Map<Integer, String[]> nodeOutputs) {
+        if (node.opType() == OpType.LOGIC)
+            throw new UnsupportedOperationException("Restoring control flow and function scopes isn't supported yet: node [" + node.name() + "]");
+
+        String opName = node.opName();
+        List<String> outputs = new ArrayList<>();
+        for (int i = 0; i < node.outputNamesLength(); i++)
+            outputs.add(node.outputNames(i));
+
+        // graphs saved without output names have just the name of the first output
+        if (outputs.isEmpty())
+            outputs.add(node.name());
+
+        DifferentialFunction prototype = opName == null || opName.isEmpty() ? null : DifferentialFunctionClassHolder.getInstance().getInstance(opName);
+        if (prototype == null)
+            prototype = prototypes.get(node.opType() + ":" + node.opNum());
+
+        if (prototype == null)
+            throw new ND4JIllegalStateException("Unknown op for node [" + node.name() + "]: type ["
+                    + getTypeFromByte(node.opType()) + "], opNum [" + node.opNum() + "]");
+
+        DifferentialFunction function;
+        try {
+            function = prototype.getClass().newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new ND4JIllegalStateException("Unable to create op [" + prototype.opName() + "]", e);
+        }
+
+        String ownName = node.name() == null || node.name().isEmpty() ? prototype.opName() : node.name();
+        if (sameDiff.functionInstancesById.containsKey(ownName))
+            ownName = ownName + "_" + node.id();
+
+        function.setSameDiff(sameDiff);
+        function.setOwnName(ownName);
+
+        val inputs = new String[node.inputPairedLength()];
+        for (int i = 0; i < inputs.length; i++) {
+            val pair = node.inputPaired(i);
+            val producer = nodeOutputs.get(pair.first());
+            if (producer != null) {
+                if (pair.second() >= producer.length)
+                    throw new ND4JIllegalStateException("Node [" + node.name() + "] refers to output " + pair.second()
+                            + " of node with " + producer.length + " outputs");
+
+                inputs[i] = producer[pair.second()];
+            } else {
+                val name = variableIds.get(pair.first());
+                if (name == null)
+                    throw new ND4JIllegalStateException("Node [" + node.name() + "] refers to unknown node or variable [" + pair.first() + "]");
+
+                // variables are referenced by base name and output index
+                val indexed = pair.second() > 0 ? parseVariable(name).getFirst() + ":" + pair.second() : parseVariable(name).getFirst();
+                inputs[i] = sameDiff.getVariable(indexed) != null ? indexed : name;
+            }
+        }
+
+        for (val output : outputs) {
+            if (sameDiff.getVariable(output) == null)
+                sameDiff.var(output, (long[]) null, new ZeroInitScheme('c'));
+        }
+
+        sameDiff.putFunctionForId(ownName, function);
+        sameDiff.addArgsFor(inputs, function);
+        sameDiff.addOutgoingFor(outputs.toArray(new String[outputs.size()]), function);
+
+        if (function instanceof DynamicCustomOp) {
+            val customOp = (DynamicCustomOp) function;
+            for (int i = 0; i < node.extraIntegerLength(); i++)
+                customOp.addIArgument(node.extraInteger(i));
+
+            for (int i = 0; i < node.extraParamsLength(); i++)
+                customOp.addTArgument(node.extraParams(i));
+        } else {
+            if (node.extraParamsLength() > 0) {
+                val extraArgs = new Object[node.extraParamsLength()];
+                for (int i = 0; i < extraArgs.length; i++)
+                    extraArgs[i] = node.extraParams(i);
+
+                function.setExtraArgs(extraArgs);
+            }
+
+            if (node.opType() == OpType.SCALAR)
+                function.setScalarValue(node.scalar());
+
+            if (node.dimensionsLength() > 0) {
+                val dimensions = new int[node.dimensionsLength()];
+                for (int i = 0; i < dimensions.length; i++)
+                    dimensions[i] = node.dimensions(i);
+
+                function.setDimensions(dimensions);
+            }
+        }
+
+        return function;
+    }
+
+    /**
+     * Returns op prototypes by "flatOpType:opNum" key, for nodes saved without op name
+     */
+    private static Map<String, DifferentialFunction> flatOpPrototypes() {
+        val holder = DifferentialFunctionClassHolder.getInstance();
+        val names = new ArrayList<String>(holder.opNames());
+        Collections.sort(names);
+
+        Map<String, DifferentialFunction> ret = new HashMap<>();
+        for (val name : names) {
+            val prototype = holder.getInstance(name);
+            try {
+                val type = prototype.opType();
+                if (type == null || getFlatOpType(type) == OpType.LOGIC)
+                    continue;
+
+                val key = getFlatOpType(type) + ":" + getOpNum(prototype.opName(), type);
+                if (!ret.containsKey(key))
+                    ret.put(key, prototype);
+            } catch (Exception e) {
+                // not every op can be described without being configured first
+                log.trace("Skipping op [{}]", name, e);
+            }
+        }
+
+        return ret;
     }
 
     /**
@@ -327,6 +327,12 @@ public class SameDiffOpExecutioner implements OpExecutioner,OpProfiler.OpProfile
 
     }
 
+    @Override
+    public void execFused(List<Op> ops) {
+        for (Op op : ops)
+            exec(op);
+    }
+
     /**
      * This method executes specified RandomOp using default RNG available via Nd4j.getRandom()
      *
@@ -496,6 +502,16 @@ public class SameDiffOpExecutioner implements OpExecutioner,OpProfiler.OpProfile
         backendExecutioner.exec(op);
     }
 
+    @Override
+    public OpContext buildContext() {
+        return backendExecutioner.buildContext();
+    }
+
+    @Override
+    public void exec(CustomOp op, OpContext context) {
+        backendExecutioner.exec(op, context);
+    }
+
     @Override
     public List<long[]> calculateOutputShape(CustomOp op) {
         return backendExecutioner.calculateOutputShape(op);
@@ -0,0 +1,182 @@
+package org.nd4j.autodiff.samediff;
+
+import com.google.common.collect.MapMaker;
+import com.rits.cloning.Cloner;
+import com.rits.cloning.IDeepCloner;
+import com.rits.cloning.IFastCloner;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.autodiff.util.cloner.INDArrayFastCloner;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe inference over a single copy of SameDiff weights.
+ *
+ * Every thread calling {@link #output(Map)} gets its own replica of the graph, created on first call: ops and
+ * variables are copied, but arrays of weights (variables with arrays, that aren't placeholders and aren't produced by
+ * any op) are shared with the original graph, so weight memory doesn't grow with number of threads. Placeholders,
+ * intermediate results and workspaces are per thread.
+ *
+ * Shared weights are read-only: graphs with in-place ops modifying weights are rejected, and the original graph
+ * shouldn't be modified or executed while this instance is in use. As with {@link SameDiff} itself, shapes of
+ * placeholders should stay the same from call to call within a thread.
+ *
+ * Replicas are dropped once their threads die. Threads done with inference should call {@link #release()}, which also
+ * frees the workspaces of their replica; {@link #close()} drops all replicas.
+ */
+@Slf4j
+public class SharedWeightsInference implements Closeable {
+    private final SameDiff sameDiff;
+    private final String[] outputs;
+    private final Set<INDArray> weights = Collections.newSetFromMap(new IdentityHashMap<INDArray, Boolean>());
+    private final Set<String> transients = new HashSet<>();
+    // replicas by thread, weak keys so replicas of dead threads can be collected
+    private final ConcurrentMap<Thread, SameDiff> replicas = new MapMaker().weakKeys().makeMap();
+    private volatile boolean closed = false;
+
+    /**
+     * @param sameDiff graph to execute, its weights are shared by all threads
+     * @param outputs  names of the variables to return
+     */
+    public SharedWeightsInference(@NonNull SameDiff sameDiff, @NonNull String... outputs) {
+        if (outputs.length == 0)
+            throw new IllegalArgumentException("At least one output should be specified");
+
+        for (String output : outputs)
+            if (sameDiff.getVariable(output) == null)
+                throw new ND4JIllegalStateException("No variable found for name " + output);
+
+        this.sameDiff = sameDiff;
+        this.outputs = outputs;
+
+        for (DifferentialFunction function : sameDiff.functions())
+            transients.addAll(Arrays.asList(GraphFunctions.outputsOf(sameDiff, function)));
+
+        for (SDVariable variable : sameDiff.variables()) {
+            String name = variable.getVarName();
+            if (sameDiff.isPlaceHolder(name))
+                transients.add(name);
+            else if (!transients.contains(name) && sameDiff.getArrForVarName(name) != null)
+                weights.add(sameDiff.getArrForVarName(name));
+        }
+
+        for (DifferentialFunction function : sameDiff.functions()) {
+            if (!GraphFunctions.isInPlace(function))
+                continue;
+
+            for (String input : GraphFunctions.inputsOf(sameDiff, function))
+                if (!transients.contains(input))
+                    throw new ND4JIllegalStateException("Op [" + function.getOwnName() + "] modifies weight ["
+                                    + input + "] in place, so weights can't be shared");
+        }
+    }
+
+    /**
+     * This method executes the graph for given placeholders on current thread. Thread-safe.
+     *
+     * @param placeholders values for placeholders, may be empty
+     * @return requested outputs, by variable name
+     */
+    public Map<String, INDArray> output(@NonNull Map<String, INDArray> placeholders) {
+        return replica().execWithPlan(placeholders, outputs);
+    }
+
+    /**
+     * @return number of graph replicas currently held, one per thread
+     */
+    public int getNumReplicas() {
+        return replicas.size();
+    }
+
+    /**
+     * This method drops replica of the current thread, and frees its workspaces.
+     * Replica is created again if this thread calls {@link #output(Map)} later.
+     */
+    public void release() {
+        SameDiff replica = replicas.remove(Thread.currentThread());
+        if (replica != null) {
+            replica.releaseThreadResources();
+            dispose(replica);
+        }
+    }
+
+    /**
+     * This method drops replicas of all threads. Workspaces of other threads are freed only when those threads
+     * call {@link #release()} or die. Original graph and its weights stay intact.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        release();
+
+        for (SameDiff replica : replicas.values())
+            dispose(replica);
+
+        replicas.clear();
+    }
+
+    /**
+     * Returns replica of the current thread, creating it on first call
+     */
+    SameDiff replica() {
+        if (closed)
+            throw new ND4JIllegalStateException("SharedWeightsInference is closed");
+
+        Thread thread = Thread.currentThread();
+        SameDiff replica = replicas.get(thread);
+        if (replica == null) {
+            replica = replicate();
+            replicas.put(thread, replica);
+        }
+
+        return replica;
+    }
+
+    /**
+     * Copies the graph, sharing arrays of the weights, and dropping placeholder values and intermediate results
+     */
+    private SameDiff replicate() {
+        Cloner cloner = SameDiff.newCloner();
+        final IFastCloner arrayCloner = new INDArrayFastCloner();
+        IFastCloner sharingCloner = new IFastCloner() {
+            @Override
+            public Object clone(Object o, IDeepCloner deepCloner, Map<Object, Object> clones) {
+                return weights.contains(o) ? o : arrayCloner.clone(o, deepCloner, clones);
+            }
+        };
+        cloner.registerFastCloner(Nd4j.getBackend().getNDArrayClass(), sharingCloner);
+
+        SameDiff replica;
+        synchronized (sameDiff) {
+            try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+                replica = cloner.deepClone(sameDiff);
+            }
+        }
+
+        dispose(replica);
+
+        log.debug("Created graph replica for thread [{}]", Thread.currentThread().getName());
+        return replica;
+    }
+
+    /**
+     * Drops placeholder values and intermediate results of the replica, shared weights stay untouched
+     */
+    private void dispose(SameDiff replica) {
+        for (String name : transients)
+            replica.releaseArray(name);
+    }
+}
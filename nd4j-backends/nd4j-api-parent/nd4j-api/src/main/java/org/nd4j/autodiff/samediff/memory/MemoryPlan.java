@@ -0,0 +1,95 @@
+package org.nd4j.autodiff.samediff.memory;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of {@link MemoryPlanner}: placement of intermediate results within a single arena,
+ * and the points of execution after which they aren't needed anymore.
+ *
+ * All offsets and lengths are in elements.
+ */
+public class MemoryPlan {
+    private final Map<String, Long> offsets;
+    private final Map<String, Long> lengths;
+    private final List<List<String>> releasedAfter;
+    @Getter
+    private final long arenaLength;
+    @Getter
+    private final long totalLength;
+    @Getter
+    private final int elementSize;
+
+    protected MemoryPlan(Map<String, Long> offsets, Map<String, Long> lengths, List<List<String>> releasedAfter,
+                    long arenaLength, long totalLength, int elementSize) {
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.releasedAfter = releasedAfter;
+        this.arenaLength = arenaLength;
+        this.totalLength = totalLength;
+        this.elementSize = elementSize;
+    }
+
+    /**
+     * This method returns true if variable is placed within the arena
+     */
+    public boolean isPlanned(String varName) {
+        return offsets.containsKey(varName);
+    }
+
+    /**
+     * This method returns offset of the variable within the arena
+     */
+    public long getOffset(String varName) {
+        Long ret = offsets.get(varName);
+        if (ret == null)
+            throw new IllegalArgumentException("Variable [" + varName + "] isn't planned");
+
+        return ret;
+    }
+
+    /**
+     * This method returns number of elements reserved for the variable
+     */
+    public long getLength(String varName) {
+        Long ret = lengths.get(varName);
+        if (ret == null)
+            throw new IllegalArgumentException("Variable [" + varName + "] isn't planned");
+
+        return ret;
+    }
+
+    /**
+     * This method returns names of planned variables that aren't used after op with given index
+     */
+    public List<String> getReleasedAfter(int opIndex) {
+        return Collections.unmodifiableList(releasedAfter.get(opIndex));
+    }
+
+    /**
+     * This method returns arena size in bytes
+     */
+    public long getArenaBytes() {
+        return arenaLength * elementSize;
+    }
+
+    /**
+     * This method returns size in bytes that planned variables would take without memory reuse
+     */
+    public long getTotalBytes() {
+        return totalLength * elementSize;
+    }
+
+    public int numPlanned() {
+        return offsets.size();
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryPlan(variables=" + offsets.size() + ", arenaBytes=" + getArenaBytes() + ", totalBytes="
+                        + getTotalBytes() + ")";
+    }
+}
@@ -0,0 +1,143 @@
+package org.nd4j.autodiff.samediff.memory;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Liveness based memory planner for straight-line op sequences.
+ *
+ * Every planned variable lives from the op producing it to its last consumer. Variables are placed into
+ * a single arena, largest first, each into the tightest gap left by already placed variables with overlapping
+ * lifetime (greedy by size). Variables that are never live at the same time share memory.
+ */
+public class MemoryPlanner {
+    /**
+     * Every variable starts at an offset aligned to this number of bytes
+     */
+    public static final int ALIGNMENT_BYTES = 64;
+
+    private MemoryPlanner() {}
+
+    /**
+     * @param inputs      input variable names, per op, in execution order
+     * @param outputs     output variable names, per op, in execution order
+     * @param lengths     number of elements for each op output to be planned
+     * @param notPlanned  variables to leave out of the plan, i.e. requested outputs or in-place ones
+     * @param elementSize size of a single element in bytes
+     * @return the plan
+     */
+    public static MemoryPlan plan(@NonNull List<String[]> inputs, @NonNull List<String[]> outputs,
+                    @NonNull Map<String, Long> lengths, @NonNull Set<String> notPlanned, int elementSize) {
+        if (inputs.size() != outputs.size())
+            throw new IllegalArgumentException("Number of input and output lists should match");
+
+        int numOps = outputs.size();
+        long alignment = Math.max(1, ALIGNMENT_BYTES / elementSize);
+
+        // lifetimes
+        final Map<String, Buffer> buffers = new LinkedHashMap<>();
+        for (int i = 0; i < numOps; i++) {
+            for (String input : inputs.get(i)) {
+                Buffer b = buffers.get(input);
+                if (b != null)
+                    b.lastUse = i;
+            }
+
+            for (String output : outputs.get(i)) {
+                if (notPlanned.contains(output) || buffers.containsKey(output))
+                    continue;
+
+                Long length = lengths.get(output);
+                if (length == null)
+                    throw new IllegalArgumentException("Length of variable [" + output + "] is unknown");
+
+                buffers.put(output, new Buffer(output, (length + alignment - 1) / alignment * alignment, i));
+            }
+        }
+
+        List<Buffer> order = new ArrayList<>(buffers.values());
+        Collections.sort(order, new Comparator<Buffer>() {
+            @Override
+            public int compare(Buffer o1, Buffer o2) {
+                if (o1.length != o2.length)
+                    return o1.length > o2.length ? -1 : 1;
+
+                return Integer.compare(o1.firstUse, o2.firstUse);
+            }
+        });
+
+        // placement
+        List<Buffer> placed = new ArrayList<>();
+        long arenaLength = 0;
+        long totalLength = 0;
+        for (Buffer b : order) {
+            List<Buffer> conflicts = new ArrayList<>();
+            for (Buffer p : placed)
+                if (p.firstUse <= b.lastUse && b.firstUse <= p.lastUse)
+                    conflicts.add(p);
+
+            Collections.sort(conflicts, new Comparator<Buffer>() {
+                @Override
+                public int compare(Buffer o1, Buffer o2) {
+                    return Long.compare(o1.offset, o2.offset);
+                }
+            });
+
+            long best = -1;
+            long bestGap = Long.MAX_VALUE;
+            long previousEnd = 0;
+            for (Buffer c : conflicts) {
+                long gap = c.offset - previousEnd;
+                if (gap >= b.length && gap < bestGap) {
+                    best = previousEnd;
+                    bestGap = gap;
+                }
+
+                previousEnd = Math.max(previousEnd, c.offset + c.length);
+            }
+
+            b.offset = best >= 0 ? best : previousEnd;
+            placed.add(b);
+
+            arenaLength = Math.max(arenaLength, b.offset + b.length);
+            totalLength += b.length;
+        }
+
+        Map<String, Long> offsets = new HashMap<>();
+        Map<String, Long> planLengths = new HashMap<>();
+        List<List<String>> releasedAfter = new ArrayList<>(numOps);
+        for (int i = 0; i < numOps; i++)
+            releasedAfter.add(new ArrayList<String>());
+
+        for (Buffer b : buffers.values()) {
+            offsets.put(b.name, b.offset);
+            planLengths.put(b.name, b.length);
+            releasedAfter.get(b.lastUse).add(b.name);
+        }
+
+        return new MemoryPlan(offsets, planLengths, releasedAfter, arenaLength, totalLength, elementSize);
+    }
+
+    private static class Buffer {
+        private final String name;
+        private final long length;
+        private final int firstUse;
+        private int lastUse;
+        private long offset;
+
+        private Buffer(String name, long length, int firstUse) {
+            this.name = name;
+            this.length = length;
+            this.firstUse = firstUse;
+            this.lastUse = firstUse;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package org.nd4j.autodiff.samediff.serde;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * File with raw array data laid out for memory mapping, used for external weights of SameDiff graphs.
+ *
+ * File starts with a header describing every array: name, data type, ordering, shape, offset and length.
+ * Data of every array is stored in native byte order, starting at an offset aligned to {@link #ALIGNMENT} bytes,
+ * so arrays can be backed by the mapped file directly, without reading or copying them.
+ *
+ * Arrays are mapped privately: changes made to them are never written back to the file.
+ * If the file isn't writable, private mapping isn't possible, and arrays are read into memory instead.
+ */
+@Slf4j
+public class MappedWeights implements Closeable {
+    public static final int ALIGNMENT = 64;
+
+    // "ND4JWTS1"
+    private static final long MAGIC = 0x4E44344A57545331L;
+
+    private final File file;
+    private final Map<String, Entry> entries;
+    private final Map<String, INDArray> arrays = new HashMap<>();
+
+    private MappedWeights(File file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+
+        if (!Nd4j.isMappable(file, FileChannel.MapMode.PRIVATE))
+            log.warn("Weights file [{}] isn't writable, so it can't be mapped privately: arrays will be read into memory",
+                            file.getAbsolutePath());
+    }
+
+    /**
+     * This method writes given arrays to the file.
+     * HALF arrays and arrays above 2GB aren't supported, since they can't be mapped back as a single data buffer.
+     *
+     * @param file   file to write to
+     * @param arrays arrays to write, by name
+     * @throws IOException
+     */
+    public static void write(@NonNull File file, @NonNull Map<String, INDArray> arrays) throws IOException {
+        Nd4j.getExecutioner().commit();
+
+        List<Entry> list = new ArrayList<>(arrays.size());
+        List<INDArray> data = new ArrayList<>(arrays.size());
+        for (Map.Entry<String, INDArray> e : arrays.entrySet()) {
+            INDArray arr = e.getValue();
+            if (arr.data().dataType() == DataBuffer.Type.HALF)
+                throw new ND4JIllegalStateException("Array [" + e.getKey() + "] is HALF: HALF weights aren't supported");
+
+            long bytes = arr.lengthLong() * arr.data().getElementSize();
+            checkSize(e.getKey(), bytes);
+
+            if (arr.isView() || arr.offset() != 0 || arr.elementWiseStride() != 1)
+                arr = arr.dup(arr.ordering());
+
+            list.add(new Entry(e.getKey(), arr.data().dataType(), arr.ordering(), arr.shape(), 0L, bytes));
+            data.add(arr);
+        }
+
+        // offsets are fixed-width, so header size doesn't depend on them
+        long position = align(header(list).length);
+        for (Entry entry : list) {
+            entry.offset = position;
+            position = align(position + entry.bytes);
+        }
+
+        byte[] header = header(list);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            raf.setLength(0);
+            writeFully(channel, ByteBuffer.wrap(header), 0);
+
+            for (int i = 0; i < list.size(); i++) {
+                ByteBuffer buffer = data.get(i).data().asNio().duplicate();
+                buffer.position(0);
+                buffer.limit((int) list.get(i).bytes);
+                writeFully(channel, buffer, list.get(i).offset);
+            }
+
+            raf.setLength(position);
+        }
+    }
+
+    /**
+     * This method opens weights file written with {@link #write(File, Map)}. Only header is read here.
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static MappedWeights open(@NonNull File file) throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (dis.readLong() != MAGIC)
+                throw new ND4JIllegalStateException("File [" + file.getAbsolutePath() + "] isn't a weights file");
+
+            ByteOrder order = dis.readBoolean() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            if (!order.equals(ByteOrder.nativeOrder()))
+                throw new ND4JIllegalStateException("Weights file [" + file.getAbsolutePath() + "] was written with "
+                                + order + " byte order, but this platform uses " + ByteOrder.nativeOrder());
+
+            int count = dis.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = dis.readUTF();
+                DataBuffer.Type type = DataBuffer.Type.valueOf(dis.readUTF());
+                char ordering = dis.readChar();
+                long[] shape = new long[dis.readInt()];
+                for (int e = 0; e < shape.length; e++)
+                    shape[e] = dis.readLong();
+
+                long offset = dis.readLong();
+                long bytes = dis.readLong();
+                entries.put(name, new Entry(name, type, ordering, shape, offset, bytes));
+            }
+        }
+
+        return new MappedWeights(file, entries);
+    }
+
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * This method returns array with given name, backed by the mapped file.
+     * Every call for the same name returns the same array.
+     *
+     * @param name
+     * @return
+     */
+    public synchronized INDArray get(@NonNull String name) {
+        INDArray arr = arrays.get(name);
+        if (arr != null)
+            return arr;
+
+        Entry entry = entries.get(name);
+        if (entry == null)
+            throw new ND4JIllegalStateException("No array [" + name + "] in weights file [" + file.getAbsolutePath() + "]");
+
+        if (entry.type != Nd4j.dataType())
+            throw new ND4JIllegalStateException("Array [" + name + "] was saved as " + entry.type
+                            + ", but current data type is " + Nd4j.dataType());
+
+        checkSize(name, entry.bytes);
+
+        ByteBuffer buffer;
+        try {
+            buffer = Nd4j.mapRegion(file, FileChannel.MapMode.PRIVATE, entry.offset, entry.bytes);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read array [" + name + "] from [" + file.getAbsolutePath() + "]", e);
+        }
+
+        // data buffer is backed by the mapped memory, only shape information is allocated here
+        try (MemoryWorkspace ignored = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            DataBuffer data = Nd4j.createBuffer(buffer, entry.type, (int) (entry.bytes / elementSize(entry.type)));
+            arr = Nd4j.create(data, entry.shape, Nd4j.getStrides(entry.shape, entry.ordering), 0, entry.ordering);
+        }
+
+        arrays.put(name, arr);
+        return arr;
+    }
+
+    /**
+     * Nothing is held open: every array is mapped on its own, and arrays returned before stay valid.
+     */
+    @Override
+    public void close() throws IOException {
+        // no-op
+    }
+
+    private static byte[] header(List<Entry> entries) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(bos)) {
+            dos.writeLong(MAGIC);
+            dos.writeBoolean(ByteOrder.nativeOrder().equals(ByteOrder.BIG_ENDIAN));
+            dos.writeInt(entries.size());
+            for (Entry entry : entries) {
+                dos.writeUTF(entry.name);
+                dos.writeUTF(entry.type.name());
+                dos.writeChar(entry.ordering);
+                dos.writeInt(entry.shape.length);
+                for (long s : entry.shape)
+                    dos.writeLong(s);
+
+                dos.writeLong(entry.offset);
+                dos.writeLong(entry.bytes);
+            }
+        }
+
+        return bos.toByteArray();
+    }
+
+    private static void checkSize(String name, long bytes) {
+        if (bytes > Integer.MAX_VALUE)
+            throw new ND4JIllegalStateException("Array [" + name + "] takes " + bytes
+                            + " bytes: arrays above 2GB aren't supported");
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+    }
+
+    private static long align(long position) {
+        return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static int elementSize(DataBuffer.Type type) {
+        switch (type) {
+            case DOUBLE:
+            case LONG:
+                return 8;
+            case HALF:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+
+    private static class Entry {
+        private final String name;
+        private final DataBuffer.Type type;
+        private final char ordering;
+        private final long[] shape;
+        private long offset;
+        private final long bytes;
+
+        private Entry(String name, DataBuffer.Type type, char ordering, long[] shape, long offset, long bytes) {
+            this.name = name;
+            this.type = type;
+            this.ordering = ordering;
+            this.shape = shape;
+            this.offset = offset;
+            this.bytes = bytes;
+        }
+    }
+}
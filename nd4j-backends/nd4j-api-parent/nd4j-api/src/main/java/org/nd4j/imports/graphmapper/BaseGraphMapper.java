@@ -1,11 +1,14 @@
 package org.nd4j.imports.graphmapper;
 
+import com.github.os72.protobuf351.CodedInputStream;
 import com.github.os72.protobuf351.Message;
 import com.github.os72.protobuf351.TextFormat;
+import com.github.os72.protobuf351.UnsafeByteOperations;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.io.IOUtils;
 import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.autodiff.samediff.GraphOptimizer;
 import org.nd4j.autodiff.samediff.SameDiff;
 import org.nd4j.imports.NoOpNameFoundException;
 import org.nd4j.imports.descriptors.properties.PropertyMapping;
@@ -15,6 +18,8 @@ import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.weightinit.impl.ZeroInitScheme;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -117,6 +122,54 @@ public abstract class BaseGraphMapper<GRAPH_TYPE,NODE_TYPE,ATTR_TYPE,TENSOR_TYPE
         return importGraph(def);
     }
 
+    /**
+     * This method memory-maps given binary protobuf file, and returns input over it with aliasing enabled:
+     * parsed bytes fields share the mapping instead of copying it, so large constants are read only once.
+     *
+     * @param graphFile
+     * @return input over the whole file, or null if file is over 2GB, protobuf limit for a single message
+     * @throws IOException
+     */
+    protected static CodedInputStream mappedInput(File graphFile) throws IOException {
+        ByteBuffer mapped;
+        try (RandomAccessFile raf = new RandomAccessFile(graphFile, "r"); FileChannel channel = raf.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE)
+                return null;
+
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // mapping is read-only, so aliasing it is safe
+        CodedInputStream input = UnsafeByteOperations.unsafeWrap(mapped).newCodedInput();
+        input.enableAliasing(true);
+        input.setSizeLimit(Integer.MAX_VALUE);
+        return input;
+    }
+
+    /**
+     * Imports the graph, and optimizes it for inference of given outputs:
+     * subgraphs depending on constants only are evaluated once, and nodes not needed for the outputs are removed.
+     * See {@link GraphOptimizer} for details. Same can be done later for any graph with {@link SameDiff#optimize(String...)}
+     *
+     * @param graphFile
+     * @param outputs   names of the outputs that should stay computable
+     * @return
+     */
+    public SameDiff importOptimizedGraph(File graphFile, String... outputs) {
+        return GraphOptimizer.optimize(importGraph(graphFile), outputs);
+    }
+
+    /**
+     * Imports the graph, and optimizes it for inference of given outputs, see {@link #importOptimizedGraph(File, String...)}
+     *
+     * @param inputStream
+     * @param outputs     names of the outputs that should stay computable
+     * @return
+     */
+    public SameDiff importOptimizedGraph(InputStream inputStream, String... outputs) {
+        return GraphOptimizer.optimize(importGraph(inputStream), outputs);
+    }
+
     @Override
     public Map<String, NODE_TYPE> nameIndexForGraph(GRAPH_TYPE graph) {
         List<NODE_TYPE> nodes = getNodeList(graph);
@@ -0,0 +1,189 @@
+package org.nd4j.imports.graphmapper;
+
+import com.github.os72.protobuf351.ByteString;
+import lombok.NonNull;
+import org.bytedeco.javacpp.indexer.HalfIndexer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Creates DataBuffers from raw little endian tensor bytes of imported graphs (TF tensor_content, ONNX raw_data).
+ *
+ * Bytes are copied straight into the DataBuffer: with matching data type and byte order it's a single bulk copy,
+ * otherwise elements are converted while copying. No intermediate java arrays are created.
+ * Buffers are always created with current {@link Nd4j#dataType()}.
+ */
+public class RawTensorUtil {
+
+    /**
+     * Element type of raw tensor bytes
+     */
+    public enum ElementType {
+        FLOAT(4), DOUBLE(8), HALF(2), INT8(1), INT16(2), INT32(4), INT64(8);
+
+        private final int size;
+
+        ElementType(int size) {
+            this.size = size;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+
+    private RawTensorUtil() {}
+
+    /**
+     * This method copies raw tensor bytes into new DataBuffer
+     *
+     * @param content raw tensor bytes, little endian
+     * @param type    element type of the bytes
+     * @return
+     */
+    public static DataBuffer toBuffer(@NonNull ByteString content, @NonNull ElementType type) {
+        int length = content.size() / type.getSize();
+        DataBuffer.Type dataType = Nd4j.dataType();
+
+        if (isSameType(type, dataType) && ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN && length > 0) {
+            DataBuffer buffer = Nd4j.createBuffer(length, false);
+            content.copyTo(target(buffer, length));
+            return buffer;
+        }
+
+        return toBuffer(content.asReadOnlyByteBuffer(), type, length);
+    }
+
+    /**
+     * This method creates DataBuffer from raw tensor bytes. If possible, i.e. bytes are in direct buffer, with matching
+     * data type and byte order, DataBuffer is backed by the given buffer, and nothing is copied.
+     * HALF bytes are always copied, since HALF buffers can't be backed by a ByteBuffer.
+     *
+     * @param content raw tensor bytes, little endian
+     * @param type    element type of the bytes
+     * @return
+     */
+    public static DataBuffer wrap(@NonNull ByteBuffer content, @NonNull ElementType type) {
+        int length = content.remaining() / type.getSize();
+
+        if (content.isDirect() && !content.isReadOnly() && type != ElementType.HALF && isSameType(type, Nd4j.dataType())
+                        && ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN)
+            return Nd4j.createBuffer(content.slice().order(ByteOrder.nativeOrder()), Nd4j.dataType(), length);
+
+        return toBuffer(content, type, length);
+    }
+
+    private static DataBuffer toBuffer(ByteBuffer content, ElementType type, int length) {
+        ByteBuffer source = content.slice().order(ByteOrder.LITTLE_ENDIAN);
+        DataBuffer.Type dataType = Nd4j.dataType();
+
+        if (dataType == DataBuffer.Type.FLOAT || dataType == DataBuffer.Type.DOUBLE) {
+            DataBuffer buffer = Nd4j.createBuffer(length, false);
+            ByteBuffer target = target(buffer, length);
+            if (dataType == DataBuffer.Type.FLOAT)
+                copy(source, type, target.asFloatBuffer(), null, length);
+            else
+                copy(source, type, null, target.asDoubleBuffer(), length);
+
+            return buffer;
+        }
+
+        // HALF goes through conversion on creation
+        DoubleBuffer doubles = DoubleBuffer.allocate(length);
+        copy(source, type, null, doubles, length);
+        return Nd4j.createBuffer(doubles.array());
+    }
+
+    private static boolean isSameType(ElementType type, DataBuffer.Type dataType) {
+        return (type == ElementType.FLOAT && dataType == DataBuffer.Type.FLOAT)
+                        || (type == ElementType.DOUBLE && dataType == DataBuffer.Type.DOUBLE)
+                        || (type == ElementType.HALF && dataType == DataBuffer.Type.HALF);
+    }
+
+    private static ByteBuffer target(DataBuffer buffer, int length) {
+        ByteBuffer target = buffer.asNio().order(ByteOrder.nativeOrder());
+        target.position(0);
+        target.limit(length * buffer.getElementSize());
+        return target;
+    }
+
+    /**
+     * Copies elements of raw tensor bytes to either float or double target buffer, converting them
+     */
+    private static void copy(ByteBuffer source, ElementType type, FloatBuffer floats, DoubleBuffer doubles, int length) {
+        switch (type) {
+            case FLOAT: {
+                FloatBuffer src = source.asFloatBuffer();
+                if (floats != null)
+                    floats.put(src);
+                else
+                    for (int e = 0; e < length; e++)
+                        doubles.put(e, src.get(e));
+                break;
+            }
+            case DOUBLE: {
+                DoubleBuffer src = source.asDoubleBuffer();
+                if (doubles != null)
+                    doubles.put(src);
+                else
+                    for (int e = 0; e < length; e++)
+                        floats.put(e, (float) src.get(e));
+                break;
+            }
+            case HALF: {
+                ShortBuffer src = source.asShortBuffer();
+                for (int e = 0; e < length; e++)
+                    if (floats != null)
+                        floats.put(e, HalfIndexer.toFloat(src.get(e) & 0xFFFF));
+                    else
+                        doubles.put(e, HalfIndexer.toFloat(src.get(e) & 0xFFFF));
+                break;
+            }
+            case INT64: {
+                LongBuffer src = source.asLongBuffer();
+                for (int e = 0; e < length; e++)
+                    if (floats != null)
+                        floats.put(e, (float) src.get(e));
+                    else
+                        doubles.put(e, (double) src.get(e));
+                break;
+            }
+            case INT32: {
+                IntBuffer src = source.asIntBuffer();
+                for (int e = 0; e < length; e++)
+                    if (floats != null)
+                        floats.put(e, (float) src.get(e));
+                    else
+                        doubles.put(e, (double) src.get(e));
+                break;
+            }
+            case INT16: {
+                ShortBuffer src = source.asShortBuffer();
+                for (int e = 0; e < length; e++)
+                    if (floats != null)
+                        floats.put(e, (float) src.get(e));
+                    else
+                        doubles.put(e, (double) src.get(e));
+                break;
+            }
+            case INT8: {
+                for (int e = 0; e < length; e++)
+                    if (floats != null)
+                        floats.put(e, (float) source.get(e));
+                    else
+                        doubles.put(e, (double) source.get(e));
+                break;
+            }
+            default:
+                throw new UnsupportedOperationException("Unknown element type: [" + type + "]");
+        }
+    }
+}
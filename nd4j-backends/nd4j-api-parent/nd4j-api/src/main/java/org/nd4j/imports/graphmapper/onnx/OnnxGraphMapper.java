@@ -1,10 +1,14 @@
 package org.nd4j.imports.graphmapper.onnx;
 
 import com.github.os72.protobuf351.ByteString;
+import com.github.os72.protobuf351.CodedInputStream;
 import com.github.os72.protobuf351.Message;
+import com.github.os72.protobuf351.UnknownFieldSet;
+import com.google.common.primitives.Doubles;
 import com.google.common.primitives.Floats;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import onnx.OnnxProto3;
 import org.nd4j.autodiff.functions.DifferentialFunction;
@@ -16,6 +20,7 @@ import org.nd4j.imports.descriptors.properties.AttributeAdapter;
 import org.nd4j.imports.descriptors.properties.PropertyMapping;
 import org.nd4j.imports.graphmapper.BaseGraphMapper;
 import org.nd4j.imports.graphmapper.ImportState;
+import org.nd4j.imports.graphmapper.RawTensorUtil;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
@@ -23,8 +28,7 @@ import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.util.ArrayUtil;
 
 import java.io.*;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.*;
 
 /**
@@ -33,14 +37,68 @@ import java.util.*;
  *
  * @author Adam Gibson
  */
+@Slf4j
 public class OnnxGraphMapper extends BaseGraphMapper<OnnxProto3.GraphProto, OnnxProto3.NodeProto, OnnxProto3.AttributeProto,  onnx.OnnxProto3.TypeProto.Tensor> {
     private static OnnxGraphMapper INSTANCE = new OnnxGraphMapper();
 
+    // TensorProto fields of external data, missing in bundled schema: external_data and data_location
+    private static final int EXTERNAL_DATA_FIELD = 13;
+    private static final int DATA_LOCATION_FIELD = 14;
+    private static final long DATA_LOCATION_EXTERNAL = 1;
+
+    // directory external data locations are relative to, null if external data can't be resolved
+    private final File externalDataDirectory;
+
 
     public static OnnxGraphMapper getInstance() {
         return INSTANCE;
     }
 
+    public OnnxGraphMapper() {
+        this(null);
+    }
+
+    /**
+     * @param externalDataDirectory directory locations of external data are resolved against,
+     *                              needed to import models with external data from streams
+     */
+    public OnnxGraphMapper(File externalDataDirectory) {
+        this.externalDataDirectory = externalDataDirectory;
+    }
+
+
+    /**
+     * This method imports model from file. Model file is memory mapped and parsed with aliasing enabled,
+     * so raw data of initializers points into the mapped file instead of being copied to heap.
+     * Initializers stored as external data are memory mapped from their files, relative to the model directory,
+     * unless this mapper was created with another external data directory.
+     *
+     * @param graphFile
+     * @return
+     */
+    @Override
+    public SameDiff importGraph(File graphFile) {
+        if (externalDataDirectory == null)
+            return new OnnxGraphMapper(graphFile.getAbsoluteFile().getParentFile()).importGraph(graphFile);
+
+        OnnxProto3.GraphProto graph = null;
+        try {
+            graph = parseMappedGraph(graphFile);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to parse [{}] as binary model, trying text format", graphFile.getAbsolutePath(), e);
+        }
+
+        if (graph == null)
+            return super.importGraph(graphFile);
+
+        return importGraph(graph);
+    }
+
+    protected OnnxProto3.GraphProto parseMappedGraph(File graphFile) throws IOException {
+        // models over 2GB have to keep weights in external data
+        CodedInputStream input = mappedInput(graphFile);
+        return input == null ? null : OnnxProto3.ModelProto.parseFrom(input).getGraph();
+    }
 
     @Override
     public void dumpBinaryProtoAsText(InputStream inputFile, File outputFile) {
@@ -444,7 +502,6 @@ public class OnnxGraphMapper extends BaseGraphMapper<OnnxProto3.GraphProto, Onnx
 
     @Override
     public INDArray getNDArrayFromTensor(String tensorName, OnnxProto3.TypeProto.Tensor tensorProto, OnnxProto3.GraphProto graph) {
-        DataBuffer.Type type = dataTypeForTensor(tensorProto);
         if(!tensorProto.isInitialized()) {
             throw new ND4JIllegalStateException("Unable to retrieve ndarray. Tensor was not initialized");
         }
@@ -461,33 +518,140 @@ public class OnnxGraphMapper extends BaseGraphMapper<OnnxProto3.GraphProto, Onnx
         if(tensor == null)
             return null;
 
-        ByteString bytes = tensor.getRawData();
-        ByteBuffer byteBuffer = bytes.asReadOnlyByteBuffer().order(ByteOrder.nativeOrder());
-        ByteBuffer directAlloc = ByteBuffer.allocateDirect(byteBuffer.capacity()).order(ByteOrder.nativeOrder());
-        directAlloc.put(byteBuffer);
-        directAlloc.rewind();
-        long[] shape = getShapeFromTensor(tensorProto);
-        DataBuffer buffer = Nd4j.createBuffer(directAlloc,type, ArrayUtil.prod(shape));
-        INDArray arr = Nd4j.create(buffer).reshape(shape);
-        return arr;
+        return mapTensorData(tensor, getShapeFromTensor(tensorProto));
     }
 
     public INDArray mapTensorProto(OnnxProto3.TensorProto tensor) {
         if(tensor == null)
             return null;
 
+        return mapTensorData(tensor, getShapeFromTensor(tensor));
+    }
+
+    /**
+     * This method creates array from tensor data: raw data is copied straight into the DataBuffer, and external data
+     * is memory mapped, see {@link RawTensorUtil}. Arrays are always created with current {@link Nd4j#dataType()}.
+     *
+     * @param tensor tensor to convert
+     * @param shape  shape of the array
+     * @return
+     */
+    protected INDArray mapTensorData(OnnxProto3.TensorProto tensor, long[] shape) {
+        DataBuffer buffer = externalData(tensor);
+        if (buffer == null) {
+            if (!tensor.getRawData().isEmpty())
+                buffer = RawTensorUtil.toBuffer(tensor.getRawData(), elementType(tensor.getDataType()));
+            else
+                buffer = typedData(tensor);
+        }
+
+        if (buffer.length() != ArrayUtil.prodLong(shape))
+            throw new ND4JIllegalStateException("Tensor [" + tensor.getName() + "] has " + buffer.length()
+                            + " elements, but its shape is " + Arrays.toString(shape));
 
-        DataBuffer.Type type = nd4jTypeFromOnnxType(tensor.getDataType());
+        return Nd4j.create(buffer, shape, Nd4j.getStrides(shape, 'c'), 0, 'c');
+    }
 
-        ByteString bytes = tensor.getRawData();
-        ByteBuffer byteBuffer = bytes.asReadOnlyByteBuffer().order(ByteOrder.nativeOrder());
-        ByteBuffer directAlloc = ByteBuffer.allocateDirect(byteBuffer.capacity()).order(ByteOrder.nativeOrder());
-        directAlloc.put(byteBuffer);
-        directAlloc.rewind();
-        long[] shape = getShapeFromTensor(tensor);
-        DataBuffer buffer = Nd4j.createBuffer(directAlloc,type, ArrayUtil.prod(shape));
-        INDArray arr = Nd4j.create(buffer).reshape(shape);
-        return arr;
+    /**
+     * Returns data stored in typed fields of the tensor, used by models written without raw data
+     */
+    private static DataBuffer typedData(OnnxProto3.TensorProto tensor) {
+        switch (tensor.getDataType()) {
+            case FLOAT:
+                return Nd4j.createBuffer(Floats.toArray(tensor.getFloatDataList()));
+            case DOUBLE:
+                return Nd4j.createBuffer(Doubles.toArray(tensor.getDoubleDataList()));
+            case INT32:
+                return Nd4j.createBuffer(ArrayUtil.toDoubles(Ints.toArray(tensor.getInt32DataList())));
+            case INT64:
+                return Nd4j.createBuffer(ArrayUtil.toDoubles(Longs.toArray(tensor.getInt64DataList())));
+            default:
+                throw new UnsupportedOperationException("Unsupported data type of tensor [" + tensor.getName() + "]: " + tensor.getDataType());
+        }
+    }
+
+    /**
+     * Returns memory mapped data of the tensor stored in external file, or null if tensor has its data inline
+     */
+    private DataBuffer externalData(OnnxProto3.TensorProto tensor) {
+        UnknownFieldSet fields = tensor.getUnknownFields();
+        if (!fields.hasField(DATA_LOCATION_FIELD)
+                        || !fields.getField(DATA_LOCATION_FIELD).getVarintList().contains(DATA_LOCATION_EXTERNAL))
+            return null;
+
+        Map<String, String> entries = new HashMap<>();
+        if (fields.hasField(EXTERNAL_DATA_FIELD)) {
+            for (ByteString bytes : fields.getField(EXTERNAL_DATA_FIELD).getLengthDelimitedList()) {
+                try {
+                    // StringStringEntryProto: key = 1, value = 2
+                    UnknownFieldSet entry = UnknownFieldSet.parseFrom(bytes);
+                    if (entry.hasField(1) && entry.hasField(2))
+                        entries.put(entry.getField(1).getLengthDelimitedList().get(0).toStringUtf8(),
+                                        entry.getField(2).getLengthDelimitedList().get(0).toStringUtf8());
+                } catch (IOException e) {
+                    throw new ND4JIllegalStateException("Invalid external data of tensor [" + tensor.getName() + "]", e);
+                }
+            }
+        }
+
+        String location = entries.get("location");
+        if (location == null)
+            throw new ND4JIllegalStateException("No location of external data found for tensor [" + tensor.getName() + "]");
+
+        if (externalDataDirectory == null)
+            throw new ND4JIllegalStateException("Tensor [" + tensor.getName() + "] has external data, but no directory "
+                            + "to resolve it against: import the model from a file, or use new OnnxGraphMapper(directory)");
+
+        File file = resolveExternalData(tensor.getName(), location);
+        long offset = entries.containsKey("offset") ? Long.parseLong(entries.get("offset")) : 0;
+        long length = entries.containsKey("length") ? Long.parseLong(entries.get("length")) : file.length() - offset;
+
+        try {
+            return RawTensorUtil.wrap(Nd4j.mapRegion(file, FileChannel.MapMode.PRIVATE, offset, length), elementType(tensor.getDataType()));
+        } catch (IOException e) {
+            throw new ND4JIllegalStateException("Unable to map external data of tensor [" + tensor.getName() + "] from "
+                            + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Resolves location of external data against the external data directory.
+     * Locations escaping that directory (absolute paths, "..", symlinks pointing outside) are rejected.
+     */
+    private File resolveExternalData(String tensorName, String location) {
+        try {
+            File directory = externalDataDirectory.getCanonicalFile();
+            File file = new File(directory, location).getCanonicalFile();
+            if (new File(location).isAbsolute() || !file.toPath().startsWith(directory.toPath()))
+                throw new ND4JIllegalStateException("External data location [" + location + "] of tensor [" + tensorName
+                                + "] points outside of " + directory.getAbsolutePath());
+
+            return file;
+        } catch (IOException e) {
+            throw new ND4JIllegalStateException("Unable to resolve external data location [" + location
+                            + "] of tensor [" + tensorName + "]", e);
+        }
+    }
+
+    private static RawTensorUtil.ElementType elementType(OnnxProto3.TensorProto.DataType dataType) {
+        switch (dataType) {
+            case FLOAT:
+                return RawTensorUtil.ElementType.FLOAT;
+            case DOUBLE:
+                return RawTensorUtil.ElementType.DOUBLE;
+            case FLOAT16:
+                return RawTensorUtil.ElementType.HALF;
+            case INT64:
+                return RawTensorUtil.ElementType.INT64;
+            case INT32:
+                return RawTensorUtil.ElementType.INT32;
+            case INT16:
+                return RawTensorUtil.ElementType.INT16;
+            case INT8:
+                return RawTensorUtil.ElementType.INT8;
+            default:
+                throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
     }
 
     @Override
@@ -1,6 +1,9 @@
 package org.nd4j.imports.graphmapper.tf;
 
+import com.github.os72.protobuf351.ByteString;
+import com.github.os72.protobuf351.CodedInputStream;
 import com.github.os72.protobuf351.Message;
+import com.google.common.primitives.Doubles;
 import com.google.common.primitives.Floats;
 import com.google.common.primitives.Ints;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +16,7 @@ import org.nd4j.imports.descriptors.properties.AttributeAdapter;
 import org.nd4j.imports.descriptors.properties.PropertyMapping;
 import org.nd4j.imports.graphmapper.BaseGraphMapper;
 import org.nd4j.imports.graphmapper.ImportState;
+import org.nd4j.imports.graphmapper.RawTensorUtil;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.controlflow.IfImportState;
@@ -23,7 +27,6 @@ import org.nd4j.weightinit.impl.ZeroInitScheme;
 import org.tensorflow.framework.*;
 
 import java.io.*;
-import java.nio.ByteOrder;
 import java.util.*;
 
 /**
@@ -73,6 +76,35 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
         return MAPPER_INSTANCE;
     }
 
+    /**
+     * This method imports graph from file. Binary graphs are memory mapped and parsed with aliasing enabled,
+     * so tensor contents of the parsed GraphDef point into the mapped file instead of being copied to heap,
+     * and each constant is copied only once, straight from the file into its DataBuffer.
+     * Text graphs are imported as before.
+     *
+     * @param graphFile
+     * @return
+     */
+    @Override
+    public SameDiff importGraph(File graphFile) {
+        GraphDef graphDef = null;
+        try {
+            graphDef = parseMappedGraph(graphFile);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to parse [{}] as binary graph, trying text format", graphFile.getAbsolutePath(), e);
+        }
+
+        if (graphDef == null)
+            return super.importGraph(graphFile);
+
+        return importGraph(graphDef);
+    }
+
+    protected GraphDef parseMappedGraph(File graphFile) throws IOException {
+        CodedInputStream input = mappedInput(graphFile);
+        return input == null ? null : GraphDef.parseFrom(input);
+    }
+
     @Override
     public void dumpBinaryProtoAsText(InputStream inputFile, File outputFile) {
         try {
@@ -824,7 +856,7 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
 
                 INDArray array = Nd4j.valueArrayOf(arrayShape, (double) val);
                 return array;
-            } else if (tfTensor.getInt64ValCount() > 0) {
+            } else if (tfTensor.getIntValCount() > 0) {
                 double[] jArray = new double[tfTensor.getIntValCount()];
                 for (int e = 0; e < tfTensor.getIntValCount(); e++) {
                     jArray[e] = (double) tfTensor.getIntVal(e);
@@ -834,29 +866,8 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
                 INDArray array = Nd4j.create(jArray, arrayShape, 0, 'c');
                 return array;
             } else {
-                // FIXME: INT bytebuffers should be converted to floating point
-                //throw new UnsupportedOperationException("To be implemented yet");
-                long length = ArrayUtil.prodLong(arrayShape);
                 // binary representation
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val fb = bb.order(ByteOrder.nativeOrder()).asIntBuffer();
-                val fa = new float[fb.capacity()];
-                for (int e = 0; e < fb.capacity(); e++)
-                    fa[e] = (float) fb.get(e);
-
-                if (fa.length == 0)
-                    throw new ND4JIllegalStateException("Can't find Tensor values! Probably you've forgot to freeze graph before saving?");
-
-                if (fa.length == 1)
-                    return Nd4j.trueScalar(fa[0]);
-
-                if (arrayShape.length == 1)
-                    return Nd4j.trueVector(fa);
-
-                val array = Nd4j.create(fa, arrayShape, 'c', 0);
-                //log.debug("SUM1: {}", array.sumNumber());
-                //log.debug("Data: {}", Arrays.toString(array.data().asFloat()));
-                return array;
+                return mapTensorContent(tfTensor.getTensorContent(), tfTensor.getDtype(), arrayShape);
             }
         } else if (tfTensor.getDtype() == DataType.DT_FLOAT) {
             if (tfTensor.getFloatValCount() == 1 || ArrayUtil.prod(arrayShape) == 1) {
@@ -873,33 +884,14 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
                 INDArray array = Nd4j.valueArrayOf(arrayShape, (double) val);
                 return array;
             } else if (tfTensor.getFloatValCount() > 0) {
-                float[] jArray = new float[tfTensor.getFloatValCount()];
-                for (int e = 0; e < tfTensor.getFloatValCount(); e++) {
-                    jArray[e] = tfTensor.getFloatVal(e);
-                }
+                float[] jArray = Floats.toArray(tfTensor.getFloatValList());
 
                 // FIXME: we're missing float[] signature
                 INDArray array = Nd4j.create(Nd4j.createBuffer(jArray), arrayShape,  'c');
                 return array;
             } else if (tfTensor.getTensorContent().size() > 0){
                 // binary representation
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val fb = bb.order(ByteOrder.nativeOrder()).asFloatBuffer();
-                val fa = new float[fb.capacity()];
-                for (int e = 0; e < fb.capacity(); e++)
-                    fa[e] = fb.get(e);
-
-                if (fa.length == 0)
-                    throw new ND4JIllegalStateException("Can't find Tensor values! Probably you've forgot to freeze graph before saving?");
-
-                if (fa.length == 1)
-                    return Nd4j.trueScalar(fa[0]);
-
-                if (arrayShape.length == 1)
-                    return Nd4j.trueVector(fa);
-
-                val array = Nd4j.create(fa, arrayShape, 'c', 0);
-                return array;
+                return mapTensorContent(tfTensor.getTensorContent(), tfTensor.getDtype(), arrayShape);
             }
         } else if (tfTensor.getDtype() == DataType.DT_DOUBLE) {
             if (tfTensor.getDoubleValCount() == 1 || ArrayUtil.prod(arrayShape) == 1) {
@@ -911,42 +903,19 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
                 INDArray array = Nd4j.trueScalar(val);
                 return array;
             } else if (tfTensor.getDoubleValCount() > 0) {
-                double[] jArray = new double[tfTensor.getDoubleValCount()];
-                for (int e = 0; e < tfTensor.getDoubleValCount(); e++) {
-                    jArray[e] =  tfTensor.getDoubleVal(e);
-                }
+                double[] jArray = Doubles.toArray(tfTensor.getDoubleValList());
 
                 // TF arrays are always C
                 INDArray array = Nd4j.create(jArray, arrayShape, 0, 'c');
                 return array;
             } else if (tfTensor.getTensorContent().size() > 0) {
                 // binary representation
-                //DataBuffer buffer = Nd4j.createBuffer(tfTensor.getTensorContent().asReadOnlyByteBuffer(), DataBuffer.Type.FLOAT, (int) length);
-                //INDArray array = Nd4j.createArrayFromShapeBuffer(buffer, Nd4j.getShapeInfoProvider().createShapeInformation(arrayShape, 'c'));
-
-                // binary representation
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val fb = bb.order(ByteOrder.nativeOrder()).asDoubleBuffer();
-                val da = new double[fb.capacity()];
-                for (int e = 0; e < fb.capacity(); e++)
-                    da[e] = fb.get(e);
-
-                if (da.length == 0)
-                    throw new ND4JIllegalStateException("Can't find Tensor values! Probably you've forgot to freeze graph before saving?");
-
-                if (da.length == 1)
-                    return Nd4j.trueScalar(da[0]);
-
-                if (arrayShape.length == 1)
-                    return Nd4j.trueVector(da);
-
-                val array = Nd4j.create(da, arrayShape, 0, 'c');
-                return array;
+                return mapTensorContent(tfTensor.getTensorContent(), tfTensor.getDtype(), arrayShape);
             }
         } else if (tfTensor.getDtype() == DataType.DT_INT64) {
             if (tfTensor.getInt64ValCount() == 1 || ArrayUtil.prod(arrayShape) == 1) {
                 //straight zero case
-                if(tfTensor.getDoubleValCount() < 1)
+                if(tfTensor.getInt64ValCount() < 1)
                     return Nd4j.trueScalar(0.0);
 
                 double val = (double) tfTensor.getInt64Val(0);
@@ -962,25 +931,8 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
                 INDArray array = Nd4j.create(jArray, arrayShape, 0, 'c');
                 return array;
             } else if (tfTensor.getTensorContent().size() > 0){
-                //throw new UnsupportedOperationException("To be implemented yet");
                 //Mapping INT bytebuffers should be converted to floating point
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val lb = bb.order(ByteOrder.nativeOrder()).asLongBuffer();
-                val fa = new float[lb.capacity()];
-                for (int e = 0; e < lb.capacity(); e++)
-                    fa[e] = (float) lb.get(e);
-                if (fa.length == 0)
-                    throw new ND4JIllegalStateException("Can't find Tensor values! Probably you've forgot to freeze graph before saving?");
-
-                if (fa.length == 1)
-                    return Nd4j.trueScalar(fa[0]);
-
-                if (arrayShape.length == 1)
-                    return Nd4j.trueVector(fa);
-                val array = Nd4j.create(fa, arrayShape, 'c', 0);
-                //log.debug("SUM1: {}", array.sumNumber());
-                //log.debug("Data: {}", Arrays.toString(array.data().asFloat()));
-                return array;
+                return mapTensorContent(tfTensor.getTensorContent(), tfTensor.getDtype(), arrayShape);
             }
         }  else {
             throw new UnsupportedOperationException("Unknown dataType found: [" + tfTensor.getDtype() + "]");
@@ -989,6 +941,47 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
         throw new ND4JIllegalStateException("Invalid method state");
     }
 
+    /**
+     * This method creates array from tensor_content bytes of TensorProto, see {@link RawTensorUtil}
+     *
+     * @param content    raw tensor content, little endian
+     * @param dataType   TF data type of the content
+     * @param arrayShape shape of the tensor
+     * @return
+     */
+    protected INDArray mapTensorContent(ByteString content, DataType dataType, int[] arrayShape) {
+        // TF writes tensor content in little endian order
+        DataBuffer buffer = RawTensorUtil.toBuffer(content, elementType(dataType));
+        long length = buffer.length();
+        if (length == 0)
+            throw new ND4JIllegalStateException("Can't find Tensor values! Probably you've forgot to freeze graph before saving?");
+
+        if (length == 1)
+            return Nd4j.trueScalar(buffer.getDouble(0));
+
+        long[] shape = arrayShape.length == 1 ? new long[] {length} : ArrayUtil.toLongArray(arrayShape);
+        return Nd4j.create(buffer, shape, Nd4j.getStrides(shape, 'c'), 0, 'c');
+    }
+
+    private static RawTensorUtil.ElementType elementType(DataType dataType) {
+        switch (dataType) {
+            case DT_FLOAT:
+                return RawTensorUtil.ElementType.FLOAT;
+            case DT_DOUBLE:
+                return RawTensorUtil.ElementType.DOUBLE;
+            case DT_INT64:
+                return RawTensorUtil.ElementType.INT64;
+            case DT_INT32:
+                return RawTensorUtil.ElementType.INT32;
+            case DT_INT16:
+                return RawTensorUtil.ElementType.INT16;
+            case DT_INT8:
+                return RawTensorUtil.ElementType.INT8;
+            default:
+                throw new UnsupportedOperationException("Unknown dataType found: [" + dataType + "]");
+        }
+    }
+
     @Override
     public long[] getShapeFromTensor(NodeDef tensorProto) {
         if(tensorProto.containsAttr("shape")) {
@@ -2530,15 +2530,14 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     public INDArray put(INDArrayIndex[] indices, INDArray element) {
         Nd4j.getCompressor().autoDecompress(this);
         if (indices[0] instanceof SpecifiedIndex && element.isVector()) {
-            indices[0].reset();
-            int cnt = 0;
-            while (indices[0].hasNext()) {
-                long idx = indices[0].next();
-                // FIXME: LONG
-                putScalar((int) idx, element.getDouble(cnt));
-                cnt++;
-            }
+            // leading specified index with a vector element addresses linear offsets, as it always has
+            long[] offsets = ((SpecifiedIndex) indices[0]).getIndexes();
+            for (int i = 0; i < offsets.length; i++)
+                putScalar(offsets[i], element.getDouble(i));
             return this;
+        } else if (hasSpecifiedIndex(indices)) {
+            // get() would return a copy here, so values are scattered in place instead
+            return SpecifiedIndexing.scatter(this, NDArrayIndex.resolve(shapeInfoDataBuffer(), indices), element);
         } else {
             return get(indices).assign(element);
         }
@@ -2547,6 +2546,10 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     @Override
     public INDArray put(INDArrayIndex[] indices, Number element) {
         Nd4j.getCompressor().autoDecompress(this);
+        if (hasSpecifiedIndex(indices))
+            return SpecifiedIndexing.scatter(this, NDArrayIndex.resolve(shapeInfoDataBuffer(), indices),
+                            Nd4j.scalar(element.doubleValue()));
+
         INDArray get = get(indices);
         for (int i = 0; i < get.length(); i++)
             get.putScalar(i, element.doubleValue());
@@ -2554,6 +2557,14 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     }
 
 
+    private static boolean hasSpecifiedIndex(INDArrayIndex... indices) {
+        for (INDArrayIndex index : indices)
+            if (index instanceof SpecifiedIndex)
+                return true;
+        return false;
+    }
+
+
     /**
      * Mainly here for people coming from numpy.
      * This is equivalent to a call to permute
@@ -4944,14 +4955,8 @@ public abstract class BaseNDArray implements INDArray, Iterable {
 
         if (!isMatrix() && !isVector())
             throw new IllegalArgumentException("Unable to get columns from a non matrix or vector");
-        if (isVector())
-            return Nd4j.pullRows(this, 1, rindices);
-        else {
-            INDArray ret = Nd4j.create(rindices.length, columns());
-            for (int i = 0; i < rindices.length; i++)
-                ret.putRow(i, getRow(rindices[i]));
-            return ret;
-        }
+        // native tad copy for matrices as well, instead of row by row putRow
+        return Nd4j.pullRows(this, 1, rindices);
     }
 
     /**
@@ -4999,33 +5004,8 @@ public abstract class BaseNDArray implements INDArray, Iterable {
             if (indexes[i] instanceof SpecifiedIndex)
                 numSpecifiedIndex++;
 
-        if (shape != null && numSpecifiedIndex > 0) {
-            Generator<List<List<Long>>> gen = SpecifiedIndex.iterate(indexes);
-            INDArray ret = Nd4j.create(shape, 'c');
-            int count = 0;
-            while (true) {
-                try {
-                    List<List<Long>> next = gen.next();
-                    List<Long> coordsCombo = new ArrayList<>();
-                    for (int i = 0; i < next.size(); i++) {
-                        if (next.get(i).size() > 1)
-                            throw new IllegalStateException("Illegal entry returned");
-                        coordsCombo.add(next.get(i).get(0));
-                    }
-                    ret.putScalar(count++, getDouble(Ints.toArray(coordsCombo)));
-
-
-                } catch (NoSuchElementException e) {
-                    break;
-                }
-
-                if (count >= ret.length())
-                    break;
-            }
-
-            return ret;
-
-        }
+        if (shape != null && numSpecifiedIndex > 0)
+            return SpecifiedIndexing.gather(this, indexes, shape);
 
         INDArray ret = subArray(resolution);
         return ret;
@@ -5042,14 +5022,10 @@ public abstract class BaseNDArray implements INDArray, Iterable {
     public INDArray getColumns(int... cindices) {
         if (!isMatrix() && !isVector())
             throw new IllegalArgumentException("Unable to get columns from a non matrix or vector");
-        if (isVector()) {
+        if (isVector())
             return Nd4j.pullRows(this, 0, cindices, this.ordering());
-        } else {
-            INDArray ret = Nd4j.create(rows(), cindices.length);
-            for (int i = 0; i < cindices.length; i++)
-                ret.putColumn(i, getColumn(cindices[i]));
-            return ret;
-        }
+        else
+            return Nd4j.pullRows(this, 0, cindices);
 
     }
 
@@ -1178,7 +1178,13 @@ public interface INDArray extends Serializable {
 
     /**
      * Put the elements of the ndarray
-     * in to the specified indices
+     * in to the specified indices.
+     *
+     * If the first index is a {@link org.nd4j.linalg.indexing.SpecifiedIndex} and the element is a vector,
+     * the specified indexes are linear offsets into this array, and the remaining indices are ignored.
+     * Otherwise a SpecifiedIndex addresses coordinates along its dimension, same as in
+     * {@link #get(INDArrayIndex...)}, and the element has to have either a single value, or as many values
+     * as there are elements addressed, in 'c' order, otherwise IllegalArgumentException is thrown.
      *
      * @param indices the indices to put the ndarray in to
      * @param element the ndarray to put
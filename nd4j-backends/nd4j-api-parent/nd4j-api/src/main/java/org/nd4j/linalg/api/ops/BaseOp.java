@@ -122,6 +122,13 @@ public abstract class BaseOp extends DifferentialFunction implements Op {
     public void initFromOnnx(OnnxProto3.NodeProto node, SameDiff initWith, Map<String, OnnxProto3.AttributeProto> attributesForNode, OnnxProto3.GraphProto graph) {
     }
 
+    @Override
+    public void setExtraArgs(Object[] extraArgs) {
+        super.setExtraArgs(extraArgs);
+        this.extraArgs = extraArgs;
+        this.extraArgz = null;
+    }
+
     @Override
     public DataBuffer extraArgsDataBuff() {
         if (extraArgz != null)
@@ -0,0 +1,156 @@
+package org.nd4j.linalg.api.ops;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+
+import java.util.Arrays;
+
+/**
+ * Basic {@link OpContext} implementation, keeping arguments on java side.
+ * Backends extend it to keep arguments in native form too, updating them from the hooks below:
+ * hooks are called only when the argument actually changed, i.e. different array was bound at given index.
+ */
+public class BaseOpContext implements OpContext {
+    private static final long[] EMPTY_LONGS = new long[0];
+    private static final double[] EMPTY_DOUBLES = new double[0];
+
+    private INDArray[] inputs = new INDArray[4];
+    private INDArray[] outputs = new INDArray[1];
+    private int numInputs = 0;
+    private int numOutputs = 0;
+    private long[] iArguments = EMPTY_LONGS;
+    private double[] tArguments = EMPTY_DOUBLES;
+
+    @Override
+    public void setInputArray(int index, INDArray array) {
+        if (array == null)
+            throw new ND4JIllegalStateException("Input argument " + index + " is null");
+
+        if (index >= inputs.length)
+            inputs = Arrays.copyOf(inputs, Math.max(index + 1, inputs.length * 2));
+
+        numInputs = Math.max(numInputs, index + 1);
+        if (inputs[index] == array)
+            return;
+
+        inputs[index] = array;
+        inputChanged(index, array);
+    }
+
+    @Override
+    public void setInputArrays(INDArray... arrays) {
+        for (int i = 0; i < arrays.length; i++)
+            setInputArray(i, arrays[i]);
+
+        Arrays.fill(inputs, arrays.length, Math.max(arrays.length, numInputs), null);
+        numInputs = arrays.length;
+    }
+
+    @Override
+    public void setOutputArray(int index, INDArray array) {
+        if (array == null)
+            throw new ND4JIllegalStateException("Output argument " + index + " is null");
+
+        if (index >= outputs.length)
+            outputs = Arrays.copyOf(outputs, Math.max(index + 1, outputs.length * 2));
+
+        numOutputs = Math.max(numOutputs, index + 1);
+        if (outputs[index] == array)
+            return;
+
+        outputs[index] = array;
+        outputChanged(index, array);
+    }
+
+    @Override
+    public void setOutputArrays(INDArray... arrays) {
+        for (int i = 0; i < arrays.length; i++)
+            setOutputArray(i, arrays[i]);
+
+        Arrays.fill(outputs, arrays.length, Math.max(arrays.length, numOutputs), null);
+        numOutputs = arrays.length;
+    }
+
+    @Override
+    public void setIArguments(long... arguments) {
+        if (Arrays.equals(iArguments, arguments))
+            return;
+
+        iArguments = arguments.clone();
+        iArgumentsChanged(iArguments);
+    }
+
+    @Override
+    public void setTArguments(double... arguments) {
+        if (Arrays.equals(tArguments, arguments))
+            return;
+
+        tArguments = arguments.clone();
+        tArgumentsChanged(tArguments);
+    }
+
+    @Override
+    public INDArray getInputArray(int index) {
+        return index < numInputs ? inputs[index] : null;
+    }
+
+    @Override
+    public INDArray getOutputArray(int index) {
+        return index < numOutputs ? outputs[index] : null;
+    }
+
+    public INDArray[] getInputArrays() {
+        return Arrays.copyOf(inputs, numInputs);
+    }
+
+    public INDArray[] getOutputArrays() {
+        return Arrays.copyOf(outputs, numOutputs);
+    }
+
+    @Override
+    public int numInputArguments() {
+        return numInputs;
+    }
+
+    @Override
+    public int numOutputArguments() {
+        return numOutputs;
+    }
+
+    @Override
+    public long[] getIArguments() {
+        return iArguments;
+    }
+
+    @Override
+    public double[] getTArguments() {
+        return tArguments;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release on java side
+    }
+
+    /**
+     * Called when different array was bound as input with given index
+     */
+    protected void inputChanged(int index, INDArray array) {
+        //
+    }
+
+    /**
+     * Called when different array was bound as output with given index
+     */
+    protected void outputChanged(int index, INDArray array) {
+        //
+    }
+
+    protected void iArgumentsChanged(long[] arguments) {
+        //
+    }
+
+    protected void tArgumentsChanged(double[] arguments) {
+        //
+    }
+}
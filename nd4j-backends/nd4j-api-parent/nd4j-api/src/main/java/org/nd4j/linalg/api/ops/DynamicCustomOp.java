@@ -315,6 +315,13 @@ public class DynamicCustomOp extends DifferentialFunction implements CustomOp {
         iArguments.remove(arg);
     }
 
+    /**
+     * Remove all int arguments, for ops that set them again before each execution
+     */
+    protected void clearIArguments() {
+        iArguments.clear();
+    }
+
     @Override
     public Long getIArgument(int index) {
         return iArguments.get(index);
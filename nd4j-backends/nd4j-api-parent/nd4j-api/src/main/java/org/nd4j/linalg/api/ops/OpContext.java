@@ -0,0 +1,66 @@
+package org.nd4j.linalg.api.ops;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * Reusable invocation context for {@link CustomOp}: holds input and output arrays, and integer and floating point
+ * arguments, in the form backend passes them to the op.
+ *
+ * Context is meant to be bound once, and executed many times with
+ * {@link org.nd4j.linalg.api.ops.executioner.OpExecutioner#exec(CustomOp, OpContext)}: only arguments that actually
+ * changed are updated between calls. Context isn't thread-safe.
+ */
+public interface OpContext extends AutoCloseable {
+
+    /**
+     * This method binds array as input with given index
+     *
+     * @param index
+     * @param array
+     */
+    void setInputArray(int index, INDArray array);
+
+    /**
+     * This method binds given arrays as inputs, dropping any other inputs bound before
+     *
+     * @param arrays
+     */
+    void setInputArrays(INDArray... arrays);
+
+    /**
+     * This method binds array as output with given index
+     *
+     * @param index
+     * @param array
+     */
+    void setOutputArray(int index, INDArray array);
+
+    /**
+     * This method binds given arrays as outputs, dropping any other outputs bound before
+     *
+     * @param arrays
+     */
+    void setOutputArrays(INDArray... arrays);
+
+    void setIArguments(long... arguments);
+
+    void setTArguments(double... arguments);
+
+    INDArray getInputArray(int index);
+
+    INDArray getOutputArray(int index);
+
+    int numInputArguments();
+
+    int numOutputArguments();
+
+    long[] getIArguments();
+
+    double[] getTArguments();
+
+    /**
+     * This method releases resources held by this context, if any
+     */
+    @Override
+    void close();
+}
@@ -375,6 +375,12 @@ public class DefaultOpExecutioner implements OpExecutioner {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void execFused(List<Op> ops) {
+        for (Op op : ops)
+            exec(op);
+    }
+
     /**
      * This method executes specified RandomOp using default RNG available via Nd4j.getRandom()
      *
@@ -715,6 +721,36 @@ public class DefaultOpExecutioner implements OpExecutioner {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public OpContext buildContext() {
+        return new BaseOpContext();
+    }
+
+    /**
+     * Generic implementation: context arguments are copied to a new op, which is executed with {@link #exec(CustomOp)}.
+     * Backends override it to pass context arguments to the op directly.
+     */
+    @Override
+    public void exec(CustomOp op, OpContext context) {
+        INDArray[] inputs = new INDArray[context.numInputArguments()];
+        for (int e = 0; e < inputs.length; e++)
+            inputs[e] = context.getInputArray(e);
+
+        INDArray[] outputs = new INDArray[context.numOutputArguments()];
+        for (int e = 0; e < outputs.length; e++)
+            outputs[e] = context.getOutputArray(e);
+
+        DynamicCustomOp copy = new DynamicCustomOp(op.opName(), inputs, outputs);
+        copy.setInplaceCall(op.isInplaceCall());
+        if (context.getIArguments().length > 0)
+            copy.addIArgument(context.getIArguments());
+
+        if (context.getTArguments().length > 0)
+            copy.addTArgument(context.getTArguments());
+
+        exec(copy);
+    }
+
     @Override
     public List<long[]> calculateOutputShape(CustomOp op) {
         throw new UnsupportedOperationException();
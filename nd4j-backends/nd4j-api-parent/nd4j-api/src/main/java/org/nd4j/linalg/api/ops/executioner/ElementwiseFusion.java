@@ -0,0 +1,128 @@
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.GradientOp;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.RandomOp;
+import org.nd4j.linalg.api.ops.ScalarOp;
+import org.nd4j.linalg.api.ops.TransformOp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper methods for detection of fusible elementwise op chains.
+ *
+ * An op is fusible if every element of its output depends only on the element with the same index in
+ * its inputs, and all its arrays are dense and laid out the same way: in that case a chain of such ops can be
+ * applied to any contiguous range of elements independently, and executioner may run the whole chain
+ * over cache-sized blocks instead of running every op over the whole arrays.
+ */
+public class ElementwiseFusion {
+    // Pow and IsMax have special handling in executioners
+    private static final int POW_OP_NUM = 7;
+    private static final int IS_MAX_OP_NUM = 41;
+
+    private ElementwiseFusion() {}
+
+    /**
+     * This method checks if op can be a part of fused chain
+     *
+     * @param op
+     * @return
+     */
+    public static boolean isFusible(Op op) {
+        if (op == null || op.isPassThrough() || op.isExecSpecial() || op instanceof GradientOp
+                        || op instanceof RandomOp)
+            return false;
+
+        if (op instanceof ScalarOp) {
+            if (((ScalarOp) op).getDimension() != null || op.y() != null)
+                return false;
+        } else if (op instanceof TransformOp) {
+            if (op.opNum() == IS_MAX_OP_NUM || (op.opNum() == POW_OP_NUM && op.y() != null))
+                return false;
+        } else {
+            return false;
+        }
+
+        INDArray x = op.x();
+        INDArray z = op.z();
+        if (!isDense(x) || !isDense(z) || x.lengthLong() != z.lengthLong() || !sameLayout(x, z))
+            return false;
+
+        if (op.y() != null)
+            return isDense(op.y()) && op.y().lengthLong() == x.lengthLong() && sameLayout(x, op.y());
+
+        return true;
+    }
+
+    /**
+     * This method checks if two fusible ops can be executed block by block together
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    public static boolean isCompatible(Op a, Op b) {
+        return a.x().lengthLong() == b.x().lengthLong() && sameLayout(a.x(), b.x());
+    }
+
+    /**
+     * This method splits list of ops into groups of consecutive ops, in order.
+     * Every group is either a single op, or a chain of fusible ops that can be executed together.
+     *
+     * @param ops
+     * @return
+     */
+    public static List<List<Op>> split(List<? extends Op> ops) {
+        List<List<Op>> ret = new ArrayList<>();
+        List<Op> chain = null;
+
+        for (Op op : ops) {
+            if (isFusible(op)) {
+                if (chain == null || !isCompatible(chain.get(0), op)) {
+                    chain = new ArrayList<>();
+                    ret.add(chain);
+                }
+
+                chain.add(op);
+            } else {
+                List<Op> single = new ArrayList<>(1);
+                single.add(op);
+                ret.add(single);
+                chain = null;
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * This method checks if all ops in the list can be executed as a single fused chain
+     *
+     * @param ops
+     * @return
+     */
+    public static boolean canFuse(List<? extends Op> ops) {
+        if (ops.size() < 2)
+            return false;
+
+        Op first = ops.get(0);
+        for (Op op : ops)
+            if (!isFusible(op) || !isCompatible(first, op))
+                return false;
+
+        return true;
+    }
+
+    private static boolean isDense(INDArray array) {
+        return array != null && !(array instanceof IComplexNDArray) && !array.isCompressed() && !array.isView()
+                        && array.offset() == 0 && array.elementWiseStride() == 1;
+    }
+
+    private static boolean sameLayout(INDArray a, INDArray b) {
+        return a.ordering() == b.ordering() && a.data().dataType() == b.data().dataType();
+    }
+}
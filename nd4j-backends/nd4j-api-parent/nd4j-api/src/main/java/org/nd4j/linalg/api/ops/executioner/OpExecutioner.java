@@ -232,6 +232,16 @@ public interface OpExecutioner {
      */
     void exec(List<Aggregate> batch);
 
+    /**
+     * This method executes given elementwise ops, in order.
+     * Backends may run chains of fusible ops (see {@link ElementwiseFusion}) block by block,
+     * so data stays in cache between ops instead of being streamed through memory once per op.
+     * Results are the same as with sequential execution.
+     *
+     * @param ops
+     */
+    void execFused(List<Op> ops);
+
     /**
      * This method executes specified RandomOp using default RNG available via Nd4j.getRandom()
      *
@@ -359,6 +369,25 @@ public interface OpExecutioner {
      */
     void exec(CustomOp op);
 
+    /**
+     * This method returns new reusable context for CustomOp execution, see {@link OpContext}
+     *
+     * @return
+     */
+    OpContext buildContext();
+
+    /**
+     * This method executes given CustomOp with arguments bound to the given context,
+     * instead of arguments of the op itself.
+     * If op returns non-OK status, ND4JIllegalStateException is thrown, for any data type:
+     * unlike {@link #exec(CustomOp)}, which ignores status of DOUBLE ops on CPU.
+     *
+     * PLEASE NOTE: You're responsible for input/output validation
+     * @param op
+     * @param context
+     */
+    void exec(CustomOp op, OpContext context);
+
     List<long[]> calculateOutputShape(CustomOp op);
 
 
@@ -55,6 +55,19 @@ public class Reshape extends DynamicCustomOp {
     }
 
 
+    /**
+     * Reshape to the shape held by the given variable.
+     * The variable is mapped to the shape property, and read right before execution.
+     */
+    public Reshape(SameDiff sameDiff, SDVariable i_v, SDVariable shape) {
+        super(null, sameDiff, new SDVariable[]{i_v});
+        sameDiff.addVariableMappingForField(this, "shape", shape.getVarName());
+        addIArgument('c');
+        if (shape.getArr() != null)
+            this.shape = shape.getArr().data().asLong();
+    }
+
+
     public Reshape() {
     }
 
@@ -123,10 +136,15 @@ public class Reshape extends DynamicCustomOp {
     @Override
     public void resolvePropertiesFromSameDiffBeforeExecution() {
         super.resolvePropertiesFromSameDiffBeforeExecution();
-        if (arrName != null) {
+        val shapeVarName = sameDiff.getVarNameForFieldAndFunction(this, "shape");
+        if (arrName != null || shapeVarName != null) {
             val args = args();
             val firstInputShape = args[0].getShape();
-            val shapeInput = args[1].getArr().data().asLong();
+            val shapeArr = shapeVarName != null ? sameDiff.getArrForVarName(shapeVarName) : args[1].getArr();
+            if (shapeArr == null)
+                throw new ND4JIllegalStateException("Shape array for reshape [" + getOwnName() + "] is unset");
+
+            val shapeInput = shapeArr.data().asLong();
             for (int i = 0; i < shapeInput.length; i++) {
                 if (shapeInput[i] < 0) {
                     shapeInput[i] = firstInputShape[i];
@@ -134,6 +152,10 @@ public class Reshape extends DynamicCustomOp {
             }
 
             this.shape = shapeInput;
+
+            // resolved before every execution, so drop the shape of the previous one
+            clearIArguments();
+            addIArgument('c');
             addIArgument(shapeInput);
         }
 
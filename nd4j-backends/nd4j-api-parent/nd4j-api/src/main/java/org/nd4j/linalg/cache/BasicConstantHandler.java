@@ -19,5 +19,11 @@ public abstract class BasicConstantHandler implements ConstantHandler {
         return dataBuffer;
     }
 
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        // only memory footprint is known at this level
+        return new CacheStatistics(0, 0, 0, 0, getCachedBytes(), Long.MAX_VALUE);
+    }
+
 
 }
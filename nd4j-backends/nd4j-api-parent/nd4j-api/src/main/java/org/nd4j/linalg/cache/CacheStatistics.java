@@ -0,0 +1,30 @@
+package org.nd4j.linalg.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Point-in-time snapshot of cache counters, as reported by {@link TADManager} and {@link ConstantHandler}
+ *
+ * Limits that aren't enforced by particular implementation are reported as Long.MAX_VALUE
+ */
+@Data
+@AllArgsConstructor
+public class CacheStatistics {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long entries;
+    private long residentBytes;
+    private long maxBytes;
+
+    /**
+     * This method returns ratio of lookups served from cache, or 0.0 if there were no lookups yet
+     *
+     * @return
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -92,4 +92,11 @@ public interface ConstantHandler {
      * @return
      */
     long getCachedBytes();
+
+    /**
+     * This method returns hits, misses, evictions and off-heap bytes held by cached constants
+     *
+     * @return
+     */
+    CacheStatistics getCacheStatistics();
 }
@@ -38,4 +38,11 @@ public interface TADManager {
      * @return
      */
     long getCachedBytes();
+
+    /**
+     * This method returns hits, misses, evictions and resident bytes of TAD cache
+     *
+     * @return
+     */
+    CacheStatistics getCacheStatistics();
 }
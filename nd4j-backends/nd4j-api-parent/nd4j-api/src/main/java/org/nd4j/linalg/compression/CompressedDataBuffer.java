@@ -20,6 +20,9 @@ import org.slf4j.LoggerFactory;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * @author raver119@gmail.com
@@ -73,6 +76,14 @@ public class CompressedDataBuffer extends BaseDataBuffer {
         // no-op
     }
 
+    @Override
+    public void write(WritableByteChannel channel) throws IOException {
+        // compressed content is opaque, so it's always stored in stream format
+        DataOutputStream dos = new DataOutputStream(Channels.newOutputStream(channel));
+        write(dos);
+        dos.flush();
+    }
+
     /**
      * Drop-in replacement wrapper for BaseDataBuffer.read() method, aware of CompressedDataBuffer
      * @param s
@@ -84,30 +95,45 @@ public class CompressedDataBuffer extends BaseDataBuffer {
         // if buffer is uncompressed, it'll be valid buffer, so we'll just return it
         if (buffer.dataType() != Type.COMPRESSED)
             return buffer;
-        else {
-            try {
-
-                // if buffer is compressed one, we''ll restore it here
-                String compressionAlgorithm = s.readUTF();
-                long compressedLength = s.readLong();
-                long originalLength = s.readLong();
-                long numberOfElements = s.readLong();
-
-                byte[] temp = new byte[(int) compressedLength];
-                for (int i = 0; i < compressedLength; i++) {
-                    temp[i] = s.readByte();
-                }
-
-                Pointer pointer = new BytePointer(temp);
-                CompressionDescriptor descriptor = new CompressionDescriptor();
-                descriptor.setCompressedLength(compressedLength);
-                descriptor.setCompressionAlgorithm(compressionAlgorithm);
-                descriptor.setOriginalLength(originalLength);
-                descriptor.setNumberOfElements(numberOfElements);
-                return new CompressedDataBuffer(pointer, descriptor);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        else
+            return readCompressed(s);
+    }
+
+    /**
+     * Drop-in replacement wrapper for BaseDataBuffer.read(ReadableByteChannel) method, aware of CompressedDataBuffer
+     * @param channel
+     * @return
+     */
+    public static DataBuffer readUnknown(ReadableByteChannel channel, long length) throws IOException {
+        DataBuffer buffer = Nd4j.createBuffer(length);
+        buffer.read(channel);
+        // if buffer is uncompressed, it'll be valid buffer, so we'll just return it
+        if (buffer.dataType() != Type.COMPRESSED)
+            return buffer;
+        else
+            return readCompressed(new DataInputStream(Channels.newInputStream(channel)));
+    }
+
+    private static DataBuffer readCompressed(DataInputStream s) {
+        try {
+            // if buffer is compressed one, we''ll restore it here
+            String compressionAlgorithm = s.readUTF();
+            long compressedLength = s.readLong();
+            long originalLength = s.readLong();
+            long numberOfElements = s.readLong();
+
+            byte[] temp = new byte[(int) compressedLength];
+            s.readFully(temp);
+
+            Pointer pointer = new BytePointer(temp);
+            CompressionDescriptor descriptor = new CompressionDescriptor();
+            descriptor.setCompressedLength(compressedLength);
+            descriptor.setCompressionAlgorithm(compressionAlgorithm);
+            descriptor.setOriginalLength(originalLength);
+            descriptor.setNumberOfElements(numberOfElements);
+            return new CompressedDataBuffer(pointer, descriptor);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
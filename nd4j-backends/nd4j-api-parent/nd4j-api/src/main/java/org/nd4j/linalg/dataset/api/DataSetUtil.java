@@ -11,6 +11,7 @@ import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.INDArrayIndex;
 import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.api.rng.Random;
 
 import java.util.Arrays;
 
@@ -537,4 +538,93 @@ public class DataSetUtil {
 
         return new Pair<>(out, outMask);
     }
+
+    /**
+     * Gathers given examples of the source DataSet, i.e. rows along dimension 0 of features, labels and masks.
+     * Arrays of the reused DataSet, if any, are overwritten when their shape and data type match, so a caller
+     * gathering batches of the same size repeatedly allocates them only once.
+     *
+     * @param source  DataSet to gather examples from
+     * @param indexes indexes of examples, in order they should appear in the result
+     * @param reuse   DataSet previously returned by this method, which won't be used by caller anymore. May be null.
+     * @return DataSet of gathered examples
+     */
+    public static org.nd4j.linalg.dataset.DataSet pullRows(@NonNull org.nd4j.linalg.dataset.DataSet source,
+                    @NonNull int[] indexes, org.nd4j.linalg.dataset.DataSet reuse) {
+        org.nd4j.linalg.dataset.DataSet ret = new org.nd4j.linalg.dataset.DataSet(
+                        pullRows(source.getFeatures(), indexes, reuse == null ? null : reuse.getFeatures()),
+                        pullRows(source.getLabels(), indexes, reuse == null ? null : reuse.getLabels()),
+                        pullRows(source.getFeaturesMaskArray(), indexes,
+                                        reuse == null ? null : reuse.getFeaturesMaskArray()),
+                        pullRows(source.getLabelsMaskArray(), indexes,
+                                        reuse == null ? null : reuse.getLabelsMaskArray()));
+        ret.setLabelNames(source.getLabelNamesList());
+        return ret;
+    }
+
+    /**
+     * Gathers rows along dimension 0 of the source array, of any rank, into destination array.
+     *
+     * @param source      array to gather rows from. May be null, then null is returned.
+     * @param indexes     indexes of rows
+     * @param destination array to store rows into, if its shape and data type match. May be null.
+     * @return destination array, or newly allocated one
+     */
+    public static INDArray pullRows(INDArray source, @NonNull int[] indexes, INDArray destination) {
+        if (source == null)
+            return null;
+
+        long[] shape = source.shape().clone();
+        shape[0] = indexes.length;
+        if (destination == null || !Arrays.equals(shape, destination.shape()) || destination.ordering() != 'c'
+                        || destination.data().dataType() != source.data().dataType())
+            destination = Nd4j.createUninitialized(shape, 'c');
+
+        if (source.rank() == 2) {
+            Nd4j.pullRows(source, destination, 1, indexes);
+        } else if (source.ordering() == 'c' && source.elementWiseStride() == 1) {
+            // contiguous examples are rows of 2d view, so native gather still applies
+            long exampleLength = source.length() / source.size(0);
+            Nd4j.pullRows(source.reshape('c', source.size(0), exampleLength),
+                            destination.reshape('c', indexes.length, exampleLength), 1, indexes);
+        } else {
+            for (int i = 0; i < indexes.length; i++)
+                destination.slice(i).assign(source.slice(indexes[i]));
+        }
+
+        return destination;
+    }
+
+    /**
+     * Picks numSamples indexes out of [0, permutation.length). Without replacement, indexes are picked with partial
+     * Fisher-Yates shuffle of the permutation array, which stays a valid permutation, so it can be kept by caller and
+     * reused for subsequent calls without reinitialization.
+     *
+     * @param permutation     permutation of indexes, e.g. [0, 1, ..., n-1] initially
+     * @param numSamples      number of indexes to pick
+     * @param withReplacement whether the same index may be picked more than once
+     * @param rng             random number generator to use
+     * @return picked indexes
+     */
+    public static int[] sampleIndexes(@NonNull int[] permutation, int numSamples, boolean withReplacement,
+                    @NonNull Random rng) {
+        if (!withReplacement && numSamples > permutation.length)
+            throw new IllegalArgumentException("Can't sample " + numSamples + " examples out of "
+                            + permutation.length + " without replacement");
+
+        int[] ret = new int[numSamples];
+        for (int i = 0; i < numSamples; i++) {
+            if (withReplacement) {
+                ret[i] = permutation[rng.nextInt(permutation.length)];
+            } else {
+                int j = i + rng.nextInt(permutation.length - i);
+                int tmp = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = tmp;
+                ret[i] = permutation[i];
+            }
+        }
+
+        return ret;
+    }
 }
@@ -0,0 +1,140 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+
+import java.util.List;
+
+/**
+ * DataSetIterator wrapper that prefetches DataSets of backing iterator on a separate thread,
+ * so loading and preprocessing don't stall the consumer.
+ *
+ * Please note: DataSet returned by next() is valid until the next call to next(), reset() or shutdown(),
+ * see {@link BaseAsyncIterator} for details.
+ */
+public class AsyncDataSetIterator extends BaseAsyncIterator<DataSet> implements DataSetIterator {
+    public static final int DEFAULT_QUEUE_SIZE = 4;
+
+    private final DataSetIterator backedIterator;
+    private volatile DataSetPreProcessor preProcessor;
+
+    public AsyncDataSetIterator(DataSetIterator backedIterator) {
+        this(backedIterator, DEFAULT_QUEUE_SIZE);
+    }
+
+    public AsyncDataSetIterator(DataSetIterator backedIterator, int queueSize) {
+        this(backedIterator, queueSize, true);
+    }
+
+    /**
+     * @param backedIterator iterator to prefetch from
+     * @param queueSize      number of DataSets to prefetch
+     * @param useWorkspaces  if true, DataSets are built in per-slot workspaces
+     */
+    public AsyncDataSetIterator(@NonNull DataSetIterator backedIterator, int queueSize, boolean useWorkspaces) {
+        super(queueSize, useWorkspaces);
+        this.backedIterator = backedIterator;
+        start();
+    }
+
+    @Override
+    protected boolean backingHasNext() {
+        return backedIterator.hasNext();
+    }
+
+    @Override
+    protected DataSet backingNext() {
+        return backedIterator.next();
+    }
+
+    @Override
+    protected void backingReset() {
+        backedIterator.reset();
+    }
+
+    @Override
+    protected void preProcess(DataSet batch) {
+        DataSetPreProcessor preProcessor = this.preProcessor;
+        if (preProcessor != null)
+            preProcessor.preProcess(batch);
+    }
+
+    @Override
+    protected void attach(DataSet batch, MemoryWorkspace workspace) {
+        batch.setFeatures(attach(batch.getFeatures(), workspace));
+        batch.setLabels(attach(batch.getLabels(), workspace));
+        batch.setFeaturesMaskArray(attach(batch.getFeaturesMaskArray(), workspace));
+        batch.setLabelsMaskArray(attach(batch.getLabelsMaskArray(), workspace));
+    }
+
+    /**
+     * Not supported: batch size is defined by backing iterator
+     */
+    @Override
+    public DataSet next(int num) {
+        throw new UnsupportedOperationException("Async iterator can't change batch size");
+    }
+
+    @Override
+    public int totalExamples() {
+        return backedIterator.totalExamples();
+    }
+
+    @Override
+    public int inputColumns() {
+        return backedIterator.inputColumns();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return backedIterator.totalOutcomes();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return backedIterator.resetSupported();
+    }
+
+    /**
+     * This iterator is async already
+     */
+    @Override
+    public boolean asyncSupported() {
+        return false;
+    }
+
+    @Override
+    public int batch() {
+        return backedIterator.batch();
+    }
+
+    @Override
+    public int cursor() {
+        return backedIterator.cursor();
+    }
+
+    @Override
+    public int numExamples() {
+        return backedIterator.numExamples();
+    }
+
+    /**
+     * Sets preprocessor applied on prefetch thread. Takes effect for DataSets not prefetched yet.
+     */
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return backedIterator.getLabels();
+    }
+}
@@ -0,0 +1,104 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.dataset.api.MultiDataSet;
+import org.nd4j.linalg.dataset.api.MultiDataSetPreProcessor;
+
+/**
+ * MultiDataSetIterator wrapper that prefetches MultiDataSets of backing iterator on a separate thread,
+ * so loading and preprocessing don't stall the consumer.
+ *
+ * Please note: MultiDataSet returned by next() is valid until the next call to next(), reset() or shutdown(),
+ * see {@link BaseAsyncIterator} for details.
+ */
+public class AsyncMultiDataSetIterator extends BaseAsyncIterator<MultiDataSet> implements MultiDataSetIterator {
+    public static final int DEFAULT_QUEUE_SIZE = 4;
+
+    private final MultiDataSetIterator backedIterator;
+    private volatile MultiDataSetPreProcessor preProcessor;
+
+    public AsyncMultiDataSetIterator(MultiDataSetIterator backedIterator) {
+        this(backedIterator, DEFAULT_QUEUE_SIZE);
+    }
+
+    public AsyncMultiDataSetIterator(MultiDataSetIterator backedIterator, int queueSize) {
+        this(backedIterator, queueSize, true);
+    }
+
+    /**
+     * @param backedIterator iterator to prefetch from
+     * @param queueSize      number of MultiDataSets to prefetch
+     * @param useWorkspaces  if true, MultiDataSets are built in per-slot workspaces
+     */
+    public AsyncMultiDataSetIterator(@NonNull MultiDataSetIterator backedIterator, int queueSize,
+                    boolean useWorkspaces) {
+        super(queueSize, useWorkspaces);
+        this.backedIterator = backedIterator;
+        start();
+    }
+
+    @Override
+    protected boolean backingHasNext() {
+        return backedIterator.hasNext();
+    }
+
+    @Override
+    protected MultiDataSet backingNext() {
+        return backedIterator.next();
+    }
+
+    @Override
+    protected void backingReset() {
+        backedIterator.reset();
+    }
+
+    @Override
+    protected void preProcess(MultiDataSet batch) {
+        MultiDataSetPreProcessor preProcessor = this.preProcessor;
+        if (preProcessor != null)
+            preProcessor.preProcess(batch);
+    }
+
+    @Override
+    protected void attach(MultiDataSet batch, MemoryWorkspace workspace) {
+        batch.setFeatures(attach(batch.getFeatures(), workspace));
+        batch.setLabels(attach(batch.getLabels(), workspace));
+        batch.setFeaturesMaskArrays(attach(batch.getFeaturesMaskArrays(), workspace));
+        batch.setLabelsMaskArray(attach(batch.getLabelsMaskArrays(), workspace));
+    }
+
+    /**
+     * Not supported: batch size is defined by backing iterator
+     */
+    @Override
+    public MultiDataSet next(int num) {
+        throw new UnsupportedOperationException("Async iterator can't change batch size");
+    }
+
+    /**
+     * Sets preprocessor applied on prefetch thread. Takes effect for MultiDataSets not prefetched yet.
+     */
+    @Override
+    public void setPreProcessor(MultiDataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public MultiDataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return backedIterator.resetSupported();
+    }
+
+    /**
+     * This iterator is async already
+     */
+    @Override
+    public boolean asyncSupported() {
+        return false;
+    }
+}
@@ -0,0 +1,359 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.ResetPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class for iterators that prefetch batches of backing iterator on a separate thread.
+ *
+ * Batches are produced into a fixed number of slots: one is held by consumer (the batch returned last),
+ * the others are either queued or being filled by the worker thread. With workspaces enabled, every slot has
+ * its own workspace, and its memory gets reused once consumer moves past the batch in it, so prefetching produces
+ * no garbage. That also means batch returned by next() is valid only until the next call to next(), reset()
+ * or shutdown(): use detach() on it if it's needed for longer.
+ *
+ * Worker thread is attached to the device of the thread that created the iterator.
+ * Time consumer spends waiting for batches is tracked, see {@link #getStallTimeMillis()}.
+ *
+ * @param <T> batch type
+ */
+@Slf4j
+public abstract class BaseAsyncIterator<T> {
+    private static final Object TERMINATOR = new Object();
+
+    protected final int queueSize;
+    protected final boolean useWorkspaces;
+    protected final Integer deviceId;
+
+    private final String workspacePrefix = "ASYNC_ITERATOR_" + UUID.randomUUID().toString() + "_";
+    private final WorkspaceConfiguration workspaceConfiguration = WorkspaceConfiguration.builder().initialSize(0)
+                    .overallocationLimit(0.3).policyAllocation(AllocationPolicy.OVERALLOCATE)
+                    .policyLearning(LearningPolicy.FIRST_LOOP).policyReset(ResetPolicy.BLOCK_LEFT)
+                    .policySpill(SpillPolicy.EXTERNAL).build();
+
+    private final transient BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final transient BlockingQueue<Integer> freeSlots = new LinkedBlockingQueue<>();
+    private final transient Semaphore epochStart = new Semaphore(0);
+    private transient Thread worker;
+
+    private volatile boolean stopEpoch = false;
+    private volatile boolean shutdown = false;
+    private volatile Throwable failure;
+
+    // consumer side state
+    private transient Slot<T> current;
+    private transient Slot<T> peeked;
+    private boolean exhausted = false;
+
+    private final AtomicLong stallNanos = new AtomicLong(0);
+    private final AtomicLong stallCount = new AtomicLong(0);
+    private final AtomicLong batchesServed = new AtomicLong(0);
+
+    /**
+     * @param queueSize     number of batches to prefetch
+     * @param useWorkspaces if true, batches are built in per-slot workspaces
+     */
+    protected BaseAsyncIterator(int queueSize, boolean useWorkspaces) {
+        if (queueSize < 1)
+            throw new IllegalArgumentException("Queue size should be positive, but got " + queueSize);
+
+        this.queueSize = queueSize;
+        this.useWorkspaces = useWorkspaces;
+        this.deviceId = Nd4j.getAffinityManager().getDeviceForCurrentThread();
+
+        // one extra slot for the batch held by consumer
+        for (int i = 0; i <= queueSize; i++)
+            freeSlots.add(i);
+    }
+
+    /**
+     * This method starts worker thread and the first epoch. Should be called once backing iterator is set.
+     */
+    protected void start() {
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runWorker();
+            }
+        }, getClass().getSimpleName() + "-prefetch");
+        worker.setDaemon(true);
+        Nd4j.getAffinityManager().attachThreadToDevice(worker, deviceId);
+        worker.start();
+
+        epochStart.release();
+    }
+
+    protected abstract boolean backingHasNext();
+
+    protected abstract T backingNext();
+
+    protected abstract void backingReset();
+
+    /**
+     * Applies preprocessor of this iterator, if any. Called on worker thread.
+     */
+    protected abstract void preProcess(T batch);
+
+    /**
+     * Moves all arrays of the batch that aren't in the given workspace into it. Called on worker thread.
+     */
+    protected abstract void attach(T batch, MemoryWorkspace workspace);
+
+    public boolean hasNext() {
+        return peek() != null;
+    }
+
+    public T next() {
+        Slot<T> slot = peek();
+        if (slot == null)
+            throw new NoSuchElementException();
+
+        peeked = null;
+
+        // consumer is done with previous batch, its slot can be refilled now
+        if (current != null)
+            freeSlots.add(current.id);
+
+        current = slot;
+        batchesServed.incrementAndGet();
+        return slot.batch;
+    }
+
+    /**
+     * This method stops prefetching of the current epoch, resets backing iterator and starts the next epoch.
+     * Batches returned before are invalidated.
+     */
+    public void reset() {
+        if (shutdown)
+            throw new IllegalStateException("Iterator was shut down");
+
+        stopCurrentEpoch();
+
+        failure = null;
+        backingReset();
+
+        stopEpoch = false;
+        exhausted = false;
+        epochStart.release();
+    }
+
+    /**
+     * This method stops worker thread and releases workspaces. Batches returned before are invalidated.
+     */
+    public void shutdown() {
+        if (shutdown)
+            return;
+
+        stopCurrentEpoch();
+
+        shutdown = true;
+        epochStart.release();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("Remove is not supported");
+    }
+
+    /**
+     * This method returns total time consumer spent waiting for prefetched batches, in milliseconds
+     *
+     * @return
+     */
+    public long getStallTimeMillis() {
+        return stallNanos.get() / 1000000L;
+    }
+
+    /**
+     * This method returns number of times consumer had to wait for a batch, i.e. found prefetch queue empty
+     *
+     * @return
+     */
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    /**
+     * This method returns number of batches returned by this iterator so far
+     *
+     * @return
+     */
+    public long getBatchesServed() {
+        return batchesServed.get();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    protected static INDArray attach(INDArray array, MemoryWorkspace workspace) {
+        if (array == null || (array.isAttached() && array.data().getParentWorkspace() == workspace))
+            return array;
+
+        return array.migrate();
+    }
+
+    protected static INDArray[] attach(INDArray[] arrays, MemoryWorkspace workspace) {
+        if (arrays == null)
+            return null;
+
+        for (int i = 0; i < arrays.length; i++)
+            arrays[i] = attach(arrays[i], workspace);
+
+        return arrays;
+    }
+
+    private Slot<T> peek() {
+        if (peeked != null)
+            return peeked;
+
+        if (exhausted)
+            return null;
+
+        Object o = queue.poll();
+        if (o == null) {
+            long time = System.nanoTime();
+            o = take();
+            stallNanos.addAndGet(System.nanoTime() - time);
+            stallCount.incrementAndGet();
+        }
+
+        if (o == TERMINATOR) {
+            exhausted = true;
+
+            Throwable t = failure;
+            if (t != null) {
+                failure = null;
+                throw new RuntimeException("Prefetch of the next batch failed", t);
+            }
+
+            return null;
+        }
+
+        peeked = (Slot<T>) o;
+        return peeked;
+    }
+
+    private Object take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Makes worker finish current epoch, and returns all slots back. Called on consumer thread.
+     */
+    private void stopCurrentEpoch() {
+        stopEpoch = true;
+
+        // worker might be waiting for a free slot
+        if (peeked != null) {
+            freeSlots.add(peeked.id);
+            peeked = null;
+        }
+
+        if (current != null) {
+            freeSlots.add(current.id);
+            current = null;
+        }
+
+        if (!exhausted) {
+            Object o;
+            while ((o = take()) != TERMINATOR)
+                freeSlots.add(((Slot<T>) o).id);
+
+            exhausted = true;
+        }
+    }
+
+    private void runWorker() {
+        try {
+            while (true) {
+                epochStart.acquire();
+                if (shutdown)
+                    break;
+
+                try {
+                    produceEpoch();
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    log.error("Prefetch worker failed", t);
+                    failure = t;
+                }
+
+                queue.put(TERMINATOR);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (useWorkspaces)
+                Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+        }
+    }
+
+    private void produceEpoch() throws InterruptedException {
+        while (!stopEpoch && backingHasNext()) {
+            int slot = freeSlots.take();
+            if (stopEpoch) {
+                freeSlots.add(slot);
+                break;
+            }
+
+            T batch;
+            try {
+                if (useWorkspaces) {
+                    try (MemoryWorkspace workspace = Nd4j.getWorkspaceManager()
+                                    .getAndActivateWorkspace(workspaceConfiguration, workspacePrefix + slot)) {
+                        batch = backingNext();
+                        preProcess(batch);
+                        attach(batch, workspace);
+                    }
+                } else {
+                    batch = backingNext();
+                    preProcess(batch);
+                }
+
+                // make sure batch is complete before consumer gets it
+                Nd4j.getExecutioner().commit();
+            } catch (Throwable t) {
+                freeSlots.add(slot);
+                throw t;
+            }
+
+            queue.put(new Slot<>(slot, batch));
+        }
+    }
+
+    private static class Slot<T> {
+        private final int id;
+        private final T batch;
+
+        private Slot(int id, T batch) {
+            this.id = id;
+            this.batch = batch;
+        }
+    }
+}
@@ -2,14 +2,22 @@ package org.nd4j.linalg.dataset.api.iterator;
 
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Splits a dataset into k folds.
- * DataSet is duplicated in memory once
+ * DataSet isn't duplicated in memory: folds are tracked as indexes of examples, and reset() shuffles these indexes
+ * instead of the data. Contiguous folds are returned as views of the DataSet, others are gathered into buffers
+ * which are reused by subsequent calls, so a fold is valid until the next call of .next()
  * call .next() to get the k-1 folds to train on and call .testfold() to get the corresponding kth fold for testing
+ *
+ * NOTE: until the first reset(), test folds and train folds of the first and last fold share memory with the
+ * DataSet passed in. Modifying them in place, e.g. with {@code normalizer.transform(fold)}, modifies the source
+ * DataSet and all subsequent folds. Use {@link DataSet#copy()} on returned folds before modifying them.
  * @author Susan Eraly
  */
 public class KFoldIterator implements DataSetIterator {
@@ -20,6 +28,10 @@ public class KFoldIterator implements DataSetIterator {
     private int kCursor = 0;
     private DataSet test;
     private DataSet train;
+    // order of examples, null until the first shuffle
+    private int[] order;
+    private DataSet trainBuffer;
+    private DataSet testBuffer;
     protected DataSetPreProcessor preProcessor;
 
     public KFoldIterator(DataSet singleFold) {
@@ -35,7 +47,7 @@ public class KFoldIterator implements DataSetIterator {
 
     public KFoldIterator(int k, DataSet singleFold) {
         this.k = k;
-        this.singleFold = singleFold.copy();
+        this.singleFold = singleFold;
         if (k <= 1)
             throw new IllegalArgumentException();
         if (singleFold.numExamples() % k != 0) {
@@ -91,14 +103,17 @@ public class KFoldIterator implements DataSetIterator {
     }
 
     /**
-     * Shuffles the dataset and resets to the first fold
+     * Shuffles the dataset using {@link Nd4j#getRandom()} and resets to the first fold
      *
      * @return void
      */
     @Override
     public void reset() {
         //shuffle and return new k folds
-        singleFold.shuffle();
+        if (order == null)
+            order = ArrayUtil.range(0, totalExamples());
+        // sampling all indexes without replacement shuffles the whole permutation
+        order = DataSetUtil.sampleIndexes(order, order.length, false, Nd4j.getRandom());
         kCursor = 0;
     }
 
@@ -183,24 +198,43 @@ public class KFoldIterator implements DataSetIterator {
             right = left + batch;
         }
 
-        List<DataSet> kMinusOneFoldList = new ArrayList<DataSet>();
-        if (right < totalExamples()) {
-            if (left > 0) {
-                kMinusOneFoldList.add((DataSet) singleFold.getRange(0, left));
+        int total = totalExamples();
+        if (order == null) {
+            // examples are in original order, so every fold but the train set of a middle fold is a view
+            test = (DataSet) singleFold.getRange(left, right);
+            if (left == 0) {
+                train = (DataSet) singleFold.getRange(right, total);
+            } else if (right == total) {
+                train = (DataSet) singleFold.getRange(0, left);
+            } else {
+                train = trainBuffer = DataSetUtil.pullRows(singleFold, trainIndexes(left, right), trainBuffer);
             }
-            kMinusOneFoldList.add((DataSet) singleFold.getRange(right, totalExamples()));
-            train = DataSet.merge(kMinusOneFoldList);
         } else {
-            train = (DataSet) singleFold.getRange(0, left);
+            int[] testIndexes = new int[right - left];
+            System.arraycopy(order, left, testIndexes, 0, testIndexes.length);
+            test = testBuffer = DataSetUtil.pullRows(singleFold, testIndexes, testBuffer);
+            train = trainBuffer = DataSetUtil.pullRows(singleFold, trainIndexes(left, right), trainBuffer);
         }
-        test = (DataSet) singleFold.getRange(left, right);
 
         kCursor++;
+    }
+
+    /**
+     * Indexes of examples of all folds but the one in [left, right)
+     */
+    private int[] trainIndexes(int left, int right) {
+        int total = totalExamples();
+        int[] ret = new int[total - (right - left)];
+        for (int i = 0, j = 0; i < total; i++) {
+            if (i < left || i >= right)
+                ret[j++] = order == null ? i : order[i];
+        }
+        return ret;
 
     }
 
     /**
-     * @return the held out fold as a dataset
+     * @return the held out fold as a dataset, which may be a view of the source DataSet, see class javadoc
      */
     public DataSet testFold() {
         return test;
@@ -21,12 +21,17 @@ package org.nd4j.linalg.dataset.api.iterator;
 
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
 
 import java.util.List;
 
 /**
  * A wrapper for a dataset to sample from.
  * This will randomly sample from the given dataset.
+ * Examples are picked by index and gathered into a buffer reused by subsequent calls of next(),
+ * so a batch is valid until the next call of next()
  *
  * @author Adam Gibson
  */
@@ -42,6 +47,9 @@ public class SamplingDataSetIterator implements DataSetIterator {
     private int numTimesSampled;
     private boolean replace = false;
     private DataSetPreProcessor preProcessor;
+    // permutation of example indexes, shuffled partially on every sampling without replacement
+    private int[] indexes;
+    private DataSet buffer;
 
     /**
      * @param sampleFrom         the dataset to sample from
@@ -76,7 +84,7 @@ public class SamplingDataSetIterator implements DataSetIterator {
 
     @Override
     public DataSet next() {
-        DataSet ret = sampleFrom.sample(batchSize, replace);
+        DataSet ret = sample(batchSize);
         numTimesSampled += batchSize;
 
         if (preProcessor != null) {
@@ -159,10 +167,19 @@ public class SamplingDataSetIterator implements DataSetIterator {
 
     @Override
     public DataSet next(int num) {
-        DataSet ret = sampleFrom.sample(num);
+        DataSet ret = sample(num);
         numTimesSampled++;
         return ret;
     }
 
+    private DataSet sample(int num) {
+        if (indexes == null)
+            indexes = ArrayUtil.range(0, sampleFrom.numExamples());
+
+        buffer = DataSetUtil.pullRows(sampleFrom,
+                        DataSetUtil.sampleIndexes(indexes, num, replace, Nd4j.getRandom()), buffer);
+        return buffer;
+    }
+
 
 }
@@ -0,0 +1,430 @@
+package org.nd4j.linalg.dataset.api.iterator.cache;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DataSetCache with two tiers: byte-budgeted in-memory LRU tier on top of {@link InFileDataSetCache}.
+ *
+ * - put() stores a copy in memory tier and queues the write to disk on a background thread.
+ *   If writer falls behind, put() blocks, so number of pending DataSets stays bounded.
+ * - get() serves from memory tier (or from not yet written DataSets), and falls back to file tier otherwise.
+ *   Every get() also schedules read-ahead of the next keys in namespace order, i.e.
+ *   "data-set-cache-ns-000011.bin" after "data-set-cache-ns-000010.bin", so sequential epochs mostly hit memory.
+ * - Optionally, DataSets in memory tier are held compressed with given {@link org.nd4j.linalg.compression.BasicNDArrayCompressor}
+ *   algorithm. Please note: some algorithms (i.e. FLOAT16, INT8) are lossy, use GZIP if exact values matter.
+ *
+ * DataSets returned by get() are always detached copies, so they can be modified freely.
+ * Arrays are copied outside of any workspace, so get() and put() can be called within one.
+ * Call {@link #close()} to flush pending writes and release background threads.
+ */
+@Slf4j
+public class TieredDataSetCache implements DataSetCache, Closeable {
+    private static final Pattern KEY_INDEX = Pattern.compile("^(.*?)(\\d+)(\\D*)$");
+    private static final int WRITE_QUEUE_SIZE = 16;
+
+    private final InFileDataSetCache fileCache;
+    private final long maxMemoryBytes;
+    private final String compressionAlgorithm;
+    private final int readAhead;
+
+    // access-ordered, guarded by itself
+    private final LinkedHashMap<String, DataSet> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+
+    // DataSets queued for writing to file tier, still served from here. Updated under memory lock
+    private final Map<String, DataSet> pendingWrites = new ConcurrentHashMap<>();
+
+    // keys being read from file tier with number of reads in progress, and those of them put() since the read started.
+    // Guarded by memory lock
+    private final Map<String, Integer> loading = new HashMap<>();
+    private final Set<String> stale = new HashSet<>();
+
+    private final Semaphore writePermits = new Semaphore(WRITE_QUEUE_SIZE);
+    private final ExecutorService writer;
+    private final ExecutorService reader;
+
+    public TieredDataSetCache(File cacheDirectory, long maxMemoryBytes) {
+        this(cacheDirectory, maxMemoryBytes, null, 2);
+    }
+
+    /**
+     * @param cacheDirectory       directory for file tier
+     * @param maxMemoryBytes       memory budget for in-memory tier, in bytes
+     * @param compressionAlgorithm compression algorithm for arrays in memory tier, or null to keep them as is
+     * @param readAhead            number of keys to read ahead from file tier, 0 to disable read-ahead
+     */
+    public TieredDataSetCache(@NonNull File cacheDirectory, long maxMemoryBytes, String compressionAlgorithm,
+                    int readAhead) {
+        this(new InFileDataSetCache(cacheDirectory), maxMemoryBytes, compressionAlgorithm, readAhead);
+    }
+
+    TieredDataSetCache(@NonNull InFileDataSetCache fileCache, long maxMemoryBytes,
+                    String compressionAlgorithm, int readAhead) {
+        this.fileCache = fileCache;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.compressionAlgorithm = compressionAlgorithm;
+        this.readAhead = readAhead;
+
+        this.writer = Executors.newSingleThreadExecutor(new DaemonThreadFactory("write-behind"));
+        this.reader = Executors.newSingleThreadExecutor(new DaemonThreadFactory("read-ahead"));
+    }
+
+    @Override
+    public boolean isComplete(String namespace) {
+        return fileCache.isComplete(namespace);
+    }
+
+    @Override
+    public void setComplete(String namespace, boolean value) {
+        // marker must never be visible on disk before the data it covers
+        if (value)
+            flush();
+
+        fileCache.setComplete(namespace, value);
+    }
+
+    @Override
+    public DataSet get(String key) {
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            DataSet stored = fromMemory(key);
+
+            if (stored == null) {
+                stored = pendingWrites.get(key);
+
+                if (stored == null) {
+                    stored = fromFile(key);
+                    if (stored == null)
+                        return null;
+                }
+            }
+
+            scheduleReadAhead(key);
+
+            return restore(stored);
+        }
+    }
+
+    @Override
+    public void put(final String key, DataSet dataSet) {
+        final DataSet stored;
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            stored = stored(dataSet, true);
+        }
+
+        writePermits.acquireUninterruptibly();
+        synchronized (memory) {
+            toMemory(key, stored);
+            pendingWrites.put(key, stored);
+
+            // read in progress might have read older copy from file tier
+            if (loading.containsKey(key))
+                stale.add(key);
+        }
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    fileCache.put(key, stored);
+                } catch (Exception e) {
+                    log.error("Failed to write DataSet [{}] to file cache", key, e);
+                } finally {
+                    pendingWrites.remove(key, stored);
+                    writePermits.release();
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean contains(String key) {
+        synchronized (memory) {
+            if (memory.containsKey(key))
+                return true;
+        }
+
+        return pendingWrites.containsKey(key) || fileCache.contains(key);
+    }
+
+    /**
+     * This method blocks until all queued writes are done
+     */
+    public void flush() {
+        try {
+            // writer is single threaded, so everything queued before the barrier is done once it completes
+            Future<?> barrier = writer.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // no-op
+                }
+            });
+            barrier.get();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * This method blocks until all scheduled read-ahead is done
+     */
+    void awaitReadAhead() {
+        try {
+            reader.submit(new Runnable() {
+                @Override
+                public void run() {
+                    // no-op
+                }
+            }).get();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * This method returns number of bytes currently held by memory tier
+     *
+     * @return
+     */
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        writer.shutdown();
+        reader.shutdownNow();
+    }
+
+    private DataSet fromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    /**
+     * Reads DataSet from file tier, and stores it in memory tier unless put() happened while it was read
+     */
+    private DataSet fromFile(String key) {
+        synchronized (memory) {
+            startLoading(key);
+        }
+
+        try {
+            DataSet loaded = fileCache.get(key);
+            if (loaded == null)
+                return null;
+
+            // loaded instance is ours, so it can be stored without another copy
+            DataSet stored = stored(loaded, false);
+            synchronized (memory) {
+                if (!stale.contains(key) && !memory.containsKey(key) && !pendingWrites.containsKey(key))
+                    toMemory(key, stored);
+            }
+
+            return stored;
+        } finally {
+            synchronized (memory) {
+                finishLoading(key);
+            }
+        }
+    }
+
+    /**
+     * Registers read of the key from file tier. Caller holds memory lock
+     */
+    private void startLoading(String key) {
+        Integer count = loading.get(key);
+        loading.put(key, count == null ? 1 : count + 1);
+    }
+
+    /**
+     * Unregisters read of the key from file tier, forgetting put() calls once no reads are left. Caller holds memory lock
+     */
+    private void finishLoading(String key) {
+        int count = loading.get(key);
+        if (count > 1) {
+            loading.put(key, count - 1);
+        } else {
+            loading.remove(key);
+            stale.remove(key);
+        }
+    }
+
+    /**
+     * Produces DataSet to be held by this cache, copying (and compressing, if configured) its arrays if needed
+     */
+    private DataSet stored(DataSet dataSet, boolean copy) {
+        DataSet stored = new DataSet(store(dataSet.getFeatures(), copy), store(dataSet.getLabels(), copy),
+                        store(dataSet.getFeaturesMaskArray(), copy), store(dataSet.getLabelsMaskArray(), copy));
+        stored.setColumnNames(dataSet.getColumnNames());
+        stored.setLabelNames(dataSet.getLabelNames());
+        return stored;
+    }
+
+    /**
+     * Stores DataSet in memory tier, evicting least recently used ones over the budget. Caller holds memory lock
+     */
+    private void toMemory(String key, DataSet stored) {
+        long size = sizeOf(stored);
+
+        // DataSets over the budget aren't kept, but older value mustn't be served instead
+        DataSet previous = size > maxMemoryBytes ? memory.remove(key) : memory.put(key, stored);
+        if (previous != null)
+            memoryBytes -= sizeOf(previous);
+        if (size > maxMemoryBytes)
+            return;
+        memoryBytes += size;
+
+        Iterator<Map.Entry<String, DataSet>> iterator = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+            Map.Entry<String, DataSet> eldest = iterator.next();
+            memoryBytes -= sizeOf(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    private INDArray store(INDArray array, boolean copy) {
+        if (array == null)
+            return null;
+
+        if (compressionAlgorithm != null)
+            return Nd4j.getCompressor().compress(array, compressionAlgorithm);
+
+        return copy ? array.dup() : array;
+    }
+
+    /**
+     * Produces detached copy of stored DataSet
+     */
+    private static DataSet restore(DataSet stored) {
+        DataSet ret = new DataSet(restore(stored.getFeatures()), restore(stored.getLabels()),
+                        restore(stored.getFeaturesMaskArray()), restore(stored.getLabelsMaskArray()));
+        ret.setColumnNames(stored.getColumnNames());
+        ret.setLabelNames(stored.getLabelNames());
+        return ret;
+    }
+
+    private static INDArray restore(INDArray array) {
+        if (array == null)
+            return null;
+
+        if (array.isCompressed())
+            return Nd4j.getCompressor().decompress(array);
+
+        return array.dup();
+    }
+
+    private static long sizeOf(DataSet dataSet) {
+        return sizeOf(dataSet.getFeatures()) + sizeOf(dataSet.getLabels()) + sizeOf(dataSet.getFeaturesMaskArray())
+                        + sizeOf(dataSet.getLabelsMaskArray());
+    }
+
+    private static long sizeOf(INDArray array) {
+        if (array == null)
+            return 0;
+
+        if (array.data() instanceof CompressedDataBuffer)
+            return ((CompressedDataBuffer) array.data()).getCompressionDescriptor().getCompressedLength();
+
+        return array.lengthLong() * array.data().getElementSize();
+    }
+
+    private void scheduleReadAhead(String key) {
+        if (readAhead < 1)
+            return;
+
+        Matcher matcher = KEY_INDEX.matcher(key);
+        if (!matcher.matches())
+            return;
+
+        String digits = matcher.group(2);
+        long index;
+        try {
+            index = Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return;
+        }
+
+        for (int i = 1; i <= readAhead; i++) {
+            final String next = matcher.group(1) + String.format("%0" + digits.length() + "d", index + i)
+                            + matcher.group(3);
+
+            synchronized (memory) {
+                if (memory.containsKey(next) || pendingWrites.containsKey(next) || loading.containsKey(next))
+                    continue;
+
+                startLoading(next);
+            }
+
+            reader.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        synchronized (memory) {
+                            if (memory.containsKey(next) || pendingWrites.containsKey(next))
+                                return;
+                        }
+
+                        DataSet loaded = fileCache.get(next);
+                        if (loaded == null)
+                            return;
+
+                        DataSet stored = stored(loaded, false);
+                        synchronized (memory) {
+                            // file copy is outdated if put() happened while it was read
+                            if (!stale.contains(next) && !memory.containsKey(next)
+                                            && !pendingWrites.containsKey(next))
+                                toMemory(next, stored);
+                        }
+                    } catch (Exception e) {
+                        log.debug("Read-ahead of [{}] failed", next, e);
+                    } finally {
+                        synchronized (memory) {
+                            finishLoading(next);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String name;
+
+        private DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "TieredDataSetCache-" + name);
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -103,6 +103,55 @@ public abstract class AbstractDataSetNormalizer<S extends NormalizerStats> exten
         iterator.reset();
     }
 
+    /**
+     * Fit the given model using several threads: workers take batches from the iterator
+     * and gather statistics independently, which are merged at the end.
+     * Useful when computing statistics, rather than loading data, is the bottleneck.
+     *
+     * @param iterator   for the data to iterate over
+     * @param numWorkers number of threads to use
+     */
+    public void fit(@NonNull DataSetIterator iterator, int numWorkers) {
+        if (numWorkers <= 1) {
+            fit(iterator);
+            return;
+        }
+
+        iterator.reset();
+        // features builder first, then labels builder
+        NormalizerStats.Builder[] builders = new ParallelFit<DataSet, NormalizerStats.Builder[]>() {
+            @Override
+            protected NormalizerStats.Builder[] newAccumulator() {
+                return new NormalizerStats.Builder[] {newBuilder(), newBuilder()};
+            }
+
+            @Override
+            protected void add(NormalizerStats.Builder[] accumulator, DataSet batch) {
+                accumulator[0].addFeatures(batch);
+                if (fitLabels) {
+                    accumulator[1].addLabels(batch);
+                }
+            }
+
+            @Override
+            protected void merge(NormalizerStats.Builder[] target, NormalizerStats.Builder[] other) {
+                target[0].merge(other[0]);
+                target[1].merge(other[1]);
+            }
+
+            @Override
+            protected void detach(DataSet batch) {
+                batch.detach();
+            }
+        }.fit(iterator, numWorkers);
+
+        featureStats = (S) builders[0].build();
+        if (fitLabels) {
+            labelStats = (S) builders[1].build();
+        }
+        iterator.reset();
+    }
+
     protected abstract S.Builder newBuilder();
 
     /**
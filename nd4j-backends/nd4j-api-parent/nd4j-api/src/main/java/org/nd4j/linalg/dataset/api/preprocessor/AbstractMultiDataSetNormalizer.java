@@ -114,6 +114,66 @@ public abstract class AbstractMultiDataSetNormalizer<S extends NormalizerStats>
         }
     }
 
+    /**
+     * Fit an iterator using several threads: workers take batches from the iterator
+     * and gather statistics independently, which are merged at the end.
+     * Useful when computing statistics, rather than loading data, is the bottleneck.
+     *
+     * @param iterator   for the data to iterate over
+     * @param numWorkers number of threads to use
+     */
+    public void fit(@NonNull MultiDataSetIterator iterator, int numWorkers) {
+        if (numWorkers <= 1) {
+            fit(iterator);
+            return;
+        }
+
+        iterator.reset();
+        // feature builders first, then label builders
+        List<List<S.Builder>> builders = new ParallelFit<MultiDataSet, List<List<S.Builder>>>() {
+            @Override
+            protected List<List<S.Builder>> newAccumulator() {
+                List<List<S.Builder>> accumulator = new ArrayList<>(2);
+                accumulator.add(new ArrayList<S.Builder>());
+                accumulator.add(new ArrayList<S.Builder>());
+                return accumulator;
+            }
+
+            @Override
+            protected void add(List<List<S.Builder>> accumulator, MultiDataSet batch) {
+                fitPartial(batch, accumulator.get(0), accumulator.get(1));
+            }
+
+            @Override
+            protected void merge(List<List<S.Builder>> target, List<List<S.Builder>> other) {
+                mergeList(target.get(0), other.get(0));
+                mergeList(target.get(1), other.get(1));
+            }
+
+            @Override
+            protected void detach(MultiDataSet batch) {
+                batch.detach();
+            }
+        }.fit(iterator, numWorkers);
+
+        featureStats = buildList(builders.get(0));
+        if (isFitLabel()) {
+            labelStats = buildList(builders.get(1));
+        }
+        iterator.reset();
+    }
+
+    private void mergeList(List<S.Builder> target, List<S.Builder> other) {
+        if (target.isEmpty()) {
+            target.addAll(other);
+            return;
+        }
+
+        for (int i = 0; i < other.size(); i++) {
+            target.get(i).merge(other.get(i));
+        }
+    }
+
     private List<S> buildList(@NonNull List<S.Builder> builders) {
         List<S> result = new ArrayList<>(builders.size());
         for (S.Builder builder : builders) {
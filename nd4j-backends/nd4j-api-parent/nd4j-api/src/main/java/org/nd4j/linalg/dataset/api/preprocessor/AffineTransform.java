@@ -0,0 +1,192 @@
+package org.nd4j.linalg.dataset.api.preprocessor;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.HostLoops;
+
+/**
+ * Fused in-place affine transform used by normalizers and image preprocessors:
+ * x = (x - shift) * scale + offset, with shift and scale given per column for 2d data,
+ * or per channel (dimension 1) for time series and images. Single values of shift and scale apply to all elements.
+ *
+ * Data is updated in a single pass over host memory, split across threads for large arrays (see {@link HostLoops}).
+ * Time series mask, if any, is applied within the same pass, the same way {@link org.nd4j.linalg.dataset.api.DataSetUtil#setMaskedValuesToZero(INDArray, INDArray)} does.
+ * Callers fall back to broadcast ops if {@link #canApply(INDArray, INDArray)} returns false.
+ */
+public class AffineTransform {
+
+    private AffineTransform() {
+        //
+    }
+
+    /**
+     * This method checks if the transform can be applied to given array in place: array has to be contiguous,
+     * FLOAT or DOUBLE, and mask of time series has to be [minibatch, timeSeriesLength]
+     *
+     * @param array data to transform
+     * @param mask  mask array, may be null
+     * @return
+     */
+    public static boolean canApply(@NonNull INDArray array, INDArray mask) {
+        DataBuffer.Type type = array.data().dataType();
+        if (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)
+            return false;
+
+        if (array.rank() < 2 || array.isCompressed() || array.elementWiseStride() != 1)
+            return false;
+
+        // masks are applied to time series only
+        if (mask != null && array.rank() == 3)
+            return mask.rank() == 2 && mask.size(0) == array.size(0) && mask.size(1) == array.size(2);
+
+        return true;
+    }
+
+    /**
+     * This method applies the transform to given array in place
+     *
+     * @param array  data to transform, previously checked with {@link #canApply(INDArray, INDArray)}
+     * @param mask   mask array, may be null
+     * @param shift  value subtracted, per column/channel
+     * @param scale  value multiplied by, per column/channel
+     * @param offset value added to all elements
+     */
+    public static void apply(@NonNull INDArray array, INDArray mask, @NonNull double[] shift, @NonNull double[] scale,
+                    double offset) {
+        checkParams(array, shift, scale);
+        HostLoops.toHost(array);
+
+        if (mask != null && array.rank() == 3)
+            applyMasked(array, mask, shift, scale, offset);
+        else
+            transform(null, array, shift, scale, offset);
+
+        HostLoops.commit(array);
+    }
+
+    /**
+     * This method converts unsigned 8-bit data, i.e. raw image pixels, into given array, applying the transform
+     * on the way
+     *
+     * @param source data, in the order of target array
+     * @param target array to store the result in, previously checked with {@link #canApply(INDArray, INDArray)}
+     * @param shift  value subtracted, per column/channel
+     * @param scale  value multiplied by, per column/channel
+     * @param offset value added to all elements
+     */
+    public static void apply(@NonNull byte[] source, @NonNull INDArray target, @NonNull double[] shift,
+                    @NonNull double[] scale, double offset) {
+        if (source.length != target.length())
+            throw new IllegalArgumentException("Source length [" + source.length + "] doesn't match length of target ["
+                            + target.length() + "]");
+
+        checkParams(target, shift, scale);
+        HostLoops.toHost(target);
+        transform(source, target, shift, scale, offset);
+        HostLoops.commit(target);
+    }
+
+    /**
+     * This method copies unsigned 8-bit data into given array as is. Used by callers falling back to broadcast ops
+     * for arrays {@link #canApply(INDArray, INDArray)} rejects
+     *
+     * @param source data, in the order of target array
+     * @param target array to store the values in
+     */
+    public static void assignUnsigned(@NonNull byte[] source, @NonNull INDArray target) {
+        if (source.length != target.length())
+            throw new IllegalArgumentException("Source length [" + source.length + "] doesn't match length of target ["
+                            + target.length() + "]");
+
+        double[] values = new double[source.length];
+        for (int i = 0; i < source.length; i++)
+            values[i] = source[i] & 0xFF;
+
+        target.assign(Nd4j.create(values, target.shape(), target.ordering()));
+    }
+
+    /**
+     * Contiguous array is a sequence of blocks of stride(1) elements sharing the same channel, channels following
+     * each other cyclically. Blocks are processed in parallel, channel of the first block of each chunk is the only
+     * one computed by division. With a single channel every element is a block of its own, so the array is still
+     * split into chunks.
+     */
+    private static void transform(final byte[] source, INDArray array, final double[] shift, final double[] scale,
+                    final double offset) {
+        if (array.length() == 0)
+            return;
+
+        final HostLoops.Accessor x = HostLoops.accessor(array);
+        final long channels = shift.length;
+        final long blockLength = channels == 1 ? 1 : array.stride(1);
+
+        HostLoops.exec(array.length() / blockLength, Math.max(1, HostLoops.DEFAULT_CHUNK_LENGTH / blockLength),
+                        new HostLoops.Body() {
+                            @Override
+                            public double exec(long from, long to) {
+                                int c = (int) (from % channels);
+                                for (long b = from; b < to; b++) {
+                                    double sh = shift[c];
+                                    double sc = scale[c];
+                                    long end = (b + 1) * blockLength;
+                                    if (source == null) {
+                                        for (long i = b * blockLength; i < end; i++)
+                                            x.put(i, (x.get(i) - sh) * sc + offset);
+                                    } else {
+                                        for (long i = b * blockLength; i < end; i++)
+                                            x.put(i, ((source[(int) i] & 0xFF) - sh) * sc + offset);
+                                    }
+
+                                    if (++c == channels)
+                                        c = 0;
+                                }
+                                return 0.0;
+                            }
+                        });
+    }
+
+    /**
+     * Time series [minibatch, channels, length] with mask [minibatch, length], processed in parallel by examples
+     */
+    private static void applyMasked(INDArray array, INDArray mask, final double[] shift, final double[] scale,
+                    final double offset) {
+        final HostLoops.Accessor x = HostLoops.accessor(array);
+        // mask is read once, in 'c' order
+        final double[] maskValues = mask.dup('c').data().asDouble();
+        final long channels = array.size(1), length = array.size(2);
+        final long exampleStride = array.stride(0), channelStride = array.stride(1), stepStride = array.stride(2);
+        final boolean perChannel = shift.length != 1;
+
+        HostLoops.exec(array.size(0), Math.max(1, HostLoops.DEFAULT_CHUNK_LENGTH / Math.max(1, channels * length)),
+                        new HostLoops.Body() {
+                            @Override
+                            public double exec(long from, long to) {
+                                for (long e = from; e < to; e++) {
+                                    int maskOffset = (int) (e * length);
+                                    for (int c = 0; c < channels; c++) {
+                                        double sh = shift[perChannel ? c : 0];
+                                        double sc = scale[perChannel ? c : 0];
+                                        long base = e * exampleStride + c * channelStride;
+                                        for (int t = 0; t < length; t++) {
+                                            long i = base + t * stepStride;
+                                            x.put(i, ((x.get(i) - sh) * sc + offset) * maskValues[maskOffset + t]);
+                                        }
+                                    }
+                                }
+                                return 0.0;
+                            }
+                        });
+    }
+
+    private static void checkParams(INDArray array, double[] shift, double[] scale) {
+        if (shift.length != scale.length)
+            throw new IllegalArgumentException("Shift and scale lengths don't match: [" + shift.length + "] vs ["
+                            + scale.length + "]");
+
+        if (shift.length != 1 && shift.length != array.size(1))
+            throw new IllegalArgumentException("Expected 1 or " + array.size(1) + " values of shift and scale, got ["
+                            + shift.length + "]");
+    }
+}
@@ -63,6 +63,12 @@ public class ImageMultiPreProcessingScaler implements MultiDataNormalization {
     public void preProcess(MultiDataSet multiDataSet) {
         for( int i=0; i<featureIndices.length; i++ ){
             INDArray f = multiDataSet.getFeatures(featureIndices[i]);
+            if (AffineTransform.canApply(f, null)) {
+                AffineTransform.apply(f, null, new double[] {0.0},
+                                new double[] {(this.maxRange - this.minRange) / this.maxPixelVal}, this.minRange);
+                continue;
+            }
+
             f.divi(this.maxPixelVal); //Scaled to 0->1
             if (this.maxRange - this.minRange != 1)
                 f.muli(this.maxRange - this.minRange); //Scaled to minRange -> maxRange
@@ -75,6 +75,12 @@ public class ImagePreProcessingScaler implements DataNormalization {
     }
 
     public void preProcess(INDArray features) {
+        if (AffineTransform.canApply(features, null)) {
+            AffineTransform.apply(features, null, new double[] {0.0},
+                            new double[] {(this.maxRange - this.minRange) / this.maxPixelVal}, this.minRange);
+            return;
+        }
+
         features.divi(this.maxPixelVal); //Scaled to 0->1
         if (this.maxRange - this.minRange != 1)
             features.muli(this.maxRange - this.minRange); //Scaled to minRange -> maxRange
@@ -82,6 +88,23 @@ public class ImagePreProcessingScaler implements DataNormalization {
             features.addi(this.minRange); //Offset by minRange
     }
 
+    /**
+     * Scale raw 8-bit pixels into given features array, in a single pass
+     *
+     * @param pixels   pixel values, in the order of features array
+     * @param features array to store scaled values in
+     */
+    public void preProcess(byte[] pixels, INDArray features) {
+        if (!AffineTransform.canApply(features, null)) {
+            AffineTransform.assignUnsigned(pixels, features);
+            preProcess(features);
+            return;
+        }
+
+        AffineTransform.apply(pixels, features, new double[] {0.0},
+                        new double[] {(this.maxRange - this.minRange) / this.maxPixelVal}, this.minRange);
+    }
+
     /**
      * Transform the data
      * @param toPreProcess the dataset to transform
@@ -47,6 +47,16 @@ public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, Serializ
      */
     @Override
     public void preProcess(INDArray array, INDArray maskArray, MinMaxStats stats) {
+        if (AffineTransform.canApply(array, maskArray)) {
+            // (x - lower) / range, scaled by target range and offset by its minimum, in one pass
+            double[] scale = stats.getRange().toDoubleVector();
+            for (int i = 0; i < scale.length; i++)
+                scale[i] = (maxRange - minRange) / scale[i];
+
+            AffineTransform.apply(array, maskArray, stats.getLower().toDoubleVector(), scale, minRange);
+            return;
+        }
+
         if (array.rank() <= 2) {
             array.subiRowVector(stats.getLower());
             array.diviRowVector(stats.getRange());
@@ -0,0 +1,97 @@
+package org.nd4j.linalg.dataset.api.preprocessor;
+
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fits normalizer statistics on several threads. Workers share the iterator, taking batches from it one by one,
+ * and each worker adds its batches into its own accumulator, i.e. statistics builders.
+ * Accumulators are merged once the iterator is exhausted.
+ *
+ * @param <T> batch type
+ * @param <A> accumulator type
+ */
+abstract class ParallelFit<T, A> {
+
+    protected abstract A newAccumulator();
+
+    protected abstract void add(A accumulator, T batch);
+
+    /**
+     * Merges statistics of other accumulator into the target one
+     */
+    protected abstract void merge(A target, A other);
+
+    /**
+     * Detaches batch from memory owned by the iterator, see {@link org.nd4j.linalg.dataset.api.iterator.BaseAsyncIterator}
+     */
+    protected abstract void detach(T batch);
+
+    /**
+     * This method consumes the iterator with given number of workers, and returns merged accumulator
+     *
+     * @param iterator
+     * @param numWorkers
+     * @return
+     */
+    public A fit(final Iterator<T> iterator, int numWorkers) {
+        final Integer deviceId = Nd4j.getAffinityManager().getDeviceForCurrentThread();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        List<A> accumulators = new ArrayList<>(numWorkers);
+        List<Thread> threads = new ArrayList<>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            final A accumulator = newAccumulator();
+            accumulators.add(accumulator);
+
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Nd4j.getAffinityManager().unsafeSetDevice(deviceId);
+                    try {
+                        while (error.get() == null) {
+                            T batch;
+                            synchronized (iterator) {
+                                if (!iterator.hasNext())
+                                    break;
+
+                                batch = iterator.next();
+
+                                // batch must stay valid after other worker calls next()
+                                detach(batch);
+                            }
+
+                            add(accumulator, batch);
+                        }
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                    }
+                }
+            }, "ParallelFit-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        try {
+            for (Thread thread : threads)
+                thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error.compareAndSet(null, e);
+        }
+
+        if (error.get() != null)
+            throw new RuntimeException("Parallel fit failed", error.get());
+
+        A result = accumulators.get(0);
+        for (int i = 1; i < accumulators.size(); i++)
+            merge(result, accumulators.get(i));
+
+        return result;
+    }
+}
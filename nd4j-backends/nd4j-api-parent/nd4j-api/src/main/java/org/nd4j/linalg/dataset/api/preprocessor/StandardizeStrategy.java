@@ -24,11 +24,23 @@ public class StandardizeStrategy implements NormalizerStrategy<DistributionStats
     /**
      * Normalize a data array
      *
+     * Contiguous FLOAT and DOUBLE arrays are transformed in place by {@link AffineTransform}, multiplying by
+     * precomputed 1/std rather than dividing by std, so results may differ from the broadcast path in the last bits.
+     *
      * @param array the data to normalize
      * @param stats statistics of the data population
      */
     @Override
     public void preProcess(INDArray array, INDArray maskArray, DistributionStats stats) {
+        if (AffineTransform.canApply(array, maskArray)) {
+            double[] scale = filteredStd(stats).toDoubleVector();
+            for (int i = 0; i < scale.length; i++)
+                scale[i] = 1.0 / scale[i];
+
+            AffineTransform.apply(array, maskArray, stats.getMean().toDoubleVector(), scale, 0.0);
+            return;
+        }
+
         if (array.rank() <= 2) {
             array.subiRowVector(stats.getMean());
             array.diviRowVector(filteredStd(stats));
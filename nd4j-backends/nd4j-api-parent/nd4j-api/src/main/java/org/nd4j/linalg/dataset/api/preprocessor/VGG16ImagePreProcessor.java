@@ -19,6 +19,7 @@ import org.nd4j.linalg.factory.Nd4j;
 public class VGG16ImagePreProcessor implements DataNormalization {
 
     public static final INDArray VGG_MEAN_OFFSET_BGR = Nd4j.create(new double[] {123.68, 116.779, 103.939});
+    private static final double[] UNIT_SCALE = new double[] {1.0, 1.0, 1.0};
 
     /**
      * Fit a dataset (only compute
@@ -50,9 +51,30 @@ public class VGG16ImagePreProcessor implements DataNormalization {
     }
 
     public void preProcess(INDArray features) {
+        if (AffineTransform.canApply(features, null)) {
+            AffineTransform.apply(features, null, VGG_MEAN_OFFSET_BGR.toDoubleVector(), UNIT_SCALE, 0.0);
+            return;
+        }
+
         Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(features.dup(), VGG_MEAN_OFFSET_BGR, features, 1));
     }
 
+    /**
+     * Subtract mean from raw 8-bit pixels, storing result in given features array, in a single pass
+     *
+     * @param pixels   pixel values, in the order of features array
+     * @param features array to store the result in
+     */
+    public void preProcess(byte[] pixels, INDArray features) {
+        if (!AffineTransform.canApply(features, null)) {
+            AffineTransform.assignUnsigned(pixels, features);
+            preProcess(features);
+            return;
+        }
+
+        AffineTransform.apply(pixels, features, VGG_MEAN_OFFSET_BGR.toDoubleVector(), UNIT_SCALE, 0.0);
+    }
+
     /**
      * Transform the data
      * @param toPreProcess the dataset to transform
@@ -138,6 +138,35 @@ public class DistributionStats implements NormalizerStats {
             return this;
         }
 
+        /**
+         * Merge running mean and variance of another builder into this one, using the same parallel algorithm
+         *
+         * @param other DistributionStats builder
+         */
+        public Builder merge(@NonNull NormalizerStats.Builder<DistributionStats> other) {
+            Builder stats = (Builder) other;
+            if (stats.runningMean == null)
+                return this;
+
+            if (runningMean == null) {
+                runningMean = stats.runningMean.dup();
+                runningVariance = stats.runningVariance.dup();
+                runningCount = stats.runningCount;
+                return this;
+            }
+
+            long count = stats.runningCount;
+            long totalCount = runningCount + count;
+            INDArray delta = stats.runningMean.sub(runningMean);
+
+            runningVariance.muli(runningCount).addi(stats.runningVariance.mul(count))
+                            .addi(delta.mul(delta).muli((double) runningCount * count / totalCount)).divi(totalCount);
+            runningMean.addi(delta.muli((double) count / totalCount));
+            runningCount = totalCount;
+
+            return this;
+        }
+
         /**
          * Create a DistributionStats object from the data ingested so far. Can be used multiple times when updating
          * online.
@@ -124,6 +124,27 @@ public class MinMaxStats implements NormalizerStats {
             return this;
         }
 
+        /**
+         * Merge running bounds of another builder into this one
+         *
+         * @param other MinMaxStats builder
+         */
+        public MinMaxStats.Builder merge(@NonNull NormalizerStats.Builder<MinMaxStats> other) {
+            MinMaxStats.Builder stats = (MinMaxStats.Builder) other;
+            if (stats.runningLower == null)
+                return this;
+
+            if (runningLower == null) {
+                runningLower = stats.runningLower.dup();
+                runningUpper = stats.runningUpper.dup();
+            } else {
+                Transforms.min(runningLower, stats.runningLower, false);
+                Transforms.max(runningUpper, stats.runningUpper, false);
+            }
+
+            return this;
+        }
+
         /**
          * Create a DistributionStats object from the data ingested so far. Can be used multiple times when updating
          * online.
@@ -28,6 +28,14 @@ public interface NormalizerStats extends Serializable {
          */
         Builder<S> add(INDArray data, INDArray mask);
 
+        /**
+         * Merge statistics gathered by another builder into this one, e.g. when data was split
+         * between several builders, fit in parallel
+         *
+         * @param other builder of the same type
+         */
+        Builder<S> merge(Builder<S> other);
+
         /**
          * DynamicCustomOpsBuilder pattern
          * @return
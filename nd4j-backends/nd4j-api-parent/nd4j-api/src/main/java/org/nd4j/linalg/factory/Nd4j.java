@@ -26,14 +26,18 @@ import lombok.NonNull;
 import lombok.val;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.LineIterator;
 import org.apache.commons.lang3.ArrayUtils;
 import org.bytedeco.javacpp.DoublePointer;
 import org.bytedeco.javacpp.FloatPointer;
 import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.javacpp.LongPointer;
 import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
 import org.bytedeco.javacpp.indexer.HalfIndexer;
 import org.bytedeco.javacpp.indexer.Indexer;
+import org.bytedeco.javacpp.indexer.IntIndexer;
+import org.bytedeco.javacpp.indexer.LongRawIndexer;
 import org.nd4j.autodiff.samediff.SameDiff;
 import org.nd4j.base.Preconditions;
 import org.nd4j.context.Nd4jContext;
@@ -87,6 +91,7 @@ import org.nd4j.linalg.memory.MemoryManager;
 import org.nd4j.linalg.ops.transforms.Transforms;
 import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.string.NDArrayStrings;
+import org.nd4j.linalg.string.NDArrayTextReader;
 import org.nd4j.linalg.util.ArrayUtil;
 import org.nd4j.tools.PropertyParser;
 import org.nd4j.versioncheck.VersionCheck;
@@ -94,11 +99,12 @@ import org.nd4j.versioncheck.VersionCheck;
 import java.io.*;
 import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Constructor;
-import java.math.BigDecimal;
 import java.nio.ByteBuffer;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
-import java.text.ParseException;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
@@ -2485,101 +2491,18 @@ public class Nd4j {
      * @return NDArray
      */
     public static INDArray readTxtString(InputStream ndarray) {
-        String sep = ",";
-        /*
-         We could dump an ndarray to a file with the tostring (since that is valid json) and use put/get to parse it as json
-         But here we leverage our information of the tostring method to be more efficient
-         With our current toString format we use tads along dimension (rank-1,rank-2) to write to the array in two dimensional chunks at a time.
-         This is more efficient than setting each value at a time with putScalar.
-         This also means we can read the file one line at a time instead of loading the whole thing into memory
-        */
-        INDArray newArr = null;
-        BufferedReader reader = new BufferedReader(new InputStreamReader(ndarray));
-        LineIterator it = IOUtils.lineIterator(reader);
-        DecimalFormat format = (DecimalFormat) NumberFormat.getInstance(Locale.US);
-        format.setParseBigDecimal(true);
-        try {
-            int lineNum = 0;
-            int tensorNum = 0;
-            char theOrder = 'c';
-            int rank = 0;
-            int[] theShape = null;
-            double[] subsetArr = null;
-            while (it.hasNext()) {
-                String line = it.nextLine();
-                lineNum++;
-                line = line.replaceAll("\\s", "");
-                if (line.equals("") || line.equals("}"))
-                    continue;
-                // is it from dl4j?
-                if (lineNum == 2) {
-                    String[] lineArr = line.split(":");
-                    String fileSource = lineArr[1].replaceAll("\\W", "");
-                    if (!fileSource.equals("dl4j"))
-                        throw new IllegalArgumentException("Only files written out from Nd4j.writeTxT/writeTxtString can be read with the readTxt/readTxtString methods");
-                }
-                // parse ordering
-                if (lineNum == 3) {
-                    String[] lineArr = line.split(":");
-                    theOrder = lineArr[1].replaceAll("\\W", "").charAt(0);
-                    continue;
-                }
-                // parse shape
-                if (lineNum == 4) {
-                    String shapeString = line.split(":")[1].replace("[", "").replace("],", "");
-                    if (shapeString.isEmpty()) {
-                        newArr = Nd4j.trueScalar(0);
-                    } else {
-                        String[] shapeArr = shapeString.split(",");
-                        rank = shapeArr.length;
-                        theShape = new int[rank];
-                        for (int i = 0; i < rank; i++) {
-                            theShape[i] = Integer.parseInt(shapeArr[i]);
-                        }
-                        if (theOrder == 'f' && theShape[rank-1] == 1) {
-                            //Hack fix for tad issue with 'f' order and rank-1 dim shape == 1
-                            newArr = Nd4j.zeros(theShape, 'c');
-                        }
-                        else {
-                            newArr = Nd4j.zeros(theShape, theOrder);
-                        }
-                        subsetArr = new double[theShape[rank - 1]];
-                    }
-                    continue;
-                }
-                //parse data
-                if (lineNum > 5) {
-                    String[] entries = line.replace("\\],", "").replaceAll("\\]", "").replaceAll("\\[", "").split(sep);
-                    if (rank == 0) {
-                        try {
-                            newArr.addi((format.parse(entries[0])).doubleValue());
-                        } catch (ParseException e) {
-                            e.printStackTrace();
-                        }
-                    } else {
-                        for (int i = 0; i < theShape[rank - 1]; i++) {
-                            try {
-                                BigDecimal number = (BigDecimal) format.parse(entries[i]);
-                                subsetArr[i] = number.doubleValue();
-                            } catch (ParseException e) {
-                                e.printStackTrace();
-                            }
-                        }
-                        INDArray subTensor = Nd4j.create(subsetArr);
-                        newArr.tensorAlongDimension(tensorNum, rank - 1).addi(subTensor);
-                        tensorNum++;
-                    }
-                }
-            }
-            //Hack fix for tad issue with 'f' order and rank-1 dim shape == 1
-            if (theOrder == 'f' && rank > 1 && theShape[rank-1] == 1) {
-                newArr = newArr.dup('f');
-            }
+        return NDArrayTextReader.read(ndarray);
+    }
 
-        } finally {
-            LineIterator.closeQuietly(it);
-        }
-        return newArr;
+    /**
+     * Read line via input streams, parsing the data section with the given number of threads
+     *
+     * @param ndarray the input stream ndarray
+     * @param numThreads number of threads used for parsing numbers
+     * @return NDArray
+     */
+    public static INDArray readTxtString(InputStream ndarray, int numThreads) {
+        return NDArrayTextReader.read(ndarray, numThreads);
     }
 
 
@@ -2619,12 +2542,22 @@ public class Nd4j {
      * @return NDArray
      */
     public static INDArray readTxt(String filePath) {
-        String sep = ",";
+        return readTxt(filePath, 1);
+    }
+
+    /**
+     * Read line via input streams, parsing the data section with the given number of threads
+     *
+     * @param filePath the input stream ndarray
+     * @param numThreads number of threads used for parsing numbers
+     * @return NDArray
+     */
+    public static INDArray readTxt(String filePath, int numThreads) {
         File file = new File(filePath);
         InputStream is = null;
         try {
             is = new FileInputStream(file);
-            return readTxtString(is);
+            return readTxtString(is, numThreads);
         } catch (FileNotFoundException e) {
             throw new RuntimeException(e);
         } finally {
@@ -2692,7 +2625,7 @@ public class Nd4j {
     public static INDArray read(DataInputStream dis) throws IOException {
         DataBuffer shapeInformation = Nd4j.createBufferDetached(new long[1], DataBuffer.Type.LONG);
         shapeInformation.read(dis);
-        int length = Shape.length(shapeInformation);
+        long length = Shape.length(shapeInformation.asLong());
         DataBuffer data = CompressedDataBuffer.readUnknown(dis, length);
         return createArrayFromShapeBuffer(data, shapeInformation);
     }
@@ -2716,6 +2649,38 @@ public class Nd4j {
         arr.data().write(dataOutputStream);
     }
 
+    /**
+     * Write an ndarray to the specified channel.
+     * Array content is transferred in bulk, in native byte order.
+     * The result can be read back by both {@link #read(ReadableByteChannel)} and {@link #read(DataInputStream)}
+     *
+     * @param arr     the array to write
+     * @param channel the channel to write to
+     * @throws IOException
+     */
+    public static void write(INDArray arr, WritableByteChannel channel) throws IOException {
+        if (arr.isView())
+            arr = arr.dup();
+
+        arr.shapeInfoDataBuffer().write(channel);
+        arr.data().write(channel);
+    }
+
+    /**
+     * Read in an ndarray from a channel
+     *
+     * @param channel the channel to read from
+     * @return the ndarray
+     * @throws IOException
+     */
+    public static INDArray read(ReadableByteChannel channel) throws IOException {
+        DataBuffer shapeInformation = Nd4j.createBufferDetached(new long[1], DataBuffer.Type.LONG);
+        shapeInformation.read(channel);
+        long length = Shape.length(shapeInformation.asLong());
+        DataBuffer data = CompressedDataBuffer.readUnknown(channel, length);
+        return createArrayFromShapeBuffer(data, shapeInformation);
+    }
+
     /**
      * Save an ndarray to the given file
      * @param arr the array to save
@@ -2723,12 +2688,9 @@ public class Nd4j {
      * @throws IOException
      */
     public static void saveBinary(INDArray arr, File saveTo) throws IOException {
-        BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(saveTo));
-        DataOutputStream dos = new DataOutputStream(bos);
-        Nd4j.write(arr, dos);
-        dos.flush();
-        dos.close();
-        bos.close();
+        try (FileOutputStream fos = new FileOutputStream(saveTo); FileChannel channel = fos.getChannel()) {
+            Nd4j.write(arr, channel);
+        }
     }
 
 
@@ -2747,6 +2709,202 @@ public class Nd4j {
     }
 
 
+    /**
+     * Read a binary ndarray, saved with {@link #saveBinary(INDArray, File)}, by memory-mapping the file.
+     * The DataBuffer of the returned array points straight at a copy-on-write mapping of the array content,
+     * so nothing is copied, and processes mapping the same file share page cache until they modify the array.
+     *
+     * Content that can't be mapped (stream format, non-native byte order, data type other than
+     * {@link #dataType()}, HALF or compressed buffers, or content larger than 2GB) is read as usual.
+     * Copy-on-write mapping requires the file to be writable, so read-only files are read as usual too:
+     * the file itself is never modified either way. Use {@link FileChannel.MapMode#READ_ONLY} mode to share
+     * page cache of read-only files. Whenever content is read instead of being mapped, a warning with the reason
+     * is logged.
+     *
+     * @param read the file to read
+     * @return the loaded ndarray
+     * @throws IOException
+     */
+    public static INDArray readBinaryMapped(File read) throws IOException {
+        return readBinaryMapped(read, FileChannel.MapMode.PRIVATE);
+    }
+
+    /**
+     * Read a binary ndarray, saved with {@link #saveBinary(INDArray, File)}, by memory-mapping the file.
+     * PLEASE NOTE: arrays backed by {@link FileChannel.MapMode#READ_ONLY} mappings must never be modified,
+     * nothing guards them and native ops writing into such array crash the JVM.
+     * Changes to arrays backed by {@link FileChannel.MapMode#READ_WRITE} mappings are written back to the file.
+     *
+     * @param read the file to read
+     * @param mode the mode to map the file with
+     * @return the loaded ndarray
+     * @throws IOException
+     */
+    public static INDArray readBinaryMapped(File read, FileChannel.MapMode mode) throws IOException {
+        try (RandomAccessFile file = openMapped(read, mode); FileChannel channel = file.getChannel()) {
+            DataBuffer shapeInformation = Nd4j.createBufferDetached(new long[1], DataBuffer.Type.LONG);
+            shapeInformation.read(channel);
+            long length = Shape.length(shapeInformation.asLong());
+
+            long headerStart = channel.position();
+            DataInputStream header = new DataInputStream(Channels.newInputStream(channel));
+            DataBuffer.AllocationMode allocationMode = DataBuffer.AllocationMode.valueOf(header.readUTF());
+            String reason;
+            if (allocationMode == DataBuffer.AllocationMode.LONG_SHAPE_RAW) {
+                long bufferLength = header.readLong();
+                DataBuffer.Type type = DataBuffer.Type.valueOf(header.readUTF());
+                ByteOrder order = header.readByte() == 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+
+                if (bufferLength != length)
+                    reason = "buffer length " + bufferLength + " differs from array length " + length;
+                else if (type != dataType())
+                    reason = "data type " + type + " differs from " + dataType();
+                else
+                    reason = unmappableReason(read, mode, type, order, length);
+
+                if (reason == null) {
+                    DataBuffer data = createBufferMapped(channel, mode, channel.position(), type, length);
+                    return createArrayFromShapeBuffer(data, shapeInformation);
+                }
+            } else {
+                reason = allocationMode + " content can't be mapped";
+            }
+
+            logger.warning("File [" + read.getAbsolutePath() + "] is read into memory instead of being mapped: "
+                            + reason);
+            channel.position(headerStart);
+            DataBuffer data = CompressedDataBuffer.readUnknown(channel, length);
+            return createArrayFromShapeBuffer(data, shapeInformation);
+        }
+    }
+
+    /**
+     * Opens the file for memory mapping with the given mode. Files are opened for writing only if the mode
+     * requires it: READ_WRITE always, PRIVATE (copy-on-write) if the file is writable, as java can't map
+     * a file privately through a read-only channel. See {@link #isMappable(File, FileChannel.MapMode)}.
+     */
+    private static RandomAccessFile openMapped(File file, FileChannel.MapMode mode) throws IOException {
+        if (!file.isFile())
+            throw new FileNotFoundException("File [" + file.getAbsolutePath() + "] doesn't exist");
+
+        if (mode == FileChannel.MapMode.READ_WRITE && !file.canWrite())
+            throw new ND4JIllegalStateException("File [" + file.getAbsolutePath()
+                            + "] isn't writable, so it can't be mapped with READ_WRITE mode");
+
+        return new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY || !isMappable(file, mode) ? "r" : "rw");
+    }
+
+    /**
+     * Returns true if the given file can be mapped with the given mode. PRIVATE mapping needs a channel opened
+     * for writing, so read-only files are read into memory instead
+     */
+    public static boolean isMappable(File file, FileChannel.MapMode mode) {
+        return mode != FileChannel.MapMode.PRIVATE || file.canWrite();
+    }
+
+    /**
+     * Returns the reason content with the given properties can't be mapped, or null if it can
+     */
+    private static String unmappableReason(File file, FileChannel.MapMode mode, DataBuffer.Type type,
+                    ByteOrder order, long length) {
+        long bytes = length * sizeOfDataType(type);
+        if (type == DataBuffer.Type.HALF)
+            return "HALF buffers can't be mapped";
+        else if (order != ByteOrder.nativeOrder())
+            return "byte order " + order + " isn't native";
+        else if (!isMappable(file, mode))
+            return "copy-on-write mapping requires a writable file, map it with READ_ONLY mode instead";
+        else if (bytes > Integer.MAX_VALUE)
+            return "content of " + bytes + " bytes exceeds 2GB limit of a single mapping";
+
+        return null;
+    }
+
+    /**
+     * Map a region of the given file with the given mode.
+     * PRIVATE (copy-on-write) mapping isn't possible for read-only files, so the region is read into
+     * direct memory instead: see {@link #isMappable(File, FileChannel.MapMode)}. Either way, the file is never modified
+     * in PRIVATE mode.
+     *
+     * @param file     the file to map
+     * @param mode     the mode to map the region with
+     * @param position position of the region within the file, in bytes
+     * @param bytes    length of the region, in bytes
+     * @return direct buffer in native byte order, which stays valid after the file is closed
+     * @throws IOException
+     */
+    public static ByteBuffer mapRegion(File file, FileChannel.MapMode mode, long position, long bytes)
+                    throws IOException {
+        if (bytes > Integer.MAX_VALUE)
+            throw new ND4JIllegalStateException("Unable to map more than 2GB into a single buffer, " + bytes
+                            + " bytes were requested");
+
+        try (RandomAccessFile raf = openMapped(file, mode); FileChannel channel = raf.getChannel()) {
+            if (position + bytes > channel.size())
+                throw new ND4JIllegalStateException("Region [" + position + ", " + (position + bytes)
+                                + ") is out of file [" + file.getAbsolutePath() + "] of " + channel.size() + " bytes");
+
+            ByteBuffer buffer;
+            if (isMappable(file, mode)) {
+                buffer = channel.map(mode, position, bytes);
+            } else {
+                buffer = ByteBuffer.allocateDirect((int) bytes);
+                while (buffer.hasRemaining())
+                    if (channel.read(buffer, position + buffer.position()) < 0)
+                        throw new EOFException("Unexpected end of file [" + file.getAbsolutePath() + "]");
+                buffer.flip();
+            }
+
+            return buffer.order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Create a data buffer backed by a memory-mapped region of the given file.
+     * No data is copied: elements have to be stored in native byte order.
+     * The mapping stays valid after the channel is closed.
+     *
+     * @param channel  the file channel to map
+     * @param mode     the mode to map the region with
+     * @param position position (in bytes) of the first element within the file
+     * @param type     the type of the elements
+     * @param length   the number of elements
+     * @return the data buffer backed by the mapped region
+     * @throws IOException
+     */
+    public static DataBuffer createBufferMapped(FileChannel channel, FileChannel.MapMode mode, long position,
+                    DataBuffer.Type type, long length) throws IOException {
+        long bytes = length * sizeOfDataType(type);
+        if (bytes > Integer.MAX_VALUE)
+            throw new ND4JIllegalStateException("Unable to map more than 2GB into a single buffer, " + bytes
+                            + " bytes were requested");
+
+        ByteBuffer mapped = channel.map(mode, position, bytes).order(ByteOrder.nativeOrder());
+        switch (type) {
+            case DOUBLE: {
+                DoublePointer pointer = new DoublePointer(mapped.asDoubleBuffer());
+                return createBuffer(pointer, type, length, DoubleIndexer.create(pointer));
+            }
+            case FLOAT: {
+                FloatPointer pointer = new FloatPointer(mapped.asFloatBuffer());
+                return createBuffer(pointer, type, length, FloatIndexer.create(pointer));
+            }
+            case INT: {
+                IntPointer pointer = new IntPointer(mapped.asIntBuffer());
+                return createBuffer(pointer, type, length, IntIndexer.create(pointer));
+            }
+            case LONG: {
+                LongPointer pointer = new LongPointer(mapped.asLongBuffer());
+                return createBuffer(pointer, type, length, LongRawIndexer.create(pointer));
+            }
+            case HALF:
+                throw new ND4JIllegalStateException("Memory-mapped HALF buffers aren't supported, "
+                                + "HALF arrays have to be read into memory");
+            default:
+                throw new ND4JIllegalStateException("Unable to map buffer of type [" + type + "]");
+        }
+    }
+
     /**
      * Clear nans from an ndarray
      *
@@ -7330,6 +7488,127 @@ public class Nd4j {
         return INSTANCE.createFromNpyFile(file);
     }
 
+    /**
+     * Create an ndarray from the given numpy file, by memory-mapping it.
+     * The DataBuffer of the returned array points straight at a copy-on-write mapping of the array content,
+     * so nothing is copied, and processes mapping the same file share page cache until they modify the array.
+     *
+     * Files that can't be mapped (non-native byte order, element types other than float32/float64,
+     * or content larger than 2GB) are loaded via {@link #createFromNpyFile(File)}, as well as
+     * read-only files, since copy-on-write mapping requires the file to be writable.
+     * Use {@link FileChannel.MapMode#READ_ONLY} mode to share page cache of read-only files.
+     * Whenever a file is loaded instead of being mapped, a warning with the reason is logged.
+     *
+     * @param file the file to create the ndarray from
+     * @return the created ndarray
+     * @throws IOException
+     */
+    public static INDArray createFromNpyFileMapped(File file) throws IOException {
+        return createFromNpyFileMapped(file, FileChannel.MapMode.PRIVATE);
+    }
+
+    /**
+     * Create an ndarray from the given numpy file, by memory-mapping it.
+     * PLEASE NOTE: arrays backed by {@link FileChannel.MapMode#READ_ONLY} mappings must never be modified,
+     * nothing guards them and native ops writing into such array crash the JVM.
+     * Changes to arrays backed by {@link FileChannel.MapMode#READ_WRITE} mappings are written back to the file.
+     *
+     * @param file the file to create the ndarray from
+     * @param mode the mode to map the file with
+     * @return the created ndarray
+     * @throws IOException
+     */
+    public static INDArray createFromNpyFileMapped(File file, FileChannel.MapMode mode) throws IOException {
+        try (RandomAccessFile raf = openMapped(file, mode); FileChannel channel = raf.getChannel()) {
+            // magic string, version, and header length: 2 bytes for npy 1.0, 4 bytes for npy 2.0
+            ByteBuffer preamble = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            while (preamble.hasRemaining()) {
+                if (channel.read(preamble) < 0)
+                    break;
+            }
+            if (preamble.position() < 10 || preamble.get(0) != (byte) 0x93 || preamble.get(1) != 'N'
+                            || preamble.get(2) != 'U' || preamble.get(3) != 'M' || preamble.get(4) != 'P'
+                            || preamble.get(5) != 'Y')
+                throw new ND4JIllegalStateException("File [" + file + "] is not a numpy file");
+
+            int major = preamble.get(6) & 0xFF;
+            long headerStart = major == 1 ? 10 : 12;
+            long headerLength = major == 1 ? preamble.getShort(8) & 0xFFFF : preamble.getInt(8) & 0xFFFFFFFFL;
+
+            ByteBuffer headerBytes = ByteBuffer.allocate((int) headerLength);
+            channel.position(headerStart);
+            while (headerBytes.hasRemaining()) {
+                if (channel.read(headerBytes) < 0)
+                    throw new EOFException("Unexpected end of numpy header in file [" + file + "]");
+            }
+            String header = new String(headerBytes.array(), 0, headerBytes.position(), "ISO-8859-1");
+
+            String descr = npyHeaderValue(header, "descr");
+            descr = descr.substring(1, descr.length() - 1);
+            char order = header.replaceAll("\\s", "").contains("'fortran_order':True") ? 'f' : 'c';
+
+            String shapeString = npyHeaderValue(header, "shape");
+            String[] dims = shapeString.substring(1, shapeString.length() - 1).split(",");
+            List<Long> shapeList = new ArrayList<>();
+            for (String dim : dims) {
+                if (!dim.trim().isEmpty())
+                    shapeList.add(Long.parseLong(dim.trim()));
+            }
+
+            long[] shape;
+            if (shapeList.isEmpty())
+                shape = new long[] {1, 1};
+            else if (shapeList.size() == 1)
+                shape = new long[] {1, shapeList.get(0)};
+            else
+                shape = Longs.toArray(shapeList);
+
+            long length = ArrayUtil.prodLong(shape);
+
+            ByteOrder byteOrder = descr.charAt(0) == '>' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            DataBuffer.Type type = null;
+            if (descr.endsWith("f4"))
+                type = DataBuffer.Type.FLOAT;
+            else if (descr.endsWith("f8"))
+                type = DataBuffer.Type.DOUBLE;
+
+            String reason;
+            if (type == null)
+                reason = "element type " + descr + " isn't supported";
+            else if (length < 1)
+                reason = "array is empty";
+            else
+                reason = unmappableReason(file, mode, type, byteOrder, length);
+
+            if (reason != null) {
+                logger.warning("File [" + file.getAbsolutePath() + "] is loaded into memory instead of being mapped: "
+                                + reason);
+                return createFromNpyFile(file);
+            }
+
+            DataBuffer data = createBufferMapped(channel, mode, headerStart + headerLength, type, length);
+            return create(data, shape, getStrides(shape, order), 0, order);
+        }
+    }
+
+    /**
+     * Returns the raw value for the given key of the numpy header dictionary,
+     * i.e. quoted string for 'descr', and tuple for 'shape'
+     */
+    private static String npyHeaderValue(String header, String key) {
+        int keyIdx = header.indexOf("'" + key + "'");
+        if (keyIdx < 0)
+            throw new ND4JIllegalStateException("Numpy header doesn't contain [" + key + "]: " + header);
+
+        int start = header.indexOf(':', keyIdx) + 1;
+        while (Character.isWhitespace(header.charAt(start)))
+            start++;
+
+        char open = header.charAt(start);
+        int end = open == '(' ? header.indexOf(')', start) : header.indexOf(open, start + 1);
+        return header.substring(start, end + 1);
+    }
+
     /**
      * Create a numpy array based on the passed in
      * input stream
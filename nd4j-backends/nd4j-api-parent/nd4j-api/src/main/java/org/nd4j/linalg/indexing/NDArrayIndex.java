@@ -316,6 +316,11 @@ public class NDArrayIndex implements INDArrayIndex {
                         IntervalIndex intervalIndex = (IntervalIndex) intendedIndexes[i];
                         ret[i] = new SpecifiedIndex(ArrayUtil.range(intervalIndex.begin, intervalIndex.end(),
                                         intervalIndex.stride()));
+                    } else if (intendedIndexes[i] instanceof PointIndex) {
+                        // single coordinate, collapsed in the result just like a point
+                        ret[i] = new SpecifiedIndex(intendedIndexes[i].offset());
+                    } else if (intendedIndexes[i] instanceof NDArrayIndex) {
+                        ret[i] = new SpecifiedIndex(((NDArrayIndex) intendedIndexes[i]).indices);
                     }
                 }
             }
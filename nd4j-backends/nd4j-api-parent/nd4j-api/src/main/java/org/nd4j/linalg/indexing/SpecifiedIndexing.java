@@ -0,0 +1,231 @@
+package org.nd4j.linalg.indexing;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.util.Arrays;
+
+/**
+ * Gather/scatter over the cross product of {@link SpecifiedIndex} coordinates.
+ *
+ * Element offsets are computed per dimension up front, so iteration works on primitive arrays only.
+ * Whenever the innermost dimension is a contiguous run in both source and destination, the run is copied
+ * as a whole, and row/column selection on matrices goes through {@link Nd4j#pullRows(INDArray, INDArray, int, int[])}.
+ *
+ * Indexes are expected to be resolved already, see {@link NDArrayIndex#resolve(DataBuffer, INDArrayIndex...)}
+ */
+public class SpecifiedIndexing {
+    /**
+     * Runs at least this long are copied with a single memcpy, shorter ones element by element
+     */
+    protected static final int BULK_COPY_THRESHOLD = 64;
+
+    private SpecifiedIndexing() {}
+
+    /**
+     * Copies the elements addressed by the given indexes into a new 'c' ordered array
+     *
+     * @param source  the array to gather from
+     * @param indexes resolved indexes, all of them {@link SpecifiedIndex}
+     * @param shape   desired shape of the result. Used if its length matches number of elements gathered
+     * @return the gathered array
+     */
+    public static INDArray gather(INDArray source, INDArrayIndex[] indexes, int[] shape) {
+        long[][] coordinates = coordinates(source, indexes);
+        int[] resultShape = resultShape(coordinates, shape);
+        INDArray ret = Nd4j.create(resultShape, 'c');
+        if (ret.length() == 0)
+            return ret;
+
+        if (source.rank() == 2 && !source.isVector()) {
+            // whole rows or whole columns of a matrix: native tad copy
+            if (isFullRange(coordinates[1], source.size(1))
+                            && Arrays.equals(ret.shape(), new long[] {coordinates[0].length, source.size(1)})) {
+                Nd4j.pullRows(source, ret, 1, ArrayUtil.toInts(coordinates[0]));
+                return ret;
+            } else if (isFullRange(coordinates[0], source.size(0))
+                            && Arrays.equals(ret.shape(), new long[] {source.size(0), coordinates[1].length})) {
+                Nd4j.pullRows(source, ret, 0, ArrayUtil.toInts(coordinates[1]));
+                return ret;
+            }
+        }
+
+        copy(source, coordinates, ret, true);
+        return ret;
+    }
+
+    /**
+     * Writes values into the elements of the target addressed by the given indexes
+     *
+     * @param target  the array to scatter into
+     * @param indexes resolved indexes, all of them {@link SpecifiedIndex}
+     * @param values  values in 'c' order of the addressed elements, or a single value assigned to all of them
+     * @return the target array
+     */
+    public static INDArray scatter(INDArray target, INDArrayIndex[] indexes, INDArray values) {
+        long[][] coordinates = coordinates(target, indexes);
+        long length = 1;
+        for (long[] c : coordinates)
+            length *= c.length;
+
+        if (length == 0)
+            return target;
+
+        if (values.length() == 1 && length > 1) {
+            values = Nd4j.valueArrayOf(new int[] {1, (int) length}, values.getDouble(0));
+        } else if (values.length() != length) {
+            throw new IllegalArgumentException("Unable to put " + values.length() + " values into "
+                            + length + " indexed elements");
+        } else if (values.isView() || values.ordering() != 'c') {
+            values = values.dup('c');
+        }
+
+        copy(target, coordinates, values, false);
+        return target;
+    }
+
+    /**
+     * Expands the indexes into per-dimension coordinates, covering all dimensions of the array
+     */
+    protected static long[][] coordinates(INDArray arr, INDArrayIndex[] indexes) {
+        int rank = arr.rank();
+        long[][] ret = new long[rank][];
+
+        // single index on a vector addresses elements along its length
+        if (indexes.length == 1 && rank == 2 && arr.isVector()) {
+            int dimension = arr.isRowVector() ? 1 : 0;
+            ret[1 - dimension] = new long[] {0};
+            ret[dimension] = specified(indexes[0], arr.size(dimension));
+            return ret;
+        }
+
+        if (indexes.length > rank)
+            throw new IllegalArgumentException("Too many indices for array. Number of indexes must be <= rank()");
+
+        for (int i = 0; i < rank; i++) {
+            if (i < indexes.length)
+                ret[i] = specified(indexes[i], arr.size(i));
+            else
+                ret[i] = ArrayUtil.range(0L, arr.size(i));
+        }
+
+        return ret;
+    }
+
+    private static long[] specified(INDArrayIndex index, long size) {
+        if (!(index instanceof SpecifiedIndex))
+            throw new IllegalArgumentException("Only resolved SpecifiedIndex is supported, but got "
+                            + (index == null ? "null" : index.getClass().getSimpleName()));
+
+        long[] ret = ((SpecifiedIndex) index).getIndexes();
+        for (long idx : ret)
+            if (idx < 0 || idx >= size)
+                throw new IllegalArgumentException("Index " + idx + " is out of range for dimension of size " + size);
+
+        return ret;
+    }
+
+    private static int[] resultShape(long[][] coordinates, int[] shape) {
+        long length = 1;
+        for (long[] c : coordinates)
+            length *= c.length;
+
+        if (shape != null && ArrayUtil.prodLong(shape) == length)
+            return shape;
+
+        int[] ret = new int[coordinates.length];
+        for (int i = 0; i < ret.length; i++)
+            ret[i] = coordinates[i].length;
+
+        return ret;
+    }
+
+    private static boolean isFullRange(long[] coordinates, long size) {
+        if (coordinates.length != size)
+            return false;
+
+        for (int i = 0; i < coordinates.length; i++)
+            if (coordinates[i] != i)
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Walks the cross product of coordinates, last dimension first.
+     * If gather is true, elements are copied from the indexed array into sequential positions of dense one,
+     * and the other way around otherwise
+     */
+    private static void copy(INDArray indexed, long[][] coordinates, INDArray dense, boolean gather) {
+        int rank = coordinates.length;
+        long[] shape = indexed.shape();
+        long[] stride = indexed.stride();
+
+        // per dimension offsets within indexed array's buffer
+        long[][] offsets = new long[rank][];
+        for (int i = 0; i < rank; i++) {
+            offsets[i] = new long[coordinates[i].length];
+            if (shape[i] == 1)
+                continue;
+
+            for (int j = 0; j < coordinates[i].length; j++)
+                offsets[i][j] = coordinates[i][j] * stride[i];
+        }
+
+        DataBuffer indexedBuffer = indexed.data();
+        DataBuffer denseBuffer = dense.data();
+
+        long[] inner = offsets[rank - 1];
+        int runLength = inner.length;
+        boolean contiguous = isContiguous(inner, shape[rank - 1] == 1 ? 0 : stride[rank - 1]);
+        boolean bulk = contiguous && runLength >= BULK_COPY_THRESHOLD
+                        && indexedBuffer.dataType() == denseBuffer.dataType();
+
+        int[] position = new int[rank - 1];
+        long outer = dense.length() / runLength;
+        long denseOffset = 0;
+        for (long r = 0; r < outer; r++) {
+            long base = 0;
+            for (int i = 0; i < position.length; i++)
+                base += offsets[i][position[i]];
+
+            if (bulk) {
+                // view buffers take absolute offsets, same as subArray() builds them
+                DataBuffer run = Nd4j.createBuffer(indexedBuffer, indexedBuffer.offset() + base + inner[0], runLength);
+                DataBuffer denseRun = Nd4j.createBuffer(denseBuffer, denseBuffer.offset() + denseOffset, runLength);
+                if (gather)
+                    Nd4j.getMemoryManager().memcpy(denseRun, run);
+                else
+                    Nd4j.getMemoryManager().memcpy(run, denseRun);
+            } else if (gather) {
+                for (int j = 0; j < runLength; j++)
+                    denseBuffer.put(denseOffset + j, indexedBuffer.getDouble(base + inner[j]));
+            } else {
+                for (int j = 0; j < runLength; j++)
+                    indexedBuffer.put(base + inner[j], denseBuffer.getDouble(denseOffset + j));
+            }
+
+            denseOffset += runLength;
+
+            // advance outer coordinates, odometer style
+            for (int i = position.length - 1; i >= 0; i--) {
+                if (++position[i] < coordinates[i].length)
+                    break;
+                position[i] = 0;
+            }
+        }
+    }
+
+    private static boolean isContiguous(long[] offsets, long stride) {
+        if (stride != 1)
+            return false;
+
+        for (int i = 1; i < offsets.length; i++)
+            if (offsets[i] != offsets[i - 1] + 1)
+                return false;
+
+        return true;
+    }
+}
@@ -22,6 +22,8 @@ package org.nd4j.linalg.learning;
 import lombok.Data;
 import lombok.val;
 import org.apache.commons.math3.util.FastMath;
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.transforms.Sqrt;
 import org.nd4j.linalg.api.shape.Shape;
@@ -74,10 +76,62 @@ public class AMSGradUpdater implements GradientUpdater<AMSGrad> {
         if (m == null || v == null || vHat == null)
             throw new IllegalStateException("Updater has not been initialized with view state");
 
-        double beta1 = config.getBeta1();
-        double beta2 = config.getBeta2();
+        final double beta1 = config.getBeta1();
+        final double beta2 = config.getBeta2();
         double learningRate = config.getLearningRate(iteration, epoch);
-        double epsilon = config.getEpsilon();
+        final double epsilon = config.getEpsilon();
+
+        double beta1t = FastMath.pow(beta1, iteration + 1);
+        double beta2t = FastMath.pow(beta2, iteration + 1);
+
+        double alphat = learningRate * FastMath.sqrt(1 - beta2t) / (1 - beta1t);
+        if (Double.isNaN(alphat) || alphat == 0.0)
+            alphat = epsilon;
+
+        if (FusedUpdaterKernel.canExec(gradient, m, v, vHat)) {
+            final double a = alphat;
+            new FusedUpdaterKernel() {
+                @Override
+                protected void exec(FloatIndexer[] arrays, long[] offsets, long from, long to) {
+                    FloatIndexer g = arrays[0], m = arrays[1], v = arrays[2], vHat = arrays[3];
+                    long go = offsets[0], mo = offsets[1], vo = offsets[2], ho = offsets[3];
+                    float b1 = (float) beta1, b2 = (float) beta2, eps = (float) epsilon, af = (float) a;
+                    float oneMinusBeta1 = (float) (1.0 - beta1), oneMinusBeta2 = (float) (1 - beta2);
+
+                    for (long i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float mi = m.get(mo + i) * b1 + gi * oneMinusBeta1;
+                        float vi = v.get(vo + i) * b2 + gi * gi * oneMinusBeta2;
+                        float hi = vHat.get(ho + i);
+                        hi = vi > hi ? vi : hi;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+                        vHat.put(ho + i, hi);
+                        g.put(go + i, mi / ((float) Math.sqrt(hi) + eps) * af);
+                    }
+                }
+
+                @Override
+                protected void exec(DoubleIndexer[] arrays, long[] offsets, long from, long to) {
+                    DoubleIndexer g = arrays[0], m = arrays[1], v = arrays[2], vHat = arrays[3];
+                    long go = offsets[0], mo = offsets[1], vo = offsets[2], ho = offsets[3];
+                    double oneMinusBeta1 = 1.0 - beta1, oneMinusBeta2 = 1 - beta2;
+
+                    for (long i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double mi = m.get(mo + i) * beta1 + gi * oneMinusBeta1;
+                        double vi = v.get(vo + i) * beta2 + gi * gi * oneMinusBeta2;
+                        double hi = vHat.get(ho + i);
+                        hi = vi > hi ? vi : hi;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+                        vHat.put(ho + i, hi);
+                        g.put(go + i, mi / (Math.sqrt(hi) + epsilon) * a);
+                    }
+                }
+            }.exec(gradient, m, v, vHat);
+            return;
+        }
 
         //m_t = b_1 * m_{t-1} + (1-b_1) * g_t       eq 1 pg 3
         INDArray oneMinusBeta1Grad = gradient.mul(1.0 - beta1);
@@ -87,16 +141,9 @@ public class AMSGradUpdater implements GradientUpdater<AMSGrad> {
         INDArray oneMinusBeta2GradSquared = gradient.mul(gradient).muli(1 - beta2);
         v.muli(beta2).addi(oneMinusBeta2GradSquared);
 
-        double beta1t = FastMath.pow(beta1, iteration + 1);
-        double beta2t = FastMath.pow(beta2, iteration + 1);
-
         //vHat_t = max(vHat_{t-1}, v_t)
         Transforms.max(vHat, v, false);
 
-        double alphat = learningRate * FastMath.sqrt(1 - beta2t) / (1 - beta1t);
-        if (Double.isNaN(alphat) || alphat == 0.0)
-            alphat = epsilon;
-
         //gradient array contains: sqrt(vHat) + eps
         Nd4j.getExecutioner().execAndReturn(new Sqrt(vHat, gradient)).addi(epsilon);
 
@@ -20,6 +20,8 @@
 package org.nd4j.linalg.learning;
 
 import lombok.Data;
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.indexing.NDArrayIndex;
@@ -80,8 +82,47 @@ public class AdaDeltaUpdater implements GradientUpdater<AdaDelta> {
         if (msg == null || msdx == null)
             throw new IllegalStateException("Updater has not been initialized with view state");
 
-        double rho = config.getRho();
-        double epsilon = config.getEpsilon();
+        final double rho = config.getRho();
+        final double epsilon = config.getEpsilon();
+
+        if (FusedUpdaterKernel.canExec(gradient, msg, msdx)) {
+            new FusedUpdaterKernel() {
+                @Override
+                protected void exec(FloatIndexer[] arrays, long[] offsets, long from, long to) {
+                    FloatIndexer g = arrays[0], msg = arrays[1], msdx = arrays[2];
+                    long go = offsets[0], so = offsets[1], xo = offsets[2];
+                    float r = (float) rho, oneMinusRho = (float) (1 - rho), eps = (float) epsilon;
+
+                    for (long i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float si = msg.get(so + i) * r + gi * gi * oneMinusRho;
+                        float xi = msdx.get(xo + i);
+                        float update = gi * ((float) Math.sqrt(xi + eps) / (float) Math.sqrt(si + eps));
+                        msg.put(so + i, si);
+                        msdx.put(xo + i, xi * r + update * update * oneMinusRho);
+                        g.put(go + i, update);
+                    }
+                }
+
+                @Override
+                protected void exec(DoubleIndexer[] arrays, long[] offsets, long from, long to) {
+                    DoubleIndexer g = arrays[0], msg = arrays[1], msdx = arrays[2];
+                    long go = offsets[0], so = offsets[1], xo = offsets[2];
+                    double oneMinusRho = 1 - rho;
+
+                    for (long i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double si = msg.get(so + i) * rho + gi * gi * oneMinusRho;
+                        double xi = msdx.get(xo + i);
+                        double update = gi * (Math.sqrt(xi + epsilon) / Math.sqrt(si + epsilon));
+                        msg.put(so + i, si);
+                        msdx.put(xo + i, xi * rho + update * update * oneMinusRho);
+                        g.put(go + i, update);
+                    }
+                }
+            }.exec(gradient, msg, msdx);
+            return;
+        }
 
         //Line 4 of Algorithm 1: https://arxiv.org/pdf/1212.5701v1.pdf
         //E[g^2]_t = rho * E[g^2]_{t−1} + (1-rho)*g^2_t
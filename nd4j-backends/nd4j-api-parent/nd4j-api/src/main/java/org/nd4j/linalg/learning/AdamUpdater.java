@@ -21,6 +21,8 @@ package org.nd4j.linalg.learning;
 
 import lombok.Data;
 import org.apache.commons.math3.util.FastMath;
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.indexing.NDArrayIndex;
@@ -76,16 +78,10 @@ public class AdamUpdater implements GradientUpdater<Adam> {
         if (m == null || v == null)
             throw new IllegalStateException("Updater has not been initialized with view state");
 
-        double beta1 = config.getBeta1();
-        double beta2 = config.getBeta2();
+        final double beta1 = config.getBeta1();
+        final double beta2 = config.getBeta2();
         double learningRate = config.getLearningRate(iteration, epoch);
-        double epsilon = config.getEpsilon();
-
-        INDArray oneMinusBeta1Grad = gradient.mul(1.0 - beta1);
-        m.muli(beta1).addi(oneMinusBeta1Grad);
-
-        INDArray oneMinusBeta2GradSquared = gradient.mul(gradient).muli(1 - beta2);
-        v.muli(beta2).addi(oneMinusBeta2GradSquared);
+        final double epsilon = config.getEpsilon();
 
         double beta1t = FastMath.pow(beta1, iteration + 1);
         double beta2t = FastMath.pow(beta2, iteration + 1);
@@ -93,6 +89,52 @@ public class AdamUpdater implements GradientUpdater<Adam> {
         double alphat = learningRate * FastMath.sqrt(1 - beta2t) / (1 - beta1t);
         if (Double.isNaN(alphat) || alphat == 0.0)
             alphat = epsilon;
+
+        if (FusedUpdaterKernel.canExec(gradient, m, v)) {
+            final double a = alphat;
+            new FusedUpdaterKernel() {
+                @Override
+                protected void exec(FloatIndexer[] arrays, long[] offsets, long from, long to) {
+                    FloatIndexer g = arrays[0], m = arrays[1], v = arrays[2];
+                    long go = offsets[0], mo = offsets[1], vo = offsets[2];
+                    float b1 = (float) beta1, b2 = (float) beta2, eps = (float) epsilon, af = (float) a;
+                    float oneMinusBeta1 = (float) (1.0 - beta1), oneMinusBeta2 = (float) (1 - beta2);
+
+                    for (long i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float mi = m.get(mo + i) * b1 + gi * oneMinusBeta1;
+                        float vi = v.get(vo + i) * b2 + gi * gi * oneMinusBeta2;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+                        g.put(go + i, mi * af / ((float) Math.sqrt(vi) + eps));
+                    }
+                }
+
+                @Override
+                protected void exec(DoubleIndexer[] arrays, long[] offsets, long from, long to) {
+                    DoubleIndexer g = arrays[0], m = arrays[1], v = arrays[2];
+                    long go = offsets[0], mo = offsets[1], vo = offsets[2];
+                    double oneMinusBeta1 = 1.0 - beta1, oneMinusBeta2 = 1 - beta2;
+
+                    for (long i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double mi = m.get(mo + i) * beta1 + gi * oneMinusBeta1;
+                        double vi = v.get(vo + i) * beta2 + gi * gi * oneMinusBeta2;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+                        g.put(go + i, mi * a / (Math.sqrt(vi) + epsilon));
+                    }
+                }
+            }.exec(gradient, m, v);
+            return;
+        }
+
+        INDArray oneMinusBeta1Grad = gradient.mul(1.0 - beta1);
+        m.muli(beta1).addi(oneMinusBeta1Grad);
+
+        INDArray oneMinusBeta2GradSquared = gradient.mul(gradient).muli(1 - beta2);
+        v.muli(beta2).addi(oneMinusBeta2GradSquared);
+
         INDArray sqrtV = Transforms.sqrt(v.dup(gradientReshapeOrder), false).addi(epsilon);
 
         gradient.assign(m).muli(alphat).divi(sqrtV);
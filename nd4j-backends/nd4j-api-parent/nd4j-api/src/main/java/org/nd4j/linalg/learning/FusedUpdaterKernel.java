@@ -0,0 +1,129 @@
+package org.nd4j.linalg.learning;
+
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.util.HostLoops;
+
+import java.util.Arrays;
+
+/**
+ * Fused updater kernel: applies updater math to the gradient and updater state in a single elementwise pass,
+ * reading and writing each element once, without temporary arrays. Long arrays are split into chunks,
+ * processed in parallel, see {@link HostLoops}.
+ *
+ * Kernels repeat the order and precision of operations of the op-by-op implementation, with correctly rounded sqrt,
+ * so both give bitwise identical results.
+ * Updaters fall back to op-by-op implementation if {@link #canExec(INDArray...)} returns false.
+ */
+public abstract class FusedUpdaterKernel {
+    public static final String ENABLED = "org.nd4j.updaters.fused";
+    public static final String CHUNK_LENGTH = "org.nd4j.updaters.fused.chunk";
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty(ENABLED, "true"));
+    private static final long chunkLength = Long.parseLong(System.getProperty(CHUNK_LENGTH,
+                    String.valueOf(HostLoops.DEFAULT_CHUNK_LENGTH)));
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method enables or disables fused kernels for all updaters
+     *
+     * @param reallyEnable
+     */
+    public static void setEnabled(boolean reallyEnable) {
+        enabled = reallyEnable;
+    }
+
+    /**
+     * This method checks if fused kernel can be applied to given arrays: they all have to be contiguous,
+     * of the same shape, ordering and data type, FLOAT or DOUBLE
+     *
+     * @param arrays gradient first, then updater state
+     * @return
+     */
+    public static boolean canExec(INDArray... arrays) {
+        if (!enabled)
+            return false;
+
+        INDArray first = arrays[0];
+        DataBuffer.Type type = first.data().dataType();
+        if (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)
+            return false;
+
+        for (INDArray array : arrays) {
+            if (array.isCompressed() || array.data().dataType() != type || array.elementWiseStride() != 1)
+                return false;
+
+            if (!Arrays.equals(array.shape(), first.shape()))
+                return false;
+
+            if (array.ordering() != first.ordering() && !array.isVector())
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * This method applies kernel to given arrays, previously checked with {@link #canExec(INDArray...)}
+     *
+     * @param arrays gradient first, then updater state
+     */
+    public void exec(final INDArray... arrays) {
+        HostLoops.toHost(arrays);
+
+        HostLoops.exec(arrays[0].length(), chunkLength, new HostLoops.Body() {
+            @Override
+            public double exec(long from, long to) {
+                execChunk(arrays, from, to);
+                return 0.0;
+            }
+        });
+
+        HostLoops.commit(arrays);
+    }
+
+    private void execChunk(INDArray[] arrays, long from, long to) {
+        long[] offsets = new long[arrays.length];
+        for (int e = 0; e < arrays.length; e++)
+            offsets[e] = arrays[e].data().offset();
+
+        if (arrays[0].data().dataType() == DataBuffer.Type.FLOAT) {
+            FloatIndexer[] indexers = new FloatIndexer[arrays.length];
+            for (int e = 0; e < arrays.length; e++)
+                indexers[e] = (FloatIndexer) arrays[e].data().indexer();
+
+            exec(indexers, offsets, from, to);
+        } else {
+            DoubleIndexer[] indexers = new DoubleIndexer[arrays.length];
+            for (int e = 0; e < arrays.length; e++)
+                indexers[e] = (DoubleIndexer) arrays[e].data().indexer();
+
+            exec(indexers, offsets, from, to);
+        }
+    }
+
+    /**
+     * This method updates elements [from, to) of FLOAT arrays
+     *
+     * @param arrays  indexers of arrays, in order they were passed to {@link #exec(INDArray...)}
+     * @param offsets offsets of arrays within their indexers
+     * @param from
+     * @param to
+     */
+    protected abstract void exec(FloatIndexer[] arrays, long[] offsets, long from, long to);
+
+    /**
+     * This method updates elements [from, to) of DOUBLE arrays
+     *
+     * @param arrays  indexers of arrays, in order they were passed to {@link #exec(INDArray...)}
+     * @param offsets offsets of arrays within their indexers
+     * @param from
+     * @param to
+     */
+    protected abstract void exec(DoubleIndexer[] arrays, long[] offsets, long from, long to);
+}
@@ -21,6 +21,8 @@ package org.nd4j.linalg.learning;
 
 import lombok.Data;
 import org.apache.commons.math3.util.FastMath;
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.indexing.NDArrayIndex;
@@ -76,10 +78,57 @@ public class NadamUpdater implements GradientUpdater<Nadam> {
         if (m == null || v == null)
             throw new IllegalStateException("Updater has not been initialized with view state");
 
-        double beta1 = config.getBeta1();
-        double beta2 = config.getBeta2();
-        double learningRate = config.getLearningRate(iteration, epoch);
-        double epsilon = config.getEpsilon();
+        final double beta1 = config.getBeta1();
+        final double beta2 = config.getBeta2();
+        final double learningRate = config.getLearningRate(iteration, epoch);
+        final double epsilon = config.getEpsilon();
+
+        final double beta1t = FastMath.pow(beta1, iteration + 1);
+
+        if (FusedUpdaterKernel.canExec(gradient, m, v)) {
+            new FusedUpdaterKernel() {
+                @Override
+                protected void exec(FloatIndexer[] arrays, long[] offsets, long from, long to) {
+                    FloatIndexer g = arrays[0], m = arrays[1], v = arrays[2];
+                    long go = offsets[0], mo = offsets[1], vo = offsets[2];
+                    float b1 = (float) beta1, b2 = (float) beta2, eps = (float) epsilon, lr = (float) learningRate;
+                    float oneMinusBeta1 = (float) (1.0 - beta1), oneMinusBeta2 = (float) (1.0 - beta2);
+                    float oneMinusBeta1t = (float) (1.0 - beta1t);
+
+                    for (long i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float oneMinusBeta1Grad = gi * oneMinusBeta1;
+                        float mi = m.get(mo + i) * b1 + oneMinusBeta1Grad;
+                        float vi = v.get(vo + i) * b2 + gi * gi * oneMinusBeta2;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+
+                        float alphat = (mi * b1 / oneMinusBeta1t + oneMinusBeta1Grad / oneMinusBeta1t) * lr;
+                        g.put(go + i, alphat / ((float) Math.sqrt(vi) + eps));
+                    }
+                }
+
+                @Override
+                protected void exec(DoubleIndexer[] arrays, long[] offsets, long from, long to) {
+                    DoubleIndexer g = arrays[0], m = arrays[1], v = arrays[2];
+                    long go = offsets[0], mo = offsets[1], vo = offsets[2];
+                    double oneMinusBeta1 = 1.0 - beta1, oneMinusBeta2 = 1.0 - beta2, oneMinusBeta1t = 1.0 - beta1t;
+
+                    for (long i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double oneMinusBeta1Grad = gi * oneMinusBeta1;
+                        double mi = m.get(mo + i) * beta1 + oneMinusBeta1Grad;
+                        double vi = v.get(vo + i) * beta2 + gi * gi * oneMinusBeta2;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+
+                        double alphat = (mi * beta1 / oneMinusBeta1t + oneMinusBeta1Grad / oneMinusBeta1t) * learningRate;
+                        g.put(go + i, alphat / (Math.sqrt(vi) + epsilon));
+                    }
+                }
+            }.exec(gradient, m, v);
+            return;
+        }
 
         INDArray oneMinusBeta1Grad = gradient.mul(1.0 - beta1);
         m.muli(beta1).addi(oneMinusBeta1Grad);
@@ -87,8 +136,6 @@ public class NadamUpdater implements GradientUpdater<Nadam> {
         INDArray oneMinusBeta2GradSquared = gradient.mul(gradient).muli(1.0 - beta2);
         v.muli(beta2).addi(oneMinusBeta2GradSquared);
 
-        double beta1t = FastMath.pow(beta1, iteration + 1);
-
         INDArray biasCorrectedEstimateOfMomentum = m.mul(beta1).divi(1.0 - beta1t);
         INDArray secondTerm = oneMinusBeta1Grad.divi(1 - beta1t);
 
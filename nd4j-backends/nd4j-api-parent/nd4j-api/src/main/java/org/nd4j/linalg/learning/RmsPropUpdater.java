@@ -20,6 +20,8 @@
 package org.nd4j.linalg.learning;
 
 import lombok.Data;
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.learning.config.RmsProp;
@@ -66,9 +68,43 @@ public class RmsPropUpdater implements GradientUpdater<RmsProp> {
         if (lastGradient == null)
             throw new IllegalStateException("Updater has not been initialized with view state");
 
-        double learningRate = config.getLearningRate(iteration, epoch);
-        double rmsDecay = config.getRmsDecay();
-        double epsilon = config.getEpsilon();
+        final double learningRate = config.getLearningRate(iteration, epoch);
+        final double rmsDecay = config.getRmsDecay();
+        final double epsilon = config.getEpsilon();
+
+        if (FusedUpdaterKernel.canExec(gradient, lastGradient)) {
+            new FusedUpdaterKernel() {
+                @Override
+                protected void exec(FloatIndexer[] arrays, long[] offsets, long from, long to) {
+                    FloatIndexer g = arrays[0], cache = arrays[1];
+                    long go = offsets[0], co = offsets[1];
+                    float decay = (float) rmsDecay, oneMinusDecay = (float) (1 - rmsDecay);
+                    float lr = (float) learningRate, eps = (float) epsilon;
+
+                    for (long i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float ci = cache.get(co + i) * decay + gi * gi * oneMinusDecay;
+                        cache.put(co + i, ci);
+                        g.put(go + i, gi * lr / ((float) Math.sqrt(ci) + eps));
+                    }
+                }
+
+                @Override
+                protected void exec(DoubleIndexer[] arrays, long[] offsets, long from, long to) {
+                    DoubleIndexer g = arrays[0], cache = arrays[1];
+                    long go = offsets[0], co = offsets[1];
+                    double oneMinusDecay = 1 - rmsDecay;
+
+                    for (long i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double ci = cache.get(co + i) * rmsDecay + gi * gi * oneMinusDecay;
+                        cache.put(co + i, ci);
+                        g.put(go + i, gi * learningRate / (Math.sqrt(ci) + epsilon));
+                    }
+                }
+            }.exec(gradient, lastGradient);
+            return;
+        }
 
         lastGradient.muli(rmsDecay).addi(gradient.mul(gradient).muli(1 - rmsDecay));
         // lr * gradient / (sqrt(cache) + 1e-8)
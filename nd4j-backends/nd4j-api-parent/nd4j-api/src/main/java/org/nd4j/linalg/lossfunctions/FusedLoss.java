@@ -0,0 +1,209 @@
+package org.nd4j.linalg.lossfunctions;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.util.HostLoops;
+
+import java.util.Arrays;
+
+/**
+ * Fused score and gradient computation for common activation + loss function pairs:
+ * activations are computed once, and score and gradient are produced row by row in a single pass over labels and
+ * pre-output, without temporary arrays. Masks and weights are read in place, without broadcast copies.
+ * Large minibatches are split by rows across threads, see {@link HostLoops}; partial scores are summed in row order.
+ *
+ * Each method returns total loss, before averaging over minibatch, and stores dL/dz into the gradient array.
+ * Loss functions fall back to separate score and gradient computation if {@link #canExec(INDArray, INDArray, INDArray, INDArray)}
+ * returns false.
+ */
+public class FusedLoss {
+
+    private FusedLoss() {
+        //
+    }
+
+    /**
+     * This method checks if fused computation can be applied: labels and pre-output have to be 2d FLOAT or DOUBLE
+     * arrays of the same shape, weights (if any) have to match number of outputs, and mask (if any) has to be
+     * either per example (column vector) or per output (same shape as labels)
+     */
+    public static boolean canExec(INDArray labels, INDArray preOutput, INDArray weights, INDArray mask) {
+        DataBuffer.Type type = preOutput.data().dataType();
+        if (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)
+            return false;
+
+        if (preOutput.rank() != 2 || !Arrays.equals(labels.shape(), preOutput.shape()))
+            return false;
+
+        if (weights != null && weights.length() != preOutput.size(1))
+            return false;
+
+        for (INDArray array : new INDArray[] {labels, mask}) {
+            if (array != null && (array.isCompressed() || array.data().dataType() != type))
+                return false;
+        }
+
+        return mask == null || isPerExampleMask(preOutput, mask) || Arrays.equals(mask.shape(), preOutput.shape());
+    }
+
+    public static boolean isPerExampleMask(INDArray preOutput, INDArray mask) {
+        return mask.rank() == 2 && mask.size(0) == preOutput.size(0) && mask.size(1) == 1;
+    }
+
+    /**
+     * Softmax activation + multi-class cross entropy
+     *
+     * @param clipEps probabilities are clipped to [eps, 1-eps] when computing score
+     */
+    public static double softmaxMcxent(INDArray labels, INDArray preOutput, INDArray weights, INDArray mask,
+                    final double clipEps, INDArray gradient) {
+        HostLoops.toHost(labels, preOutput, mask, gradient);
+        final HostLoops.Accessor y = HostLoops.accessor(labels), z = HostLoops.accessor(preOutput),
+                        g = HostLoops.accessor(gradient);
+        final HostLoops.Accessor m = mask == null ? null : HostLoops.accessor(mask);
+        final double[] w = weights == null ? null : weights.toDoubleVector();
+        final long columns = preOutput.size(1);
+
+        double score = execRows(preOutput, new HostLoops.Body() {
+            @Override
+            public double exec(long from, long to) {
+                double partial = 0.0;
+                for (long r = from; r < to; r++) {
+                    double max = Double.NEGATIVE_INFINITY;
+                    double weightedLabels = 0.0;
+                    for (long c = 0; c < columns; c++) {
+                        max = Math.max(max, z.get(r, c));
+                        weightedLabels += w == null ? y.get(r, c) : y.get(r, c) * w[(int) c];
+                    }
+
+                    double sum = 0.0;
+                    for (long c = 0; c < columns; c++)
+                        sum += Math.exp(z.get(r, c) - max);
+
+                    double maskValue = m == null ? 1.0 : m.get(r, 0);
+                    double rowScore = 0.0;
+                    for (long c = 0; c < columns; c++) {
+                        double p = Math.exp(z.get(r, c) - max) / sum;
+                        double label = w == null ? y.get(r, c) : y.get(r, c) * w[(int) c];
+
+                        double clipped = clipEps > 0.0 ? Math.min(Math.max(p, clipEps), 1.0 - clipEps) : p;
+                        rowScore += Math.log(clipped) * label;
+
+                        // dL/dz = p * sum(weighted labels) - weighted label, which is p - y without weights
+                        g.put(r, c, (w == null ? p - label : p * weightedLabels - label) * maskValue);
+                    }
+
+                    partial -= rowScore * maskValue;
+                }
+                return partial;
+            }
+        });
+
+        HostLoops.commit(gradient);
+        return score;
+    }
+
+    /**
+     * Sigmoid activation + binary cross entropy
+     *
+     * @param clipEps probabilities are clipped to [eps, 1-eps]
+     */
+    public static double sigmoidXent(INDArray labels, INDArray preOutput, INDArray weights, INDArray mask,
+                    final double clipEps, INDArray gradient) {
+        HostLoops.toHost(labels, preOutput, mask, gradient);
+        final HostLoops.Accessor y = HostLoops.accessor(labels), z = HostLoops.accessor(preOutput),
+                        g = HostLoops.accessor(gradient);
+        final HostLoops.Accessor m = mask == null ? null : HostLoops.accessor(mask);
+        final boolean perExample = mask != null && isPerExampleMask(preOutput, mask);
+        final double[] w = weights == null ? null : weights.toDoubleVector();
+        final long columns = preOutput.size(1);
+
+        double score = execRows(preOutput, new HostLoops.Body() {
+            @Override
+            public double exec(long from, long to) {
+                double partial = 0.0;
+                for (long r = from; r < to; r++) {
+                    for (long c = 0; c < columns; c++) {
+                        double label = y.get(r, c);
+                        double p = 1.0 / (1.0 + Math.exp(-z.get(r, c)));
+                        double clipped = clipEps > 0.0 ? Math.min(Math.max(p, clipEps), 1.0 - clipEps) : p;
+                        double weight = w == null ? 1.0 : w[(int) c];
+                        double maskValue = m == null ? 1.0 : perExample ? m.get(r, 0) : m.get(r, c);
+
+                        partial -= (label * Math.log(clipped) + (1.0 - label) * Math.log(1.0 - clipped)) * weight
+                                        * maskValue;
+
+                        // per output mask is applied to both dL/da and dL/dz
+                        double dLda = (clipped - label) / (clipped * (1.0 - clipped));
+                        double gradMask = perExample ? maskValue : maskValue * maskValue;
+                        g.put(r, c, dLda * p * (1.0 - p) * weight * gradMask);
+                    }
+                }
+                return partial;
+            }
+        });
+
+        HostLoops.commit(gradient);
+        return score;
+    }
+
+    /**
+     * Identity activation + squared error, i.e. L2 loss
+     */
+    public static double identityL2(INDArray labels, INDArray preOutput, INDArray weights, INDArray mask,
+                    INDArray gradient) {
+        return identity(labels, preOutput, weights, mask, gradient, true);
+    }
+
+    /**
+     * Identity activation + absolute error, i.e. L1 loss
+     */
+    public static double identityL1(INDArray labels, INDArray preOutput, INDArray weights, INDArray mask,
+                    INDArray gradient) {
+        return identity(labels, preOutput, weights, mask, gradient, false);
+    }
+
+    private static double identity(INDArray labels, INDArray preOutput, INDArray weights, INDArray mask,
+                    INDArray gradient, final boolean squared) {
+        HostLoops.toHost(labels, preOutput, mask, gradient);
+        final HostLoops.Accessor y = HostLoops.accessor(labels), z = HostLoops.accessor(preOutput),
+                        g = HostLoops.accessor(gradient);
+        final HostLoops.Accessor m = mask == null ? null : HostLoops.accessor(mask);
+        final boolean perExample = mask != null && isPerExampleMask(preOutput, mask);
+        final double[] w = weights == null ? null : weights.toDoubleVector();
+        final long columns = preOutput.size(1);
+
+        double score = execRows(preOutput, new HostLoops.Body() {
+            @Override
+            public double exec(long from, long to) {
+                double partial = 0.0;
+                for (long r = from; r < to; r++) {
+                    for (long c = 0; c < columns; c++) {
+                        double diff = z.get(r, c) - y.get(r, c);
+                        double weight = w == null ? 1.0 : w[(int) c];
+                        double maskValue = m == null ? 1.0 : perExample ? m.get(r, 0) : m.get(r, c);
+
+                        partial += (squared ? diff * diff : Math.abs(diff)) * weight * maskValue;
+
+                        double dLda = squared ? 2.0 * diff : Math.signum(diff);
+                        double gradMask = perExample ? maskValue : maskValue * maskValue;
+                        g.put(r, c, dLda * weight * gradMask);
+                    }
+                }
+                return partial;
+            }
+        });
+
+        HostLoops.commit(gradient);
+        return score;
+    }
+
+    /**
+     * Rows are processed in parallel chunks of about {@link HostLoops#DEFAULT_CHUNK_LENGTH} elements,
+     * score of each chunk is returned by the body
+     */
+    private static double execRows(INDArray preOutput, HostLoops.Body body) {
+        long rows = preOutput.size(0), columns = preOutput.size(1);
+        return HostLoops.exec(rows, Math.max(1, HostLoops.DEFAULT_CHUNK_LENGTH / Math.max(1, columns)), body);
+    }
+}
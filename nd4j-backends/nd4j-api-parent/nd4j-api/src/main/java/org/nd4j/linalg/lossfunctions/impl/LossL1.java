@@ -10,10 +10,12 @@ import org.nd4j.imports.NoOpNameFoundException;
 import org.nd4j.linalg.api.ops.Op;
 import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.activations.impl.ActivationIdentity;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.transforms.Sign;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.lossfunctions.ILossFunction;
+import org.nd4j.linalg.lossfunctions.FusedLoss;
 import org.nd4j.linalg.lossfunctions.LossUtil;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorDeserializer;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorSerializer;
@@ -145,12 +147,30 @@ public class LossL1 extends DifferentialFunction implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels,
                     INDArray preOutput, IActivation activationFn, INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        if (activationFn instanceof ActivationIdentity && FusedLoss.canExec(labels, preOutput, weights, mask)) {
+            INDArray gradient = Nd4j.createUninitialized(preOutput.shape(), preOutput.ordering());
+            double score = FusedLoss.identityL1(labels, preOutput, weights, mask, gradient);
+            if (average)
+                score /= preOutput.size(0);
+
+            double scale = fusedScale(labels);
+            if (scale != 1.0)
+                gradient.muli(scale);
+
+            return new Pair<>(score * scale, gradient);
+        }
 
         return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
                         computeGradient(labels, preOutput, activationFn, mask));
     }
 
+    /**
+     * Factor both score and gradient are multiplied by in fused {@link #computeGradientAndScore}
+     */
+    protected double fusedScale(INDArray labels) {
+        return 1.0;
+    }
+
     /**
      * The opName of this function
      *
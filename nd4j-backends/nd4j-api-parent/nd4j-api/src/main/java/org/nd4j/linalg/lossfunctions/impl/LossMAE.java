@@ -62,6 +62,11 @@ public class LossMAE extends LossL1 {
         return gradients;
     }
 
+    @Override
+    protected double fusedScale(INDArray labels) {
+        return 1.0 / labels.size(1);
+    }
+
     /**
      * The opName of this function
      *
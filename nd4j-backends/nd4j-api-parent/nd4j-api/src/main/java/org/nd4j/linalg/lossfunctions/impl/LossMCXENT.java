@@ -12,9 +12,11 @@ import org.nd4j.linalg.activations.IActivation;
 import org.nd4j.linalg.activations.impl.ActivationSoftmax;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.BooleanIndexing;
 import org.nd4j.linalg.indexing.conditions.Conditions;
 import org.nd4j.linalg.lossfunctions.ILossFunction;
+import org.nd4j.linalg.lossfunctions.FusedLoss;
 import org.nd4j.linalg.lossfunctions.LossUtil;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorDeserializer;
 import org.nd4j.linalg.lossfunctions.serde.RowVectorSerializer;
@@ -191,7 +193,15 @@ public class LossMCXENT extends DifferentialFunction implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
                     INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        if (activationFn instanceof ActivationSoftmax && FusedLoss.canExec(labels, preOutput, weights, mask)
+                        && (mask == null || FusedLoss.isPerExampleMask(preOutput, mask))) {
+            INDArray gradient = Nd4j.createUninitialized(preOutput.shape(), preOutput.ordering());
+            double score = FusedLoss.softmaxMcxent(labels, preOutput, weights, mask, softmaxClipEps, gradient);
+            if (average)
+                score /= preOutput.size(0);
+
+            return new Pair<>(score, gradient);
+        }
 
         return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
                         computeGradient(labels, preOutput, activationFn, mask));
@@ -57,6 +57,11 @@ public class LossMSE extends LossL2 {
         return gradients.divi(labels.size(1));
     }
 
+    @Override
+    protected double fusedScale(INDArray labels) {
+        return 1.0 / labels.size(1);
+    }
+
     /**
      * The opName of this function
      *
@@ -0,0 +1,447 @@
+package org.nd4j.linalg.string;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reader for the text format written by {@link org.nd4j.linalg.factory.Nd4j#writeTxt(INDArray, String)}.
+ *
+ * The header is parsed line by line, while the data section is tokenized one character at a time,
+ * and every number is parsed straight into the buffer of the resulting array, in logical (row-major) order.
+ * Optionally, parsing of the data section can be split across a fork-join pool:
+ * the calling thread then only splits the stream into blocks and counts numbers in them.
+ */
+public class NDArrayTextReader {
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final int MAX_FAST_EXPONENT = 22;
+    private static final double[] POWERS_OF_TEN = new double[MAX_FAST_EXPONENT + 1];
+    private static final int MAX_MANTISSA_DIGITS = 19;
+
+    // 128-bit mantissas of powers of ten, rounded down, for decimal exponents in [MIN_EXP10, MAX_EXP10]
+    private static final int MIN_EXP10 = -348;
+    private static final int MAX_EXP10 = 347;
+    private static final long[] POW10_HI = new long[MAX_EXP10 - MIN_EXP10 + 1];
+    private static final long[] POW10_LO = new long[MAX_EXP10 - MIN_EXP10 + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+
+        BigInteger power = BigInteger.ONE;
+        for (int e = 0; e <= MAX_EXP10; e++) {
+            int shift = power.bitLength() - 128;
+            putPow10(e, shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift));
+            power = power.multiply(BigInteger.TEN);
+        }
+
+        power = BigInteger.TEN;
+        for (int e = -1; e >= MIN_EXP10; e--) {
+            // 2^127 < result < 2^128, since 10^-e isn't a power of two
+            putPow10(e, BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power));
+            power = power.multiply(BigInteger.TEN);
+        }
+    }
+
+    private static void putPow10(int exp10, BigInteger mantissa) {
+        POW10_HI[exp10 - MIN_EXP10] = mantissa.shiftRight(64).longValue();
+        POW10_LO[exp10 - MIN_EXP10] = mantissa.longValue();
+    }
+
+    private NDArrayTextReader() {}
+
+    /**
+     * Read an array from the given stream, using the calling thread only
+     *
+     * @param is the stream to read from
+     * @return the array
+     */
+    public static INDArray read(InputStream is) {
+        return read(is, 1);
+    }
+
+    /**
+     * Read an array from the given stream
+     *
+     * @param is         the stream to read from
+     * @param numThreads number of threads to parse the data section with. Values below 2 mean calling thread only
+     * @return the array
+     */
+    public static INDArray read(InputStream is, int numThreads) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is), BLOCK_SIZE);
+        try {
+            char order = 'c';
+            int[] shape = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("\"filefrom\"")) {
+                    if (!line.substring(line.indexOf(':') + 1).contains("dl4j"))
+                        throw new IllegalArgumentException(
+                                        "Only files written out from Nd4j.writeTxT/writeTxtString can be read with the readTxt/readTxtString methods");
+                } else if (line.startsWith("\"ordering\"")) {
+                    order = line.substring(line.indexOf(':') + 1).replaceAll("\\W", "").charAt(0);
+                } else if (line.startsWith("\"shape\"")) {
+                    shape = parseShape(line);
+                } else if (line.startsWith("\"data\"")) {
+                    break;
+                }
+            }
+
+            if (line == null || shape == null)
+                throw new IllegalArgumentException(
+                                "Only files written out from Nd4j.writeTxT/writeTxtString can be read with the readTxt/readTxtString methods");
+
+            // values come in logical row-major order, so we fill 'c' array, and switch ordering afterwards
+            INDArray result = shape.length == 0 ? Nd4j.trueScalar(0) : Nd4j.zeros(shape, 'c');
+            DataBuffer buffer = result.data();
+
+            long parsed = numThreads > 1 ? parseParallel(reader, buffer, result.length(), numThreads)
+                            : parse(reader, buffer, result.length());
+
+            if (parsed != result.length())
+                throw new IllegalStateException("Expected " + result.length() + " values in data section, but "
+                                + parsed + " were found");
+
+            if (order == 'f' && shape.length > 0)
+                result = result.dup('f');
+
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static int[] parseShape(String line) {
+        String shapeString = line.substring(line.indexOf('[') + 1, line.lastIndexOf(']')).replaceAll("\\s", "");
+        if (shapeString.isEmpty())
+            return new int[0];
+
+        String[] dims = shapeString.split(",");
+        int[] shape = new int[dims.length];
+        for (int i = 0; i < dims.length; i++)
+            shape[i] = Integer.parseInt(dims[i]);
+
+        return shape;
+    }
+
+    /**
+     * Tokenizes the rest of the reader, putting every number into the buffer. Returns number of values found
+     */
+    private static long parse(Reader reader, DataBuffer buffer, long length) throws IOException {
+        char[] block = new char[BLOCK_SIZE];
+        char[] token = new char[64];
+        int tokenLength = 0;
+        long idx = 0;
+
+        int read;
+        while ((read = reader.read(block)) > 0) {
+            for (int i = 0; i < read; i++) {
+                char c = block[i];
+                if (isSeparator(c)) {
+                    if (tokenLength > 0) {
+                        putValue(buffer, idx++, length, token, 0, tokenLength);
+                        tokenLength = 0;
+                    }
+                } else {
+                    if (tokenLength == token.length)
+                        token = Arrays.copyOf(token, token.length * 2);
+                    token[tokenLength++] = c;
+                }
+            }
+        }
+
+        if (tokenLength > 0)
+            putValue(buffer, idx++, length, token, 0, tokenLength);
+
+        return idx;
+    }
+
+    /**
+     * Splits the rest of the reader into blocks ending on separators, and parses blocks within the fork-join pool.
+     * Returns number of values found
+     */
+    private static long parseParallel(Reader reader, final DataBuffer buffer, final long length, int numThreads)
+                    throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        Deque<Future<?>> inFlight = new ArrayDeque<>();
+        try {
+            char[] carry = new char[0];
+            long idx = 0;
+            int read;
+            char[] block = new char[BLOCK_SIZE];
+            while ((read = reader.read(block)) > 0) {
+                // block has to end on separator, so no number is split between blocks
+                int cut = read;
+                while (cut > 0 && !isSeparator(block[cut - 1]))
+                    cut--;
+
+                final char[] chunk = new char[carry.length + cut];
+                System.arraycopy(carry, 0, chunk, 0, carry.length);
+                System.arraycopy(block, 0, chunk, carry.length, cut);
+                carry = Arrays.copyOfRange(block, cut, read);
+
+                idx = submit(pool, inFlight, chunk, buffer, idx, length, numThreads);
+            }
+
+            idx = submit(pool, inFlight, carry, buffer, idx, length, numThreads);
+
+            while (!inFlight.isEmpty())
+                inFlight.pollFirst().get();
+
+            return idx;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long submit(ForkJoinPool pool, Deque<Future<?>> inFlight, final char[] chunk,
+                    final DataBuffer buffer, final long offset, final long length, int numThreads)
+                    throws InterruptedException, ExecutionException {
+        long count = countTokens(chunk);
+        if (count == 0)
+            return offset;
+
+        // bounding number of blocks kept in memory
+        while (inFlight.size() >= 2 * numThreads)
+            inFlight.pollFirst().get();
+
+        inFlight.addLast(pool.submit(new Runnable() {
+            @Override
+            public void run() {
+                long idx = offset;
+                int start = -1;
+                for (int i = 0; i <= chunk.length; i++) {
+                    if (i == chunk.length || isSeparator(chunk[i])) {
+                        if (start >= 0) {
+                            putValue(buffer, idx++, length, chunk, start, i - start);
+                            start = -1;
+                        }
+                    } else if (start < 0) {
+                        start = i;
+                    }
+                }
+            }
+        }));
+
+        return offset + count;
+    }
+
+    private static long countTokens(char[] chunk) {
+        long count = 0;
+        boolean inToken = false;
+        for (char c : chunk) {
+            if (isSeparator(c)) {
+                inToken = false;
+            } else if (!inToken) {
+                inToken = true;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == '[' || c == ']' || c == '}' || Character.isWhitespace(c);
+    }
+
+    private static void putValue(DataBuffer buffer, long idx, long length, char[] chars, int offset, int len) {
+        if (idx >= length)
+            throw new IllegalStateException("Data section contains more than " + length + " values");
+
+        buffer.put(idx, parseDouble(chars, offset, len));
+    }
+
+    /**
+     * Parses a number written by DecimalFormat, without allocating an intermediate String for the common cases.
+     * Mantissas of up to 19 significant digits are converted with correct rounding: exactly, with a single floating
+     * point operation, when possible, otherwise with Eisel-Lemire algorithm. Values with longer mantissas, and the rare
+     * cases Eisel-Lemire can't decide, go through Double.parseDouble()
+     */
+    protected static double parseDouble(char[] chars, int offset, int len) {
+        int end = offset + len;
+        int i = offset;
+        boolean negative = false;
+        if (chars[i] == '-' || chars[i] == '+') {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        // DecimalFormat symbols for NaN and Infinity
+        if (i < end && chars[i] == '\uFFFD')
+            return Double.NaN;
+        if (i < end && chars[i] == '\u221E')
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean afterDot = false;
+        boolean hasDigits = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                hasDigits = true;
+                if (significantDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0)
+                        significantDigits++;
+                    if (afterDot)
+                        exponent--;
+                } else if (c != '0') {
+                    return slowParse(chars, offset, len);
+                } else if (!afterDot) {
+                    exponent++;
+                }
+            } else if (c == '.' && !afterDot) {
+                afterDot = true;
+            } else {
+                break;
+            }
+        }
+
+        if (!hasDigits)
+            return slowParse(chars, offset, len);
+
+        if (i < end) {
+            if (chars[i] != 'E' && chars[i] != 'e')
+                return slowParse(chars, offset, len);
+            i++;
+
+            boolean negativeExponent = false;
+            if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+                negativeExponent = chars[i] == '-';
+                i++;
+            }
+
+            if (i == end)
+                return slowParse(chars, offset, len);
+
+            int exp = 0;
+            for (; i < end; i++) {
+                char c = chars[i];
+                if (c < '0' || c > '9' || exp > 100000)
+                    return slowParse(chars, offset, len);
+                exp = exp * 10 + (c - '0');
+            }
+            exponent += negativeExponent ? -exp : exp;
+        }
+
+        if (mantissa == 0)
+            return negative ? -0.0 : 0.0;
+
+        // 19 digit mantissas may not fit into signed long, they're treated as unsigned below
+        long trimmed = mantissa;
+        int trimmedExponent = exponent;
+        while (trimmed > 0 && trimmed % 10 == 0) {
+            trimmed /= 10;
+            trimmedExponent++;
+        }
+
+        // both mantissa and power of ten are exact doubles here, so result is correctly rounded
+        if (trimmed > 0 && trimmed <= (1L << 53) && trimmedExponent <= MAX_FAST_EXPONENT
+                        && trimmedExponent >= -MAX_FAST_EXPONENT) {
+            double value = trimmedExponent >= 0 ? trimmed * POWERS_OF_TEN[trimmedExponent]
+                            : trimmed / POWERS_OF_TEN[-trimmedExponent];
+            return negative ? -value : value;
+        }
+
+        double value = eiselLemire(mantissa, exponent, negative);
+        return Double.isNaN(value) ? slowParse(chars, offset, len) : value;
+    }
+
+    /**
+     * Converts unsigned mantissa * 10^exp10 to the nearest double, see D. Lemire, "Number Parsing at a Gigabyte
+     * per Second". Returns NaN if the result can't be decided with 128-bit precision, or is out of normal range
+     */
+    protected static double eiselLemire(long mantissa, int exp10, boolean negative) {
+        if (exp10 < MIN_EXP10 || exp10 > MAX_EXP10)
+            return Double.NaN;
+
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        long man = mantissa << leadingZeros;
+        long exp2 = ((217706L * exp10) >> 16) + 64 + 1023 - leadingZeros;
+
+        int idx = exp10 - MIN_EXP10;
+        long hi = multiplyHigh(man, POW10_HI[idx]);
+        long lo = man * POW10_HI[idx];
+
+        // truncated power of ten may matter, take its lower half into account
+        if ((hi & 0x1FF) == 0x1FF && unsignedLess(lo + man, man)) {
+            long yHi = multiplyHigh(man, POW10_LO[idx]);
+            long yLo = man * POW10_LO[idx];
+            long mergedHi = hi;
+            long mergedLo = lo + yHi;
+            if (unsignedLess(mergedLo, lo))
+                mergedHi++;
+
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0 && unsignedLess(yLo + man, man))
+                return Double.NaN;
+
+            hi = mergedHi;
+            lo = mergedLo;
+        }
+
+        long msb = hi >>> 63;
+        long bits = hi >>> (int) (msb + 9);
+        exp2 -= 1 ^ msb;
+
+        // exactly halfway between two doubles
+        if (lo == 0 && (hi & 0x1FF) == 0 && (bits & 3) == 1)
+            return Double.NaN;
+
+        // round 54 bits to nearest even 53
+        bits += bits & 1;
+        bits >>>= 1;
+        if ((bits >>> 53) > 0) {
+            bits >>>= 1;
+            exp2++;
+        }
+
+        // subnormals, infinities
+        if (exp2 <= 0 || exp2 >= 0x7FF)
+            return Double.NaN;
+
+        bits = exp2 << 52 | bits & 0x000FFFFFFFFFFFFFL;
+        return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+    }
+
+    /**
+     * High 64 bits of unsigned 128-bit product
+     */
+    private static long multiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL, x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL, y1 = y >>> 32;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long middle = ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+        return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+    }
+
+    private static boolean unsignedLess(long a, long b) {
+        return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE);
+    }
+
+    private static double slowParse(char[] chars, int offset, int len) {
+        return Double.parseDouble(new String(chars, offset, len));
+    }
+}
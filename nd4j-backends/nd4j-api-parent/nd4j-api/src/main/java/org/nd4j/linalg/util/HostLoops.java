@@ -0,0 +1,195 @@
+package org.nd4j.linalg.util;
+
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Loops over host memory of FLOAT and DOUBLE arrays, used by fused java kernels (updaters, normalizers, losses).
+ *
+ * Long loops are split into chunks processed in parallel on {@link ExecutorServiceProvider} threads, the first chunk
+ * on the calling thread. Chunks not picked up by the pool yet are run by the calling thread as well, so loops
+ * started from pool threads can't deadlock.
+ */
+public class HostLoops {
+    public static final String CHUNK_LENGTH = "org.nd4j.hostloops.chunk";
+    public static final long DEFAULT_CHUNK_LENGTH = Long.parseLong(System.getProperty(CHUNK_LENGTH, "65536"));
+
+    /**
+     * Body of the loop
+     */
+    public interface Body {
+        /**
+         * This method processes iterations [from, to)
+         *
+         * @return partial result, summed over all chunks. Loops without result return 0.0
+         */
+        double exec(long from, long to);
+    }
+
+    private HostLoops() {
+        //
+    }
+
+    /**
+     * This method runs given loop over [0, length), in parallel if it's longer than chunk length
+     *
+     * @param length      number of iterations
+     * @param chunkLength min number of iterations per chunk
+     * @param body        loop body
+     * @return sum of partial results of all chunks, added in order of chunks
+     */
+    public static double exec(long length, long chunkLength, final Body body) {
+        int numChunks = (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                        length / Math.max(1, chunkLength)));
+        if (numChunks == 1)
+            return length > 0 ? body.exec(0, length) : 0.0;
+
+        long step = (length + numChunks - 1) / numChunks;
+        List<FutureTask<Double>> tasks = new ArrayList<>(numChunks - 1);
+        for (long start = step; start < length; start += step) {
+            final long from = start;
+            final long to = Math.min(length, start + step);
+            FutureTask<Double> task = new FutureTask<>(new Callable<Double>() {
+                @Override
+                public Double call() throws Exception {
+                    return body.exec(from, to);
+                }
+            });
+            tasks.add(task);
+            ExecutorServiceProvider.getExecutorService().execute(task);
+        }
+
+        double result = body.exec(0, step);
+        try {
+            for (FutureTask<Double> task : tasks) {
+                // no-op if pool thread has already started it
+                task.run();
+                result += task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw new RuntimeException(e.getCause());
+        }
+
+        return result;
+    }
+
+    /**
+     * This method makes sure given arrays are actual on host side, nulls are skipped
+     */
+    public static void toHost(INDArray... arrays) {
+        for (INDArray array : arrays)
+            if (array != null)
+                Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+    }
+
+    /**
+     * This method marks given arrays as updated on host side, nulls are skipped
+     */
+    public static void commit(INDArray... arrays) {
+        for (INDArray array : arrays)
+            if (array != null)
+                Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+    }
+
+    /**
+     * This method returns element accessor of given FLOAT or DOUBLE array. Array has to be on host side already,
+     * see {@link #toHost(INDArray...)}
+     */
+    public static Accessor accessor(INDArray array) {
+        if (array.data().dataType() == DataBuffer.Type.FLOAT)
+            return new FloatAccessor(array);
+        else if (array.data().dataType() == DataBuffer.Type.DOUBLE)
+            return new DoubleAccessor(array);
+
+        throw new UnsupportedOperationException("Unsupported data type: [" + array.data().dataType() + "]");
+    }
+
+    /**
+     * Element access of array in place: by offset within its buffer, or by row and column of 2d array.
+     * Values are converted to and from double.
+     */
+    public abstract static class Accessor {
+        protected final long offset;
+        protected final long rowStride;
+        protected final long columnStride;
+
+        protected Accessor(INDArray array) {
+            this.offset = array.data().offset();
+            this.rowStride = array.rank() == 2 ? array.stride(0) : 0;
+            this.columnStride = array.rank() == 2 ? array.stride(1) : 0;
+        }
+
+        /**
+         * @param i offset of the element, relative to the array offset
+         */
+        public abstract double get(long i);
+
+        /**
+         * @param i offset of the element, relative to the array offset
+         */
+        public abstract void put(long i, double value);
+
+        public double get(long row, long column) {
+            return get(row * rowStride + column * columnStride);
+        }
+
+        public void put(long row, long column, double value) {
+            put(row * rowStride + column * columnStride, value);
+        }
+    }
+
+    private static class FloatAccessor extends Accessor {
+        private final FloatIndexer indexer;
+
+        private FloatAccessor(INDArray array) {
+            super(array);
+            this.indexer = (FloatIndexer) array.data().indexer();
+        }
+
+        @Override
+        public double get(long i) {
+            return indexer.get(offset + i);
+        }
+
+        @Override
+        public void put(long i, double value) {
+            indexer.put(offset + i, (float) value);
+        }
+    }
+
+    private static class DoubleAccessor extends Accessor {
+        private final DoubleIndexer indexer;
+
+        private DoubleAccessor(INDArray array) {
+            super(array);
+            this.indexer = (DoubleIndexer) array.data().indexer();
+        }
+
+        @Override
+        public double get(long i) {
+            return indexer.get(offset + i);
+        }
+
+        @Override
+        public void put(long i, double value) {
+            indexer.put(offset + i, value);
+        }
+    }
+}
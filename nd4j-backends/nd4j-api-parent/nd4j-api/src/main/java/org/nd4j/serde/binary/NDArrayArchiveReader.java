@@ -0,0 +1,183 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reader for archives written with {@link NDArrayArchiveWriter}.
+ *
+ * Only the index is read on open. Every array is memory-mapped on request,
+ * without scanning or copying other arrays stored in the archive.
+ * Arrays obtained from this reader stay valid after the reader is closed.
+ *
+ * Copy-on-write mapping requires the archive to be writable, so arrays of read-only archives opened
+ * with {@link FileChannel.MapMode#PRIVATE} are read into memory instead. The archive itself is never modified.
+ */
+public class NDArrayArchiveReader implements Closeable {
+    protected final RandomAccessFile file;
+    protected final FileChannel channel;
+    protected final FileChannel.MapMode mode;
+    protected final boolean mapped;
+    protected final Map<String, long[]> index = new LinkedHashMap<>();
+
+    /**
+     * Open the archive, arrays will be backed by copy-on-write mappings
+     *
+     * @param file the archive to open
+     * @throws IOException
+     */
+    public NDArrayArchiveReader(@NonNull File file) throws IOException {
+        this(file, FileChannel.MapMode.PRIVATE);
+    }
+
+    /**
+     * Open the archive.
+     * PLEASE NOTE: arrays backed by {@link FileChannel.MapMode#READ_ONLY} mappings must never be modified,
+     * and changes to arrays backed by {@link FileChannel.MapMode#READ_WRITE} mappings are written back to the archive.
+     *
+     * @param file the archive to open
+     * @param mode the mode to map arrays with
+     * @throws IOException
+     */
+    public NDArrayArchiveReader(@NonNull File file, @NonNull FileChannel.MapMode mode) throws IOException {
+        if (!file.isFile())
+            throw new FileNotFoundException("Archive [" + file.getAbsolutePath() + "] doesn't exist");
+
+        if (mode == FileChannel.MapMode.READ_WRITE && !file.canWrite())
+            throw new ND4JIllegalStateException("Archive [" + file.getAbsolutePath()
+                            + "] isn't writable, so it can't be mapped with READ_WRITE mode");
+
+        // java can't map a file privately through a read-only channel
+        this.mapped = mode != FileChannel.MapMode.PRIVATE || file.canWrite();
+        this.file = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_ONLY || !mapped ? "r" : "rw");
+        this.channel = this.file.getChannel();
+        this.mode = mode;
+
+        try {
+            ByteBuffer preamble = read(0, NDArrayArchiveWriter.MAGIC.length + 5, ByteOrder.BIG_ENDIAN);
+            checkMagic(preamble, file);
+            int version = preamble.getInt();
+            if (version > NDArrayArchiveWriter.VERSION)
+                throw new ND4JIllegalStateException("Unsupported archive version [" + version + "]");
+
+            ByteOrder order = preamble.get() == 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            if (order != ByteOrder.nativeOrder())
+                throw new ND4JIllegalStateException("Archive [" + file + "] was written with " + order
+                                + " byte order, which doesn't match native byte order");
+
+            long trailerOffset = channel.size() - 8 - NDArrayArchiveWriter.MAGIC.length;
+            ByteBuffer trailer = read(trailerOffset, 8 + NDArrayArchiveWriter.MAGIC.length, ByteOrder.BIG_ENDIAN);
+            long indexOffset = trailer.getLong();
+            checkMagic(trailer, file);
+
+            channel.position(indexOffset);
+            DataInputStream dis = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            int numArrays = dis.readInt();
+            for (int i = 0; i < numArrays; i++) {
+                String name = dis.readUTF();
+                index.put(name, new long[] {dis.readLong(), dis.readLong()});
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Names of the arrays stored in the archive, in the order they were written
+     */
+    public Collection<String> names() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    /**
+     * Whether an array with the given name is stored in the archive
+     */
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * Get the array with the given name.
+     * Returned array is backed by the memory-mapped region of the archive, no data is copied,
+     * unless the archive is read-only and was opened with {@link FileChannel.MapMode#PRIVATE} mode.
+     *
+     * @param name the name of the array
+     * @return the array
+     * @throws IOException
+     */
+    public INDArray get(@NonNull String name) throws IOException {
+        long[] offsets = index.get(name);
+        if (offsets == null)
+            throw new ND4JIllegalStateException("Array with name [" + name + "] isn't stored in this archive");
+
+        ByteBuffer header = read(offsets[0], 8, ByteOrder.nativeOrder());
+        int rank = header.getInt();
+        DataBuffer.Type type = DataBuffer.Type.values()[header.getInt()];
+
+        int shapeInfoLength = Shape.shapeInfoLength(rank);
+        ByteBuffer shapeBytes = read(offsets[0] + 8, 8 * shapeInfoLength, ByteOrder.nativeOrder());
+        long[] shapeInfo = new long[shapeInfoLength];
+        shapeBytes.asLongBuffer().get(shapeInfo);
+
+        if (type == DataBuffer.Type.HALF)
+            throw new ND4JIllegalStateException("Array [" + name + "] is stored as HALF, which isn't supported");
+
+        long length = Shape.length(shapeInfo);
+        long bytes = length * Nd4j.sizeOfDataType(type);
+        if (bytes > Integer.MAX_VALUE)
+            throw new ND4JIllegalStateException("Array [" + name + "] is " + bytes
+                            + " bytes long, arrays larger than 2GB can't be mapped into a single buffer");
+
+        DataBuffer shapeBuffer = Nd4j.createBufferDetached(shapeInfo);
+        DataBuffer data;
+        if (mapped)
+            data = Nd4j.createBufferMapped(channel, mode, offsets[1], type, length);
+        else
+            data = Nd4j.createBuffer(read(offsets[1], (int) bytes, ByteOrder.nativeOrder(), true), type, (int) length);
+
+        return Nd4j.createArrayFromShapeBuffer(data, shapeBuffer);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        file.close();
+    }
+
+    protected ByteBuffer read(long position, int length, ByteOrder order) throws IOException {
+        return read(position, length, order, false);
+    }
+
+    protected ByteBuffer read(long position, int length, ByteOrder order, boolean direct) throws IOException {
+        ByteBuffer buffer = (direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length)).order(order);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new EOFException("Unexpected end of archive");
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    protected static void checkMagic(ByteBuffer buffer, File file) {
+        byte[] magic = new byte[NDArrayArchiveWriter.MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, NDArrayArchiveWriter.MAGIC))
+            throw new ND4JIllegalStateException("File [" + file + "] is not an array archive");
+    }
+}
@@ -0,0 +1,145 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writer for uncompressed archives of named arrays, readable with {@link NDArrayArchiveReader}.
+ *
+ * Layout of the archive:
+ * preamble: magic, format version and byte order, padded to {@link #ALIGNMENT} bytes
+ * for every array:
+ *      header, same as {@link BinarySerde}: 4 bytes int for rank, 4 bytes int for data opType, shape information
+ *      data buffer, starting at {@link #ALIGNMENT} bytes boundary
+ * index: number of arrays, and name, header offset and data offset for every array
+ * trailer: index offset and magic
+ *
+ * Headers and data are stored in native byte order, index and trailer are big endian.
+ * Every data buffer is stored as is, so the reader can memory-map any single array without touching the others.
+ */
+public class NDArrayArchiveWriter implements Closeable {
+    public static final byte[] MAGIC = new byte[] {'N', 'D', '4', 'J', 'A', 'R', 'C', 'H'};
+    public static final int VERSION = 1;
+    public static final int ALIGNMENT = 64;
+
+    protected final FileOutputStream outputStream;
+    protected final FileChannel channel;
+    protected final Map<String, long[]> index = new LinkedHashMap<>();
+
+    public NDArrayArchiveWriter(@NonNull File file) throws IOException {
+        this.outputStream = new FileOutputStream(file);
+        this.channel = outputStream.getChannel();
+
+        ByteBuffer preamble = ByteBuffer.allocate(ALIGNMENT).order(ByteOrder.BIG_ENDIAN);
+        preamble.put(MAGIC);
+        preamble.putInt(VERSION);
+        preamble.put((byte) (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 0 : 1));
+        preamble.rewind();
+        writeFully(preamble);
+    }
+
+    /**
+     * Append the given array to the archive
+     *
+     * @param name  unique name of the array
+     * @param array the array to store
+     * @throws IOException
+     */
+    public void write(@NonNull String name, @NonNull INDArray array) throws IOException {
+        if (index.containsKey(name))
+            throw new ND4JIllegalStateException("Array with name [" + name + "] was already written to this archive");
+
+        if (array.isCompressed())
+            array = Nd4j.getCompressor().decompress(array);
+
+        if (array.data().dataType() == DataBuffer.Type.HALF)
+            throw new ND4JIllegalStateException("Array [" + name + "] is HALF, which can't be read back from archives");
+
+        //BinarySerde stores data buffer as is, so views have to be detached first
+        if (array.isView())
+            array = array.dup();
+
+        // ensure we have actual data in host memory
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+        DataBuffer shapeInfo = array.shapeInfoDataBuffer();
+        int shapeInfoLength = Shape.shapeInfoLength(array.rank());
+
+        long headerOffset = channel.position();
+        ByteBuffer header = ByteBuffer.allocate(8 + 8 * shapeInfoLength).order(ByteOrder.nativeOrder());
+        header.putInt(array.rank());
+        header.putInt(array.data().dataType().ordinal());
+        for (int i = 0; i < shapeInfoLength; i++)
+            header.putLong(shapeInfo.getLong(i));
+        header.rewind();
+        writeFully(header);
+        pad();
+
+        long dataOffset = channel.position();
+        DataBuffer data = array.data();
+        long start = data.offset() * data.getElementSize();
+        long bytes = array.length() * data.getElementSize();
+        if (start + bytes > Integer.MAX_VALUE)
+            throw new ND4JIllegalStateException("Array [" + name + "] is " + bytes
+                            + " bytes long, arrays larger than 2GB can't be stored: they are mapped as a single buffer");
+
+        ByteBuffer content = data.asNio().order(ByteOrder.nativeOrder());
+        content.limit((int) (start + bytes));
+        content.position((int) start);
+        writeFully(content);
+        pad();
+
+        index.put(name, new long[] {headerOffset, dataOffset});
+    }
+
+    /**
+     * Writes the index, and closes the archive
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = channel.position();
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            dos.writeInt(index.size());
+            for (Map.Entry<String, long[]> entry : index.entrySet()) {
+                dos.writeUTF(entry.getKey());
+                dos.writeLong(entry.getValue()[0]);
+                dos.writeLong(entry.getValue()[1]);
+            }
+
+            dos.writeLong(indexOffset);
+            dos.write(MAGIC);
+            dos.flush();
+        } finally {
+            channel.close();
+            outputStream.close();
+        }
+    }
+
+    protected void pad() throws IOException {
+        int remainder = (int) (channel.position() % ALIGNMENT);
+        if (remainder != 0)
+            writeFully(ByteBuffer.allocate(ALIGNMENT - remainder));
+    }
+
+    protected void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+}
@@ -7,6 +7,7 @@ import org.bytedeco.javacpp.Pointer;
 import org.nd4j.jita.allocator.impl.AtomicAllocator;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.cache.CacheStatistics;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.jcublas.buffer.AddressRetriever;
 import org.nd4j.linalg.jcublas.buffer.CudaDoubleDataBuffer;
@@ -106,4 +107,10 @@ public class BasicTADManager implements TADManager {
     public long getCachedBytes() {
         return bytes.get();
     }
+
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        // nothing is cached here
+        return new CacheStatistics(0, 0, 0, 0, bytes.get(), Long.MAX_VALUE);
+    }
 }
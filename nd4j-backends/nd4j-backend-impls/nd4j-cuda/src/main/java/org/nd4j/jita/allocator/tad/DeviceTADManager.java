@@ -7,6 +7,7 @@ import org.nd4j.jita.conf.Configuration;
 import org.nd4j.jita.conf.CudaEnvironment;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.cache.CacheStatistics;
 import org.nd4j.linalg.cache.TadDescriptor;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -16,6 +17,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author raver119@gmail.com
@@ -24,6 +26,8 @@ import java.util.concurrent.Semaphore;
 public class DeviceTADManager extends BasicTADManager {
     protected List<Map<TadDescriptor, Pair<DataBuffer, DataBuffer>>> tadCache = new ArrayList<>();
     private Semaphore lock = new Semaphore(1);
+    private AtomicLong hits = new AtomicLong(0);
+    private AtomicLong misses = new AtomicLong(0);
 
     public DeviceTADManager() {
         int numDevices = Nd4j.getAffinityManager().getNumberOfDevices();
@@ -69,6 +73,7 @@ public class DeviceTADManager extends BasicTADManager {
         TadDescriptor descriptor = new TadDescriptor(array, dimension);
 
         if (!tadCache.get(deviceId).containsKey(descriptor)) {
+            misses.incrementAndGet();
             log.trace("Creating new TAD...");
             //create the TAD with the shape information and corresponding offsets
             //note that we use native code to get access to the shape information.
@@ -111,8 +116,22 @@ public class DeviceTADManager extends BasicTADManager {
                 bytes.addAndGet(buffers.getSecond().length() * 8);
 
             log.trace("Using TAD from cache...");
+        } else {
+            hits.incrementAndGet();
         }
 
         return tadCache.get(deviceId).get(descriptor);
     }
+
+    /**
+     * PLEASE NOTE: TADs live in constant memory on device side, so they are never evicted here
+     */
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        long entries = 0;
+        for (Map<TadDescriptor, Pair<DataBuffer, DataBuffer>> map : tadCache)
+            entries += map.size();
+
+        return new CacheStatistics(hits.get(), misses.get(), 0, entries, bytes.get(), Long.MAX_VALUE);
+    }
 }
@@ -2,6 +2,7 @@ package org.nd4j.jita.constant;
 
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.cache.BasicConstantHandler;
+import org.nd4j.linalg.cache.CacheStatistics;
 import org.nd4j.linalg.cache.ConstantHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,4 +63,9 @@ public class CudaConstantHandler extends BasicConstantHandler {
     public long getCachedBytes() {
         return wrappedHandler.getCachedBytes();
     }
+
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        return wrappedHandler.getCacheStatistics();
+    }
 }
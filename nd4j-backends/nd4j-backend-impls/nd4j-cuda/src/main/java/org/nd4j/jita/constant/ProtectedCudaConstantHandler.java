@@ -13,6 +13,7 @@ import org.nd4j.jita.flow.FlowController;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ops.performance.PerformanceTracker;
 import org.nd4j.linalg.cache.ArrayDescriptor;
+import org.nd4j.linalg.cache.CacheStatistics;
 import org.nd4j.linalg.cache.ConstantHandler;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
@@ -43,6 +44,8 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
     protected Map<Integer, Map<ArrayDescriptor, DataBuffer>> buffersCache = new HashMap<>();
     protected Map<Integer, Pointer> deviceAddresses = new HashMap<>();
     protected AtomicLong bytes = new AtomicLong(0);
+    protected AtomicLong hits = new AtomicLong(0);
+    protected AtomicLong misses = new AtomicLong(0);
     protected FlowController flowController;
 
     protected static final ConstantProtector protector = ConstantProtector.getInstance();
@@ -295,6 +298,7 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
         ensureMaps(deviceId);
 
         if (!buffersCache.get(deviceId).containsKey(descriptor)) {
+            misses.incrementAndGet();
             // we create new databuffer
             //logger.info("Creating new constant buffer...");
             DataBuffer buffer = Nd4j.createBufferDetached(array);
@@ -311,6 +315,7 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
             return buffer;
         } //else logger.info("Reusing constant buffer...");
 
+        hits.incrementAndGet();
         return buffersCache.get(deviceId).get(descriptor);
     }
 
@@ -324,6 +329,7 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
         ensureMaps(deviceId);
 
         if (!buffersCache.get(deviceId).containsKey(descriptor)) {
+            misses.incrementAndGet();
             // we create new databuffer
             //logger.info("Creating new constant buffer...");
             DataBuffer buffer = Nd4j.createBufferDetached(array);
@@ -340,6 +346,7 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
             return buffer;
         } //else logger.info("Reusing constant buffer...");
 
+        hits.incrementAndGet();
         return buffersCache.get(deviceId).get(descriptor);
     }
 
@@ -361,6 +368,7 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
         ensureMaps(deviceId);
 
         if (!buffersCache.get(deviceId).containsKey(descriptor)) {
+            misses.incrementAndGet();
             // we create new databuffer
                  //logger.info("Creating new constant buffer...");
             DataBuffer buffer = Nd4j.createBufferDetached(array);
@@ -377,6 +385,7 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
             return buffer;
         } // else logger.info("Reusing constant buffer...");
 
+        hits.incrementAndGet();
         return buffersCache.get(deviceId).get(descriptor);
     }
 
@@ -398,6 +407,7 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
         ensureMaps(deviceId);
 
         if (!buffersCache.get(deviceId).containsKey(descriptor)) {
+            misses.incrementAndGet();
             // we create new databuffer
             //logger.info("Creating new constant buffer...");
             DataBuffer buffer = Nd4j.createBufferDetached(array);
@@ -414,6 +424,7 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
             return buffer;
         } //else logger.info("Reusing constant buffer...");
 
+        hits.incrementAndGet();
         return buffersCache.get(deviceId).get(descriptor);
     }
 
@@ -421,4 +432,16 @@ public class ProtectedCudaConstantHandler implements ConstantHandler {
     public long getCachedBytes() {
         return bytes.get();
     }
+
+    /**
+     * PLEASE NOTE: constants live in device constant memory, so they are never evicted here
+     */
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        long entries = 0;
+        for (Map<ArrayDescriptor, DataBuffer> map : buffersCache.values())
+            entries += map.size();
+
+        return new CacheStatistics(hits.get(), misses.get(), 0, entries, bytes.get(), Long.MAX_VALUE);
+    }
 }
@@ -19,6 +19,7 @@
 
 package org.nd4j.linalg.jcublas.buffer;
 
+import com.google.common.io.LittleEndianDataInputStream;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.val;
@@ -48,11 +49,15 @@ import org.nd4j.nativeblas.NativeOpsHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collection;
 
 /**
@@ -830,6 +835,17 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
         super.write(dos);
     }
 
+    @Override
+    public void write(WritableByteChannel channel) throws IOException {
+        allocator.synchronizeHostData(this);
+        super.write(channel);
+    }
+
+    @Override
+    public void read(ReadableByteChannel channel) throws IOException {
+        read(new DataInputStream(Channels.newInputStream(channel)));
+    }
+
     private void writeObject(java.io.ObjectOutputStream stream) throws IOException {
         allocator.synchronizeHostData(this);
         stream.defaultWriteObject();
@@ -899,6 +915,14 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
             length = locLength;
 
             Type t = Type.valueOf(s.readUTF());
+
+            DataInput in = s;
+            if (allocationMode == AllocationMode.LONG_SHAPE_RAW) {
+                if (s.readByte() == 0)
+                    in = new LittleEndianDataInputStream(s);
+
+                allocationMode = AllocationMode.LONG_SHAPE;
+            }
             //                  log.info("Restoring buffer ["+t+"] of length ["+ length+"]");
             if (globalType == null && Nd4j.dataType() != null) {
                 globalType = Nd4j.dataType();
@@ -928,15 +952,15 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
 
                 for (int i = 0; i < length(); i++) {
                     if (t == Type.LONG)
-                        Lindexer.put(i, s.readLong());
+                        Lindexer.put(i, in.readLong());
                     else if (t == Type.INT)
-                        Lindexer.put(i, s.readInt());
+                        Lindexer.put(i, in.readInt());
                     else if (t == Type.DOUBLE)
-                        Lindexer.put(i, (int) s.readDouble());
+                        Lindexer.put(i, (int) in.readDouble());
                     else if (t == Type.FLOAT)
-                        Lindexer.put(i, (int) s.readFloat());
+                        Lindexer.put(i, (int) in.readFloat());
                     else if (t == Type.HALF)
-                        Lindexer.put(i, (int) toFloat((int) s.readShort()));
+                        Lindexer.put(i, (int) toFloat((int) in.readShort()));
                 }
 
                 allocationPoint.tickHostWrite();
@@ -957,15 +981,15 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
 
                 for (int i = 0; i < length(); i++) {
                     if (t == Type.INT)
-                        Iindexer.put(i, s.readInt());
+                        Iindexer.put(i, in.readInt());
                     else if (t == Type.LONG)
-                        Iindexer.put(i, (int) s.readLong());
+                        Iindexer.put(i, (int) in.readLong());
                     else if (t == Type.DOUBLE)
-                        Iindexer.put(i, (int) s.readDouble());
+                        Iindexer.put(i, (int) in.readDouble());
                     else if (t == Type.FLOAT)
-                        Iindexer.put(i, (int) s.readFloat());
+                        Iindexer.put(i, (int) in.readFloat());
                     else if (t == Type.HALF)
-                        Iindexer.put(i, (int) toFloat((int) s.readShort()));
+                        Iindexer.put(i, (int) toFloat((int) in.readShort()));
                 }
 
                 allocationPoint.tickHostWrite();
@@ -995,13 +1019,13 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
 
                 for (int i = 0; i < length(); i++) {
                     if (t == Type.DOUBLE)
-                        Dindexer.put(i, s.readDouble());
+                        Dindexer.put(i, in.readDouble());
                     else if (t == Type.LONG)
-                        Dindexer.put(i, (double) s.readLong());
+                        Dindexer.put(i, (double) in.readLong());
                     else if (t == Type.FLOAT)
-                        Dindexer.put(i, (double) s.readFloat());
+                        Dindexer.put(i, (double) in.readFloat());
                     else if (t == Type.HALF)
-                        Dindexer.put(i, (double) toFloat((int) s.readShort()));
+                        Dindexer.put(i, (double) toFloat((int) in.readShort()));
                 }
 
                 allocationPoint.tickHostWrite();
@@ -1023,13 +1047,13 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
 
 
                     if (t == Type.DOUBLE)
-                        Findexer.put(i, (float) s.readDouble());
+                        Findexer.put(i, (float) in.readDouble());
                     else if (t == Type.LONG)
-                        Findexer.put(i, (float) s.readLong());
+                        Findexer.put(i, (float) in.readLong());
                     else if (t == Type.FLOAT)
-                        Findexer.put(i, s.readFloat());
+                        Findexer.put(i, in.readFloat());
                     else if (t == Type.HALF) {
-                        Findexer.put(i, toFloat((int) s.readShort()));
+                        Findexer.put(i, toFloat((int) in.readShort()));
                     }
                 }
 
@@ -1051,13 +1075,13 @@ public abstract class BaseCudaDataBuffer extends BaseDataBuffer implements JCuda
                 for (int i = 0; i < length; i++) {
 
                     if (t == Type.DOUBLE)
-                        Hindexer.put(i, (float) s.readDouble());
+                        Hindexer.put(i, (float) in.readDouble());
                     else if (t == Type.LONG)
-                        Hindexer.put(i, (float) s.readLong());
+                        Hindexer.put(i, (float) in.readLong());
                     else if (t == Type.FLOAT)
-                        Hindexer.put(i, s.readFloat());
+                        Hindexer.put(i, in.readFloat());
                     else if (t == Type.HALF) {
-                        Hindexer.put(i, toFloat((int) s.readShort()));
+                        Hindexer.put(i, toFloat((int) in.readShort()));
                     }
                 }
 
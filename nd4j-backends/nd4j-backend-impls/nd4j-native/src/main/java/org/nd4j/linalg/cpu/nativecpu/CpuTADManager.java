@@ -1,14 +1,19 @@
 package org.nd4j.linalg.cpu.nativecpu;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import lombok.NonNull;
-import lombok.val;
 import org.bytedeco.javacpp.IntPointer;
 import org.bytedeco.javacpp.LongPointer;
 import org.bytedeco.javacpp.Pointer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
-import org.nd4j.linalg.api.buffer.IntBuffer;
 import org.nd4j.linalg.api.buffer.LongBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.cache.CacheStatistics;
 import org.nd4j.linalg.cache.ConstantHandler;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.cache.TadDescriptor;
@@ -17,24 +22,52 @@ import org.nd4j.nativeblas.LongPointerWrapper;
 import org.nd4j.nativeblas.NativeOps;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * TAD cache for CPU backend.
+ *
+ * Entries are kept in a concurrent LRU cache bounded by total size of TAD shape and offset buffers,
+ * so individual least recently used TADs get evicted instead of purging everything at once.
+ * Evicted buffers are released by GC once the last op referencing them is done.
+ *
+ * Budget can be changed with "org.nd4j.linalg.cpu.tad.maxbytes" system property, 128MB by default.
+ *
  * @author raver119@gmail.com
  */
 public class CpuTADManager implements TADManager {
-    private Map<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache = new ConcurrentHashMap<>();
+    public static final String MAX_BYTES_PROPERTY = "org.nd4j.linalg.cpu.tad.maxbytes";
+    public static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+
+    private final long maxBytes;
+    private final Cache<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache;
     private NativeOps nativeOps;
     private ConstantHandler constantHandler;
     private AtomicLong bytes = new AtomicLong(0);
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 100;
 
     public CpuTADManager() {
-        //
+        this(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * @param maxBytes maximum size of cached TAD buffers, in bytes
+     */
+    public CpuTADManager(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.cache = CacheBuilder.newBuilder().maximumWeight(maxBytes)
+                        .weigher(new Weigher<TadDescriptor, Pair<DataBuffer, DataBuffer>>() {
+                            @Override
+                            public int weigh(TadDescriptor key, Pair<DataBuffer, DataBuffer> value) {
+                                return (int) Math.min(Integer.MAX_VALUE, sizeOf(value));
+                            }
+                        }).removalListener(new RemovalListener<TadDescriptor, Pair<DataBuffer, DataBuffer>>() {
+                            @Override
+                            public void onRemoval(RemovalNotification<TadDescriptor, Pair<DataBuffer, DataBuffer>> notification) {
+                                bytes.addAndGet(-sizeOf(notification.getValue()));
+                            }
+                        }).recordStats().build();
     }
 
     public void init(@NonNull NativeOps nativeOps, @NonNull ConstantHandler constantHandler) {
@@ -47,11 +80,11 @@ public class CpuTADManager implements TADManager {
      */
     @Override
     public void purgeBuffers() {
-        cache = new ConcurrentHashMap<>();
+        cache.invalidateAll();
     }
 
     @Override
-    public Pair<DataBuffer, DataBuffer> getTADOnlyShapeInfo(INDArray array, int[] dimension) {
+    public Pair<DataBuffer, DataBuffer> getTADOnlyShapeInfo(final INDArray array, final int[] dimension) {
         if (dimension != null && dimension.length > 1)
             Arrays.sort(dimension);
 
@@ -60,51 +93,74 @@ public class CpuTADManager implements TADManager {
         } else {
             TadDescriptor descriptor = new TadDescriptor(array, dimension);
 
-            if (!cache.containsKey(descriptor)) {
-                int dimensionLength = dimension.length;
+            try {
+                // concurrent requests for the same descriptor wait for a single native call
+                return cache.get(descriptor, new Callable<Pair<DataBuffer, DataBuffer>>() {
+                    @Override
+                    public Pair<DataBuffer, DataBuffer> call() throws Exception {
+                        Pair<DataBuffer, DataBuffer> pair = buildTAD(array, dimension);
+                        bytes.addAndGet(sizeOf(pair));
+                        return pair;
+                    }
+                });
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    protected Pair<DataBuffer, DataBuffer> buildTAD(INDArray array, int[] dimension) {
+        int dimensionLength = dimension.length;
 
-                // FIXME: this is fast triage, remove it later
-                int targetRank = array.rank(); //dimensionLength <= 1 ? 2 : dimensionLength;
-                long offsetLength;
-                long tadLength = 1;
-                for (int i = 0; i < dimensionLength; i++) {
-                    tadLength *= array.shape()[dimension[i]];
-                }
+        // FIXME: this is fast triage, remove it later
+        int targetRank = array.rank(); //dimensionLength <= 1 ? 2 : dimensionLength;
+        long offsetLength;
+        long tadLength = 1;
+        for (int i = 0; i < dimensionLength; i++) {
+            tadLength *= array.shape()[dimension[i]];
+        }
 
-                offsetLength = array.lengthLong() / tadLength;
+        offsetLength = array.lengthLong() / tadLength;
 
-                DataBuffer outputBuffer = new LongBuffer(targetRank * 2 + 4);
-                DataBuffer offsetsBuffer = new LongBuffer(offsetLength);
+        DataBuffer outputBuffer = new LongBuffer(targetRank * 2 + 4);
+        DataBuffer offsetsBuffer = new LongBuffer(offsetLength);
 
-                DataBuffer dimensionBuffer = constantHandler.getConstantBuffer(dimension);
-                Pointer dimensionPointer = dimensionBuffer.addressPointer();
+        DataBuffer dimensionBuffer = constantHandler.getConstantBuffer(dimension);
+        Pointer dimensionPointer = dimensionBuffer.addressPointer();
 
-                Pointer xShapeInfo = array.shapeInfoDataBuffer().addressPointer();
-                Pointer targetPointer = outputBuffer.addressPointer();
-                Pointer offsetsPointer = offsetsBuffer.addressPointer();
+        Pointer xShapeInfo = array.shapeInfoDataBuffer().addressPointer();
+        Pointer targetPointer = outputBuffer.addressPointer();
+        Pointer offsetsPointer = offsetsBuffer.addressPointer();
 
-                nativeOps.tadOnlyShapeInfo((LongPointer) xShapeInfo, (IntPointer) dimensionPointer, dimension.length,
-                                (LongPointer) targetPointer, new LongPointerWrapper(offsetsPointer));
+        nativeOps.tadOnlyShapeInfo((LongPointer) xShapeInfo, (IntPointer) dimensionPointer, dimension.length,
+                        (LongPointer) targetPointer, new LongPointerWrapper(offsetsPointer));
 
 
-                // If the line below will be uncommented, shapes from JVM will be used on native side
-                //outputBuffer = array.tensorAlongDimension(0, dimension).shapeInfoDataBuffer();
-                Pair<DataBuffer, DataBuffer> pair = new Pair<>(outputBuffer, offsetsBuffer);
-                if (counter.get() < MAX_ENTRIES) {
-                    counter.incrementAndGet();
-                    cache.put(descriptor, pair);
+        // If the line below will be uncommented, shapes from JVM will be used on native side
+        //outputBuffer = array.tensorAlongDimension(0, dimension).shapeInfoDataBuffer();
+        return new Pair<>(outputBuffer, offsetsBuffer);
+    }
 
-                    bytes.addAndGet((outputBuffer.length() * 4) + (offsetsBuffer.length() * 8));
-                }
-                return pair;
-            }
+    protected static long sizeOf(Pair<DataBuffer, DataBuffer> pair) {
+        long size = pair.getFirst().length() * pair.getFirst().getElementSize();
+        if (pair.getSecond() != null)
+            size += pair.getSecond().length() * pair.getSecond().getElementSize();
 
-            return cache.get(descriptor);
-        }
+        return size;
     }
 
     @Override
     public long getCachedBytes() {
         return bytes.get();
     }
+
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        com.google.common.cache.CacheStats stats = cache.stats();
+        return new CacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.size(),
+                        bytes.get(), maxBytes);
+    }
 }
@@ -1,41 +1,88 @@
 package org.nd4j.linalg.cpu.nativecpu.cache;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.cache.ArrayDescriptor;
 import org.nd4j.linalg.cache.BasicConstantHandler;
+import org.nd4j.linalg.cache.CacheStatistics;
 import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
+ * Constant buffers cache for CPU backend.
+ *
+ * Buffers are kept in LRU cache bounded by their total size in bytes. To keep one-off arrays
+ * (i.e. shapes built from request data) from pushing out frequently used constants, an array is admitted
+ * into the cache only once it was requested at least twice recently. Recency of requests is tracked with
+ * small periodically reset bloom filter, so bookkeeping doesn't grow with number of distinct arrays.
+ *
+ * Short int arrays (dimensions, mostly) are always admitted, and never evicted.
+ *
+ * Evicted buffers are just dropped from the cache, and never deallocated explicitly: their memory is
+ * released by GC once nothing references them anymore, so arrays and ops still holding a buffer keep it valid.
+ *
+ * Budget can be changed with "org.nd4j.linalg.cpu.constants.maxbytes" system property, 64MB by default.
+ *
  * @author raver119@gmail.com
  */
 public class ConstantBuffersCache extends BasicConstantHandler {
-    protected Map<ArrayDescriptor, DataBuffer> buffersCache = new ConcurrentHashMap<>();
-    private AtomicInteger counter = new AtomicInteger(0);
+    public static final String MAX_BYTES_PROPERTY = "org.nd4j.linalg.cpu.constants.maxbytes";
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final int DOORKEEPER_BITS = 1 << 16;
+
+    protected final long maxBytes;
+    protected final Cache<ArrayDescriptor, DataBuffer> buffersCache;
     private AtomicLong bytes = new AtomicLong(0);
-    private static final int MAX_ENTRIES = 1000;
+
+    // admission filter: bit set for every array seen once, reset after given number of insertions
+    private final AtomicLongArray doorkeeper = new AtomicLongArray(DOORKEEPER_BITS / 64);
+    private final AtomicInteger doorkeeperInsertions = new AtomicInteger(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+
+    public ConstantBuffersCache() {
+        this(Long.getLong(MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES));
+    }
+
+    /**
+     * @param maxBytes maximum size of cached constant buffers, in bytes
+     */
+    public ConstantBuffersCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.buffersCache = CacheBuilder.newBuilder().maximumWeight(maxBytes)
+                        .weigher(new Weigher<ArrayDescriptor, DataBuffer>() {
+                            @Override
+                            public int weigh(ArrayDescriptor key, DataBuffer value) {
+                                // zero weight entries are never evicted due to size
+                                return isPinned(value) ? 0 : (int) Math.min(Integer.MAX_VALUE, sizeOf(value));
+                            }
+                        }).removalListener(new RemovalListener<ArrayDescriptor, DataBuffer>() {
+                            @Override
+                            public void onRemoval(RemovalNotification<ArrayDescriptor, DataBuffer> notification) {
+                                bytes.addAndGet(-sizeOf(notification.getValue()));
+                            }
+                        }).recordStats().build();
+    }
 
     @Override
     public DataBuffer getConstantBuffer(int[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            // we always allow int arrays with length < 3. 99.9% it's just dimension array. we don't want to recreate them over and over
-            if (counter.get() < MAX_ENTRIES || array.length < 4) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-                bytes.addAndGet(array.length * 4);
-            }
-            return buffer;
+        DataBuffer buffer = buffersCache.getIfPresent(descriptor);
+        if (buffer == null) {
+            buffer = Nd4j.createBufferDetached(array);
+            // we always allow int arrays with length < 4. 99.9% it's just dimension array. we don't want to recreate them over and over
+            store(descriptor, buffer);
         }
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     /**
@@ -43,68 +90,120 @@ public class ConstantBuffersCache extends BasicConstantHandler {
      */
     @Override
     public void purgeConstants() {
-        buffersCache = new ConcurrentHashMap<>();
+        buffersCache.invalidateAll();
     }
 
     @Override
     public DataBuffer getConstantBuffer(float[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
+        DataBuffer buffer = buffersCache.getIfPresent(descriptor);
+        if (buffer == null) {
+            buffer = Nd4j.createBufferDetached(array);
+            store(descriptor, buffer);
         }
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public DataBuffer getConstantBuffer(double[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
+        DataBuffer buffer = buffersCache.getIfPresent(descriptor);
+        if (buffer == null) {
+            buffer = Nd4j.createBufferDetached(array);
+            store(descriptor, buffer);
         }
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public DataBuffer getConstantBuffer(long[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+        DataBuffer buffer = buffersCache.getIfPresent(descriptor);
+        if (buffer == null) {
+            buffer = Nd4j.createBufferDetached(array);
+            store(descriptor, buffer);
+        }
+
+        return buffer;
+    }
+
+    protected void store(ArrayDescriptor descriptor, DataBuffer buffer) {
+        if (!isPinned(buffer) && !admit(descriptor.hashCode())) {
+            rejected.incrementAndGet();
+            return;
+        }
 
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
+        bytes.addAndGet(sizeOf(buffer));
+        buffersCache.put(descriptor, buffer);
+    }
 
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
+    /**
+     * Returns true if this hash was seen since last reset of the filter, and marks it as seen otherwise
+     */
+    private boolean admit(int hash) {
+        int h1 = hash & (DOORKEEPER_BITS - 1);
+        int h2 = (hash * 0x9E3779B9 >>> 16) & (DOORKEEPER_BITS - 1);
+
+        boolean seen = isSet(h1) & isSet(h2);
+        if (!seen) {
+            set(h1);
+            set(h2);
+
+            // periodic reset keeps the filter from saturating, and ages out old requests
+            if (doorkeeperInsertions.incrementAndGet() >= DOORKEEPER_BITS / 8) {
+                doorkeeperInsertions.set(0);
+                for (int i = 0; i < doorkeeper.length(); i++)
+                    doorkeeper.set(i, 0L);
             }
-            return buffer;
         }
 
-        return buffersCache.get(descriptor);
+        return seen;
+    }
+
+    private boolean isSet(int bit) {
+        return (doorkeeper.get(bit >>> 6) & (1L << (bit & 63))) != 0;
+    }
+
+    private void set(int bit) {
+        int idx = bit >>> 6;
+        long mask = 1L << (bit & 63);
+        long current;
+        do {
+            current = doorkeeper.get(idx);
+        } while ((current & mask) == 0 && !doorkeeper.compareAndSet(idx, current, current | mask));
+    }
+
+    protected static boolean isPinned(DataBuffer buffer) {
+        return buffer.dataType() == DataBuffer.Type.INT && buffer.length() < 4;
+    }
+
+    protected static long sizeOf(DataBuffer buffer) {
+        return buffer.length() * buffer.getElementSize();
+    }
+
+    /**
+     * This method returns number of arrays that weren't cached because they were requested only once recently
+     *
+     * @return
+     */
+    public long getRejectedCount() {
+        return rejected.get();
     }
 
     @Override
     public long getCachedBytes() {
         return bytes.get();
     }
+
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        com.google.common.cache.CacheStats stats = buffersCache.stats();
+        return new CacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount(), buffersCache.size(),
+                        bytes.get(), maxBytes);
+    }
 }
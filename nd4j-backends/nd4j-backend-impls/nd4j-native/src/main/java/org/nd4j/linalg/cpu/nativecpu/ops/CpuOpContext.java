@@ -0,0 +1,158 @@
+package org.nd4j.linalg.cpu.nativecpu.ops;
+
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.LongPointer;
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.PointerPointer;
+import org.bytedeco.javacpp.ShortPointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.BaseOpContext;
+import org.nd4j.linalg.util.ArrayUtil;
+
+/**
+ * CPU {@link org.nd4j.linalg.api.ops.OpContext}: keeps buffer and shape pointers of bound arrays, and op arguments,
+ * in native memory, so {@link NativeOpExecutioner#exec(org.nd4j.linalg.api.ops.CustomOp, org.nd4j.linalg.api.ops.OpContext)}
+ * passes them to the op as is. Pointers are updated only for arguments that changed.
+ */
+public class CpuOpContext extends BaseOpContext {
+    private PointerPointer inputBuffers = new PointerPointer(4);
+    private PointerPointer inputShapes = new PointerPointer(4);
+    private PointerPointer outputBuffers = new PointerPointer(1);
+    private PointerPointer outputShapes = new PointerPointer(1);
+    private LongPointer iArguments;
+    private Pointer tArguments;
+    private DataBuffer.Type tArgumentsType;
+
+    @Override
+    protected void inputChanged(int index, INDArray array) {
+        if (index >= inputBuffers.capacity()) {
+            inputBuffers = grow(inputBuffers, index);
+            inputShapes = grow(inputShapes, index);
+        }
+
+        inputBuffers.put(index, array.data().addressPointer());
+        inputShapes.put(index, array.shapeInfoDataBuffer().addressPointer());
+    }
+
+    @Override
+    protected void outputChanged(int index, INDArray array) {
+        if (index >= outputBuffers.capacity()) {
+            outputBuffers = grow(outputBuffers, index);
+            outputShapes = grow(outputShapes, index);
+        }
+
+        outputBuffers.put(index, array.data().addressPointer());
+        outputShapes.put(index, array.shapeInfoDataBuffer().addressPointer());
+    }
+
+    @Override
+    protected void iArgumentsChanged(long[] arguments) {
+        if (iArguments != null)
+            iArguments.deallocate();
+
+        iArguments = arguments.length > 0 ? new LongPointer(arguments) : null;
+    }
+
+    @Override
+    protected void tArgumentsChanged(double[] arguments) {
+        if (tArguments != null)
+            tArguments.deallocate();
+
+        // converted on first use, since data type might change meanwhile
+        tArguments = null;
+        tArgumentsType = null;
+    }
+
+    public PointerPointer getInputBuffers() {
+        return inputBuffers;
+    }
+
+    public PointerPointer getInputShapes() {
+        return inputShapes;
+    }
+
+    public PointerPointer getOutputBuffers() {
+        return outputBuffers;
+    }
+
+    public PointerPointer getOutputShapes() {
+        return outputShapes;
+    }
+
+    public LongPointer getIArgumentsPointer() {
+        return iArguments;
+    }
+
+    /**
+     * This method returns floating point arguments converted to given data type
+     *
+     * @param type FLOAT, DOUBLE or HALF
+     * @return
+     */
+    public Pointer getTArgumentsPointer(DataBuffer.Type type) {
+        double[] arguments = getTArguments();
+        if (arguments.length == 0)
+            return null;
+
+        if (tArguments != null && tArgumentsType == type)
+            return tArguments;
+
+        if (tArguments != null)
+            tArguments.deallocate();
+
+        switch (type) {
+            case FLOAT: {
+                FloatPointer pointer = new FloatPointer(arguments.length);
+                for (int e = 0; e < arguments.length; e++)
+                    pointer.put(e, (float) arguments[e]);
+
+                tArguments = pointer;
+                break;
+            }
+            case DOUBLE:
+                tArguments = new DoublePointer(arguments);
+                break;
+            case HALF: {
+                ShortPointer pointer = new ShortPointer(arguments.length);
+                for (int e = 0; e < arguments.length; e++)
+                    pointer.put(e, ArrayUtil.toHalf(arguments[e]));
+
+                tArguments = pointer;
+                break;
+            }
+            default:
+                throw new UnsupportedOperationException("Unsupported data type: [" + type + "]");
+        }
+
+        tArgumentsType = type;
+        return tArguments;
+    }
+
+    @Override
+    public void close() {
+        inputBuffers.deallocate();
+        inputShapes.deallocate();
+        outputBuffers.deallocate();
+        outputShapes.deallocate();
+
+        if (iArguments != null)
+            iArguments.deallocate();
+
+        if (tArguments != null)
+            tArguments.deallocate();
+
+        iArguments = null;
+        tArguments = null;
+    }
+
+    private static PointerPointer grow(PointerPointer pointer, int index) {
+        PointerPointer ret = new PointerPointer(Math.max(index + 1, pointer.capacity() * 2));
+        for (int e = 0; e < pointer.capacity(); e++)
+            ret.put(e, pointer.get(e));
+
+        pointer.deallocate();
+        return ret;
+    }
+}
@@ -18,6 +18,7 @@ import org.nd4j.linalg.api.ops.*;
 import org.nd4j.linalg.api.ops.aggregates.Aggregate;
 import org.nd4j.linalg.api.ops.aggregates.Batch;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
+import org.nd4j.linalg.api.ops.executioner.ElementwiseFusion;
 import org.nd4j.linalg.api.ops.executioner.OpStatus;
 import org.nd4j.linalg.api.ops.impl.accum.MatchCondition;
 import org.nd4j.linalg.api.ops.impl.accum.Variance;
@@ -58,6 +59,8 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
     @Getter
     private CpuTADManager tadManager = new CpuTADManager();
 
+    public static final String FUSION_BLOCK_SIZE_PROPERTY = "org.nd4j.linalg.cpu.fusion.blocksize";
+
     private static final String DEBUG_ENABLED = "ND4J_DEBUG";
     private static final String VERBOSE = "ND4J_VERBOSE";
     //thread locals for custom op inputs and outputs to prevent allocations
@@ -73,6 +76,10 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
     protected Map<String, CustomOpDescriptor> customOps = null;
 
+    // number of elements processed by every op of fused chain before moving to the next block
+    private final Integer fusionBlockSizeOverride = Integer.getInteger(FUSION_BLOCK_SIZE_PROPERTY);
+    private volatile long fusionBlockSize;
+
     protected ThreadLocal<PointerPointer> extraz = new ThreadLocal<>();
 
     /**
@@ -84,6 +91,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
     public NativeOpExecutioner() {
         tadManager.init(loop, constantHandler);
+        updateFusionBlockSize(Nd4jCpu.ELEMENT_THRESHOLD);
 
         // Do not call System.getenv(): Accessing all variables requires higher security privileges
         if (System.getenv(DEBUG_ENABLED) != null) {
@@ -140,6 +148,117 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         return op;
     }
 
+    /**
+     * This method executes chains of fusible elementwise ops block by block:
+     * every block of elements goes through all ops of the chain while it's still in cache,
+     * so memory-bound chain makes a single pass over memory instead of one pass per op.
+     *
+     * By default a block holds one elements threshold per OpenMP thread, so every native call within a block
+     * still runs on all cores, and each core works on its own cache-sized part of the block.
+     * Block size can be overridden with "org.nd4j.linalg.cpu.fusion.blocksize" system property.
+     *
+     * @param ops
+     */
+    @Override
+    public void execFused(List<Op> ops) {
+        // per-op profiling needs ops to be executed one by one
+        if (executionMode() == ExecutionMode.JAVA
+                        || (profilingMode != ProfilingMode.DISABLED && profilingMode != ProfilingMode.SCOPE_PANIC)) {
+            super.execFused(ops);
+            return;
+        }
+
+        for (List<Op> chain : ElementwiseFusion.split(ops)) {
+            DataBuffer.Type type = chain.get(0).x() == null ? null : chain.get(0).x().data().dataType();
+            if (chain.size() < 2 || chain.get(0).x().lengthLong() <= fusionBlockSize
+                            || (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)) {
+                for (Op op : chain)
+                    exec(op);
+            } else {
+                execChain(chain, type == DataBuffer.Type.DOUBLE);
+            }
+        }
+    }
+
+    private void execChain(List<Op> chain, boolean isDouble) {
+        int size = chain.size();
+        Pointer[] x = new Pointer[size];
+        Pointer[] y = new Pointer[size];
+        Pointer[] z = new Pointer[size];
+        Pointer[] extraArgs = new Pointer[size];
+        long[] xPosition = new long[size];
+        long[] yPosition = new long[size];
+        long[] zPosition = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            Op op = chain.get(i);
+            validateDataType(Nd4j.dataType(), op);
+            profilingHookIn(op);
+
+            // separate pointer instances, so their positions can be moved independently
+            x[i] = blockPointer(op.x().data().addressPointer(), isDouble);
+            z[i] = blockPointer(op.z().data().addressPointer(), isDouble);
+            xPosition[i] = x[i].position();
+            zPosition[i] = z[i].position();
+            if (op.y() != null) {
+                y[i] = blockPointer(op.y().data().addressPointer(), isDouble);
+                yPosition[i] = y[i].position();
+            }
+
+            extraArgs[i] = getPointerForExtraArgs(op);
+        }
+
+        if (extraz.get() == null)
+            extraz.set(new PointerPointer(32));
+
+        PointerPointer dummy = extraz.get();
+
+        long n = chain.get(0).x().lengthLong();
+        for (long start = 0; start < n; start += fusionBlockSize) {
+            long length = Math.min(fusionBlockSize, n - start);
+
+            for (int i = 0; i < size; i++) {
+                Op op = chain.get(i);
+                x[i].position(xPosition[i] + start);
+                z[i].position(zPosition[i] + start);
+
+                if (op instanceof ScalarOp) {
+                    if (isDouble)
+                        loop.execScalarDouble(null, op.opNum(), (DoublePointer) x[i], 1, (DoublePointer) z[i], 1,
+                                        ((ScalarOp) op).scalar().doubleValue(), (DoublePointer) extraArgs[i], length);
+                    else
+                        loop.execScalarFloat(null, op.opNum(), (FloatPointer) x[i], 1, (FloatPointer) z[i], 1,
+                                        ((ScalarOp) op).scalar().floatValue(), (FloatPointer) extraArgs[i], length);
+                } else if (op.y() != null) {
+                    y[i].position(yPosition[i] + start);
+
+                    if (isDouble)
+                        loop.execPairwiseTransformDouble(dummy, op.opNum(), (DoublePointer) x[i], 1,
+                                        (DoublePointer) y[i], 1, (DoublePointer) z[i], 1,
+                                        (DoublePointer) extraArgs[i], length);
+                    else
+                        loop.execPairwiseTransformFloat(dummy, op.opNum(), (FloatPointer) x[i], 1,
+                                        (FloatPointer) y[i], 1, (FloatPointer) z[i], 1,
+                                        (FloatPointer) extraArgs[i], length);
+                } else {
+                    if (isDouble)
+                        loop.execTransformDouble(dummy, op.opNum(), (DoublePointer) x[i], 1, (DoublePointer) z[i], 1,
+                                        (DoublePointer) extraArgs[i], length);
+                    else
+                        loop.execTransformFloat(dummy, op.opNum(), (FloatPointer) x[i], 1, (FloatPointer) z[i], 1,
+                                        (FloatPointer) extraArgs[i], length);
+                }
+            }
+        }
+
+        for (Op op : chain)
+            profilingHookOut(op, 0L);
+    }
+
+    private static Pointer blockPointer(Pointer pointer, boolean isDouble) {
+        return isDouble ? new DoublePointer(pointer) : new FloatPointer(pointer);
+    }
+
 
     @Override
     public INDArray exec(IndexAccumulation op, int... dimension) {
@@ -1748,6 +1867,60 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         profilingHookOut(op, st);
     }
 
+    @Override
+    public OpContext buildContext() {
+        return new CpuOpContext();
+    }
+
+    /**
+     * This method executes given CustomOp with arguments bound to the context.
+     * Pointers kept by {@link CpuOpContext} are passed as is, so nothing is looked up or allocated here.
+     * Non-OK status throws ND4JIllegalStateException for every data type, DOUBLE included.
+     *
+     * PLEASE NOTE: You're responsible for input/output validation
+     * @param op
+     * @param context
+     */
+    @Override
+    public void exec(@NonNull CustomOp op, @NonNull OpContext context) {
+        if (!(context instanceof CpuOpContext)) {
+            super.exec(op, context);
+            return;
+        }
+
+        long st = profilingHookIn(op);
+
+        val ctx = (CpuOpContext) context;
+        if (ctx.numOutputArguments() == 0 && !op.isInplaceCall())
+            throw new ND4JIllegalStateException("Op name " + op.opName() +  " failed to execute. You can't execute non-inplace CustomOp without outputs being specified");
+
+        val type = Nd4j.dataType();
+        val numTArgs = ctx.getTArguments().length;
+        val numIArgs = ctx.getIArguments().length;
+
+        int status;
+        if (type == DataBuffer.Type.FLOAT) {
+            status = loop.execCustomOpFloat(null, op.opHash(), ctx.getInputBuffers(), ctx.getInputShapes(), ctx.numInputArguments(),
+                    ctx.getOutputBuffers(), ctx.getOutputShapes(), ctx.numOutputArguments(),
+                    (FloatPointer) ctx.getTArgumentsPointer(type), numTArgs, ctx.getIArgumentsPointer(), numIArgs, op.isInplaceCall());
+        } else if (type == DataBuffer.Type.DOUBLE) {
+            status = loop.execCustomOpDouble(null, op.opHash(), ctx.getInputBuffers(), ctx.getInputShapes(), ctx.numInputArguments(),
+                    ctx.getOutputBuffers(), ctx.getOutputShapes(), ctx.numOutputArguments(),
+                    (DoublePointer) ctx.getTArgumentsPointer(type), numTArgs, ctx.getIArgumentsPointer(), numIArgs, op.isInplaceCall());
+        } else if (type == DataBuffer.Type.HALF) {
+            status = loop.execCustomOpHalf(null, op.opHash(), ctx.getInputBuffers(), ctx.getInputShapes(), ctx.numInputArguments(),
+                    ctx.getOutputBuffers(), ctx.getOutputShapes(), ctx.numOutputArguments(),
+                    (ShortPointer) ctx.getTArgumentsPointer(type), numTArgs, ctx.getIArgumentsPointer(), numIArgs, op.isInplaceCall());
+        } else {
+            throw new UnsupportedOperationException("Unsupported data type: [" + type + "]");
+        }
+
+        if (OpStatus.byNumber(status) != OpStatus.ND4J_STATUS_OK)
+            throw new ND4JIllegalStateException("Op [" + op.opName() + "] execution failed: " + OpStatus.byNumber(status));
+
+        profilingHookOut(op, st);
+    }
+
     protected long[] getShapeFromPointer(LongPointer ptr) {
         val rank = (int) ptr.get(0);
         long[] array = new long[rank];
@@ -2016,6 +2189,21 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
     @Override
     public void setElementsThreshold(int threshold) {
         loop.setElementThreshold(threshold);
+        updateFusionBlockSize(threshold);
+    }
+
+    private void updateFusionBlockSize(int threshold) {
+        if (fusionBlockSizeOverride != null)
+            fusionBlockSize = Math.max(1, fusionBlockSizeOverride);
+        else
+            fusionBlockSize = (long) Math.max(1, threshold) * Math.max(1, loop.ompGetMaxThreads());
+    }
+
+    /**
+     * Number of elements in a block of fused chains, see {@link #execFused(List)}
+     */
+    long getFusionBlockSize() {
+        return fusionBlockSize;
     }
 
     /**
@@ -0,0 +1,64 @@
+package org.nd4j.linalg.cpu.nativecpu;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.cache.CacheStatistics;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.primitives.Pair;
+import org.nd4j.nativeblas.NativeOpsHolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CpuTADManagerTest {
+
+    private static CpuTADManager manager(long maxBytes) {
+        CpuTADManager manager = new CpuTADManager(maxBytes);
+        manager.init(NativeOpsHolder.getInstance().getDeviceNativeOps(), Nd4j.getConstantHandler());
+        return manager;
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        CpuTADManager manager = manager(CpuTADManager.DEFAULT_MAX_BYTES);
+        INDArray arr = Nd4j.create(7, 11, 13);
+
+        Pair<DataBuffer, DataBuffer> first = manager.getTADOnlyShapeInfo(arr, new int[] {0, 2});
+        CacheStatistics afterFirst = manager.getCacheStatistics();
+        assertEquals(0, afterFirst.getHits());
+        assertEquals(1, afterFirst.getMisses());
+        assertEquals(1, afterFirst.getEntries());
+
+        Pair<DataBuffer, DataBuffer> second = manager.getTADOnlyShapeInfo(arr, new int[] {0, 2});
+        CacheStatistics afterSecond = manager.getCacheStatistics();
+        assertTrue(first == second);
+        assertEquals(1, afterSecond.getHits());
+        assertEquals(1, afterSecond.getMisses());
+        assertEquals(CpuTADManager.sizeOf(first), afterSecond.getResidentBytes());
+    }
+
+    @Test
+    public void testEvictionWithinBudget() {
+        // every TAD below is 8 longs of shape info and 100 longs of offsets
+        long entryBytes = (8 + 100) * 8;
+        long maxBytes = 16 * entryBytes;
+        CpuTADManager manager = manager(maxBytes);
+
+        int requested = 64;
+        for (int i = 0; i < requested; i++) {
+            Pair<DataBuffer, DataBuffer> tad = manager.getTADOnlyShapeInfo(Nd4j.create(100, 10 + i), new int[] {1});
+            assertEquals(entryBytes, CpuTADManager.sizeOf(tad));
+        }
+
+        CacheStatistics stats = manager.getCacheStatistics();
+        assertEquals(requested, stats.getMisses());
+        assertTrue(stats.getEntries() > 0 && stats.getEntries() < requested);
+        assertEquals(requested - stats.getEntries(), stats.getEvictions());
+        assertEquals(stats.getEntries() * entryBytes, stats.getResidentBytes());
+        assertTrue(stats.getResidentBytes() <= maxBytes);
+
+        manager.purgeBuffers();
+        assertEquals(0, manager.getCacheStatistics().getResidentBytes());
+    }
+}
@@ -0,0 +1,80 @@
+package org.nd4j.linalg.cpu.nativecpu.cache;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.cache.CacheStatistics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConstantBuffersCacheTest {
+
+    private static double[] array(int seed) {
+        double[] ret = new double[16];
+        for (int i = 0; i < ret.length; i++)
+            ret[i] = seed * 100 + i;
+        return ret;
+    }
+
+    /**
+     * Constant buffers take backend's default data type, not necessarily DOUBLE
+     */
+    private static long sizeOf(DataBuffer buffer) {
+        return buffer.length() * buffer.getElementSize();
+    }
+
+    @Test
+    public void testAdmissionAndHits() {
+        ConstantBuffersCache cache = new ConstantBuffersCache(ConstantBuffersCache.DEFAULT_MAX_BYTES);
+
+        // requested once: served, but not admitted
+        cache.getConstantBuffer(array(1));
+        CacheStatistics stats = cache.getCacheStatistics();
+        assertEquals(0, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0, stats.getEntries());
+        assertEquals(1, cache.getRejectedCount());
+
+        // requested twice: admitted
+        DataBuffer admitted = cache.getConstantBuffer(array(1));
+        stats = cache.getCacheStatistics();
+        assertEquals(0, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getEntries());
+        assertEquals(sizeOf(admitted), stats.getResidentBytes());
+
+        // requested again: served from cache
+        DataBuffer cached = cache.getConstantBuffer(array(1));
+        stats = cache.getCacheStatistics();
+        assertTrue(admitted == cached);
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    public void testEvictionWithinBudget() {
+        ConstantBuffersCache probe = new ConstantBuffersCache(ConstantBuffersCache.DEFAULT_MAX_BYTES);
+        long entryBytes = sizeOf(probe.getConstantBuffer(array(0)));
+        long maxBytes = 16 * entryBytes;
+        ConstantBuffersCache cache = new ConstantBuffersCache(maxBytes);
+
+        DataBuffer first = null;
+        int requested = 64;
+        for (int i = 0; i < requested; i++) {
+            cache.getConstantBuffer(array(i));
+            DataBuffer buffer = cache.getConstantBuffer(array(i));
+            if (i == 0)
+                first = buffer;
+        }
+
+        CacheStatistics stats = cache.getCacheStatistics();
+        assertTrue(stats.getEvictions() > 0);
+        assertTrue(stats.getEntries() > 0 && stats.getEntries() < requested);
+        assertEquals(stats.getEntries() * entryBytes, stats.getResidentBytes());
+        assertTrue(stats.getResidentBytes() <= maxBytes);
+
+        // eviction only drops the cache's reference: buffer held by caller stays valid
+        assertArrayEquals(array(0), first.asDouble(), 0.0);
+    }
+}
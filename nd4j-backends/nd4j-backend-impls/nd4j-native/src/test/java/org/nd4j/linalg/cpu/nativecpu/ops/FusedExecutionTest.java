@@ -0,0 +1,156 @@
+package org.nd4j.linalg.cpu.nativecpu.ops;
+
+import org.junit.After;
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.executioner.ElementwiseFusion;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarAdd;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarMultiplication;
+import org.nd4j.linalg.api.ops.impl.transforms.IsMax;
+import org.nd4j.linalg.api.ops.impl.transforms.OldSoftMax;
+import org.nd4j.linalg.api.ops.impl.transforms.Pow;
+import org.nd4j.linalg.api.ops.impl.transforms.Sigmoid;
+import org.nd4j.linalg.api.ops.impl.transforms.Tanh;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.OldAddOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.OldMulOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.OldSubOp;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.nd4j.linalg.indexing.NDArrayIndex.all;
+import static org.nd4j.linalg.indexing.NDArrayIndex.interval;
+
+/**
+ * Fused elementwise chains on CPU: results have to match op-by-op execution exactly
+ */
+public class FusedExecutionTest {
+    private final DataBuffer.Type initialType = Nd4j.dataType();
+
+    @After
+    public void tearDown() {
+        DataTypeUtil.setDTypeForContext(initialType);
+    }
+
+    @Test
+    public void testChainsShorterAndLongerThanBlock() {
+        long blockSize = ((NativeOpExecutioner) Nd4j.getExecutioner()).getFusionBlockSize();
+
+        for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.FLOAT, DataBuffer.Type.DOUBLE}) {
+            DataTypeUtil.setDTypeForContext(type);
+
+            // last block of the longer chain is partial
+            for (long length : new long[] {Math.max(2, blockSize / 2), 2 * blockSize + 17}) {
+                INDArray x = Nd4j.rand(1, (int) length);
+                INDArray y = Nd4j.rand(1, (int) length);
+
+                INDArray zFused = Nd4j.create(1, (int) length);
+                INDArray wFused = Nd4j.create(1, (int) length);
+                List<Op> fused = pairwiseChain(x.dup(), y, zFused, wFused);
+                assertEquals(1, ElementwiseFusion.split(fused).size());
+                Nd4j.getExecutioner().execFused(fused);
+
+                INDArray zPlain = Nd4j.create(1, (int) length);
+                INDArray wPlain = Nd4j.create(1, (int) length);
+                execPlain(pairwiseChain(x.dup(), y, zPlain, wPlain));
+
+                String msg = type + ", length " + length;
+                assertBitwiseEquals(msg, zPlain, zFused);
+                assertBitwiseEquals(msg, wPlain, wFused);
+            }
+        }
+    }
+
+    @Test
+    public void testSplitBreaksChains() {
+        // long enough for fused execution of chains that remain
+        int columns = (int) ((NativeOpExecutioner) Nd4j.getExecutioner()).getFusionBlockSize() + 9;
+
+        for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.FLOAT, DataBuffer.Type.DOUBLE}) {
+            DataTypeUtil.setDTypeForContext(type);
+
+            INDArray a = Nd4j.rand(2, columns);
+            INDArray b = Nd4j.rand(2, columns);
+            INDArray viewBase = Nd4j.rand(4, columns);
+            INDArray f = Nd4j.rand(new int[] {2, columns}, 'f');
+            INDArray shorter = Nd4j.rand(2, columns / 2);
+
+            INDArray a2 = a.dup(), b2 = b.dup(), viewBase2 = viewBase.dup(), f2 = f.dup('f'), shorter2 = shorter.dup();
+
+            List<Op> ops = mixedOps(a, b, viewBase.get(interval(1, 3), all()), f, shorter);
+            List<List<Op>> groups = ElementwiseFusion.split(ops);
+
+            // [mul, sigmoid] [isMax] [add, pow] [softmax] [view] ['f' order] [other length x2] [tanh, add] [pow(y)]
+            int[] sizes = new int[groups.size()];
+            for (int i = 0; i < sizes.length; i++)
+                sizes[i] = groups.get(i).size();
+            assertArrayEquals(new int[] {2, 1, 2, 1, 1, 1, 2, 2, 1}, sizes);
+
+            int k = 0;
+            for (List<Op> group : groups)
+                for (Op op : group)
+                    assertSame(ops.get(k++), op);
+
+            Nd4j.getExecutioner().execFused(ops);
+            execPlain(mixedOps(a2, b2, viewBase2.get(interval(1, 3), all()), f2, shorter2));
+
+            assertBitwiseEquals(type + ", a", a2, a);
+            assertBitwiseEquals(type + ", b", b2, b);
+            assertBitwiseEquals(type + ", view", viewBase2, viewBase);
+            assertBitwiseEquals(type + ", f", f2, f);
+            assertBitwiseEquals(type + ", shorter", shorter2, shorter);
+        }
+    }
+
+    /**
+     * Pairwise ops reading separate y, and writing arrays other than x
+     */
+    private static List<Op> pairwiseChain(INDArray x, INDArray y, INDArray z, INDArray w) {
+        List<Op> ops = new ArrayList<>();
+        ops.add(new ScalarMultiplication(x, 0.5));
+        ops.add(new OldAddOp(x, y, z));
+        ops.add(new Sigmoid(z));
+        ops.add(new OldMulOp(z, y, w));
+        ops.add(new OldSubOp(w, x, w));
+        ops.add(new ScalarAdd(w, -0.5));
+        return ops;
+    }
+
+    private static List<Op> mixedOps(INDArray a, INDArray b, INDArray view, INDArray f, INDArray shorter) {
+        List<Op> ops = new ArrayList<>();
+        ops.add(new ScalarMultiplication(a, 2.0));
+        ops.add(new Sigmoid(a));
+        // special execution
+        ops.add(new IsMax(b));
+        ops.add(new ScalarAdd(a, 1.0));
+        // pow with scalar power is elementwise
+        ops.add(new Pow(a, 2.0));
+        ops.add(new OldSoftMax(b));
+        // views, other order, other length
+        ops.add(new Sigmoid(view));
+        ops.add(new Tanh(f));
+        ops.add(new Sigmoid(shorter));
+        ops.add(new ScalarMultiplication(shorter, 3.0));
+        ops.add(new Tanh(a));
+        ops.add(new ScalarAdd(a, -1.0));
+        // pow with array of powers isn't
+        ops.add(new Pow(a, b, a, a.lengthLong(), 2.0));
+        return ops;
+    }
+
+    private static void execPlain(List<Op> ops) {
+        for (Op op : ops)
+            Nd4j.getExecutioner().exec(op);
+    }
+
+    private static void assertBitwiseEquals(String msg, INDArray expected, INDArray actual) {
+        assertArrayEquals(msg, expected.data().asDouble(), actual.data().asDouble(), 0.0);
+    }
+}
@@ -0,0 +1,75 @@
+package org.nd4j.autodiff.execution;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.autodiff.samediff.SDVariable;
+import org.nd4j.autodiff.samediff.SameDiff;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class BatchedInferenceSessionTest extends BaseNd4jTest {
+
+    public BatchedInferenceSessionTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testRequestsAreBatched() throws Exception {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable in = sameDiff.var("in", new long[]{-1, 4});
+        SDVariable out = sameDiff.tanh("out", in.mul(2.0));
+
+        List<INDArray> inputs = new ArrayList<>();
+        List<Future<Map<String, INDArray>>> results = new ArrayList<>();
+        try (BatchedInferenceSession session = new BatchedInferenceSession(sameDiff, 8, 1000, out.getVarName())) {
+            for (int i = 0; i < 8; i++) {
+                INDArray input = Nd4j.linspace(i, i + 1, 4).reshape(1, 4);
+                inputs.add(input);
+                results.add(session.submit(Collections.singletonMap("in", input)));
+            }
+
+            for (int i = 0; i < 8; i++)
+                assertEquals(Transforms.tanh(inputs.get(i).mul(2.0)), results.get(i).get().get("out"));
+
+            // batch was filled up before max wait time passed
+            assertEquals(1, session.getNumBatches());
+            assertEquals(8, session.getNumRequests());
+
+            assertEquals(0, session.getNumPaddedExamples());
+
+            // single request runs at its own size, not at max batch size
+            INDArray input = Nd4j.linspace(-1, 1, 8).reshape(2, 4);
+            INDArray output = session.output(Collections.singletonMap("in", input)).get("out");
+            assertArrayEquals(new long[]{2, 4}, output.shape());
+            assertEquals(Transforms.tanh(input.mul(2.0)), output);
+            assertEquals(2, session.getNumBatches());
+            assertEquals(0, session.getNumPaddedExamples());
+
+            // 3 examples are padded up to the next power of two only
+            input = Nd4j.linspace(-1, 1, 12).reshape(3, 4);
+            output = session.output(Collections.singletonMap("in", input)).get("out");
+            assertArrayEquals(new long[]{3, 4}, output.shape());
+            assertEquals(Transforms.tanh(input.mul(2.0)), output);
+            assertEquals(3, session.getNumBatches());
+            assertEquals(1, session.getNumPaddedExamples());
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
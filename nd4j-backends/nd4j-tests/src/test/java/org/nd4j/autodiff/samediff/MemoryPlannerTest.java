@@ -0,0 +1,142 @@
+package org.nd4j.autodiff.samediff;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.autodiff.samediff.memory.MemoryPlan;
+import org.nd4j.autodiff.samediff.memory.MemoryPlanner;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.shape.Reshape;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class MemoryPlannerTest extends BaseNd4jTest {
+
+    public MemoryPlannerTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testChainReusesMemory() {
+        List<String[]> inputs = Arrays.asList(new String[] {"x"}, new String[] {"a"}, new String[] {"b"},
+                        new String[] {"c"});
+        List<String[]> outputs = Arrays.asList(new String[] {"a"}, new String[] {"b"}, new String[] {"c"},
+                        new String[] {"d"});
+
+        Map<String, Long> lengths = new HashMap<>();
+        for (String name : new String[] {"a", "b", "c", "d"})
+            lengths.put(name, 1024L);
+
+        MemoryPlan plan = MemoryPlanner.plan(inputs, outputs, lengths, Collections.singleton("d"), 4);
+
+        assertEquals(3, plan.numPlanned());
+        assertFalse(plan.isPlanned("d"));
+
+        // a and c are never live at the same time
+        assertEquals(plan.getOffset("a"), plan.getOffset("c"));
+        assertNotEquals(plan.getOffset("a"), plan.getOffset("b"));
+        assertEquals(2048L, plan.getArenaLength());
+        assertEquals(3072L, plan.getTotalLength());
+
+        assertEquals(Collections.singletonList("a"), plan.getReleasedAfter(1));
+        assertEquals(Collections.singletonList("c"), plan.getReleasedAfter(3));
+    }
+
+    @Test
+    public void testLiveBuffersDontOverlap() {
+        // a and b are both consumed by the last op
+        List<String[]> inputs = Arrays.asList(new String[] {"x"}, new String[] {"x"}, new String[] {"a", "b"});
+        List<String[]> outputs = Arrays.asList(new String[] {"a"}, new String[] {"b"}, new String[] {"c"});
+
+        Map<String, Long> lengths = new HashMap<>();
+        lengths.put("a", 100L);
+        lengths.put("b", 30L);
+        lengths.put("c", 50L);
+
+        MemoryPlan plan = MemoryPlanner.plan(inputs, outputs, lengths, Collections.<String>emptySet(), 8);
+
+        long a = plan.getOffset("a"), b = plan.getOffset("b"), c = plan.getOffset("c");
+        assertTrue(a + plan.getLength("a") <= b || b + plan.getLength("b") <= a);
+        assertTrue(a + plan.getLength("a") <= c || c + plan.getLength("c") <= a);
+        assertTrue(b + plan.getLength("b") <= c || c + plan.getLength("c") <= b);
+
+        // offsets are aligned
+        assertEquals(0, a % (MemoryPlanner.ALIGNMENT_BYTES / 8));
+        assertEquals(0, b % (MemoryPlanner.ALIGNMENT_BYTES / 8));
+        assertEquals(0, c % (MemoryPlanner.ALIGNMENT_BYTES / 8));
+    }
+
+    @Test
+    public void testExecWithPlan() {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable x = sameDiff.var("x", Nd4j.linspace(1, 12, 12).reshape('c', 3, 4));
+
+        SDVariable h = x.mul(0.1);
+        for (int i = 0; i < 6; i++)
+            h = sameDiff.tanh(sameDiff.sigmoid(h)).add(1.0);
+
+        String output = h.getVarName();
+
+        INDArray expected = sameDiff.execAndEndResult().dup();
+
+        for (int i = 0; i < 3; i++) {
+            Map<String, INDArray> result = sameDiff.execWithPlan(Collections.<String, INDArray>emptyMap(), output);
+            assertEquals(expected, result.get(output));
+        }
+
+        MemoryPlan plan = sameDiff.getLastMemoryPlan();
+        assertNotNull(plan);
+        assertTrue(plan.getArenaBytes() < plan.getTotalBytes());
+
+        // regular execution still works after planned one
+        assertEquals(expected, sameDiff.execAndEndResult());
+    }
+
+    @Test
+    public void testExecWithPlanResolvesProperties() {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable shapeBase = sameDiff.var("shapeBase", Nd4j.create(new double[] {3, 4}));
+        SDVariable x = sameDiff.var("x", Nd4j.linspace(1, 12, 12).reshape('c', 2, 6));
+
+        // shape is an intermediate result, only read by reshape while resolving its properties
+        SDVariable shape = shapeBase.mul(1.0);
+        SDVariable scaled = x.mul(0.1);
+        Reshape reshape = new Reshape(sameDiff, scaled, shape);
+        SDVariable reshaped = reshape.outputVariables()[0];
+        sameDiff.putShapeForVarName(reshaped.getVarName(), new long[] {3, 4});
+        SDVariable h = sameDiff.tanh(reshaped);
+        String output = h.getVarName();
+
+        INDArray planned = sameDiff.execWithPlan(Collections.<String, INDArray>emptyMap(), output).get(output).dup();
+        assertArrayEquals(new long[] {'c', 3, 4}, reshape.iArgs());
+        assertArrayEquals(new long[] {3, 4}, planned.shape());
+
+        // shape stays alive until reshape has run
+        MemoryPlan plan = sameDiff.getLastMemoryPlan();
+        assertTrue(plan.isPlanned(shape.getVarName()));
+        assertFalse(plan.getReleasedAfter(0).contains(shape.getVarName()));
+        assertFalse(plan.getReleasedAfter(1).contains(shape.getVarName()));
+
+        INDArray expected = sameDiff.execAndEndResult();
+        assertEquals(expected, planned);
+
+        // resolving again doesn't pile up arguments
+        assertArrayEquals(new long[] {'c', 3, 4}, reshape.iArgs());
+        assertEquals(expected, sameDiff.execWithPlan(Collections.<String, INDArray>emptyMap(), output).get(output));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
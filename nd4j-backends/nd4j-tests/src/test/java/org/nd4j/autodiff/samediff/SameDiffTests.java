@@ -6,10 +6,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.graph.FlatGraph;
+import org.nd4j.graph.FlatNode;
 import org.nd4j.linalg.activations.Activation;
 import org.nd4j.linalg.api.blas.params.MMulTranspose;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.CustomOp;
 import org.nd4j.linalg.api.ops.Op;
 import org.nd4j.linalg.api.ops.impl.accum.distances.*;
 import org.nd4j.linalg.api.ops.impl.controlflow.While;
@@ -31,7 +34,9 @@ import org.nd4j.weightinit.impl.OneInitScheme;
 import org.nd4j.weightinit.impl.UniformInitScheme;
 import org.nd4j.weightinit.impl.ZeroInitScheme;
 
+import java.io.File;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -2051,6 +2056,281 @@ public class SameDiffTests {
     }
 
 
+    @Test
+    public void testParallelExec() {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable x = sameDiff.var("x", Nd4j.linspace(1, 12, 12).reshape('c', 3, 4));
+
+        // independent branches, joined at the end
+        SDVariable a = sameDiff.sigmoid(x);
+        SDVariable b = sameDiff.tanh(x);
+        SDVariable c = sameDiff.exp(x.mul(0.1));
+        SDVariable d = a.add(b).mul(c);
+
+        List<DifferentialFunction> ops = sameDiff.exec().getRight();
+        INDArray expected = d.getArr().dup();
+
+        d.getArr().assign(0.0);
+        INDArray output = sameDiff.exec(ops, 4).get(ops.size() - 1).outputVariables()[0].getArr();
+        assertEquals(expected, output);
+    }
+
+    @Test
+    public void testExecListMixedOps() {
+        SameDiff sameDiff = SameDiff.create();
+        INDArray xArr = Nd4j.linspace(1, 12, 12).reshape('c', 3, 4).divi(12);
+        INDArray wArr = Nd4j.linspace(1, 8, 8).reshape('c', 4, 2);
+        SDVariable x = sameDiff.var("x", xArr);
+        SDVariable w = sameDiff.var("w", wArr);
+
+        // elementwise chains before and after a custom op
+        SDVariable h = sameDiff.sigmoid(x.mul(2.0)).add(1.0);
+        SDVariable out = sameDiff.tanh(sameDiff.mmul(h, w)).mul(0.5);
+
+        INDArray expected = Transforms.tanh(Transforms.sigmoid(xArr.mul(2.0)).addi(1.0).mmul(wArr)).muli(0.5);
+
+        List<DifferentialFunction> ops = sameDiff.exec().getRight();
+        boolean hasCustom = false, hasLegacy = false;
+        for (DifferentialFunction op : ops) {
+            hasCustom |= op instanceof CustomOp;
+            hasLegacy |= op instanceof Op;
+        }
+        assertTrue(hasCustom && hasLegacy);
+        assertEquals(expected, out.getArr());
+
+        out.getArr().assign(0.0);
+        sameDiff.exec(ops);
+        assertEquals(expected, out.getArr());
+        assertEquals(xArr, sameDiff.getArrForVarName("x"));
+    }
+
+    @Test
+    public void testParallelExecInPlace() {
+        SameDiff sameDiff = SameDiff.create();
+        INDArray ones = Nd4j.ones(4);
+        SDVariable sdVariable = sameDiff.var("ones", ones);
+        SDVariable result = sdVariable.addi(1.0);
+        SDVariable total = sameDiff.sum(result, Integer.MAX_VALUE);
+        List<DifferentialFunction> ops = sameDiff.exec().getRight();
+        for (int i = 0; i < 5; i++)
+            sameDiff.exec(ops, 4);
+
+        assertEquals(Nd4j.valueArrayOf(4, 7), ones);
+        assertEquals(28, total.getArr().getDouble(0), 1e-1);
+    }
+
+    @Test
+    public void testGraphOptimizer() {
+        SameDiff sameDiff = SameDiff.create();
+        INDArray xArr = Nd4j.linspace(1, 12, 12).reshape('c', 3, 4);
+        INDArray wArr = Nd4j.linspace(1, 8, 8).reshape('c', 4, 2);
+        SDVariable x = sameDiff.var("x", xArr);
+        SDVariable w = sameDiff.var("w", wArr);
+        SDVariable out = sameDiff.tanh(sameDiff.mmul(x, w.mul(0.5)));
+        SDVariable unused = sameDiff.sigmoid(w);
+
+        INDArray expected = Transforms.tanh(xArr.mmul(wArr.mul(0.5)));
+
+        // everything depends on constants only, so nothing is left to execute
+        GraphOptimizer.optimize(sameDiff, out.getVarName());
+        assertEquals(0, sameDiff.functions().length);
+        assertNull(sameDiff.getVariable(unused.getVarName()));
+        assertNull(sameDiff.getVariable("w"));
+        assertEquals(expected, sameDiff.getArrForVarName(out.getVarName()));
+    }
+
+    @Test
+    public void testGraphOptimizerInPlace() {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable ones = sameDiff.var("ones", Nd4j.ones(4));
+        SDVariable result = ones.addi(1.0);
+        SDVariable total = sameDiff.sum(result, Integer.MAX_VALUE);
+
+        // variable modified in place isn't a constant
+        assertEquals(0, GraphOptimizer.foldConstants(sameDiff));
+        assertEquals(0, GraphOptimizer.prune(sameDiff, total.getVarName()));
+        assertEquals(2, sameDiff.functions().length);
+    }
+
+    @Test
+    public void testFlatFileWithMappedWeights() throws Exception {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable x = sameDiff.var("x", Nd4j.linspace(1, 12, 12).reshape('c', 3, 4));
+        SDVariable w = sameDiff.var("w", Nd4j.linspace(-1, 1, 20).reshape('c', 4, 5));
+        SDVariable out = sameDiff.sigmoid(sameDiff.mmul(x, w)).add(0.5);
+        INDArray expected = sameDiff.execAndEndResult().dup();
+
+        File graphFile = File.createTempFile("samediff", ".fb");
+        File weightsFile = File.createTempFile("samediff", ".weights");
+        graphFile.deleteOnExit();
+        weightsFile.deleteOnExit();
+
+        sameDiff.asFlatFile(graphFile, weightsFile, 0);
+
+        // arrays are stored outside of the graph, so it can't be restored without weights
+        try {
+            SameDiff.fromFlatFile(graphFile);
+            fail("Graph shouldn't be restored without weights");
+        } catch (ND4JIllegalStateException e) {
+            // expected
+        }
+
+        SameDiff restored = SameDiff.fromFlatFile(graphFile, weightsFile);
+        assertEquals(sameDiff.getVariable("w").getArr(), restored.getVariable("w").getArr());
+
+        restored.exec();
+        assertEquals(expected, restored.getVariable(out.getVarName()).getArr());
+    }
+
+    @Test
+    public void testFlatBuffersRoundTrip() {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable x = sameDiff.var("x", Nd4j.linspace(1, 12, 12).reshape('c', 3, 4));
+        SDVariable out = sameDiff.sum(sameDiff.tanh(x).mul(2.0), 1);
+        INDArray expected = sameDiff.execAndEndResult().dup();
+
+        ByteBuffer fb = sameDiff.asFlatBuffers();
+
+        // op names and outputs are stored in their own fields, not as properties
+        FlatGraph graph = FlatGraph.getRootAsFlatGraph(fb);
+        for (int i = 0; i < graph.nodesLength(); i++) {
+            FlatNode node = graph.nodes(i);
+            assertEquals(0, node.propertiesLength());
+            assertNotNull(node.opName());
+            assertEquals(node.name(), node.outputNames(0));
+        }
+
+        SameDiff restored = SameDiff.fromFlatBuffers(fb);
+        restored.exec();
+        assertEquals(expected, restored.getVariable(out.getVarName()).getArr());
+    }
+
+    @Test
+    public void testExecBackwardsWithCheckpoints() {
+        INDArray xArr = Nd4j.linspace(-1, 1, 12).reshape('c', 3, 4);
+        INDArray w1Arr = Nd4j.linspace(-1, 1, 20).reshape('c', 4, 5);
+        INDArray w2Arr = Nd4j.linspace(-1, 1, 25).reshape('c', 5, 5);
+        INDArray w3Arr = Nd4j.linspace(-1, 1, 10).reshape('c', 5, 2);
+
+        SameDiff[] graphs = new SameDiff[3];
+        for (int i = 0; i < graphs.length; i++) {
+            SameDiff sd = SameDiff.create();
+            SDVariable x = sd.var("x", xArr.dup());
+            SDVariable w1 = sd.var("w1", w1Arr.dup());
+            SDVariable w2 = sd.var("w2", w2Arr.dup());
+            SDVariable w3 = sd.var("w3", w3Arr.dup());
+            SDVariable h1 = sd.tanh("h1", sd.mmul("m1", x, w1));
+            SDVariable h2 = sd.sigmoid("h2", sd.mmul("m2", h1, w2));
+            SDVariable h3 = sd.tanh("h3", sd.mmul("m3", h2, w3));
+            sd.sum("loss", h3, Integer.MAX_VALUE);
+            graphs[i] = sd;
+        }
+
+        graphs[0].execBackwards();
+        graphs[1].execBackwardsWithCheckpoints("h2");
+        graphs[2].execBackwardsWithCheckpoints();
+
+        SameDiff expected = graphs[0].getFunction("grad");
+        for (int i = 1; i < graphs.length; i++) {
+            SameDiff grad = graphs[i].getFunction("grad");
+            for (String name : new String[] {"x", "w1", "w2", "w3"})
+                assertEquals(name, expected.getGradForVariable(name).getArr(),
+                                grad.getGradForVariable(name).getArr());
+        }
+
+        // only checkpoint activation is kept after backward pass
+        SameDiff grad = graphs[1].getFunction("grad");
+        assertNotNull(grad.getArrForVarName("h2"));
+        assertNull(grad.getArrForVarName("m1"));
+        assertNull(grad.getArrForVarName("h1"));
+    }
+
+    @Test
+    public void testSharedWeightsInference() throws Exception {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable in = sameDiff.var("in", new long[]{-1, 4});
+        INDArray wArr = Nd4j.linspace(-1, 1, 12).reshape('c', 4, 3);
+        SDVariable w = sameDiff.var("w", wArr);
+        SDVariable out = sameDiff.sigmoid("out", sameDiff.mmul("mmul", in, w));
+
+        final SharedWeightsInference inference = new SharedWeightsInference(sameDiff, out.getVarName());
+        final INDArray[] inputs = new INDArray[4];
+        final INDArray[] outputs = new INDArray[inputs.length];
+        final SameDiff[] replicas = new SameDiff[inputs.length];
+        Thread[] threads = new Thread[inputs.length];
+        for (int i = 0; i < threads.length; i++) {
+            inputs[i] = Nd4j.linspace(i, i + 1, 8).reshape('c', 2, 4);
+            final int idx = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int e = 0; e < 10; e++)
+                        outputs[idx] = inference.output(Collections.singletonMap("in", inputs[idx])).get("out");
+
+                    replicas[idx] = inference.replica();
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(threads.length, inference.getNumReplicas());
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals(Transforms.sigmoid(inputs[i].mmul(wArr)), outputs[i]);
+
+            // every thread executed its own replica, backed by the very same weights array
+            assertTrue(replicas[i] != sameDiff);
+            for (int j = 0; j < i; j++)
+                assertTrue(replicas[i] != replicas[j]);
+
+            assertTrue(wArr == replicas[i].getArrForVarName("w"));
+        }
+
+        // current thread gets a replica of its own, until it's released
+        INDArray input = Nd4j.linspace(-1, 1, 8).reshape('c', 2, 4);
+        assertEquals(Transforms.sigmoid(input.mmul(wArr)), inference.output(Collections.singletonMap("in", input)).get("out"));
+        assertEquals(threads.length + 1, inference.getNumReplicas());
+        inference.release();
+        assertEquals(threads.length, inference.getNumReplicas());
+
+        inference.close();
+        assertEquals(0, inference.getNumReplicas());
+        assertTrue(wArr == sameDiff.getArrForVarName("w"));
+    }
+
+    @Test
+    public void testReleaseThreadResources() {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable in = sameDiff.var("in", new long[]{-1, 4});
+        INDArray wArr = Nd4j.linspace(-1, 1, 12).reshape('c', 4, 3);
+        SDVariable w = sameDiff.var("w", wArr);
+        SDVariable out = sameDiff.sigmoid("out", sameDiff.mmul("mmul", in, w));
+
+        INDArray input = Nd4j.linspace(0, 1, 8).reshape('c', 2, 4);
+        INDArray expected = Transforms.sigmoid(input.mmul(wArr));
+        INDArray first = sameDiff.execWithPlan(Collections.singletonMap("in", input), out.getVarName()).get("out");
+        assertEquals(expected, first);
+
+        // op contexts and plan workspace are dropped, then created again on next call
+        sameDiff.releaseThreadResources();
+        assertEquals(expected, first);
+        assertEquals(expected, sameDiff.execWithPlan(Collections.singletonMap("in", input), out.getVarName()).get("out"));
+    }
+
+    @Test(expected = ND4JIllegalStateException.class)
+    public void testSharedWeightsInferenceClosed() {
+        SameDiff sameDiff = SameDiff.create();
+        SDVariable in = sameDiff.var("in", new long[]{-1, 4});
+        SDVariable out = sameDiff.sigmoid("out", in);
+
+        SharedWeightsInference inference = new SharedWeightsInference(sameDiff, out.getVarName());
+        inference.close();
+        inference.output(Collections.singletonMap("in", Nd4j.ones(2, 4)));
+    }
+
+
     @Test
     public void testDenseLayerForwardPass() {
         Nd4j.getRandom().setSeed(12345);
@@ -1,5 +1,6 @@
 package org.nd4j.imports;
 
+import com.github.os72.protobuf351.ByteString;
 import com.google.flatbuffers.FlatBufferBuilder;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -8,12 +9,19 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.graph.FlatArray;
+import org.nd4j.imports.graphmapper.tf.TFGraphMapper;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.nativeblas.NativeOpsHolder;
+import org.tensorflow.framework.DataType;
+import org.tensorflow.framework.TensorProto;
+import org.tensorflow.framework.TensorShapeProto;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -131,6 +139,33 @@ public class ByteOrderTests  extends BaseNd4jTest {
         assertEquals(scalar, restored);
     }
 
+    @Test
+    public void testTensorContentOrder() {
+        val expected = Nd4j.linspace(1, 6, 6).reshape('c', 2, 3);
+
+        // tensor content is always little endian
+        val floats = ByteBuffer.allocate(6 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        val ints = ByteBuffer.allocate(6 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        val longs = ByteBuffer.allocate(6 * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int e = 1; e <= 6; e++) {
+            floats.putFloat(e);
+            ints.putInt(e);
+            longs.putLong(e);
+        }
+
+        val shape = TensorShapeProto.newBuilder()
+                        .addDim(TensorShapeProto.Dim.newBuilder().setSize(2))
+                        .addDim(TensorShapeProto.Dim.newBuilder().setSize(3)).build();
+
+        for (val pair : new Object[][] {{DataType.DT_FLOAT, floats}, {DataType.DT_INT32, ints}, {DataType.DT_INT64, longs}}) {
+            val tensor = TensorProto.newBuilder().setDtype((DataType) pair[0]).setTensorShape(shape)
+                            .setTensorContent(ByteString.copyFrom(((ByteBuffer) pair[1]).array())).build();
+
+            val restored = TFGraphMapper.getInstance().mapTensorProto(tensor);
+            assertEquals(pair[0].toString(), expected, restored);
+        }
+    }
+
     @Override
     public char ordering() {
         return 'c';
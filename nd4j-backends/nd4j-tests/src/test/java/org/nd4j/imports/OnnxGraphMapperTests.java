@@ -1,19 +1,33 @@
 package org.nd4j.imports;
 
+import com.github.os72.protobuf351.ByteString;
+import com.github.os72.protobuf351.UnknownFieldSet;
 import lombok.val;
 import onnx.OnnxProto3;
 import org.junit.After;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.nd4j.imports.graphmapper.onnx.OnnxGraphMapper;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.io.ClassPathResource;
 import org.nd4j.nativeblas.NativeOpsHolder;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assume.assumeNotNull;
 
 public class OnnxGraphMapperTests {
 
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
     @After
     public void tearDown() throws Exception {
         NativeOpsHolder.getInstance().getDeviceNativeOps().enableDebugMode(false);
@@ -42,6 +56,92 @@ public class OnnxGraphMapperTests {
 
     }
 
+    @Test
+    public void testTensorData() {
+        val expected = Nd4j.linspace(1, 6, 6).reshape('c', 2, 3);
+
+        // raw data is always little endian
+        val floats = ByteBuffer.allocate(6 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        val longs = ByteBuffer.allocate(6 * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int e = 1; e <= 6; e++) {
+            floats.putFloat(e);
+            longs.putLong(e);
+        }
+
+        val rawFloats = OnnxProto3.TensorProto.newBuilder().setName("floats").addDims(2).addDims(3)
+                .setDataType(OnnxProto3.TensorProto.DataType.FLOAT)
+                .setRawData(ByteString.copyFrom(floats.array())).build();
+        assertEquals(expected, OnnxGraphMapper.getInstance().mapTensorProto(rawFloats));
+
+        val rawLongs = OnnxProto3.TensorProto.newBuilder().setName("longs").addDims(2).addDims(3)
+                .setDataType(OnnxProto3.TensorProto.DataType.INT64)
+                .setRawData(ByteString.copyFrom(longs.array())).build();
+        assertEquals(expected, OnnxGraphMapper.getInstance().mapTensorProto(rawLongs));
+
+        val typed = OnnxProto3.TensorProto.newBuilder().setName("typed").addDims(2).addDims(3)
+                .setDataType(OnnxProto3.TensorProto.DataType.FLOAT)
+                .addFloatData(1).addFloatData(2).addFloatData(3).addFloatData(4).addFloatData(5).addFloatData(6)
+                .build();
+        assertEquals(expected, OnnxGraphMapper.getInstance().mapTensorProto(typed));
+    }
+
+    @Test
+    public void testExternalData() throws Exception {
+        File directory = testDir.newFolder();
+
+        // 8 bytes of padding, then 6 floats, then more padding
+        val bytes = ByteBuffer.allocate(8 + 6 * 4 + 8).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putLong(-1L);
+        for (int e = 1; e <= 6; e++)
+            bytes.putFloat(e);
+        bytes.putLong(-1L);
+        try (FileOutputStream fos = new FileOutputStream(new File(directory, "weights.bin"))) {
+            fos.write(bytes.array());
+        }
+
+        val tensor = externalTensor("weights.bin", 8, 6 * 4);
+        val expected = Nd4j.linspace(1, 6, 6).reshape('c', 2, 3);
+        assertEquals(expected, new OnnxGraphMapper(directory).mapTensorProto(tensor));
+    }
+
+    @Test(expected = ND4JIllegalStateException.class)
+    public void testExternalDataOutsideDirectory() throws Exception {
+        File directory = testDir.newFolder();
+        try (FileOutputStream fos = new FileOutputStream(new File(testDir.getRoot(), "secret.bin"))) {
+            fos.write(new byte[6 * 4]);
+        }
+
+        new OnnxGraphMapper(directory).mapTensorProto(externalTensor("../secret.bin", 0, 6 * 4));
+    }
+
+    @Test(expected = ND4JIllegalStateException.class)
+    public void testExternalDataWithoutDirectory() {
+        OnnxGraphMapper.getInstance().mapTensorProto(externalTensor("weights.bin", 0, 6 * 4));
+    }
+
+    private static OnnxProto3.TensorProto externalTensor(String location, long offset, long length) {
+        // external_data (13) and data_location (14) are missing in bundled schema
+        val fields = UnknownFieldSet.newBuilder()
+                .addField(13, UnknownFieldSet.Field.newBuilder()
+                        .addLengthDelimited(entry("location", location))
+                        .addLengthDelimited(entry("offset", String.valueOf(offset)))
+                        .addLengthDelimited(entry("length", String.valueOf(length)))
+                        .build())
+                .addField(14, UnknownFieldSet.Field.newBuilder().addVarint(1).build())
+                .build();
+
+        return OnnxProto3.TensorProto.newBuilder().setName("external").addDims(2).addDims(3)
+                .setDataType(OnnxProto3.TensorProto.DataType.FLOAT)
+                .setUnknownFields(fields).build();
+    }
+
+    private static ByteString entry(String key, String value) {
+        return UnknownFieldSet.newBuilder()
+                .addField(1, UnknownFieldSet.Field.newBuilder().addLengthDelimited(ByteString.copyFromUtf8(key)).build())
+                .addField(2, UnknownFieldSet.Field.newBuilder().addLengthDelimited(ByteString.copyFromUtf8(value)).build())
+                .build().toByteString();
+    }
+
     @Test
     public void test1dCnn() throws Exception {
         val loadedFile = new ClassPathResource("onnx_graphs/sm_cnn.onnx").getInputStream();
@@ -15,8 +15,14 @@ import org.nd4j.nativeblas.NativeOps;
 import org.nd4j.nativeblas.NativeOpsHolder;
 
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.channels.FileChannel;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
 
 /**
  * Created by Alex on 30/04/2016.
@@ -67,6 +73,62 @@ public class TestNDArrayCreation extends BaseNd4jTest {
         assertEquals(arrCreate.data().address(), pointer.address());
     }
 
+    @Test
+    public void testCreateNpyMapped3() throws Exception {
+        File file = new ClassPathResource("rank3.npy").getFile();
+        INDArray exp = Nd4j.createFromNpyFile(file);
+        INDArray arrCreate = Nd4j.createFromNpyFileMapped(file);
+
+        assertArrayEquals(exp.shape(), arrCreate.shape());
+        assertEquals(exp, arrCreate);
+    }
+
+    @Test
+    public void testReadBinaryMapped1() throws Exception {
+        INDArray exp = Nd4j.linspace(1, 60, 60).reshape(3, 4, 5);
+
+        File file = File.createTempFile("mapped", ".bin");
+        file.deleteOnExit();
+        Nd4j.saveBinary(exp, file);
+
+        INDArray restored = Nd4j.readBinaryMapped(file);
+        assertEquals(exp, restored);
+
+        // copy-on-write mapping: file stays intact
+        restored.addi(1.0);
+        assertEquals(exp, Nd4j.readBinary(file));
+    }
+
+    @Test
+    public void testReadBinaryMappedReadOnly1() throws Exception {
+        INDArray exp = Nd4j.linspace(1, 60, 60).reshape(3, 4, 5);
+
+        File file = File.createTempFile("mapped", ".bin");
+        file.deleteOnExit();
+        Nd4j.saveBinary(exp, file);
+        assertTrue(file.setWritable(false));
+        // permissions are not enforced for root, so the fallback can't be exercised there
+        assumeFalse(file.canWrite());
+        assertFalse(Nd4j.isMappable(file, FileChannel.MapMode.PRIVATE));
+
+        INDArray restored = Nd4j.readBinaryMapped(file);
+        assertEquals(exp, restored);
+
+        restored.addi(1.0);
+        assertEquals(exp, Nd4j.readBinary(file));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testReadBinaryMappedMissingFile1() throws Exception {
+        File file = new File(System.getProperty("java.io.tmpdir"), "missing-" + System.nanoTime() + ".bin");
+        try {
+            Nd4j.readBinaryMapped(file);
+        } finally {
+            // file must not be created as a side effect
+            assertFalse(file.exists());
+        }
+    }
+
 
     @Override
     public char ordering() {
@@ -323,6 +323,97 @@ public class IndexingTestsC extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testSpecifiedIndexPutLinearOffsets() {
+        // leading specified index with a vector element addresses linear offsets
+        INDArray arr = Nd4j.zeros(4, 3);
+        arr.put(new INDArrayIndex[] {new SpecifiedIndex(3, 1)}, Nd4j.create(new double[] {7, 8}));
+
+        INDArray exp = Nd4j.create(new double[][] {{0, 8, 0}, {7, 0, 0}, {0, 0, 0}, {0, 0, 0}});
+        assertEquals(exp, arr);
+
+        // otherwise the specified index addresses coordinates along its dimension
+        arr = Nd4j.zeros(4, 3);
+        arr.put(new INDArrayIndex[] {NDArrayIndex.all(), new SpecifiedIndex(2, 0)},
+                        Nd4j.create(new double[][] {{1, 2}, {3, 4}, {5, 6}, {7, 8}}));
+
+        exp = Nd4j.create(new double[][] {{2, 0, 1}, {4, 0, 3}, {6, 0, 5}, {8, 0, 7}});
+        assertEquals(exp, arr);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSpecifiedIndexPutLengthMismatch() {
+        INDArray arr = Nd4j.zeros(4, 3);
+
+        // 4 rows of 2 columns are addressed, but only 2 values are given
+        arr.put(new INDArrayIndex[] {NDArrayIndex.all(), new SpecifiedIndex(2, 0)}, Nd4j.create(new double[] {1, 2}));
+    }
+
+    @Test
+    public void testSpecifiedIndexGatherRuns() {
+        INDArray arr = Nd4j.linspace(1, 1200, 1200).reshape(3, 4, 100);
+        int[] rows = {2, 0};
+        INDArray get = arr.get(new SpecifiedIndex(rows), interval(1, 3), all());
+        assertArrayEquals(new long[] {2, 2, 100}, get.shape());
+
+        INDArray assertion = Nd4j.create(2, 2, 100);
+        for (int i = 0; i < rows.length; i++)
+            for (int j = 0; j < 2; j++)
+                assertion.get(point(i), point(j), all()).assign(arr.get(point(rows[i]), point(j + 1), all()));
+
+        assertEquals(assertion, get);
+
+        INDArray column = arr.get(new SpecifiedIndex(rows), point(3), new SpecifiedIndex(5, 1));
+        assertEquals(Nd4j.create(new double[][] {{1106, 1102}, {306, 302}}), column);
+    }
+
+    @Test
+    public void testSpecifiedIndexOffsetViews() {
+        // runs shorter and longer than SpecifiedIndexing.BULK_COPY_THRESHOLD
+        for (int runLength : new int[] {10, 80}) {
+            INDArray big = Nd4j.linspace(1, 1000, 1000).reshape(10, 100);
+            INDArray view = big.get(interval(5, 10), all());
+
+            INDArray get = view.get(new SpecifiedIndex(0, 2), interval(0, runLength));
+            INDArray assertion = Nd4j.create(2, runLength);
+            for (int j = 0; j < runLength; j++) {
+                assertion.putScalar(0, j, big.getDouble(5, j));
+                assertion.putScalar(1, j, big.getDouble(7, j));
+            }
+            assertEquals("Run length " + runLength, assertion, get);
+
+            INDArray values = Nd4j.linspace(1, 4 * runLength, 4 * runLength).reshape(4, runLength)
+                            .get(interval(2, 4), all());
+            view.put(new INDArrayIndex[] {new SpecifiedIndex(1, 3), interval(0, runLength)}, values);
+            for (int j = 0; j < 100; j++) {
+                assertEquals(j < runLength ? values.getDouble(0, j) : 601 + j, big.getDouble(6, j), 1e-6);
+                assertEquals(j < runLength ? values.getDouble(1, j) : 801 + j, big.getDouble(8, j), 1e-6);
+                // rows around the view are untouched
+                assertEquals(101 + j, big.getDouble(1, j), 1e-6);
+                assertEquals(701 + j, big.getDouble(7, j), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testSpecifiedIndexPut() {
+        INDArray arr = Nd4j.zeros(4, 5);
+        arr.put(new INDArrayIndex[] {new SpecifiedIndex(0, 2), all()}, Nd4j.linspace(1, 10, 10).reshape(2, 5));
+        arr.put(new INDArrayIndex[] {all(), new SpecifiedIndex(4)}, -1);
+
+        INDArray assertion = Nd4j.create(new double[][] {{1, 2, 3, 4, -1}, {0, 0, 0, 0, -1}, {6, 7, 8, 9, -1},
+                        {0, 0, 0, 0, -1}});
+        assertEquals(assertion, arr);
+    }
+
+    @Test
+    public void testGetRowsColumnsMatrix() {
+        INDArray arr = Nd4j.linspace(1, 12, 12).reshape(4, 3);
+        assertEquals(Nd4j.create(new double[][] {{10, 11, 12}, {4, 5, 6}}), arr.getRows(3, 1));
+        assertEquals(Nd4j.create(new double[][] {{3, 1}, {6, 4}, {9, 7}, {12, 10}}), arr.getColumns(2, 0));
+        assertEquals(arr.getRows(3, 1), arr.get(new SpecifiedIndex(3, 1), all()));
+    }
+
     @Override
     public char ordering() {
         return 'c';
@@ -6,16 +6,21 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
 import org.nd4j.linalg.checkutil.NDArrayCreationUtil;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.primitives.Pair;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -39,6 +44,49 @@ public class TestNdArrReadWriteTxt extends BaseNd4jTest {
         }
     }
 
+    @Test
+    public void compareAfterWriteParallelRead() throws Exception {
+        //large enough for data section to span several blocks
+        INDArray origArray = Nd4j.rand(new int[] {300, 250}, 12345).subi(0.5).muli(1e5);
+        File file = File.createTempFile("someArr", ".txt");
+        file.deleteOnExit();
+        Nd4j.writeTxt(origArray, file.getAbsolutePath());
+        INDArray readBack = Nd4j.readTxt(file.getAbsolutePath(), 4);
+        assertEquals(origArray, readBack);
+        assertEquals(Nd4j.readTxt(file.getAbsolutePath()), readBack);
+    }
+
+    @Test
+    public void compareParsedWithParseDouble() throws Exception {
+        DataBuffer.Type initialType = Nd4j.dataType();
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.DOUBLE);
+        try {
+            // full 19 digit mantissas, over a wide range of exponents
+            Random random = new Random(12345);
+            double[] values = new double[10000];
+            for (int i = 0; i < values.length; i++)
+                values[i] = random.nextGaussian() * Math.pow(10, random.nextInt(61) - 30);
+
+            File file = File.createTempFile("someArr", ".txt");
+            file.deleteOnExit();
+            Nd4j.writeTxt(Nd4j.create(values, new int[] {100, 100}, 'c'), file.getAbsolutePath());
+
+            String text = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+            String data = text.substring(text.indexOf("\"data\"") + "\"data\"".length() + 1);
+            List<Double> expected = new ArrayList<>();
+            for (String token : data.split("[\\[\\],}\\s]+"))
+                if (!token.isEmpty())
+                    expected.add(Double.parseDouble(token));
+
+            double[] read = Nd4j.readTxt(file.getAbsolutePath()).dup('c').data().asDouble();
+            assertEquals(values.length, expected.size());
+            for (int i = 0; i < read.length; i++)
+                assertEquals("Value " + i, Double.doubleToLongBits(expected.get(i)), Double.doubleToLongBits(read[i]));
+        } finally {
+            DataTypeUtil.setDTypeForContext(initialType);
+        }
+    }
+
     public static void compareArrays(int rank, char ordering) {
         List<Pair<INDArray, String>> all = NDArrayCreationUtil.getTestMatricesWithVaryingShapes(rank,ordering);
         Iterator<Pair<INDArray,String>> iter = all.iterator();
@@ -0,0 +1,55 @@
+package org.nd4j.linalg.cache;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class ConstantHandlerTests extends BaseNd4jTest {
+
+    public ConstantHandlerTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testCacheStatistics() {
+        int[] dimensions = new int[] {3, 17};
+
+        DataBuffer first = Nd4j.getConstantHandler().getConstantBuffer(dimensions);
+        CacheStatistics before = Nd4j.getConstantHandler().getCacheStatistics();
+        DataBuffer second = Nd4j.getConstantHandler().getConstantBuffer(new int[] {3, 17});
+        CacheStatistics after = Nd4j.getConstantHandler().getCacheStatistics();
+
+        assertArrayEquals(dimensions, first.asInt());
+        assertArrayEquals(dimensions, second.asInt());
+
+        // dimension arrays are always cached, so repeated request is a hit
+        assertEquals(before.getHits() + 1, after.getHits());
+        assertEquals(before.getMisses(), after.getMisses());
+        assertTrue(after.getResidentBytes() <= after.getMaxBytes());
+    }
+
+    @Test
+    public void testPurgeConstants() {
+        for (int i = 0; i < 100; i++)
+            Nd4j.getConstantHandler().getConstantBuffer(new long[] {i, i + 1, i + 2, i + 3, i + 4});
+
+        Nd4j.getConstantHandler().purgeConstants();
+
+        DataBuffer buffer = Nd4j.getConstantHandler().getConstantBuffer(new long[] {1, 2, 3, 4, 5});
+        assertArrayEquals(new long[] {1, 2, 3, 4, 5}, buffer.asLong());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
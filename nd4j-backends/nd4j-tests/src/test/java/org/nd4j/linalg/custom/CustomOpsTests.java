@@ -4,8 +4,11 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
 import org.nd4j.linalg.api.ops.CustomOp;
 import org.nd4j.linalg.api.ops.DynamicCustomOp;
+import org.nd4j.linalg.api.ops.OpContext;
 import org.nd4j.linalg.api.ops.custom.ScatterUpdate;
 import org.nd4j.linalg.api.ops.executioner.OpStatus;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
@@ -15,6 +18,7 @@ import java.util.Arrays;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * This class holds various CustomOps tests
@@ -333,6 +337,62 @@ public class CustomOpsTests {
         ScatterUpdate op = new ScatterUpdate(matrix, updates, indices, dims, ScatterUpdate.UpdateOp.ADD);
     }
 
+    @Test
+    public void testOpContext1() throws Exception {
+        val arrayX = Nd4j.create(10, 10).assign(3.0);
+        val arrayY = Nd4j.create(10, 10).assign(1.0);
+        val arrayW = Nd4j.create(10, 10).assign(2.0);
+        val arrayZ = Nd4j.create(10, 10);
+
+        CustomOp op = DynamicCustomOp.builder("add")
+                .addInputs(arrayX, arrayY)
+                .addOutputs(arrayZ)
+                .build();
+
+        try (OpContext context = Nd4j.getExecutioner().buildContext()) {
+            context.setInputArrays(arrayX, arrayY);
+            context.setOutputArrays(arrayZ);
+
+            Nd4j.getExecutioner().exec(op, context);
+            assertEquals(Nd4j.create(10, 10).assign(4.0), arrayZ);
+
+            // only second input is rebound, everything else is reused as is
+            context.setInputArray(1, arrayW);
+            Nd4j.getExecutioner().exec(op, context);
+            assertEquals(Nd4j.create(10, 10).assign(5.0), arrayZ);
+
+            // the same arrays, updated in place
+            arrayX.assign(10.0);
+            Nd4j.getExecutioner().exec(op, context);
+            assertEquals(Nd4j.create(10, 10).assign(12.0), arrayZ);
+        }
+    }
+
+    @Test
+    public void testOpContextFailedStatus() throws Exception {
+        val type = Nd4j.dataType();
+
+        // exec(CustomOp) ignores status of DOUBLE ops, context execution doesn't
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.DOUBLE);
+        try {
+            val arrayZ = Nd4j.create(10, 10);
+            CustomOp op = DynamicCustomOp.builder("add")
+                    .addOutputs(arrayZ)
+                    .build();
+
+            try (OpContext context = Nd4j.getExecutioner().buildContext()) {
+                // no inputs bound, so op rejects the call with non-OK status
+                context.setOutputArrays(arrayZ);
+                Nd4j.getExecutioner().exec(op, context);
+                fail("Non-OK status should throw");
+            } catch (ND4JIllegalStateException e) {
+                // expected
+            }
+        } finally {
+            DataTypeUtil.setDTypeForContext(type);
+        }
+    }
+
     @Test
     public void testOpStatus1() throws Exception {
         assertEquals(OpStatus.ND4J_STATUS_OK, OpStatus.byNumber(0));
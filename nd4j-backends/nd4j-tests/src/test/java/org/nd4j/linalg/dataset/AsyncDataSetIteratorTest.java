@@ -0,0 +1,87 @@
+package org.nd4j.linalg.dataset;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.AsyncDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.TestDataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class AsyncDataSetIteratorTest extends BaseNd4jTest {
+
+    public AsyncDataSetIteratorTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+
+    @Test
+    public void testSameDataAsBackingIterator() {
+        for (boolean useWorkspaces : new boolean[] {false, true}) {
+            DataSetIterator backing = new TestDataSetIterator(dataSet(), 10);
+            List<DataSet> expected = new ArrayList<>();
+            while (backing.hasNext())
+                expected.add(backing.next());
+            backing.reset();
+
+            AsyncDataSetIterator async = new AsyncDataSetIterator(backing, 2, useWorkspaces);
+            for (int epoch = 0; epoch < 3; epoch++) {
+                int cnt = 0;
+                while (async.hasNext()) {
+                    DataSet ds = async.next();
+                    assertEquals(expected.get(cnt).getFeatures(), ds.getFeatures());
+                    assertEquals(expected.get(cnt).getLabels(), ds.getLabels());
+                    cnt++;
+                }
+                assertEquals(expected.size(), cnt);
+                async.reset();
+            }
+
+            assertEquals(3 * expected.size(), async.getBatchesServed());
+            assertTrue(async.getStallCount() <= async.getBatchesServed() + 3);
+            async.shutdown();
+        }
+    }
+
+    @Test
+    public void testResetMidEpoch() {
+        AsyncDataSetIterator async = new AsyncDataSetIterator(new TestDataSetIterator(dataSet(), 10), 3);
+
+        DataSet first = async.next();
+        assertEquals(0.0, first.getFeatures().getDouble(0), 0.0);
+        async.next();
+        async.next();
+
+        async.reset();
+
+        int cnt = 0;
+        while (async.hasNext()) {
+            DataSet ds = async.next();
+            assertEquals(cnt * 10.0, ds.getFeatures().getDouble(0), 0.0);
+            cnt++;
+        }
+        assertEquals(10, cnt);
+        assertFalse(async.hasNext());
+
+        async.shutdown();
+    }
+
+    private static DataSet dataSet() {
+        INDArray features = Nd4j.linspace(0, 99, 100).reshape(100, 1);
+        INDArray labels = features.mul(2);
+        return new DataSet(features, labels);
+    }
+}
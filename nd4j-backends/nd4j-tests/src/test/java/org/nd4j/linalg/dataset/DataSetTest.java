@@ -25,6 +25,7 @@ import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.random.impl.BernoulliDistribution;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
@@ -711,6 +712,51 @@ public class DataSetTest extends BaseNd4jTest {
         assertEquals(names, ds.getLabelNames(labels));
     }
 
+    @Test
+    public void testSampleWithoutReplacement() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray features = Nd4j.linspace(1, 10, 10).reshape(10, 1);
+        DataSet ds = new DataSet(features, features.mul(2));
+
+        DataSet sample = ds.sample(10, false);
+        assertEquals(10, sample.numExamples());
+
+        Set<Double> picked = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            double value = sample.getFeatures().getDouble(i, 0);
+            assertTrue("Example " + value + " picked twice", picked.add(value));
+            // labels are gathered along with features
+            assertEquals(2 * value, sample.getLabels().getDouble(i, 0), 1e-6);
+        }
+
+        try {
+            ds.sample(11, false);
+            fail("Sampling more examples than available without replacement should fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        assertEquals(20, ds.sample(20, true).numExamples());
+    }
+
+    @Test
+    public void testSampleIndexes() {
+        int[] permutation = ArrayUtil.range(0, 20);
+        for (int i = 0; i < 5; i++) {
+            int[] indexes = DataSetUtil.sampleIndexes(permutation, 15, false, Nd4j.getRandom());
+            assertEquals(15, indexes.length);
+
+            Set<Integer> distinct = new HashSet<>();
+            for (int index : indexes)
+                assertTrue(distinct.add(index));
+
+            // permutation stays valid, so it can be reused by the next call
+            int[] sorted = permutation.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(ArrayUtil.range(0, 20), sorted);
+        }
+    }
+
     @Test
     public void testToString() {
         org.nd4j.linalg.dataset.api.DataSet ds = new DataSet();
@@ -5,11 +5,14 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastSubOp;
 import org.nd4j.linalg.dataset.api.preprocessor.ImageMultiPreProcessingScaler;
 import org.nd4j.linalg.dataset.api.preprocessor.ImagePreProcessingScaler;
+import org.nd4j.linalg.dataset.api.preprocessor.VGG16ImagePreProcessor;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.ops.transforms.Transforms;
+import org.nd4j.linalg.util.HostLoops;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -74,6 +77,58 @@ public class ImagePreProcessortTest extends BaseNd4jTest {
         assertEquals(orig, before);
     }
 
+    @Test
+    public void testUint8Pixels() {
+        byte[] pixels = new byte[3 * 4 * 4];
+        double[] values = new double[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = (byte) (i * 17);
+            values[i] = (i * 17) & 0xFF;
+        }
+
+        ImagePreProcessingScaler scaler = new ImagePreProcessingScaler(-1, 1);
+        INDArray expected = Nd4j.create(values, new int[] {1, 3, 4, 4}, 'c').divi(255).muli(2).subi(1);
+
+        INDArray features = Nd4j.create(new int[] {1, 3, 4, 4}, 'c');
+        scaler.preProcess(pixels, features);
+        assertEquals(expected, features);
+
+        VGG16ImagePreProcessor vgg = new VGG16ImagePreProcessor();
+        expected = Nd4j.create(values, new int[] {1, 3, 4, 4}, 'c');
+        Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(expected, VGG16ImagePreProcessor.VGG_MEAN_OFFSET_BGR, expected, 1));
+
+        vgg.preProcess(pixels, features);
+        assertEquals(expected, features);
+    }
+
+    @Test
+    public void testAboveChunkLength() {
+        // single scale and shift, over a few chunks and not a multiple of chunk length
+        int length = (int) (3 * HostLoops.DEFAULT_CHUNK_LENGTH + 17);
+        byte[] pixels = new byte[length];
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            pixels[i] = (byte) (i * 31);
+            values[i] = (i * 31) & 0xFF;
+        }
+
+        ImagePreProcessingScaler scaler = new ImagePreProcessingScaler(-1, 1);
+        INDArray expected = Nd4j.create(values, new int[] {1, 1, 1, length}, 'c').divi(255).muli(2).subi(1);
+
+        INDArray features = Nd4j.create(values, new int[] {1, 1, 1, length}, 'c');
+        scaler.preProcess(features);
+        assertEquals(expected, features);
+
+        features = Nd4j.create(new int[] {1, 1, 1, length}, 'c');
+        scaler.preProcess(pixels, features);
+        assertEquals(expected, features);
+
+        ImageMultiPreProcessingScaler multiScaler = new ImageMultiPreProcessingScaler(-1, 1, new int[] {0});
+        features = Nd4j.create(values, new int[] {1, 1, 1, length}, 'c');
+        multiScaler.preProcess(new MultiDataSet(new INDArray[] {features}, new INDArray[] {Nd4j.ones(1, 1)}));
+        assertEquals(expected, features);
+    }
+
     @Test
     public void simpleImageTestMulti() {
         INDArray rChannels = Nd4j.zeros(10, 10).addi(128);
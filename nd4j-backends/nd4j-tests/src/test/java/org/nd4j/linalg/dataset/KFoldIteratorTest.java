@@ -8,6 +8,7 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.iterator.KFoldIterator;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 
 import static org.junit.Assert.assertEquals;
 
@@ -87,6 +88,57 @@ public class KFoldIteratorTest extends BaseNd4jTest {
         assertEquals(i, 2);
     }
 
+    @Test
+    public void checkShuffledFolds() {
+        randomDataSet randomDS = new randomDataSet(new int[] {2, 3}, new int[] {3, 3, 3, 2});
+        DataSet allData = randomDS.getAllFolds();
+        INDArray original = allData.getFeatures().dup();
+
+        KFoldIterator kiter = new KFoldIterator(4, allData);
+        kiter.reset();
+
+        double sum = 0.0;
+        int i = 0;
+        while (kiter.hasNext()) {
+            DataSet now = kiter.next();
+            DataSet test = kiter.testFold();
+
+            assertEquals(11, now.numExamples() + test.numExamples());
+            assertEquals(original.sumNumber().doubleValue(),
+                            now.getFeatures().sumNumber().doubleValue() + test.getFeatures().sumNumber().doubleValue(),
+                            1e-3);
+            sum += test.getFeatures().sumNumber().doubleValue();
+            i++;
+        }
+        assertEquals(4, i);
+
+        // test folds cover all examples, and the source DataSet is left as it was
+        assertEquals(original.sumNumber().doubleValue(), sum, 1e-3);
+        assertEquals(original, allData.getFeatures());
+    }
+
+    @Test
+    public void checkFoldAliasing() {
+        randomDataSet randomDS = new randomDataSet(new int[] {2, 3}, new int[] {3, 3, 3, 2});
+        DataSet allData = randomDS.getAllFolds();
+        INDArray original = allData.getFeatures().dup();
+
+        // before the first reset, the test fold is a view of the source DataSet
+        KFoldIterator kiter = new KFoldIterator(4, allData);
+        kiter.next();
+        kiter.testFold().getFeatures().assign(0.0);
+        assertEquals(Nd4j.zeros(3, 2, 3), allData.getFeatures().get(NDArrayIndex.interval(0, 3)));
+
+        // shuffled folds are gathered, so modifying them leaves the source as it was
+        allData.getFeatures().assign(original);
+        kiter.reset();
+        while (kiter.hasNext()) {
+            kiter.next().getFeatures().assign(0.0);
+            kiter.testFold().getFeatures().assign(0.0);
+        }
+        assertEquals(original, allData.getFeatures());
+    }
+
     public class randomDataSet {
         //only one label
         private int[] dataShape;
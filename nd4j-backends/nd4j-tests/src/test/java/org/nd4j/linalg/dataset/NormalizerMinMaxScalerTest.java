@@ -177,6 +177,32 @@ public class NormalizerMinMaxScalerTest extends BaseNd4jTest {
         assertEquals(sampleDataSet.getFeatures().sumNumber().doubleValue(), 100 * nFeatures * nSamples, 0.00001);
     }
 
+    @Test
+    public void testParallelFit() {
+        INDArray features = Nd4j.rand(1000, 5).muli(10).subi(3);
+        INDArray labels = Nd4j.rand(1000, 2);
+        // extremes in the first, last and some middle batch
+        features.putScalar(0, 1, -50);
+        features.putScalar(999, 3, 60);
+        features.putScalar(500, 0, 40);
+        labels.putScalar(400, 1, -5);
+        DataSet dataSet = new DataSet(features, labels);
+
+        NormalizerMinMaxScaler expected = new NormalizerMinMaxScaler();
+        expected.fitLabel(true);
+        expected.fit(dataSet);
+
+        // uneven batches, split between workers arbitrarily
+        NormalizerMinMaxScaler norm = new NormalizerMinMaxScaler();
+        norm.fitLabel(true);
+        norm.fit(new TestDataSetIterator(dataSet, 37), 4);
+
+        assertEquals(expected.getMin(), norm.getMin());
+        assertEquals(expected.getMax(), norm.getMax());
+        assertEquals(expected.getLabelMin(), norm.getLabelMin());
+        assertEquals(expected.getLabelMax(), norm.getLabelMax());
+    }
+
     @Override
     public char ordering() {
         return 'c';
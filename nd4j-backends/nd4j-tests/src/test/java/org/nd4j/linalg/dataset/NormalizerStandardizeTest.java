@@ -181,6 +181,27 @@ public class NormalizerStandardizeTest extends BaseNd4jTest {
         assertEquals(1.70783f, norm4.getStd().getFloat(0), 1e-4);
     }
 
+    @Test
+    public void testParallelFit() {
+        INDArray features = Nd4j.rand(1000, 5).muli(10).addi(3);
+        INDArray labels = Nd4j.rand(1000, 2);
+        DataSet dataSet = new DataSet(features, labels);
+
+        NormalizerStandardize expected = new NormalizerStandardize();
+        expected.fitLabel(true);
+        expected.fit(dataSet);
+
+        // uneven batches, split between workers arbitrarily
+        NormalizerStandardize norm = new NormalizerStandardize();
+        norm.fitLabel(true);
+        norm.fit(new TestDataSetIterator(dataSet, 37), 4);
+
+        assertTrue(expected.getMean().equalsWithEps(norm.getMean(), 1e-4));
+        assertTrue(expected.getStd().equalsWithEps(norm.getStd(), 1e-4));
+        assertTrue(expected.getLabelMean().equalsWithEps(norm.getLabelMean(), 1e-4));
+        assertTrue(expected.getLabelStd().equalsWithEps(norm.getLabelStd(), 1e-4));
+    }
+
     @Test
     public void testUnderOverflow() {
         // This dataset will be basically constant with a small std deviation
@@ -6,6 +6,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastDivOp;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastSubOp;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.TestDataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.DataNormalization;
@@ -288,6 +291,31 @@ public class PreProcessor3D4DTest extends BaseNd4jTest {
         assertEquals(1, max, Nd4j.EPS_THRESHOLD);
     }
 
+    @Test
+    public void test3dMaskedStandardize() {
+        for (char order : new char[] {'c', 'f'}) {
+            INDArray features = Nd4j.rand(new int[] {6, 3, 8}, 12345).muli(4).subi(1).dup(order);
+            INDArray mask = Nd4j.ones(6, 8);
+            for (int i = 0; i < 6; i++)
+                for (int j = 8 - i; j < 8; j++)
+                    mask.putScalar(i, j, 0.0);
+
+            DataSet data = new DataSet(features, Nd4j.zeros(6, 1, 8), mask, null);
+            NormalizerStandardize SUT = new NormalizerStandardize();
+            SUT.fit(data);
+
+            INDArray expected = features.dup();
+            Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(expected, SUT.getMean(), expected, 1));
+            Nd4j.getExecutioner().execAndReturn(new BroadcastDivOp(expected, SUT.getStd(), expected, 1));
+            DataSetUtil.setMaskedValuesToZero(expected, mask);
+
+            SUT.preProcess(data);
+
+            // fused path multiplies by 1/std instead of dividing
+            assertTrue("Order " + order, expected.equalsWithEps(data.getFeatures(), 1e-5));
+        }
+    }
+
     public class Construct3dDataSet {
 
         /*
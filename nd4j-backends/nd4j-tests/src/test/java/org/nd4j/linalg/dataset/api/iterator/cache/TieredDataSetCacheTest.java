@@ -0,0 +1,252 @@
+package org.nd4j.linalg.dataset.api.iterator.cache;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class TieredDataSetCacheTest extends BaseNd4jTest {
+    private File cacheDir;
+
+    public TieredDataSetCacheTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = Files.createTempDirectory("nd4j-tiered-cache-test").toFile();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(cacheDir);
+    }
+
+    @Test
+    public void testReadAhead() {
+        CountingFileCache fileTier = new CountingFileCache(cacheDir);
+        for (int i = 1; i <= 3; i++)
+            fileTier.put(key(i), dataSet(i));
+
+        TieredDataSetCache cache = new TieredDataSetCache(fileTier, Long.MAX_VALUE, null, 2);
+        assertEquals(dataSet(1), cache.get(key(1)));
+        cache.awaitReadAhead();
+        assertEquals(3, fileTier.reads.get());
+
+        // both following keys are in memory already
+        assertEquals(dataSet(2), cache.get(key(2)));
+        assertEquals(dataSet(3), cache.get(key(3)));
+        cache.awaitReadAhead();
+        assertEquals(3, fileTier.reads.get());
+
+        cache.close();
+    }
+
+    @Test
+    public void testEvictionOrder() {
+        CountingFileCache fileTier = new CountingFileCache(cacheDir);
+        TieredDataSetCache cache = new TieredDataSetCache(fileTier, 2 * sizeOf(dataSet(1)), null, 0);
+
+        cache.put(key(1), dataSet(1));
+        cache.put(key(2), dataSet(2));
+        // 1 becomes most recently used, so 2 goes first
+        assertEquals(dataSet(1), cache.get(key(1)));
+        cache.put(key(3), dataSet(3));
+        cache.flush();
+
+        assertEquals(2 * sizeOf(dataSet(1)), cache.getMemoryBytes());
+        assertEquals(dataSet(1), cache.get(key(1)));
+        assertEquals(dataSet(3), cache.get(key(3)));
+        assertEquals(0, fileTier.reads.get());
+
+        assertEquals(dataSet(2), cache.get(key(2)));
+        assertEquals(1, fileTier.reads.get());
+
+        cache.close();
+    }
+
+    @Test
+    public void testCompression() {
+        DataSet dataSet = new DataSet(Nd4j.zeros(100, 10), Nd4j.linspace(1, 200, 200).reshape(100, 2));
+        TieredDataSetCache cache = new TieredDataSetCache(cacheDir, Long.MAX_VALUE, "GZIP", 0);
+
+        cache.put(key(1), dataSet);
+        assertTrue(cache.getMemoryBytes() < sizeOf(dataSet));
+
+        DataSet restored = cache.get(key(1));
+        assertEquals(dataSet, restored);
+
+        // returned copy is detached from the cache
+        restored.getFeatures().addi(1.0);
+        assertEquals(dataSet, cache.get(key(1)));
+
+        cache.close();
+    }
+
+    @Test
+    public void testPutDuringReadAhead() throws Exception {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        InFileDataSetCache fileTier = new InFileDataSetCache(cacheDir) {
+            @Override
+            public DataSet get(String key) {
+                DataSet ds = super.get(key);
+                if (key.equals(key(2))) {
+                    // older copy is read already, hold it until put() is done
+                    reading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return ds;
+            }
+        };
+        fileTier.put(key(1), dataSet(1));
+        fileTier.put(key(2), dataSet(2));
+
+        TieredDataSetCache cache = new TieredDataSetCache(fileTier, Long.MAX_VALUE, null, 1);
+        cache.get(key(1));
+        reading.await();
+
+        cache.put(key(2), dataSet(5));
+        release.countDown();
+        cache.awaitReadAhead();
+        cache.flush();
+
+        assertEquals(dataSet(5), cache.get(key(2)));
+
+        cache.close();
+    }
+
+    @Test
+    public void testPutDuringForegroundRead() throws Exception {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        InFileDataSetCache fileTier = new InFileDataSetCache(cacheDir) {
+            @Override
+            public DataSet get(String key) {
+                DataSet ds = super.get(key);
+                if (key.equals(key(2))) {
+                    reading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return ds;
+            }
+        };
+        fileTier.put(key(2), dataSet(2));
+
+        final TieredDataSetCache cache = new TieredDataSetCache(fileTier, sizeOf(dataSet(1)), null, 0);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                cache.get(key(2));
+            }
+        });
+        thread.start();
+        reading.await();
+
+        // newer copy is written and evicted while older one is being read
+        cache.put(key(2), dataSet(5));
+        cache.flush();
+        cache.put(key(3), dataSet(3));
+        cache.flush();
+
+        release.countDown();
+        thread.join();
+
+        assertEquals(dataSet(5), cache.get(key(2)));
+
+        cache.close();
+    }
+
+    @Test
+    public void testWithinWorkspace() {
+        InFileDataSetCache fileTier = new InFileDataSetCache(cacheDir);
+        fileTier.put(key(2), dataSet(2));
+
+        TieredDataSetCache cache = new TieredDataSetCache(fileTier, Long.MAX_VALUE, null, 0);
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder().initialSize(10 * 1024 * 1024)
+                        .policyLearning(LearningPolicy.NONE).build();
+
+        DataSet fromFile;
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration, "TDSC_WS")) {
+            cache.put(key(1), dataSet(1));
+            fromFile = cache.get(key(2));
+            assertFalse(fromFile.getFeatures().isAttached());
+            assertFalse(cache.get(key(1)).getFeatures().isAttached());
+        }
+
+        // workspace memory is reused, cached DataSets mustn't change
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration, "TDSC_WS")) {
+            for (int i = 0; i < 4; i++)
+                Nd4j.valueArrayOf(10, 10, 100 + i);
+        }
+
+        assertEquals(dataSet(1), cache.get(key(1)));
+        assertEquals(dataSet(2), cache.get(key(2)));
+        assertEquals(dataSet(2), fromFile);
+
+        Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+        cache.close();
+    }
+
+    private static String key(int i) {
+        return String.format("data-set-cache-ns-%06d.bin", i);
+    }
+
+    private static DataSet dataSet(int i) {
+        return new DataSet(Nd4j.valueArrayOf(10, 10, i), Nd4j.valueArrayOf(10, 2, -i));
+    }
+
+    private static long sizeOf(DataSet dataSet) {
+        return (dataSet.getFeatures().lengthLong() + dataSet.getLabels().lengthLong())
+                        * dataSet.getFeatures().data().getElementSize();
+    }
+
+    private static class CountingFileCache extends InFileDataSetCache {
+        private final AtomicInteger reads = new AtomicInteger();
+
+        private CountingFileCache(File cacheDirectory) {
+            super(cacheDirectory);
+        }
+
+        /**
+         * Counts DataSets actually read, read-ahead past the last key isn't one
+         */
+        @Override
+        public DataSet get(String key) {
+            DataSet ds = super.get(key);
+            if (ds != null)
+                reads.incrementAndGet();
+            return ds;
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
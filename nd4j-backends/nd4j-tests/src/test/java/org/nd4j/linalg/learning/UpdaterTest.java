@@ -22,6 +22,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.distribution.Distribution;
 import org.nd4j.linalg.factory.Nd4j;
@@ -30,6 +32,7 @@ import org.nd4j.linalg.learning.config.*;
 import org.nd4j.linalg.learning.config.AdaGrad;
 import org.nd4j.linalg.learning.legacy.*;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(Parameterized.class)
@@ -174,6 +177,50 @@ public class UpdaterTest extends BaseNd4jTest {
         }
     }
 
+    @Test
+    public void testFusedKernels() {
+        // long enough to be split into chunks
+        int length = 150000;
+        IUpdater[] configs = new IUpdater[] {new Adam(), new Nadam(), new AMSGrad(), new RmsProp(), new AdaDelta()};
+
+        DataBuffer.Type initialType = Nd4j.dataType();
+        boolean wasEnabled = FusedUpdaterKernel.isEnabled();
+        try {
+            for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.FLOAT, DataBuffer.Type.DOUBLE}) {
+                DataTypeUtil.setDTypeForContext(type);
+
+                for (IUpdater config : configs) {
+                    INDArray fusedState = Nd4j.create(1, (int) config.stateSize(length));
+                    INDArray state = Nd4j.create(1, (int) config.stateSize(length));
+                    GradientUpdater fused = config.instantiate(fusedState, true);
+                    GradientUpdater updater = config.instantiate(state, true);
+
+                    for (int i = 0; i < 3; i++) {
+                        INDArray gradient = Nd4j.rand(1, length).subi(0.5);
+                        INDArray fusedGradient = gradient.dup();
+
+                        FusedUpdaterKernel.setEnabled(true);
+                        fused.applyUpdater(fusedGradient, i, 0);
+
+                        FusedUpdaterKernel.setEnabled(false);
+                        updater.applyUpdater(gradient, i, 0);
+
+                        String msg = config.getClass().getSimpleName() + ", " + type + ", iteration " + i;
+                        assertBitwiseEquals(msg, gradient, fusedGradient);
+                        assertBitwiseEquals(msg, state, fusedState);
+                    }
+                }
+            }
+        } finally {
+            FusedUpdaterKernel.setEnabled(wasEnabled);
+            DataTypeUtil.setDTypeForContext(initialType);
+        }
+    }
+
+    private static void assertBitwiseEquals(String message, INDArray expected, INDArray actual) {
+        assertArrayEquals(message, expected.data().asDouble(), actual.data().asDouble(), 0.0);
+    }
+
     @Override
     public char ordering() {
         return 'f';
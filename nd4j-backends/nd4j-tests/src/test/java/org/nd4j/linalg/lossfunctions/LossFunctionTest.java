@@ -3,22 +3,30 @@ package org.nd4j.linalg.lossfunctions;
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.activations.impl.ActivationIdentity;
 import org.nd4j.linalg.activations.impl.ActivationSigmoid;
+import org.nd4j.linalg.activations.impl.ActivationSoftmax;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.accum.MatchCondition;
 import org.nd4j.linalg.api.ops.random.impl.BernoulliDistribution;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.indexing.conditions.Conditions;
 import org.nd4j.linalg.lossfunctions.impl.*;
+import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.shade.jackson.databind.DeserializationFeature;
 import org.nd4j.shade.jackson.databind.MapperFeature;
 import org.nd4j.shade.jackson.databind.ObjectMapper;
 import org.nd4j.shade.jackson.databind.SerializationFeature;
 
+import java.util.Arrays;
+
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * Created by Alex on 09/09/2016.
@@ -58,6 +66,114 @@ public class LossFunctionTest extends BaseNd4jTest {
         assertEquals(0, match2);
     }
 
+    @Test
+    public void testFusedScoreAndGradient() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray weights = Nd4j.create(new double[] {0.5, 1.0, 1.5, 2.0, 3.0});
+
+        ILossFunction[] losses = new ILossFunction[] {new LossMCXENT(), new LossMCXENT(weights),
+                        new LossBinaryXENT(), new LossBinaryXENT(weights), new LossL2(), new LossMSE(weights),
+                        new LossL1(), new LossMAE(weights)};
+        IActivation[] activations = new IActivation[] {new ActivationSoftmax(), new ActivationSoftmax(),
+                        new ActivationSigmoid(), new ActivationSigmoid(), new ActivationIdentity(),
+                        new ActivationIdentity(), new ActivationIdentity(), new ActivationIdentity()};
+
+        INDArray[] masks = new INDArray[] {null, Nd4j.create(new double[] {1, 0, 1, 1}, new int[] {4, 1}),
+                        Nd4j.getExecutioner().exec(new BernoulliDistribution(Nd4j.create(4, 5), 0.5))};
+
+        for (int i = 0; i < losses.length; i++) {
+            INDArray labels = activations[i] instanceof ActivationSoftmax
+                            ? Nd4j.zeros(4, 5).putScalar(0, 1, 1.0).putScalar(1, 3, 1.0).putScalar(2, 0, 1.0)
+                                            .putScalar(3, 4, 1.0)
+                            : Nd4j.rand(4, 5);
+            INDArray preOut = Nd4j.randn(4, 5);
+
+            for (INDArray mask : masks) {
+                // per output masking isn't supported for softmax
+                if (mask != null && mask.size(1) > 1 && activations[i] instanceof ActivationSoftmax)
+                    continue;
+
+                for (boolean average : new boolean[] {false, true}) {
+                    double expScore = losses[i].computeScore(labels, preOut.dup(), activations[i], mask, average);
+                    INDArray expGrad = losses[i].computeGradient(labels, preOut.dup(), activations[i], mask);
+
+                    Pair<Double, INDArray> p = losses[i].computeGradientAndScore(labels, preOut.dup(),
+                                    activations[i], mask, average);
+
+                    String msg = losses[i] + ", mask " + (mask == null ? null : mask.shapeInfoToString());
+                    assertScoreAndGradient(msg, expScore, expGrad, p);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFusedScoreAndGradientViews() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray weights = Nd4j.create(new double[] {0.5, 1.0, 1.5, 2.0, 3.0});
+
+        ILossFunction[] losses = new ILossFunction[] {new LossBinaryXENT(weights), new LossMSE(weights),
+                        new LossL1()};
+        IActivation[] activations = new IActivation[] {new ActivationSigmoid(), new ActivationIdentity(),
+                        new ActivationIdentity()};
+
+        // 'f' ordered views with row and column offsets are read in place by their strides
+        INDArray labels = Nd4j.rand('f', 6, 8).get(NDArrayIndex.interval(1, 5), NDArrayIndex.interval(2, 7));
+        INDArray preOut = Nd4j.randn('f', 6, 8).get(NDArrayIndex.interval(1, 5), NDArrayIndex.interval(2, 7));
+        INDArray mask = Nd4j.getExecutioner().exec(new BernoulliDistribution(Nd4j.create(new int[] {4, 5}, 'f'), 0.5));
+
+        for (int i = 0; i < losses.length; i++) {
+            assertTrue(FusedLoss.canExec(labels, preOut, null, mask));
+
+            double expScore = losses[i].computeScore(labels.dup('c'), preOut.dup('c'), activations[i], mask, true);
+            INDArray expGrad = losses[i].computeGradient(labels.dup('c'), preOut.dup('c'), activations[i], mask);
+
+            Pair<Double, INDArray> p = losses[i].computeGradientAndScore(labels, preOut, activations[i], mask, true);
+            assertScoreAndGradient(losses[i].toString(), expScore, expGrad, p);
+        }
+    }
+
+    @Test
+    public void testFusedScoreAndGradientFallback() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray labels = Nd4j.rand(4, 5);
+        INDArray preOut = Nd4j.randn(4, 5);
+
+        // scalar mask is applied by broadcast, it isn't a per example mask of this minibatch
+        INDArray scalarMask = Nd4j.scalar(0.5);
+        assertFalse(FusedLoss.canExec(labels, preOut, null, scalarMask));
+
+        ILossFunction loss = new LossMSE();
+        double expScore = loss.computeScore(labels, preOut.dup(), new ActivationIdentity(), scalarMask, true);
+        INDArray expGrad = loss.computeGradient(labels, preOut.dup(), new ActivationIdentity(), scalarMask);
+        Pair<Double, INDArray> p = loss.computeGradientAndScore(labels, preOut.dup(), new ActivationIdentity(),
+                        scalarMask, true);
+        assertScoreAndGradient("scalar mask", expScore, expGrad, p);
+
+        // mask of wrong shape is rejected by the fallback the same way it was before
+        INDArray wrongMask = Nd4j.ones(4, 2);
+        assertFalse(FusedLoss.canExec(labels, preOut, null, wrongMask));
+        try {
+            loss.computeGradientAndScore(labels, preOut.dup(), new ActivationIdentity(), wrongMask, true);
+            fail("Mask of shape " + Arrays.toString(wrongMask.shape()) + " should be rejected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // weights not matching number of outputs
+        assertFalse(FusedLoss.canExec(labels, preOut, Nd4j.ones(1, 3), null));
+    }
+
+    private static void assertScoreAndGradient(String msg, double expScore, INDArray expGrad,
+                    Pair<Double, INDArray> actual) {
+        assertEquals(msg, expScore, actual.getFirst(), 1e-5 * Math.abs(expScore) + 1e-6);
+        assertArrayEquals(msg, expGrad.shape(), actual.getSecond().shape());
+
+        double[] exp = expGrad.dup('c').data().asDouble();
+        double[] act = actual.getSecond().dup('c').data().asDouble();
+        for (int j = 0; j < exp.length; j++)
+            assertEquals(msg + ", gradient element " + j, exp[j], act[j], 1e-5 * Math.abs(exp[j]) + 1e-6);
+    }
 
     @Override
     public char ordering() {
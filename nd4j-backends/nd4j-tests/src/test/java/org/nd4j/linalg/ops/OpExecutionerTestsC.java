@@ -33,6 +33,8 @@ import org.nd4j.linalg.api.iter.NdIndexIterator;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.IndexAccumulation;
 import org.nd4j.linalg.api.ops.exception.IllegalOpException;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.executioner.ElementwiseFusion;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.impl.accum.*;
 import org.nd4j.linalg.api.ops.impl.accum.distances.EuclideanDistance;
@@ -42,11 +44,13 @@ import org.nd4j.linalg.api.ops.impl.indexaccum.IMax;
 import org.nd4j.linalg.api.ops.impl.indexaccum.IMin;
 import org.nd4j.linalg.api.ops.impl.scalar.ScalarAdd;
 import org.nd4j.linalg.api.ops.impl.scalar.ScalarMax;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarMultiplication;
 import org.nd4j.linalg.api.ops.impl.scalar.ScalarReverseSubtraction;
 import org.nd4j.linalg.api.ops.impl.scalar.comparison.ScalarGreaterThan;
 import org.nd4j.linalg.api.ops.impl.scalar.comparison.ScalarLessThan;
 import org.nd4j.linalg.api.ops.impl.transforms.*;
 import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.AddOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.OldAddOp;
 import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.OldMulOp;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.Nd4j;
@@ -62,6 +66,7 @@ import java.util.List;
 
 import static org.junit.Assert.*;
 import static org.nd4j.linalg.indexing.NDArrayIndex.all;
+import static org.nd4j.linalg.indexing.NDArrayIndex.interval;
 import static org.nd4j.linalg.indexing.NDArrayIndex.point;
 
 /**
@@ -225,6 +230,48 @@ public class OpExecutionerTestsC extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testFusedChain() {
+        INDArray x = Nd4j.linspace(1, 100000, 100000).reshape(100, 1000).divi(100000);
+        INDArray b = Nd4j.rand(100, 1000);
+
+        INDArray expected = x.dup();
+        Nd4j.getExecutioner().exec(new ScalarMultiplication(expected, 3.0));
+        Nd4j.getExecutioner().exec(new OldAddOp(expected, b, expected));
+        Nd4j.getExecutioner().exec(new Sigmoid(expected));
+
+        INDArray z = x.dup();
+        List<Op> ops = new ArrayList<>();
+        ops.add(new ScalarMultiplication(z, 3.0));
+        ops.add(new OldAddOp(z, b, z));
+        ops.add(new Sigmoid(z));
+        assertTrue(ElementwiseFusion.canFuse(ops));
+
+        Nd4j.getExecutioner().execFused(ops);
+        assertEquals(expected, z);
+    }
+
+    @Test
+    public void testFusedChainWithViews() {
+        INDArray x = Nd4j.rand(200, 1000);
+        INDArray view = x.get(interval(0, 100), all());
+
+        INDArray expected = x.dup();
+        INDArray expectedView = expected.get(interval(0, 100), all());
+        Nd4j.getExecutioner().exec(new ScalarMultiplication(expected, 2.0));
+        Nd4j.getExecutioner().exec(new Sigmoid(expectedView));
+        Nd4j.getExecutioner().exec(new ScalarAdd(expected, 1.0));
+
+        List<Op> ops = new ArrayList<>();
+        ops.add(new ScalarMultiplication(x, 2.0));
+        ops.add(new Sigmoid(view));
+        ops.add(new ScalarAdd(x, 1.0));
+        assertEquals(3, ElementwiseFusion.split(ops).size());
+
+        Nd4j.getExecutioner().execFused(ops);
+        assertEquals(expected, x);
+    }
+
     @Test
     public void testExecutioner() throws IllegalOpException {
         OpExecutioner opExecutioner = Nd4j.getExecutioner();
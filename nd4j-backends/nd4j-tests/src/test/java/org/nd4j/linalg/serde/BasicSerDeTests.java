@@ -12,6 +12,8 @@ import org.nd4j.linalg.factory.Nd4jBackend;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.nio.channels.Channels;
 
 import static junit.framework.TestCase.assertEquals;
 
@@ -53,6 +55,47 @@ public class BasicSerDeTests extends BaseNd4jTest {
         Nd4j.setDataType(initialType);
     }
 
+    @Test
+    public void testChannelRoundTrip1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 120, 120).reshape(2, 3, 20);
+        INDArray view = array.tensorAlongDimension(1, 0, 2);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Nd4j.write(array, Channels.newChannel(bos));
+        Nd4j.write(view, Channels.newChannel(bos));
+
+        ByteArrayInputStream bis = new ByteArrayInputStream(bos.toByteArray());
+        INDArray restored = Nd4j.read(Channels.newChannel(bis));
+        INDArray restoredView = Nd4j.read(Channels.newChannel(bis));
+
+        assertEquals(array, restored);
+        assertEquals(view, restoredView);
+    }
+
+    @Test
+    public void testChannelFormatReadableFromStream1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 60, 60).reshape(6, 10);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Nd4j.write(array, Channels.newChannel(bos));
+
+        INDArray restored = Nd4j.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+
+        assertEquals(array, restored);
+    }
+
+    @Test
+    public void testStreamFormatReadableFromChannel1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 60, 60).reshape(6, 10);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Nd4j.write(bos, array);
+
+        INDArray restored = Nd4j.read(Channels.newChannel(new ByteArrayInputStream(bos.toByteArray())));
+
+        assertEquals(array, restored);
+    }
+
     @Override
     public char ordering() {
         return 'f';
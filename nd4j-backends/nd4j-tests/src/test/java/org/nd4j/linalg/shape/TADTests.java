@@ -9,6 +9,7 @@ import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.cache.CacheStatistics;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
@@ -16,6 +17,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author raver119@gmail.com
@@ -28,6 +30,23 @@ public class TADTests extends BaseNd4jTest {
         super(backend);
     }
 
+    @Test
+    public void testCacheStatistics() {
+        INDArray arr = Nd4j.create(7, 11, 13);
+
+        Pair<DataBuffer, DataBuffer> first = Nd4j.getExecutioner().getTADManager().getTADOnlyShapeInfo(arr, 0, 2);
+        CacheStatistics before = Nd4j.getExecutioner().getTADManager().getCacheStatistics();
+        Pair<DataBuffer, DataBuffer> second = Nd4j.getExecutioner().getTADManager().getTADOnlyShapeInfo(arr, 0, 2);
+        CacheStatistics after = Nd4j.getExecutioner().getTADManager().getCacheStatistics();
+
+        // repeated request is served from cache
+        assertEquals(first.getSecond().length(), second.getSecond().length());
+        assertEquals(before.getHits() + 1, after.getHits());
+        assertEquals(before.getMisses(), after.getMisses());
+        assertTrue(after.getResidentBytes() <= after.getMaxBytes());
+        assertTrue(after.getHitRate() >= 0.0 && after.getHitRate() <= 1.0);
+    }
+
     @Test
     public void testStall() {
         //[4, 3, 3, 4, 5, 60, 20, 5, 1, 0, 1, 99], dimensions: [1, 2, 3]
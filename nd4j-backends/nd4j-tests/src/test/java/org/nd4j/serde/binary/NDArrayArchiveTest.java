@@ -0,0 +1,91 @@
+package org.nd4j.serde.binary;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+@RunWith(Parameterized.class)
+public class NDArrayArchiveTest extends BaseNd4jTest {
+
+    public NDArrayArchiveTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testWriteReadByName() throws Exception {
+        INDArray weights = Nd4j.linspace(1, 120, 120).reshape(10, 12);
+        INDArray bias = Nd4j.create(new double[] {1, 2, 3});
+        INDArray view = weights.getColumn(3);
+
+        File file = File.createTempFile("archive", ".bin");
+        file.deleteOnExit();
+
+        try (NDArrayArchiveWriter writer = new NDArrayArchiveWriter(file)) {
+            writer.write("weights", weights);
+            writer.write("bias", bias);
+            writer.write("view", view);
+        }
+
+        try (NDArrayArchiveReader reader = new NDArrayArchiveReader(file)) {
+            assertEquals(Arrays.asList("weights", "bias", "view"), Arrays.asList(reader.names().toArray()));
+            assertTrue(reader.contains("bias"));
+            assertFalse(reader.contains("gamma"));
+
+            assertEquals(view, reader.get("view"));
+            assertEquals(bias, reader.get("bias"));
+
+            INDArray restored = reader.get("weights");
+            assertEquals(weights, restored);
+
+            // copy-on-write mapping: archive stays intact
+            restored.addi(1.0);
+            assertEquals(weights, reader.get("weights"));
+        }
+    }
+
+    @Test
+    public void testReadOnlyArchive() throws Exception {
+        INDArray weights = Nd4j.linspace(1, 120, 120).reshape(10, 12);
+
+        File file = File.createTempFile("archive", ".bin");
+        file.deleteOnExit();
+
+        try (NDArrayArchiveWriter writer = new NDArrayArchiveWriter(file)) {
+            writer.write("weights", weights);
+        }
+        assertTrue(file.setWritable(false));
+        // permissions are not enforced for root, so the read-only path can't be exercised there
+        assumeFalse(file.canWrite());
+
+        try (NDArrayArchiveReader reader = new NDArrayArchiveReader(file)) {
+            INDArray restored = reader.get("weights");
+            assertEquals(weights, restored);
+
+            restored.addi(1.0);
+            assertEquals(weights, reader.get("weights"));
+        }
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testMissingArchive() throws Exception {
+        new NDArrayArchiveReader(new File(System.getProperty("java.io.tmpdir"), "missing-" + System.nanoTime()));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -34,10 +34,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -77,6 +81,11 @@ public abstract class BaseDataBuffer implements DataBuffer {
         }
     }
 
+    /**
+     * Size of the chunks (in bytes) used when moving buffer content through channels
+     */
+    protected static final int IO_CHUNK_BYTES = 1 << 20;
+
     protected Type type;
     protected long length;
     protected long underlyingLength;
@@ -1389,6 +1398,20 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     @Override
     public void read(DataInputStream s) {
+        read(s, Channels.newChannel(s));
+    }
+
+    @Override
+    public void read(ReadableByteChannel channel) throws IOException {
+        // header is parsed through an unbuffered stream, so nothing beyond it is consumed from the channel
+        read(new DataInputStream(Channels.newInputStream(channel)), channel);
+    }
+
+    /**
+     * Reads the header from the given stream, and the content from the given channel.
+     * Both have to be backed by the same source.
+     */
+    protected void read(DataInputStream s, ReadableByteChannel content) {
         try {
             //referencing = Collections.synchronizedSet(new HashSet<String>());
             allocationMode = AllocationMode.valueOf(s.readUTF());
@@ -1420,15 +1443,21 @@ public abstract class BaseDataBuffer implements DataBuffer {
                 pointerIndexerByGlobalType(currentType);
 
                 if (currentType != Type.COMPRESSED)
-                    readContent(s, currentType, DataTypeUtil.getDtypeFromContext());
+                    readContent(content, currentType, DataTypeUtil.getDtypeFromContext(), ByteOrder.BIG_ENDIAN);
 
                 // we should switch types here
 
                 //wrappedBuffer = pointer().asByteBuffer();
 
-            } else if (allocationMode.equals(AllocationMode.LONG_SHAPE)) {
+            } else if (allocationMode == AllocationMode.LONG_SHAPE || allocationMode == AllocationMode.LONG_SHAPE_RAW) {
                 length = s.readLong();
                 Type currentType = Type.valueOf(s.readUTF());
+                ByteOrder order = ByteOrder.BIG_ENDIAN;
+                if (allocationMode == AllocationMode.LONG_SHAPE_RAW) {
+                    order = s.readByte() == 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+                    // LONG_SHAPE_RAW describes serialized form only
+                    allocationMode = AllocationMode.LONG_SHAPE;
+                }
                 if (currentType != Type.COMPRESSED)
                     type = DataTypeUtil.getDtypeFromContext();
                 else
@@ -1452,7 +1481,7 @@ public abstract class BaseDataBuffer implements DataBuffer {
                 pointerIndexerByGlobalType(currentType);
 
                 if (currentType != Type.COMPRESSED)
-                    readContent(s, currentType, DataTypeUtil.getDtypeFromContext());
+                    readContent(content, currentType, DataTypeUtil.getDtypeFromContext(), order);
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -1461,15 +1490,7 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     protected void readContent(DataInputStream s, Type currentType, Type globalType) {
         try {
-            if (currentType == Type.DOUBLE) {
-                for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, s.readDouble(), globalType);
-                }
-            } else if (currentType == Type.FLOAT) {
-                for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, s.readFloat(), globalType);
-                }
-            } else if (currentType == Type.COMPRESSED) {
+            if (currentType == Type.COMPRESSED) {
                 String compressionAlgorithm = s.readUTF();
                 long compressedLength = s.readLong();
                 long originalLength = s.readLong();
@@ -1477,30 +1498,171 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
                 // special case here. We should collect bytes, wrap them into pointer, and then decompress
                 byte[] temp = new byte[(int) compressedLength];
-                for (int i = 0; i < compressedLength; i++) {
-                    temp[i] = s.readByte();
-                }
+                s.readFully(temp);
                 pointer = new BytePointer(temp);
                 type = Type.COMPRESSED;
 
-            } else if (currentType == Type.HALF) {
-                for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, toFloat(s.readShort()), globalType);
-                }
-            } else if (currentType == Type.LONG) {
-                for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, s.readLong(), globalType);
-                }
             } else {
-                for (int i = 0; i < length(); i++) {
-                    putByGlobalType(i, s.readInt(), globalType);
-                }
+                readContent(Channels.newChannel(s), currentType, globalType, ByteOrder.BIG_ENDIAN);
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Reads length() elements of the given type from the channel.
+     * If the serialized type matches this buffer's type, content is transferred
+     * in bulk straight into this buffer's memory (swapping bytes in bulk if required),
+     * otherwise elements are converted one by one.
+     *
+     * @param channel the channel to read from
+     * @param currentType the type of the serialized elements
+     * @param globalType the global data type
+     * @param order the byte order of the serialized elements
+     */
+    protected void readContent(ReadableByteChannel channel, Type currentType, Type globalType, ByteOrder order)
+                    throws IOException {
+        int srcSize = sizeOfType(currentType);
+        int chunkElements = chunkElements(srcSize);
+        boolean sameLayout = currentType == dataType() && currentType != Type.HALF;
+
+        ByteBuffer staging = null;
+        if (!sameLayout || order != ByteOrder.nativeOrder())
+            staging = ByteBuffer.allocateDirect(chunkElements * srcSize).order(order);
+
+        for (long i = 0; i < length(); i += chunkElements) {
+            int n = (int) Math.min(chunkElements, length() - i);
+
+            if (sameLayout && staging == null) {
+                readFully(channel, contentBuffer(i, n));
+                continue;
+            }
+
+            staging.clear();
+            staging.limit(n * srcSize);
+            readFully(channel, staging);
+            staging.flip();
+
+            if (sameLayout) {
+                copyElements(staging, contentBuffer(i, n), srcSize);
+                continue;
+            }
+
+            for (int j = 0; j < n; j++) {
+                long idx = i + j;
+                if (currentType == Type.DOUBLE) {
+                    putByGlobalType(idx, staging.getDouble(j * srcSize), globalType);
+                } else if (currentType == Type.FLOAT) {
+                    putByGlobalType(idx, staging.getFloat(j * srcSize), globalType);
+                } else if (currentType == Type.HALF) {
+                    putByGlobalType(idx, toFloat(staging.getShort(j * srcSize)), globalType);
+                } else if (currentType == Type.LONG) {
+                    putByGlobalType(idx, staging.getLong(j * srcSize), globalType);
+                } else {
+                    putByGlobalType(idx, staging.getInt(j * srcSize), globalType);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes content of this buffer to the given channel, in the given byte order.
+     * Native byte order content goes straight from this buffer's memory to the channel.
+     *
+     * @param channel the channel to write to
+     * @param order the byte order to use for serialized elements
+     */
+    protected void writeContent(WritableByteChannel channel, ByteOrder order) throws IOException {
+        int elementSize = getElementSize();
+        int chunkElements = chunkElements(elementSize);
+
+        ByteBuffer staging = null;
+        if (order != ByteOrder.nativeOrder())
+            staging = ByteBuffer.allocateDirect(chunkElements * elementSize).order(order);
+
+        for (long i = 0; i < length(); i += chunkElements) {
+            int n = (int) Math.min(chunkElements, length() - i);
+            ByteBuffer src = contentBuffer(i, n);
+            if (staging != null) {
+                staging.clear();
+                copyElements(src, staging, elementSize);
+                src = staging;
+            }
+            writeFully(channel, src);
+        }
+    }
+
+    /**
+     * Number of elements transferred at once: up to {@link #IO_CHUNK_BYTES}, but no more than this buffer holds,
+     * so staging buffers of small arrays stay small
+     */
+    protected int chunkElements(int elementSize) {
+        return (int) Math.max(1, Math.min(IO_CHUNK_BYTES / elementSize, length()));
+    }
+
+    /**
+     * Returns native-ordered ByteBuffer, covering the given range of this buffer's elements
+     *
+     * @param elementOffset first element of the range, relative to this buffer
+     * @param numElements number of elements in the range
+     */
+    protected ByteBuffer contentBuffer(long elementOffset, int numElements) {
+        final long contentAddress = pointer().address() + getElementSize() * (offset() + elementOffset);
+        long bytes = (long) numElements * getElementSize();
+        BytePointer bytePointer = new BytePointer() {
+            {
+                address = contentAddress;
+            }
+        };
+        bytePointer.capacity(bytes);
+        bytePointer.limit(bytes);
+        return bytePointer.asByteBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Copies remaining elements of src into dst starting at position 0, honoring byte order of both buffers.
+     * After this call dst is ready to be read.
+     */
+    protected static void copyElements(ByteBuffer src, ByteBuffer dst, int elementSize) {
+        int bytes = src.remaining();
+        if (elementSize == 8)
+            dst.asLongBuffer().put(src.asLongBuffer());
+        else if (elementSize == 4)
+            dst.asIntBuffer().put(src.asIntBuffer());
+        else if (elementSize == 2)
+            dst.asShortBuffer().put(src.asShortBuffer());
+        else
+            dst.duplicate().put(src.duplicate());
+
+        dst.position(0);
+        dst.limit(bytes);
+    }
+
+    protected static int sizeOfType(Type type) {
+        switch (type) {
+            case DOUBLE:
+            case LONG:
+                return 8;
+            case HALF:
+                return 2;
+            default:
+                return 4;
+        }
+    }
+
+    protected static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Unexpected end of stream while reading DataBuffer");
+        }
+    }
+
+    protected static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
     @Override
     public void write(DataOutputStream out) throws IOException {
         if (length() >= Integer.MAX_VALUE)
@@ -1509,24 +1671,22 @@ public abstract class BaseDataBuffer implements DataBuffer {
         out.writeUTF(allocationMode.name());
         out.writeLong(length());
         out.writeUTF(dataType().name());
-        if (dataType() == Type.DOUBLE) {
-            for (int i = 0; i < length(); i++)
-                out.writeDouble(getDouble(i));
-        } else if (dataType() == Type.LONG) {
-            for (int i = 0; i < length(); i++)
-                out.writeLong(getLong(i));
-        } else if (dataType() == Type.INT) {
-            for (int i = 0; i < length(); i++)
-                out.writeInt(getInt(i));
-        } else if (dataType() == Type.HALF) {
-            for (int i = 0; i < length(); i++) {
-                out.writeShort(getShort(i));
-            }
-        } else {
-            for (int i = 0; i < length(); i++) {
-                out.writeFloat(getFloat(i));
-            }
-        }
+        // stream format keeps big endian content, same as DataOutputStream.writeX() would produce
+        writeContent(Channels.newChannel(out), ByteOrder.BIG_ENDIAN);
+    }
+
+    @Override
+    public void write(WritableByteChannel channel) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(bos);
+        header.writeUTF(AllocationMode.LONG_SHAPE_RAW.name());
+        header.writeLong(length());
+        header.writeUTF(dataType().name());
+        header.writeByte(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 0 : 1);
+        header.flush();
+
+        writeFully(channel, ByteBuffer.wrap(bos.toByteArray()));
+        writeContent(channel, ByteOrder.nativeOrder());
     }
 
     public float toFloat(int hbits) {
@@ -28,6 +28,8 @@ import org.nd4j.linalg.api.memory.MemoryWorkspace;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collection;
 
 /**
@@ -62,6 +64,7 @@ public interface DataBuffer extends Serializable {
     enum AllocationMode {
         DIRECT, HEAP, JAVACPP,
         LONG_SHAPE, // long shapes will be used instead of int
+        LONG_SHAPE_RAW, // long shapes, content stored as raw bytes in the byte order recorded in the header
     }
 
     /**
@@ -103,6 +106,27 @@ public interface DataBuffer extends Serializable {
 
     void write(DataOutputStream out) throws IOException;
 
+    /**
+     * Write this buffer to the given channel.
+     * Content is moved in bulk, in native byte order,
+     * without any per-element conversion.
+     * The result is readable by both {@link #read(ReadableByteChannel)} and {@link #read(DataInputStream)}
+     *
+     * @param channel the channel to write to
+     * @throws IOException
+     */
+    void write(WritableByteChannel channel) throws IOException;
+
+    /**
+     * Read this buffer from the given channel.
+     * Accepts both the stream format written by {@link #write(DataOutputStream)}
+     * and the bulk format written by {@link #write(WritableByteChannel)}
+     *
+     * @param channel the channel to read from
+     * @throws IOException
+     */
+    void read(ReadableByteChannel channel) throws IOException;
+
     /**
      * Returns the backing array
      * of this buffer (if there is one)